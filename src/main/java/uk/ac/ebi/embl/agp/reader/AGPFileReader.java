@@ -30,13 +30,23 @@ import uk.ac.ebi.embl.flatfile.validation.FlatFileValidations;
 public class AGPFileReader extends FlatFileEntryReader {
 
   public AGPFileReader(LineReader lineReader) {
+    this(lineReader, null);
+  }
+
+  /**
+   * Reads the rows of each object into the parsed file instead of an entry. The object name is
+   * returned by {@link #getObjectName()}.
+   */
+  AGPFileReader(LineReader lineReader, ParsedAGPFile agpFile) {
     super(lineReader);
+    this.agpFile = agpFile;
     ValidationMessageManager.addBundle(FlatFileValidations.AGP_FLAT_FILE_BUNDLE);
   }
 
+  private final ParsedAGPFile agpFile;
   private boolean isEntry;
   private Entry entry;
-  private static final String SCREGEX = "\\s+";
+  private String objectName;
   protected int currentEntryLine = 1;
   private static final int NUMBER_OF_COLUMNS = 9;
   private static final int NO_LINKAGE_GAP_NUMBER_OF_COLUMNS = 8;
@@ -59,7 +69,9 @@ public class AGPFileReader extends FlatFileEntryReader {
 
   @Override
   protected void afterReadLines(ValidationResult validationResult) {
-    SubmitterAccessionFix.fix(getEntry());
+    if (agpFile == null) {
+      SubmitterAccessionFix.fix(getEntry());
+    }
   }
 
   @Override
@@ -74,16 +86,19 @@ public class AGPFileReader extends FlatFileEntryReader {
       continue;
     }
     currentEntryLine = nextEntryLine;
-    entry = (new EntryFactory()).createEntry();
-    entry.setSequence((new SequenceFactory()).createSequence());
-    entry.getSequence().setTopology(Topology.LINEAR);
+    objectName = null;
+    if (agpFile == null) {
+      entry = (new EntryFactory()).createEntry();
+      entry.setSequence((new SequenceFactory()).createSequence());
+      entry.getSequence().setTopology(Topology.LINEAR);
+    }
     String line = null;
     while (true) {
       isEntry = true;
       AgpRow agpRow = new AgpRow();
       line = lineReader.getCurrentRawLine();
 
-      String[] fields = line.split(SCREGEX);
+      String[] fields = AGPLineReader.splitFields(line);
 
       if (fields.length != NUMBER_OF_COLUMNS) {
         if (fields.length >= COMPONENT_TYPE_ID + 1
@@ -108,7 +123,10 @@ public class AGPFileReader extends FlatFileEntryReader {
         error("MissingObjectCheck");
       } else {
         String submitterAccession = SubmitterAccessionFix.fix(fields[OBJECT]);
-        entry.setSubmitterAccession(submitterAccession);
+        objectName = submitterAccession;
+        if (agpFile == null) {
+          entry.setSubmitterAccession(submitterAccession);
+        }
         agpRow.setObject(submitterAccession);
       }
 
@@ -250,7 +268,11 @@ public class AGPFileReader extends FlatFileEntryReader {
       }
       agpRow.setOrigin(
           new FlatFileOrigin(getLineReader().getFileId(), lineReader.getCurrentLineNumber()));
-      entry.getSequence().addAgpRow(agpRow);
+      if (agpFile != null) {
+        agpFile.addRow(agpRow);
+      } else {
+        entry.getSequence().addAgpRow(agpRow);
+      }
 
       if (!lineReader.isNextLine()) {
         break;
@@ -267,6 +289,11 @@ public class AGPFileReader extends FlatFileEntryReader {
     return entry;
   }
 
+  /** Returns the name of the object read last, or null if its rows have no object name. */
+  public String getObjectName() {
+    return objectName;
+  }
+
   @Override
   public boolean isEntry() {
     return isEntry;
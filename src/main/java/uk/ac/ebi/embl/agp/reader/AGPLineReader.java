@@ -11,6 +11,8 @@
 package uk.ac.ebi.embl.agp.reader;
 
 import java.io.BufferedReader;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.commons.lang.StringUtils;
 import uk.ac.ebi.embl.flatfile.reader.LineReader;
 
@@ -19,8 +21,6 @@ public class AGPLineReader extends LineReader {
     super(reader);
   }
 
-  private static final String SCREGEX = "\\s";
-
   @Override
   protected int getTagWidth(String line) {
     return getTag(line).length();
@@ -34,11 +34,12 @@ public class AGPLineReader extends LineReader {
   @Override
   protected String getTag(String line) {
     if (line == null) return null;
-    String[] fields = line.trim().split(SCREGEX);
-    if (fields.length == 0) {
-      return null;
+    String trimmed = line.trim();
+    int end = 0;
+    while (end < trimmed.length() && !isWhitespace(trimmed.charAt(end))) {
+      end++;
     }
-    return trimObjectName(fields[0]);
+    return StringUtils.removeEnd(trimmed.substring(0, end), ";");
   }
 
   @Override
@@ -58,7 +59,38 @@ public class AGPLineReader extends LineReader {
     return line != null && line.trim().isEmpty();
   }
 
-  private String trimObjectName(String object_name) {
-    return StringUtils.removeEnd(object_name.replaceAll("\\s", ""), ";");
+  /**
+   * Splits the line into fields separated by whitespace, returning the same fields as {@code
+   * line.split("\\s+")} without using a regular expression.
+   */
+  static String[] splitFields(String line) {
+    List<String> fields = new ArrayList<>(10);
+    int start = 0;
+    int pos = 0;
+    while (pos < line.length()) {
+      if (isWhitespace(line.charAt(pos))) {
+        fields.add(line.substring(start, pos));
+        while (pos < line.length() && isWhitespace(line.charAt(pos))) {
+          pos++;
+        }
+        start = pos;
+      } else {
+        pos++;
+      }
+    }
+    if (fields.isEmpty()) {
+      return new String[] {line};
+    }
+    fields.add(line.substring(start));
+    int size = fields.size();
+    while (size > 0 && fields.get(size - 1).isEmpty()) {
+      size--;
+    }
+    return fields.subList(0, size).toArray(new String[0]);
+  }
+
+  /** Returns true for the characters matched by the {@code \\s} regular expression. */
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
   }
 }
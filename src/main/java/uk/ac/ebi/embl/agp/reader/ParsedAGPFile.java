@@ -0,0 +1,288 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.agp.reader;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+import uk.ac.ebi.embl.api.entry.AgpRow;
+import uk.ac.ebi.embl.api.entry.Entry;
+import uk.ac.ebi.embl.api.entry.EntryFactory;
+import uk.ac.ebi.embl.api.entry.sequence.Sequence;
+import uk.ac.ebi.embl.api.entry.sequence.Sequence.Topology;
+import uk.ac.ebi.embl.api.entry.sequence.SequenceFactory;
+import uk.ac.ebi.embl.api.validation.FlatFileOrigin;
+import uk.ac.ebi.embl.api.validation.Origin;
+import uk.ac.ebi.embl.api.validation.ValidationResult;
+import uk.ac.ebi.embl.flatfile.reader.LineReader;
+
+/**
+ * The objects and rows of an AGP file read once by {@link AGPFileReader}, so that the component
+ * placements and the object entries can both be derived from a single parse. The rows are read
+ * straight into columns, and the values repeated across rows, such as component types, gap types
+ * and linkage evidence, are kept once.
+ *
+ * <p>An object is what one {@link AGPFileReader#read()} returns: its entry, which {@link
+ * #getEntry(int)} creates anew on each call, and its parse result. The placements of its
+ * components are read from the row columns without creating the entry.
+ */
+public class ParsedAGPFile {
+
+  private static final long NULL = Long.MIN_VALUE;
+
+  private String fileId;
+  private final Map<String, String> values = new HashMap<>();
+
+  private int objectCount = 0;
+  private String[] objectNames = new String[16];
+  private int[] objectRows = new int[17];
+  private final Map<Integer, ValidationResult> parseResults = new HashMap<>();
+  private ValidationResult endResult = new ValidationResult();
+
+  private int rowCount = 0;
+  private String[] rowObjects = new String[64];
+  private long[] objectBegs = new long[64];
+  private long[] objectEnds = new long[64];
+  private long[] partNumbers = new long[64];
+  private String[] componentTypeIds = new String[64];
+  private String[] componentIds = new String[64];
+  private long[] componentBegs = new long[64];
+  private long[] componentEnds = new long[64];
+  private String[] orientations = new String[64];
+  private long[] gapLengths = new long[64];
+  private String[] gapTypes = new String[64];
+  private String[] linkages = new String[64];
+  private String[] linkageEvidences = new String[64];
+  private int[] lineNumbers = new int[64];
+
+  /** Reads all the objects of the file. */
+  public static ParsedAGPFile read(LineReader lineReader) throws IOException {
+    ParsedAGPFile agpFile = new ParsedAGPFile();
+    AGPFileReader reader = new AGPFileReader(lineReader, agpFile);
+    ValidationResult result = reader.read();
+    while (reader.isEntry()) {
+      agpFile.addObject(reader.getObjectName(), result);
+      result = reader.read();
+    }
+    agpFile.endResult = result;
+    return agpFile;
+  }
+
+  public int getObjectCount() {
+    return objectCount;
+  }
+
+  /** Returns the submitter accession of the object's entry. */
+  public String getObjectName(int object) {
+    checkObject(object);
+    return objectNames[object];
+  }
+
+  /** Returns the result of reading the object. */
+  public ValidationResult getParseResult(int object) {
+    checkObject(object);
+    ValidationResult result = parseResults.get(object);
+    return result != null ? result : new ValidationResult();
+  }
+
+  /** Returns the result of the read that found no more objects. */
+  public ValidationResult getEndResult() {
+    return endResult;
+  }
+
+  /** Creates the entry of the object, as read by {@link AGPFileReader}. */
+  public Entry getEntry(int object) {
+    checkObject(object);
+    Entry entry = (new EntryFactory()).createEntry();
+    entry.setSequence((new SequenceFactory()).createSequence());
+    entry.getSequence().setTopology(Topology.LINEAR);
+    entry.setSubmitterAccession(objectNames[object]);
+    for (int row = objectRows[object]; row < objectRows[object + 1]; row++) {
+      entry.getSequence().addAgpRow(getRow(row));
+    }
+    return entry;
+  }
+
+  /**
+   * Returns the rows of the object in order of part number, as {@link
+   * Sequence#getSortedAGPRows()} returns them.
+   */
+  public int[] getSortedRows(int object) {
+    checkObject(object);
+    int[] rows = IntStream.range(objectRows[object], objectRows[object + 1]).toArray();
+    for (int i = 1; i < rows.length; i++) {
+      if (partNumbers[rows[i]] < partNumbers[rows[i - 1]]) {
+        return IntStream.of(rows)
+            .boxed()
+            .sorted((row1, row2) -> Long.compare(partNumbers[row1], partNumbers[row2]))
+            .mapToInt(Integer::intValue)
+            .toArray();
+      }
+    }
+    return rows;
+  }
+
+  public String getObject(int row) {
+    checkRow(row);
+    return rowObjects[row];
+  }
+
+  public Integer getPartNumber(int row) {
+    checkRow(row);
+    return partNumbers[row] == NULL ? null : (int) partNumbers[row];
+  }
+
+  /** Returns true if the row is a gap, as {@link AgpRow#isGap()}. */
+  public boolean isGap(int row) {
+    checkRow(row);
+    return componentTypeIds[row].equals("N") || componentTypeIds[row].equals("U");
+  }
+
+  public String getComponentId(int row) {
+    checkRow(row);
+    return componentIds[row];
+  }
+
+  public Long getComponentBeg(int row) {
+    checkRow(row);
+    return toLong(componentBegs[row]);
+  }
+
+  public Long getComponentEnd(int row) {
+    checkRow(row);
+    return toLong(componentEnds[row]);
+  }
+
+  public String getOrientation(int row) {
+    checkRow(row);
+    return orientations[row];
+  }
+
+  private void checkObject(int object) {
+    if (object < 0 || object >= objectCount) {
+      throw new IndexOutOfBoundsException("AGP object: " + object);
+    }
+  }
+
+  private void checkRow(int row) {
+    if (row < 0 || row >= rowCount) {
+      throw new IndexOutOfBoundsException("AGP row: " + row);
+    }
+  }
+
+  private AgpRow getRow(int row) {
+    AgpRow agpRow = new AgpRow();
+    agpRow.setObject(rowObjects[row]);
+    if (objectBegs[row] != NULL) {
+      agpRow.setObject_beg(objectBegs[row]);
+    }
+    agpRow.setObject_end(toLong(objectEnds[row]));
+    agpRow.setPart_number(partNumbers[row] == NULL ? null : (int) partNumbers[row]);
+    agpRow.setComponent_type_id(componentTypeIds[row]);
+    agpRow.setComponent_id(componentIds[row]);
+    agpRow.setComponent_beg(toLong(componentBegs[row]));
+    agpRow.setComponent_end(toLong(componentEnds[row]));
+    agpRow.setOrientation(orientations[row]);
+    agpRow.setGap_length(toLong(gapLengths[row]));
+    agpRow.setGap_type(gapTypes[row]);
+    agpRow.setLinkage(linkages[row]);
+    if (linkageEvidences[row] != null) {
+      agpRow.setLinkageevidence(Arrays.asList(linkageEvidences[row].split(";")));
+    }
+    if (lineNumbers[row] >= 0) {
+      agpRow.setOrigin(new FlatFileOrigin(fileId, lineNumbers[row]));
+    }
+    return agpRow;
+  }
+
+  private void addObject(String objectName, ValidationResult result) {
+    if (objectCount == objectNames.length) {
+      objectNames = Arrays.copyOf(objectNames, objectCount * 2);
+      objectRows = Arrays.copyOf(objectRows, objectCount * 2 + 1);
+    }
+    objectNames[objectCount] = objectName;
+    if (!result.getMessages().isEmpty()) {
+      parseResults.put(objectCount, result);
+    }
+    objectCount++;
+    objectRows[objectCount] = rowCount;
+  }
+
+  /** Adds a row of the object being read. */
+  void addRow(AgpRow agpRow) {
+    if (rowCount == rowObjects.length) {
+      int capacity = rowCount * 2;
+      rowObjects = Arrays.copyOf(rowObjects, capacity);
+      objectBegs = Arrays.copyOf(objectBegs, capacity);
+      objectEnds = Arrays.copyOf(objectEnds, capacity);
+      partNumbers = Arrays.copyOf(partNumbers, capacity);
+      componentTypeIds = Arrays.copyOf(componentTypeIds, capacity);
+      componentIds = Arrays.copyOf(componentIds, capacity);
+      componentBegs = Arrays.copyOf(componentBegs, capacity);
+      componentEnds = Arrays.copyOf(componentEnds, capacity);
+      orientations = Arrays.copyOf(orientations, capacity);
+      gapLengths = Arrays.copyOf(gapLengths, capacity);
+      gapTypes = Arrays.copyOf(gapTypes, capacity);
+      linkages = Arrays.copyOf(linkages, capacity);
+      linkageEvidences = Arrays.copyOf(linkageEvidences, capacity);
+      lineNumbers = Arrays.copyOf(lineNumbers, capacity);
+    }
+    int row = rowCount++;
+    String object = agpRow.getObject();
+    // The rows of an object usually have the same object name.
+    rowObjects[row] =
+        row > 0 && object != null && object.equals(rowObjects[row - 1])
+            ? rowObjects[row - 1]
+            : object;
+    objectBegs[row] = toPrimitive(agpRow.getObject_beg());
+    objectEnds[row] = toPrimitive(agpRow.getObject_end());
+    partNumbers[row] = agpRow.getPart_number() == null ? NULL : (long) agpRow.getPart_number();
+    componentTypeIds[row] = value(agpRow.getComponent_type_id());
+    componentIds[row] = agpRow.getComponent_id();
+    componentBegs[row] = toPrimitive(agpRow.getComponent_beg());
+    componentEnds[row] = toPrimitive(agpRow.getComponent_end());
+    orientations[row] = value(agpRow.getOrientation());
+    gapLengths[row] = toPrimitive(agpRow.getGap_length());
+    gapTypes[row] = value(agpRow.getGap_type());
+    linkages[row] = value(agpRow.getLinkage());
+    linkageEvidences[row] =
+        agpRow.getLinkageevidence() == null
+            ? null
+            : value(String.join(";", agpRow.getLinkageevidence()));
+    lineNumbers[row] = lineNumber(agpRow.getOrigin());
+  }
+
+  private int lineNumber(Origin origin) {
+    if (!(origin instanceof FlatFileOrigin)) {
+      return -1;
+    }
+    fileId = ((FlatFileOrigin) origin).getFileId();
+    return ((FlatFileOrigin) origin).getFirstLineNumber();
+  }
+
+  private String value(String value) {
+    if (value == null) {
+      return null;
+    }
+    String existing = values.putIfAbsent(value, value);
+    return existing != null ? existing : value;
+  }
+
+  private static long toPrimitive(Long value) {
+    return value == null ? NULL : value;
+  }
+
+  private static Long toLong(long value) {
+    return value == NULL ? null : value;
+  }
+}
@@ -10,37 +10,141 @@
  */
 package uk.ac.ebi.embl.api.checksum;
 
+import java.nio.ByteBuffer;
+import uk.ac.ebi.embl.api.entry.sequence.Sequence;
+
+/**
+ * The CRC-32 of a sequence as written on the SQ line: the bases are upper cased and the value is
+ * not inverted at the end.
+ *
+ * <p>A CRC32 instance holds the checksum of the data given to it so far and is not thread-safe,
+ * but any number of instances can be used concurrently. The static methods keep a separate
+ * checksum for each thread.
+ */
 public class CRC32 {
-  private static final long polynomial = 0xEDB88320L;
-  private static long crc = 0;
-  private static final long[] values = new long[256];
-  private static boolean init_done = false;
+  private static final int polynomial = 0xEDB88320;
+
+  private static final int INITIAL_VALUE = 0xFFFFFFFF;
+
+  /** The chunk of bases copied from a sequence or buffer at a time. */
+  private static final int CHUNK_SIZE = 64 * 1024;
+
+  /** Lookup tables for 8 bytes at a time: values[k][b] is the CRC of b followed by k zeros. */
+  private static final int[][] values = new int[8][256];
 
-  /** Calculates a CRC value for a byte to be used by CRC calculation functions. */
-  private static void initialize() {
+  private static final int[] upperCase = new int[256];
+
+  private static final ThreadLocal<CRC32> threadCrc = ThreadLocal.withInitial(() -> new CRC32(0));
+
+  static {
     for (int i = 0; i < 256; ++i) {
-      long crc = i;
+      int crc = i;
       for (int j = 8; j > 0; j--) {
         if ((crc & 1) == 1) crc = (crc >>> 1) ^ polynomial;
         else crc >>>= 1;
       }
-      values[i] = crc;
+      values[0][i] = crc;
+      upperCase[i] = Character.toUpperCase((char) (byte) i) & 0xff;
+    }
+    for (int k = 1; k < 8; k++) {
+      for (int i = 0; i < 256; i++) {
+        int crc = values[k - 1][i];
+        values[k][i] = (crc >>> 8) ^ values[0][crc & 0xff];
+      }
     }
-    init_done = true;
   }
 
-  /** Calculates the CRC-32 of a block of data all at once */
-  public static long calculateCRC32(byte[] buffer, int offset, int length) {
-    if (!init_done) {
-      initialize();
+  private int crc;
+
+  public CRC32() {
+    this(INITIAL_VALUE);
+  }
+
+  private CRC32(int crc) {
+    this.crc = crc;
+  }
+
+  /** Returns the CRC-32 of the bases of the sequence, which may be packed. */
+  public static long checksum(Sequence sequence) {
+    return new CRC32().update(sequence).getValue();
+  }
+
+  public CRC32 update(byte[] buffer, int offset, int length) {
+    int crc = this.crc;
+    int i = offset;
+    int end = offset + length;
+    for (; i + 8 <= end; i += 8) {
+      int one =
+          crc
+              ^ upperCase[buffer[i] & 0xff]
+              ^ (upperCase[buffer[i + 1] & 0xff] << 8)
+              ^ (upperCase[buffer[i + 2] & 0xff] << 16)
+              ^ (upperCase[buffer[i + 3] & 0xff] << 24);
+      crc =
+          values[7][one & 0xff]
+              ^ values[6][(one >>> 8) & 0xff]
+              ^ values[5][(one >>> 16) & 0xff]
+              ^ values[4][one >>> 24]
+              ^ values[3][upperCase[buffer[i + 4] & 0xff]]
+              ^ values[2][upperCase[buffer[i + 5] & 0xff]]
+              ^ values[1][upperCase[buffer[i + 6] & 0xff]]
+              ^ values[0][upperCase[buffer[i + 7] & 0xff]];
+    }
+    for (; i < end; i++) {
+      crc = (crc >>> 8) ^ values[0][(crc ^ upperCase[buffer[i] & 0xff]) & 0xff];
     }
-    for (int i = offset; i < offset + length; i++) {
-      long tmp1 = (crc >>> 8) & 0x00FFFFFFL;
-      long tmp2 = values[(int) ((crc ^ Character.toUpperCase((char) buffer[i])) & 0xff)];
-      crc = tmp1 ^ tmp2;
-      // System.out.println("CRC:   "+crc);
+    this.crc = crc;
+    return this;
+  }
+
+  public CRC32 update(byte[] buffer) {
+    return update(buffer, 0, buffer.length);
+  }
+
+  /** Updates the checksum with the remaining bytes of the buffer, for example a mapped file. */
+  public CRC32 update(ByteBuffer buffer) {
+    if (buffer.hasArray()) {
+      update(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+      buffer.position(buffer.limit());
+      return this;
+    }
+    byte[] chunk = new byte[Math.min(CHUNK_SIZE, buffer.remaining())];
+    while (buffer.hasRemaining()) {
+      int length = Math.min(chunk.length, buffer.remaining());
+      buffer.get(chunk, 0, length);
+      update(chunk, 0, length);
     }
-    return crc;
+    return this;
+  }
+
+  /** Updates the checksum with the bases of the sequence, which may be packed. */
+  public CRC32 update(Sequence sequence) {
+    byte[] chunk = new byte[(int) Math.min(CHUNK_SIZE, Math.max(1, sequence.getLength()))];
+    long position = 1;
+    int length;
+    while ((length = sequence.copySequenceByte(position, chunk)) > 0) {
+      update(chunk, 0, length);
+      position += length;
+    }
+    return this;
+  }
+
+  public long getValue() {
+    return crc & 0xFFFFFFFFL;
+  }
+
+  /** Resets the checksum to process more data. */
+  public CRC32 resetValue() {
+    crc = INITIAL_VALUE;
+    return this;
+  }
+
+  /**
+   * Calculates the CRC-32 of a block of data all at once, continuing the checksum of the current
+   * thread.
+   */
+  public static long calculateCRC32(byte[] buffer, int offset, int length) {
+    return threadCrc.get().update(buffer, offset, length).getValue();
   }
 
   /**
@@ -53,9 +157,8 @@ public class CRC32 {
     return calculateCRC32(buffer, 0, buffer.length);
   }
 
-  /** Resets the state to process more data. */
+  /** Resets the checksum of the current thread to process more data. */
   public static void reset() {
-
-    crc = 0xFFFFFFFFL;
+    threadCrc.get().resetValue();
   }
 }
@@ -11,11 +11,19 @@
 package uk.ac.ebi.embl.api.checksum;
 
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
+import uk.ac.ebi.embl.api.entry.sequence.Sequence;
 
+/** Lower case hexadecimal MD5 checksums. The methods can be called from any number of threads. */
 public class MD5Checksum {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
   private byte[] createChecksum(InputStream is) throws Exception {
-    byte[] buffer = new byte[1024];
+    byte[] buffer = new byte[BUFFER_SIZE];
     MessageDigest complete = MessageDigest.getInstance("MD5");
     int numRead;
     do {
@@ -28,11 +36,35 @@ public class MD5Checksum {
   }
 
   public String getChecksum(InputStream is) throws Exception {
-    byte[] b = createChecksum(is);
-    String result = "";
-    for (int i = 0; i < b.length; i++) {
-      result += Integer.toString((b[i] & 0xff) + 0x100, 16).substring(1);
+    return toHex(createChecksum(is));
+  }
+
+  /** Returns the checksum of the remaining bytes of the buffer, for example a mapped file. */
+  public String getChecksum(ByteBuffer buffer) throws Exception {
+    MessageDigest complete = MessageDigest.getInstance("MD5");
+    complete.update(buffer);
+    return toHex(complete.digest());
+  }
+
+  /** Returns the checksum of the bases of the sequence, which may be packed. */
+  public String getChecksum(Sequence sequence) throws Exception {
+    MessageDigest complete = MessageDigest.getInstance("MD5");
+    byte[] chunk = new byte[(int) Math.min(BUFFER_SIZE, Math.max(1, sequence.getLength()))];
+    long position = 1;
+    int length;
+    while ((length = sequence.copySequenceByte(position, chunk)) > 0) {
+      complete.update(chunk, 0, length);
+      position += length;
+    }
+    return toHex(complete.digest());
+  }
+
+  private static String toHex(byte[] bytes) {
+    char[] hex = new char[bytes.length * 2];
+    for (int i = 0; i < bytes.length; i++) {
+      hex[2 * i] = HEX_DIGITS[(bytes[i] >>> 4) & 0xf];
+      hex[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xf];
     }
-    return result;
+    return new String(hex);
   }
 }
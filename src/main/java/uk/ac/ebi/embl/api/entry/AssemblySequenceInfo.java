@@ -17,10 +17,13 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import uk.ac.ebi.embl.api.validation.ValidationEngineException;
 
 public class AssemblySequenceInfo implements Serializable {
@@ -73,10 +76,9 @@ public class AssemblySequenceInfo implements Serializable {
       throw new ValidationEngineException(
           "Failed to delete sequence info file: " + e.getMessage(), e);
     }
-    try (ObjectOutputStream oos =
-        new ObjectOutputStream(new FileOutputStream(outputDir + File.separator + fileName))) {
-      oos.writeObject(sequenceInfo);
-
+    try {
+      AssemblySequenceInfoFile.writeSequenceInfo(
+          Paths.get(outputDir + File.separator + fileName), sequenceInfo);
     } catch (Exception e) {
       throw new ValidationEngineException(
           "Assembly sequence registration failed: " + e.getMessage(), e);
@@ -87,11 +89,16 @@ public class AssemblySequenceInfo implements Serializable {
       throws ValidationEngineException {
     Map<String, AssemblySequenceInfo> infoObject = new LinkedHashMap<>();
 
-    if (!Files.exists(Paths.get(inputDir + File.separator + fileName))) return infoObject;
+    Path file = Paths.get(inputDir + File.separator + fileName);
+    if (!Files.exists(file)) return infoObject;
 
-    try (ObjectInputStream oos =
-        new ObjectInputStream(new FileInputStream(inputDir + File.separator + fileName))) {
-      infoObject = (LinkedHashMap<String, AssemblySequenceInfo>) oos.readObject();
+    try {
+      if (AssemblySequenceInfoFile.isCompact(file)) {
+        return AssemblySequenceInfoFile.readSequenceInfo(file);
+      }
+      try (ObjectInputStream oos = new ObjectInputStream(new FileInputStream(file.toFile()))) {
+        infoObject = (LinkedHashMap<String, AssemblySequenceInfo>) oos.readObject();
+      }
 
     } catch (Exception e) {
       throw new ValidationEngineException(
@@ -110,10 +117,9 @@ public class AssemblySequenceInfo implements Serializable {
       throw new ValidationEngineException(
           "Failed to delete file: " + fileName + "\n" + e.getMessage(), e);
     }
-    try (ObjectOutputStream oos =
-        new ObjectOutputStream(new FileOutputStream(outputDir + File.separator + fileName))) {
-      oos.writeObject(entryNames);
-
+    try {
+      AssemblySequenceInfoFile.writeNames(
+          Paths.get(outputDir + File.separator + fileName), entryNames);
     } catch (Exception e) {
       throw new ValidationEngineException(
           "Assembly names registration failed: " + e.getMessage(), e);
@@ -123,10 +129,15 @@ public class AssemblySequenceInfo implements Serializable {
   public static List<String> getListObject(String inputDir, String fileName)
       throws ValidationEngineException {
     List<String> infoObject = null;
+    Path file = Paths.get(inputDir + File.separator + fileName);
 
-    try (ObjectInputStream oos =
-        new ObjectInputStream(new FileInputStream(inputDir + File.separator + fileName))) {
-      infoObject = (List<String>) oos.readObject();
+    try {
+      if (AssemblySequenceInfoFile.isCompact(file)) {
+        return new ArrayList<>(AssemblySequenceInfoFile.readNames(file));
+      }
+      try (ObjectInputStream oos = new ObjectInputStream(new FileInputStream(file.toFile()))) {
+        infoObject = (List<String>) oos.readObject();
+      }
 
     } catch (Exception e) {
       throw new ValidationEngineException(
@@ -136,6 +147,24 @@ public class AssemblySequenceInfo implements Serializable {
     return infoObject;
   }
 
+  public static void writeSetObject(Set<String> entryNames, String outputDir, String fileName)
+      throws ValidationEngineException {
+
+    try {
+      Files.deleteIfExists(Paths.get(outputDir + File.separator + fileName));
+    } catch (Exception e) {
+      throw new ValidationEngineException(
+          "Failed to delete file: " + fileName + "\n" + e.getMessage(), e);
+    }
+    try {
+      AssemblySequenceInfoFile.writeNames(
+          Paths.get(outputDir + File.separator + fileName), entryNames);
+    } catch (Exception e) {
+      throw new ValidationEngineException(
+          "Assembly names registration failed: " + e.getMessage(), e);
+    }
+  }
+
   public static void writeObject(Object o, String outputDir, String fileName)
       throws ValidationEngineException {
 
@@ -157,10 +186,15 @@ public class AssemblySequenceInfo implements Serializable {
   public static Object getObject(String inputDir, String fileName)
       throws ValidationEngineException {
     Object infoObject = null;
+    Path file = Paths.get(inputDir + File.separator + fileName);
 
-    try (ObjectInputStream oos =
-        new ObjectInputStream(new FileInputStream(inputDir + File.separator + fileName))) {
-      infoObject = oos.readObject();
+    try {
+      if (AssemblySequenceInfoFile.isCompact(file)) {
+        return AssemblySequenceInfoFile.read(file);
+      }
+      try (ObjectInputStream oos = new ObjectInputStream(new FileInputStream(file.toFile()))) {
+        infoObject = oos.readObject();
+      }
 
     } catch (Exception e) {
       throw new ValidationEngineException(
@@ -0,0 +1,416 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.entry;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Reads and writes the compact binary files of assembly sequence information and sequence names.
+ *
+ * <p>A file starts with the bytes {@code ASI}, the format version and the kind of content. Numbers
+ * are written as variable length integers, and strings as their UTF-8 length plus one followed by
+ * their UTF-8 bytes, or 0 if the string is null. A sequence information file has the number of
+ * sequences and then the name, length, assembly level and accession of each sequence in the order
+ * of the map. It ends with an index of the record offsets sorted by name, followed by the offset of
+ * the index as 8 bytes, so that a sequence can be looked up by name without reading the file. A
+ * sequence names file has the number of names and then the names.
+ *
+ * <p>Files written with Java serialization by earlier versions are recognised by {@link
+ * #isCompact} returning false.
+ */
+public class AssemblySequenceInfoFile {
+
+  private static final byte[] MAGIC = {'A', 'S', 'I'};
+  private static final int VERSION = 1;
+
+  private static final int SEQUENCE_INFO = 1;
+  private static final int NAME_LIST = 2;
+  private static final int NAME_SET = 3;
+
+  private static final int HEADER_LENGTH = MAGIC.length + 2;
+
+  private AssemblySequenceInfoFile() {}
+
+  /** Returns true if the file is in the compact format, false if it is Java serialized. */
+  public static boolean isCompact(Path file) throws IOException {
+    byte[] header = new byte[MAGIC.length];
+    try (InputStream in = Files.newInputStream(file)) {
+      int length = in.readNBytes(header, 0, header.length);
+      if (length < header.length) {
+        return false;
+      }
+    }
+    for (int i = 0; i < MAGIC.length; i++) {
+      if (header[i] != MAGIC[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Sequence information.
+  //
+
+  /** Writes sequence information one sequence at a time. */
+  public static class Writer implements Closeable {
+
+    private final Path file;
+    private final CountingOutputStream out;
+    private final List<String> names = new ArrayList<>();
+    private final List<Long> offsets = new ArrayList<>();
+
+    public Writer(Path file) throws IOException {
+      this.file = file;
+      out = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+      writeHeader(out, SEQUENCE_INFO);
+      // The number of sequences is written at a fixed width and set when the writer is closed.
+      writeLong(out, 0);
+    }
+
+    public void write(String name, AssemblySequenceInfo sequenceInfo) throws IOException {
+      names.add(name);
+      offsets.add(out.count);
+      writeString(out, name);
+      writeVarLong(out, zigZag(sequenceInfo.getSequenceLength()));
+      writeVarLong(out, zigZag(sequenceInfo.getAssemblyLevel()));
+      writeString(out, sequenceInfo.getAccession());
+    }
+
+    /** Writes the index and closes the file. */
+    @Override
+    public void close() throws IOException {
+      try {
+        long indexOffset = out.count;
+        Integer[] order = new Integer[names.size()];
+        for (int i = 0; i < order.length; i++) {
+          order[i] = i;
+        }
+        Arrays.sort(order, (i, j) -> compareNames(names.get(i), names.get(j)));
+        writeLong(out, order.length);
+        for (Integer i : order) {
+          writeLong(out, offsets.get(i));
+        }
+        writeLong(out, indexOffset);
+      } finally {
+        out.close();
+      }
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+        channel.write(ByteBuffer.allocate(8).putLong(0, names.size()), HEADER_LENGTH);
+      }
+    }
+  }
+
+  public static void writeSequenceInfo(Path file, Map<String, AssemblySequenceInfo> sequenceInfo)
+      throws IOException {
+    try (Writer writer = new Writer(file)) {
+      for (Map.Entry<String, AssemblySequenceInfo> entry : sequenceInfo.entrySet()) {
+        writer.write(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  /** Reads the sequence information in the order in which it was written. */
+  public static void readSequenceInfo(Path file, BiConsumer<String, AssemblySequenceInfo> consumer)
+      throws IOException {
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      readHeader(in, SEQUENCE_INFO);
+      long count = in.readLong();
+      for (long i = 0; i < count; i++) {
+        String name = readString(in);
+        consumer.accept(name, readRecord(in));
+      }
+    }
+  }
+
+  public static LinkedHashMap<String, AssemblySequenceInfo> readSequenceInfo(Path file)
+      throws IOException {
+    LinkedHashMap<String, AssemblySequenceInfo> sequenceInfo = new LinkedHashMap<>();
+    readSequenceInfo(file, sequenceInfo::put);
+    return sequenceInfo;
+  }
+
+  private static AssemblySequenceInfo readRecord(InputStream in) throws IOException {
+    long sequenceLength = unZigZag(readVarLong(in));
+    int assemblyLevel = (int) unZigZag(readVarLong(in));
+    String accession = readString(in);
+    return new AssemblySequenceInfo(sequenceLength, assemblyLevel, accession);
+  }
+
+  /** Looks up the sequence information of a sequence information file by name. */
+  public static class Lookup implements Closeable {
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int indexOffset;
+    private final int count;
+
+    public Lookup(Path file) throws IOException {
+      channel = FileChannel.open(file, StandardOpenOption.READ);
+      try {
+        if (channel.size() > Integer.MAX_VALUE) {
+          throw new IOException("Sequence information file is too large: " + file);
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        readHeader(new ByteBufferInputStream(buffer.duplicate()), SEQUENCE_INFO);
+        indexOffset = (int) buffer.getLong(buffer.limit() - 8);
+        count = (int) buffer.getLong(indexOffset);
+      } catch (IOException | RuntimeException e) {
+        channel.close();
+        throw e;
+      }
+    }
+
+    /** Returns the sequence information of the sequence, or null if there is none. */
+    public AssemblySequenceInfo get(String name) throws IOException {
+      int low = 0;
+      int high = count - 1;
+      while (low <= high) {
+        int mid = (low + high) >>> 1;
+        ByteBufferInputStream in = recordAt(mid);
+        int compare = compareNames(readString(in), name);
+        if (compare < 0) {
+          low = mid + 1;
+        } else if (compare > 0) {
+          high = mid - 1;
+        } else {
+          return readRecord(in);
+        }
+      }
+      return null;
+    }
+
+    public int size() {
+      return count;
+    }
+
+    private ByteBufferInputStream recordAt(int index) {
+      ByteBuffer record = buffer.duplicate();
+      record.position((int) buffer.getLong(indexOffset + 8 + index * 8));
+      return new ByteBufferInputStream(record);
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+
+  // Sequence names.
+  //
+
+  public static void writeNames(Path file, Collection<String> names) throws IOException {
+    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+      writeHeader(out, names instanceof Set ? NAME_SET : NAME_LIST);
+      writeVarLong(out, names.size());
+      for (String name : names) {
+        writeString(out, name);
+      }
+    }
+  }
+
+  /**
+   * Reads the sequence names. They are returned as a {@link HashSet} if they were written from a
+   * set and as an {@link ArrayList} otherwise.
+   */
+  public static Collection<String> readNames(Path file) throws IOException {
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+      int kind = readHeader(in, NAME_LIST, NAME_SET);
+      long count = readVarLong(in);
+      Collection<String> names =
+          kind == NAME_SET ? new HashSet<>() : new ArrayList<>((int) Math.min(count, 1 << 16));
+      for (long i = 0; i < count; i++) {
+        names.add(readString(in));
+      }
+      return names;
+    }
+  }
+
+  /** Reads the content of a compact file as the collection or map it was written from. */
+  public static Object read(Path file) throws IOException {
+    int kind;
+    try (InputStream in = Files.newInputStream(file)) {
+      kind = readHeader(in, SEQUENCE_INFO, NAME_LIST, NAME_SET);
+    }
+    return kind == SEQUENCE_INFO ? readSequenceInfo(file) : readNames(file);
+  }
+
+  // Encoding.
+  //
+
+  private static int compareNames(String name1, String name2) {
+    if (name1 == null || name2 == null) {
+      return name1 == null ? (name2 == null ? 0 : -1) : 1;
+    }
+    return name1.compareTo(name2);
+  }
+
+  private static void writeHeader(OutputStream out, int kind) throws IOException {
+    out.write(MAGIC);
+    out.write(VERSION);
+    out.write(kind);
+  }
+
+  private static int readHeader(InputStream in, int... kinds) throws IOException {
+    byte[] header = in.readNBytes(HEADER_LENGTH);
+    if (header.length < HEADER_LENGTH) {
+      throw new EOFException();
+    }
+    for (int i = 0; i < MAGIC.length; i++) {
+      if (header[i] != MAGIC[i]) {
+        throw new IOException("Not a compact assembly sequence information file");
+      }
+    }
+    if (header[MAGIC.length] != VERSION) {
+      throw new IOException("Unsupported file version: " + header[MAGIC.length]);
+    }
+    int kind = header[MAGIC.length + 1];
+    for (int expected : kinds) {
+      if (kind == expected) {
+        return kind;
+      }
+    }
+    throw new IOException("Unexpected file content: " + kind);
+  }
+
+  private static void writeString(OutputStream out, String value) throws IOException {
+    if (value == null) {
+      writeVarLong(out, 0);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeVarLong(out, bytes.length + 1L);
+    out.write(bytes);
+  }
+
+  private static String readString(InputStream in) throws IOException {
+    long length = readVarLong(in);
+    if (length == 0) {
+      return null;
+    }
+    byte[] bytes = in.readNBytes((int) (length - 1));
+    if (bytes.length < length - 1) {
+      throw new EOFException();
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static void writeVarLong(OutputStream out, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      out.write((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.write((int) value);
+  }
+
+  private static long readVarLong(InputStream in) throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = in.read();
+      if (b < 0) {
+        throw new EOFException();
+      }
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed variable length integer");
+  }
+
+  private static void writeLong(OutputStream out, long value) throws IOException {
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      out.write((int) (value >>> shift));
+    }
+  }
+
+  private static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static class CountingOutputStream extends OutputStream {
+
+    private final OutputStream out;
+    private long count;
+
+    CountingOutputStream(OutputStream out) {
+      this.out = out;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      count += len;
+    }
+
+    @Override
+    public void close() throws IOException {
+      out.close();
+    }
+  }
+
+  private static class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (!buffer.hasRemaining()) {
+        return len == 0 ? 0 : -1;
+      }
+      int read = Math.min(len, buffer.remaining());
+      buffer.get(b, off, read);
+      return read;
+    }
+  }
+}
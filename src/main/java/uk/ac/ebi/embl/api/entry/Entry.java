@@ -18,6 +18,8 @@ import org.apache.commons.lang.builder.CompareToBuilder;
 import org.apache.commons.lang.builder.EqualsBuilder;
 import org.apache.commons.lang.builder.HashCodeBuilder;
 import uk.ac.ebi.embl.api.entry.feature.Feature;
+import uk.ac.ebi.embl.api.entry.feature.FeatureIntervalIndex;
+import uk.ac.ebi.embl.api.entry.feature.FeatureModifications;
 import uk.ac.ebi.embl.api.entry.feature.SourceFeature;
 import uk.ac.ebi.embl.api.entry.location.Location;
 import uk.ac.ebi.embl.api.entry.reference.Reference;
@@ -102,7 +104,10 @@ public class Entry implements HasOrigin, Serializable, Comparable<Entry> {
   private List<Text> secondaryAccessions;
   private final List<Text> keywords;
   private final List<Text> projectAccessions;
-  private final List<Feature> features;
+  private final FeatureList features;
+  private transient FeatureIntervalIndex<Feature> featureIntervalIndex;
+  private transient int featureIntervalIndexListModifications;
+  private transient long featureIntervalIndexModifications;
   private final List<Reference> references;
   private final List<XRef> xRefs;
   private final List<Text> contigAccessions;
@@ -125,7 +130,7 @@ public class Entry implements HasOrigin, Serializable, Comparable<Entry> {
     this.keywords = new ArrayList<>();
     this.projectAccessions = new ArrayList<>();
     this.references = new ArrayList<>();
-    this.features = new ArrayList<>();
+    this.features = new FeatureList();
     this.xRefs = new ArrayList<>();
     this.assemblies = new ArrayList<>();
     this.description = new Text();
@@ -366,6 +371,29 @@ public class Entry implements HasOrigin, Serializable, Comparable<Entry> {
     features.clear();
   }
 
+  /**
+   * Returns an index of the features by their positions. The index is built when it is first
+   * needed and again after the feature list, or the locations or qualifiers of any feature, have
+   * changed. Call {@link #invalidateFeatureIntervalIndex()} after changing the features in other
+   * ways that the index, or the values derived from it, depend on.
+   */
+  public FeatureIntervalIndex<Feature> getFeatureIntervalIndex() {
+    int listModifications = features.getModifications();
+    long modifications = FeatureModifications.getCount();
+    if (featureIntervalIndex == null
+        || featureIntervalIndexListModifications != listModifications
+        || featureIntervalIndexModifications != modifications) {
+      featureIntervalIndex = new FeatureIntervalIndex<>(features);
+      featureIntervalIndexListModifications = listModifications;
+      featureIntervalIndexModifications = modifications;
+    }
+    return featureIntervalIndex;
+  }
+
+  public void invalidateFeatureIntervalIndex() {
+    featureIntervalIndex = null;
+  }
+
   @SuppressWarnings("unchecked")
   public <T extends Feature> List<T> getComplexFeatures(String name, List<T> features) {
     if (name == null) {
@@ -675,4 +703,24 @@ public class Entry implements HasOrigin, Serializable, Comparable<Entry> {
   public void setSequenceCoverage(Map<String, Long> sequenceCoverage) {
     this.sequenceCoverage = sequenceCoverage;
   }
+
+  /**
+   * A feature list that also counts the features replaced in it, which are not structural changes
+   * and so are not in the modification count of the list.
+   */
+  private static class FeatureList extends ArrayList<Feature> {
+
+    private int replacements;
+
+    @Override
+    public Feature set(int index, Feature feature) {
+      ++replacements;
+      return super.set(index, feature);
+    }
+
+    /** Returns a count that changes whenever the list does. */
+    int getModifications() {
+      return modCount + replacements;
+    }
+  }
 }
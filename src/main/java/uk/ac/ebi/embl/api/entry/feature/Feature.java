@@ -186,6 +186,7 @@ public class Feature implements HasOrigin, Serializable, Comparable<Feature> {
   }
 
   public void setLocations(CompoundLocation<Location> locations) {
+    FeatureModifications.record();
     this.locations = locations;
   }
 
@@ -195,15 +196,18 @@ public class Feature implements HasOrigin, Serializable, Comparable<Feature> {
 
   public boolean addQualifier(String name) {
     QualifierFactory factory = new QualifierFactory();
+    FeatureModifications.record();
     return this.qualifiers.add(factory.createQualifier(name));
   }
 
   public boolean addQualifier(String name, String value) {
     QualifierFactory factory = new QualifierFactory();
+    FeatureModifications.record();
     return this.qualifiers.add(factory.createQualifier(name, value));
   }
 
   public boolean addQualifier(Qualifier qualifier) {
+    FeatureModifications.record();
     return this.qualifiers.add(qualifier);
   }
 
@@ -211,10 +215,12 @@ public class Feature implements HasOrigin, Serializable, Comparable<Feature> {
     if (qualifiers == null) {
       return false;
     }
+    FeatureModifications.record();
     return this.qualifiers.addAll(qualifiers);
   }
 
   public boolean removeQualifier(Qualifier qualifier) {
+    FeatureModifications.record();
     return this.qualifiers.remove(qualifier);
   }
 
@@ -228,6 +234,7 @@ public class Feature implements HasOrigin, Serializable, Comparable<Feature> {
   }
 
   public void removeAllQualifiers() {
+    FeatureModifications.record();
     qualifiers.clear();
   }
 
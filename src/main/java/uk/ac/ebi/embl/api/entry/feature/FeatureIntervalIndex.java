@@ -0,0 +1,167 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.entry.feature;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import uk.ac.ebi.embl.api.entry.location.CompoundLocation;
+import uk.ac.ebi.embl.api.entry.location.Location;
+import uk.ac.ebi.embl.api.entry.location.RemoteLocation;
+import uk.ac.ebi.embl.common.IntervalIndex;
+
+/**
+ * Finds the features whose span overlaps a range of positions in O(log n + k) time. The span of a
+ * feature is from the lowest to the highest position of its local locations; remote locations are
+ * ignored. Features without local locations, or with a local location without positions, are not
+ * indexed. The index does not change when the features or their locations do.
+ */
+public class FeatureIntervalIndex<T extends Feature> {
+
+  private final List<T> features;
+
+  /** The index in the feature list of each indexed feature, in increasing order. */
+  private final int[] indexedFeatureIndexes;
+
+  private final IntervalIndex spans;
+
+  /** The index in the feature list of each feature that is not indexed. */
+  private final int[] unindexedFeatureIndexes;
+
+  private final Map<Object, Object> derived = new HashMap<>();
+
+  public FeatureIntervalIndex(List<? extends T> features) {
+    this.features = new ArrayList<>(features);
+    int n = this.features.size();
+    int[] indexed = new int[n];
+    int[] unindexed = new int[n];
+    long[] begins = new long[n];
+    long[] ends = new long[n];
+    int indexedCount = 0;
+    int unindexedCount = 0;
+    for (int i = 0; i < n; i++) {
+      long[] span = getSpan(this.features.get(i));
+      if (span == null) {
+        unindexed[unindexedCount++] = i;
+      } else {
+        begins[indexedCount] = span[0];
+        ends[indexedCount] = span[1];
+        indexed[indexedCount++] = i;
+      }
+    }
+    indexedFeatureIndexes = Arrays.copyOf(indexed, indexedCount);
+    spans =
+        new IntervalIndex(Arrays.copyOf(begins, indexedCount), Arrays.copyOf(ends, indexedCount));
+    unindexedFeatureIndexes = Arrays.copyOf(unindexed, unindexedCount);
+  }
+
+  /** Returns the features whose span overlaps the closed range, in the order of the features. */
+  public List<T> getOverlappingFeatures(long beginPosition, long endPosition) {
+    return getFeatures(getFeatureIndexes(beginPosition, endPosition, new int[0]));
+  }
+
+  /**
+   * Returns the features whose span overlaps the closed range and the features that are not
+   * indexed, in the order of the features. These are all the features that may have a location
+   * in the range.
+   */
+  public List<T> getCandidateFeatures(long beginPosition, long endPosition) {
+    return getFeatures(getCandidateFeatureIndexes(beginPosition, endPosition));
+  }
+
+  /**
+   * Returns the index in {@link #getFeatures()} of each feature returned by {@link
+   * #getCandidateFeatures(long, long)}, in increasing order.
+   */
+  public int[] getCandidateFeatureIndexes(long beginPosition, long endPosition) {
+    return getFeatureIndexes(beginPosition, endPosition, unindexedFeatureIndexes);
+  }
+
+  /** Returns the features that are not indexed, in the order of the features. */
+  public List<T> getUnindexedFeatures() {
+    return getFeatures(unindexedFeatureIndexes);
+  }
+
+  /** Returns the features given to the index. */
+  public List<T> getFeatures() {
+    return Collections.unmodifiableList(features);
+  }
+
+  /** Returns the number of features given to the index. */
+  public int size() {
+    return features.size();
+  }
+
+  /**
+   * Returns the value computed from this index for the key, computing it when it is first asked
+   * for. Values that depend only on the features can be kept here so that they are dropped with
+   * the index when the features change.
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized <V> V getDerived(Object key, Function<FeatureIntervalIndex<T>, V> compute) {
+    V value = (V) derived.get(key);
+    if (value == null) {
+      value = compute.apply(this);
+      derived.put(key, value);
+    }
+    return value;
+  }
+
+  private int[] getFeatureIndexes(long beginPosition, long endPosition, int[] otherIndexes) {
+    int[] overlapping = spans.getOverlapping(beginPosition, endPosition);
+    int[] indexes = Arrays.copyOf(otherIndexes, otherIndexes.length + overlapping.length);
+    for (int i = 0; i < overlapping.length; i++) {
+      indexes[otherIndexes.length + i] = indexedFeatureIndexes[overlapping[i]];
+    }
+    Arrays.sort(indexes);
+    return indexes;
+  }
+
+  private List<T> getFeatures(int[] indexes) {
+    List<T> result = new ArrayList<>(indexes.length);
+    for (int index : indexes) {
+      result.add(features.get(index));
+    }
+    return result;
+  }
+
+  /**
+   * Returns the lowest and highest position of the local locations of the feature, or null if the
+   * feature is not indexed.
+   */
+  private static long[] getSpan(Feature feature) {
+    CompoundLocation<Location> locations = feature.getLocations();
+    if (locations == null || locations.getLocations() == null) {
+      return null;
+    }
+    long begin = Long.MAX_VALUE;
+    long end = Long.MIN_VALUE;
+    for (Location location : locations.getLocations()) {
+      if (location instanceof RemoteLocation) {
+        continue;
+      }
+      if (location == null
+          || location.getBeginPosition() == null
+          || location.getEndPosition() == null) {
+        return null;
+      }
+      long beginPosition = location.getBeginPosition();
+      long endPosition = location.getEndPosition();
+      begin = Math.min(begin, Math.min(beginPosition, endPosition));
+      end = Math.max(end, Math.max(beginPosition, endPosition));
+    }
+    return begin > end ? null : new long[] {begin, end};
+  }
+}
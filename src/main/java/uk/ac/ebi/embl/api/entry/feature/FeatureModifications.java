@@ -0,0 +1,33 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.entry.feature;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the changes to the locations and qualifiers of features in all entries. Anything built
+ * from features is out of date when the count is not the one it was built with. The complement of
+ * a location is not counted as it does not change its positions.
+ */
+public final class FeatureModifications {
+
+  private static final LongAdder count = new LongAdder();
+
+  private FeatureModifications() {}
+
+  public static void record() {
+    count.increment();
+  }
+
+  public static long getCount() {
+    return count.sum();
+  }
+}
@@ -16,6 +16,7 @@ import java.util.Collections;
 import java.util.List;
 import org.apache.commons.lang.builder.HashCodeBuilder;
 import org.apache.commons.lang.builder.ToStringBuilder;
+import uk.ac.ebi.embl.api.entry.feature.FeatureModifications;
 
 public abstract class CompoundLocation<E extends Location> extends AbstractLocation {
 
@@ -37,6 +38,7 @@ public abstract class CompoundLocation<E extends Location> extends AbstractLocat
   }
 
   public boolean addLocation(E location) {
+    FeatureModifications.record();
     return this.locations.add(location);
   }
 
@@ -44,10 +46,12 @@ public abstract class CompoundLocation<E extends Location> extends AbstractLocat
     if (locations == null) {
       return false;
     }
+    FeatureModifications.record();
     return this.locations.addAll(locations);
   }
 
   public boolean removeLocation(E location) {
+    FeatureModifications.record();
     return this.locations.remove(location);
   }
 
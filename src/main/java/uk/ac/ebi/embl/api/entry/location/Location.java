@@ -11,6 +11,7 @@
 package uk.ac.ebi.embl.api.entry.location;
 
 import java.io.Serializable;
+import uk.ac.ebi.embl.api.entry.feature.FeatureModifications;
 
 public abstract class Location extends AbstractLocation implements Serializable {
 
@@ -60,6 +61,7 @@ public abstract class Location extends AbstractLocation implements Serializable
   }
 
   public void setBeginPosition(Long beginPosition) {
+    FeatureModifications.record();
     this.beginPosition = beginPosition;
   }
 
@@ -68,6 +70,7 @@ public abstract class Location extends AbstractLocation implements Serializable
   }
 
   public void setEndPosition(Long endPosition) {
+    FeatureModifications.record();
     this.endPosition = endPosition;
   }
 
@@ -17,6 +17,7 @@ import org.apache.commons.lang.builder.CompareToBuilder;
 import org.apache.commons.lang.builder.EqualsBuilder;
 import org.apache.commons.lang.builder.HashCodeBuilder;
 import org.apache.commons.lang.builder.ToStringBuilder;
+import uk.ac.ebi.embl.api.entry.feature.FeatureModifications;
 import uk.ac.ebi.embl.api.storage.CachedFileDataManager;
 import uk.ac.ebi.embl.api.storage.DataManager;
 import uk.ac.ebi.embl.api.storage.DataRow;
@@ -191,10 +192,12 @@ public class Qualifier implements HasOrigin, Serializable, Comparable<Qualifier>
   }
 
   public void setValue(String value) {
+    FeatureModifications.record();
     this.value = value;
   }
 
   public void setName(String name) {
+    FeatureModifications.record();
     this.name = name;
   }
 
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.entry.sequence;
+
+import java.util.Arrays;
+
+/**
+ * The number of a, c, g, t and other bases in a sequence. Only lower case a, c, g and t are
+ * counted as such, as in the flat file SQ line.
+ */
+public final class BaseCount {
+
+  private static final int A = 0;
+  private static final int C = 1;
+  private static final int G = 2;
+  private static final int T = 3;
+  private static final int OTHER = 4;
+
+  private static final byte[] BASE_INDEX = new byte[256];
+
+  static {
+    Arrays.fill(BASE_INDEX, (byte) OTHER);
+    BASE_INDEX['a'] = A;
+    BASE_INDEX['c'] = C;
+    BASE_INDEX['g'] = G;
+    BASE_INDEX['t'] = T;
+  }
+
+  private final long[] counts;
+
+  private BaseCount(long[] counts) {
+    this.counts = counts;
+  }
+
+  BaseCount(long a, long c, long g, long t, long other) {
+    this(new long[] {a, c, g, t, other});
+  }
+
+  /**
+   * Counts the bases of the sequence, which may be packed, from its {@link
+   * Sequence#getComposition() composition}.
+   */
+  public static BaseCount count(Sequence sequence) {
+    SequenceComposition composition = sequence.getComposition();
+    return composition == null ? new BaseCount(new long[5]) : composition.getBaseCount();
+  }
+
+  public static BaseCount count(byte[] bases) {
+    long[] counts = new long[5];
+    count(bases, 0, bases.length, counts);
+    return new BaseCount(counts);
+  }
+
+  private static void count(byte[] bases, int offset, int length, long[] counts) {
+    for (int i = offset; i < offset + length; i++) {
+      counts[BASE_INDEX[bases[i] & 0xFF]]++;
+    }
+  }
+
+  public long getA() {
+    return counts[A];
+  }
+
+  public long getC() {
+    return counts[C];
+  }
+
+  public long getG() {
+    return counts[G];
+  }
+
+  public long getT() {
+    return counts[T];
+  }
+
+  public long getOther() {
+    return counts[OTHER];
+  }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.entry.sequence;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Immutable nucleotide sequence stored with 2 bits per a, c, g or t base. Any other byte (n, IUPAC
+ * ambiguity codes, gaps) is kept in a run-length side table and upper case bases are kept as a
+ * list of upper case ranges, so the original bytes are restored exactly. Positions are 0-based.
+ */
+public final class PackedSequence implements Serializable {
+
+  private static final long serialVersionUID = -2358027826337810574L;
+
+  /** The largest array the JVM can allocate, as some reserve header words in arrays. */
+  static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+  private static final byte[] DECODE = {'a', 'c', 'g', 't'};
+  private static final byte[] ENCODE = new byte[256];
+
+  static {
+    Arrays.fill(ENCODE, (byte) -1);
+    ENCODE['a'] = 0;
+    ENCODE['c'] = 1;
+    ENCODE['g'] = 2;
+    ENCODE['t'] = 3;
+  }
+
+  private final long length;
+  private final byte[] codes;
+
+  private final long[] otherStarts;
+  private final int[] otherLengths;
+  private final byte[] otherBases;
+  private final int otherCount;
+
+  private final long[] upperStarts;
+  private final int[] upperLengths;
+  private final int upperCount;
+
+  private PackedSequence(Builder builder) {
+    this.length = builder.length;
+    this.codes = Arrays.copyOf(builder.codes, (int) ((builder.length + 3) >>> 2));
+    this.otherCount = builder.other.count;
+    this.otherStarts = Arrays.copyOf(builder.other.starts, otherCount);
+    this.otherLengths = Arrays.copyOf(builder.other.lengths, otherCount);
+    this.otherBases = Arrays.copyOf(builder.other.bases, otherCount);
+    this.upperCount = builder.upper.count;
+    this.upperStarts = Arrays.copyOf(builder.upper.starts, upperCount);
+    this.upperLengths = Arrays.copyOf(builder.upper.lengths, upperCount);
+  }
+
+  public static PackedSequence pack(byte[] sequence) {
+    return new Builder(sequence.length).append(sequence, 0, sequence.length).build();
+  }
+
+  public long getLength() {
+    return length;
+  }
+
+  /** Returns the number of bases that are not a, c, g or t in either case. */
+  public long getOtherBaseCount() {
+    long count = 0;
+    for (int i = 0; i < otherCount; i++) {
+      count += otherLengths[i];
+    }
+    return count;
+  }
+
+  public byte getByte(long position) {
+    if (position < 0 || position >= length) {
+      throw new IndexOutOfBoundsException("position " + position + " length " + length);
+    }
+    byte[] base = new byte[1];
+    getBytes(position, base, 0, 1);
+    return base[0];
+  }
+
+  public byte[] getBytes(long offset, int count) {
+    byte[] bytes = new byte[count];
+    getBytes(offset, bytes, 0, count);
+    return bytes;
+  }
+
+  /** Decodes {@code count} bases starting from {@code offset} into the destination array. */
+  public void getBytes(long offset, byte[] destination, int destinationOffset, int count) {
+    if (offset < 0 || count < 0 || offset + count > length) {
+      throw new IndexOutOfBoundsException(
+          "offset " + offset + " count " + count + " length " + length);
+    }
+    for (int i = 0; i < count; i++) {
+      long position = offset + i;
+      int code = (codes[(int) (position >>> 2)] >>> ((position & 3) << 1)) & 3;
+      destination[destinationOffset + i] = DECODE[code];
+    }
+    long end = offset + count;
+    for (int run = firstRun(otherStarts, otherLengths, otherCount, offset);
+        run < otherCount && otherStarts[run] < end;
+        run++) {
+      long from = Math.max(offset, otherStarts[run]);
+      long to = Math.min(end, otherStarts[run] + otherLengths[run]);
+      Arrays.fill(
+          destination,
+          destinationOffset + (int) (from - offset),
+          destinationOffset + (int) (to - offset),
+          otherBases[run]);
+    }
+    for (int run = firstRun(upperStarts, upperLengths, upperCount, offset);
+        run < upperCount && upperStarts[run] < end;
+        run++) {
+      long from = Math.max(offset, upperStarts[run]);
+      long to = Math.min(end, upperStarts[run] + upperLengths[run]);
+      for (long position = from; position < to; position++) {
+        int index = destinationOffset + (int) (position - offset);
+        destination[index] = (byte) Character.toUpperCase((char) destination[index]);
+      }
+    }
+  }
+
+  /**
+   * Returns all the bases in one array.
+   *
+   * @throws IllegalStateException if there are more bases than an array can hold; copy them in
+   *     parts with {@link #getBytes(long, byte[], int, int)} instead
+   */
+  public byte[] toByteArray() {
+    if (length > MAX_ARRAY_LENGTH) {
+      throw new IllegalStateException(
+          "Sequence of " + length + " bases is too long to be returned as an array");
+    }
+    return getBytes(0, (int) length);
+  }
+
+  /** Returns a packed copy of the bases between {@code offset} and {@code offset + count}. */
+  public PackedSequence subSequence(long offset, long count) {
+    Builder builder = new Builder(count);
+    byte[] chunk = new byte[(int) Math.min(count, Builder.CHUNK_SIZE)];
+    for (long position = offset; position < offset + count; position += chunk.length) {
+      int chunkLength = (int) Math.min(chunk.length, offset + count - position);
+      getBytes(position, chunk, 0, chunkLength);
+      builder.append(chunk, 0, chunkLength);
+    }
+    return builder.build();
+  }
+
+  /** Returns the index of the first run that ends after the given position. */
+  private static int firstRun(long[] starts, int[] lengths, int count, long position) {
+    int index = Arrays.binarySearch(starts, 0, count, position);
+    if (index < 0) {
+      index = -index - 2;
+    }
+    if (index < 0) {
+      return 0;
+    }
+    return starts[index] + lengths[index] > position ? index : index + 1;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof PackedSequence)) {
+      return false;
+    }
+    PackedSequence other = (PackedSequence) obj;
+    return length == other.length
+        && Arrays.equals(codes, other.codes)
+        && Arrays.equals(otherStarts, other.otherStarts)
+        && Arrays.equals(otherLengths, other.otherLengths)
+        && Arrays.equals(otherBases, other.otherBases)
+        && Arrays.equals(upperStarts, other.upperStarts)
+        && Arrays.equals(upperLengths, other.upperLengths);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Long.hashCode(length) + Arrays.hashCode(codes);
+  }
+
+  /** Packs a sequence that is appended in chunks, e.g. while it is being read. */
+  public static final class Builder {
+
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private byte[] codes;
+    private long length;
+    private final Runs other = new Runs();
+    private final Runs upper = new Runs();
+
+    public Builder() {
+      this(CHUNK_SIZE);
+    }
+
+    /** @param expectedLength the expected sequence length used to size the packed array */
+    public Builder(long expectedLength) {
+      this.codes = new byte[(int) Math.max(1, (expectedLength + 3) >>> 2)];
+    }
+
+    public Builder append(byte[] bases, int offset, int count) {
+      ensureCapacity(length + count);
+      for (int i = offset; i < offset + count; i++) {
+        byte base = bases[i];
+        if (base >= 'A' && base <= 'Z') {
+          upper.add(length, (byte) 0);
+          base = (byte) (base | 0x20);
+        }
+        int code = ENCODE[base & 0xFF];
+        if (code < 0) {
+          other.add(length, base);
+        } else if (code != 0) {
+          codes[(int) (length >>> 2)] |= (byte) (code << ((length & 3) << 1));
+        }
+        length++;
+      }
+      return this;
+    }
+
+    public PackedSequence build() {
+      return new PackedSequence(this);
+    }
+
+    private void ensureCapacity(long newLength) {
+      long required = (newLength + 3) >>> 2;
+      if (required > Integer.MAX_VALUE - 8) {
+        throw new IllegalArgumentException("Maximum packed sequence length exceeded");
+      }
+      if (required > codes.length) {
+        long capacity = Math.min(Integer.MAX_VALUE - 8, Math.max(required, codes.length * 2L));
+        codes = Arrays.copyOf(codes, (int) capacity);
+      }
+    }
+  }
+
+  /** Growable run-length list of positions sharing the same base. */
+  private static final class Runs {
+    private long[] starts = new long[8];
+    private int[] lengths = new int[8];
+    private byte[] bases = new byte[8];
+    private int count;
+
+    void add(long position, byte base) {
+      if (count > 0) {
+        int last = count - 1;
+        if (bases[last] == base
+            && starts[last] + lengths[last] == position
+            && lengths[last] < Integer.MAX_VALUE) {
+          lengths[last]++;
+          return;
+        }
+      }
+      if (count == starts.length) {
+        starts = Arrays.copyOf(starts, count * 2);
+        lengths = Arrays.copyOf(lengths, count * 2);
+        bases = Arrays.copyOf(bases, count * 2);
+      }
+      starts[count] = position;
+      lengths[count] = 1;
+      bases[count] = base;
+      count++;
+    }
+  }
+}
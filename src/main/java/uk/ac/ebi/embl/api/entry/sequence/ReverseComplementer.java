@@ -12,6 +12,19 @@ package uk.ac.ebi.embl.api.entry.sequence;
 
 public class ReverseComplementer {
 
+  private static final byte[] COMPLEMENT = new byte[256];
+
+  static {
+    for (int i = 0; i < COMPLEMENT.length; i++) {
+      COMPLEMENT[i] = (byte) i;
+    }
+    byte[] bases = "acgtunyrmkswhbvd*".getBytes();
+    byte[] complements = "tgcaanrykmswdvbh*".getBytes();
+    for (int i = 0; i < bases.length; i++) {
+      COMPLEMENT[bases[i]] = complements[i];
+    }
+  }
+
   @Deprecated
   public String reverseComplement(String sequence) {
     if (sequence == null) {
@@ -140,4 +153,17 @@ public class ReverseComplementer {
     }
     return complementByte;
   }
+
+  /**
+   * Reverse complements the first count bases of the array in place. Unlike {@link
+   * #reverseComplementByte(byte[])} bases without a complement are kept rather than dropped, so
+   * a long sequence can be processed in chunks.
+   */
+  public void reverseComplementByte(byte[] sequence, int count) {
+    for (int i = 0, j = count - 1; i <= j; i++, j--) {
+      byte base = COMPLEMENT[sequence[j] & 0xFF];
+      sequence[j] = COMPLEMENT[sequence[i] & 0xFF];
+      sequence[i] = base;
+    }
+  }
 }
@@ -13,6 +13,7 @@ package uk.ac.ebi.embl.api.entry.sequence;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -29,6 +30,8 @@ public class Sequence extends AbstractSequence implements HasOrigin, Serializabl
 
   private static final long serialVersionUID = -7213946602036350730L;
 
+  private static final int EQUALS_CHUNK_SIZE = 1 << 16;
+
   public enum Topology {
     LINEAR,
     CIRCULAR
@@ -42,6 +45,8 @@ public class Sequence extends AbstractSequence implements HasOrigin, Serializabl
   private SequenceAccession sequenceAccession = new SequenceAccession(null, null);
   private String GIAccession;
   private ByteBuffer sequence;
+  private PackedSequence packedSequence;
+  private transient SequenceComposition composition;
 
   private long length = 0;
   private long contigLength = 0;
@@ -114,7 +119,9 @@ public class Sequence extends AbstractSequence implements HasOrigin, Serializabl
 
   @Deprecated
   public ByteBuffer getSequenceBuffer() {
-
+    if (packedSequence != null) {
+      return ByteBuffer.wrap(packedSequence.toByteArray());
+    }
     return sequence;
   }
 
@@ -140,6 +147,9 @@ public class Sequence extends AbstractSequence implements HasOrigin, Serializabl
     int offset = beginPosition.intValue() - 1;
     String subSequence = null;
     try {
+      if (packedSequence != null) {
+        return ByteBufferUtils.string(ByteBuffer.wrap(packedSequence.getBytes(offset, length)));
+      }
       subSequence = ByteBufferUtils.string(getSequenceBuffer(), offset, length);
     } catch (Exception e) {
       e.printStackTrace();
@@ -169,11 +179,78 @@ public class Sequence extends AbstractSequence implements HasOrigin, Serializabl
    */
   public void setSequence(ByteBuffer sequence) {
     this.sequence = sequence;
+    this.packedSequence = null;
+    this.composition = null;
+  }
+
+  public PackedSequence getPackedSequence() {
+    return packedSequence;
+  }
+
+  /**
+   * Sets the sequence in 2-bit packed form. The bases are decoded on demand by {@link
+   * #getSequenceByte()} and the other sequence accessors.
+   */
+  public void setPackedSequence(PackedSequence packedSequence) {
+    this.packedSequence = packedSequence;
+    this.sequence = null;
+    this.composition = null;
+  }
+
+  /** Replaces the sequence bytes with their 2-bit packed form. */
+  public void pack() {
+    if (sequence != null) {
+      SequenceComposition composition = this.composition;
+      setPackedSequence(PackedSequence.pack(sequence.array()));
+      // Packing keeps the bases.
+      this.composition = composition;
+    }
+  }
+
+  /**
+   * Returns the composition of the bases, computed on the first call and kept until the bases are
+   * replaced by {@link #setSequence(ByteBuffer)} or {@link #setPackedSequence(PackedSequence)}.
+   * Bases changed in place in the array returned by {@link #getSequenceByte()} are only seen once
+   * the sequence is set again.
+   *
+   * @return the composition, or null if the sequence has no bases
+   */
+  public SequenceComposition getComposition() {
+    if (composition == null && hasSequenceByte()) {
+      composition = SequenceComposition.of(this);
+    }
+    return composition;
+  }
+
+  /** Returns true if the sequence has bases, either as bytes or in packed form. */
+  public boolean hasSequenceByte() {
+    return sequence != null || packedSequence != null;
+  }
+
+  /**
+   * Copies bases into the given buffer without materialising the whole sequence.
+   *
+   * @param beginPosition the 1-based position of the first base to copy
+   * @param buffer the buffer to fill
+   * @return the number of bases copied, or 0 if there are none left
+   */
+  public int copySequenceByte(long beginPosition, byte[] buffer) {
+    if (!hasSequenceByte() || beginPosition < 1 || beginPosition > getLength()) {
+      return 0;
+    }
+    int length = (int) Math.min(buffer.length, getLength() - beginPosition + 1);
+    if (packedSequence != null) {
+      packedSequence.getBytes(beginPosition - 1, buffer, 0, length);
+    } else {
+      System.arraycopy(sequence.array(), (int) beginPosition - 1, buffer, 0, length);
+    }
+    return length;
   }
 
   @Override
   public long getLength() {
     if (sequence != null) return sequence.array().length;
+    else if (packedSequence != null) return packedSequence.getLength();
     else if (getContigs().size() != 0) {
       if (this.contigLength == 0) {
         for (Location contig : getContigs()) {
@@ -217,16 +294,36 @@ public class Sequence extends AbstractSequence implements HasOrigin, Serializabl
       final Sequence other = (Sequence) obj;
       final EqualsBuilder builder = new EqualsBuilder();
       builder.append(this.sequenceAccession, other.sequenceAccession);
-      builder.append(this.sequence, other.sequence);
       builder.append(this.length, other.length);
       builder.append(this.moleculeType, other.moleculeType);
       builder.append(this.topology, other.topology);
-      return builder.isEquals();
+      return builder.isEquals() && hasSameBases(other);
     } else {
       return false;
     }
   }
 
+  /** Compares the bases in chunks, so that packed and unpacked copies of them are equal. */
+  private boolean hasSameBases(Sequence other) {
+    long length = getLength();
+    if (length != other.getLength() || hasSequenceByte() != other.hasSequenceByte()) {
+      return false;
+    }
+    if (!hasSequenceByte()) {
+      return true;
+    }
+    byte[] bases = new byte[(int) Math.min(length, EQUALS_CHUNK_SIZE)];
+    byte[] otherBases = new byte[bases.length];
+    for (long position = 1; position <= length; position += bases.length) {
+      int count = copySequenceByte(position, bases);
+      other.copySequenceByte(position, otherBases);
+      if (!Arrays.equals(bases, 0, count, otherBases, 0, count)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   @Override
   public String toString() {
     final ToStringBuilder builder = new ToStringBuilder(this);
@@ -238,9 +335,16 @@ public class Sequence extends AbstractSequence implements HasOrigin, Serializabl
     return builder.toString();
   }
 
+  /**
+   * Returns the bases in one array, decoding a packed sequence in full. Use {@link
+   * #copySequenceByte(long, byte[])} to read a long sequence in parts.
+   *
+   * @throws IllegalStateException if there are more bases than an array can hold
+   */
   @Override
   public byte[] getSequenceByte() {
     if (sequence != null) return sequence.array();
+    if (packedSequence != null) return packedSequence.toByteArray();
     return null;
   }
 
@@ -254,10 +358,16 @@ public class Sequence extends AbstractSequence implements HasOrigin, Serializabl
       return null;
     }
 
-    int length = (int) (endPosition.longValue() - beginPosition.longValue()) + 1;
-    int offset = beginPosition.intValue() - 1;
-    byte[] subSequence = new byte[length];
-    System.arraycopy(getSequenceByte(), offset, subSequence, 0, length);
+    long length = endPosition - beginPosition + 1;
+    if (length > PackedSequence.MAX_ARRAY_LENGTH) {
+      throw new IllegalStateException(
+          "Sequence of " + length + " bases is too long to be returned as an array");
+    }
+    if (packedSequence != null) {
+      return packedSequence.getBytes(beginPosition - 1, (int) length);
+    }
+    byte[] subSequence = new byte[(int) length];
+    System.arraycopy(sequence.array(), (int) (beginPosition - 1), subSequence, 0, (int) length);
     return subSequence;
   }
 
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.entry.sequence;
+
+import java.util.Arrays;
+
+/**
+ * The composition of the bases of a sequence, found in a single scan: the number of each byte,
+ * the runs of n bases and the runs of upper case bases. Runs are in sequence order and their
+ * positions are 1-based and inclusive, as in feature locations.
+ *
+ * <p>Obtained from {@link Sequence#getComposition()}, which keeps it until the bases of the
+ * sequence are replaced.
+ */
+public final class SequenceComposition {
+
+  /** The chunk of bases copied from the sequence at a time. */
+  private static final int CHUNK_SIZE = 64 * 1024;
+
+  private final long length;
+  private final long[] counts = new long[256];
+
+  // Start and end positions of each run, one after the other.
+  private long[] nRuns = new long[16];
+  private int nRunCount = 0;
+  private long[] upperCaseRuns = new long[0];
+  private int upperCaseRunCount = 0;
+
+  private SequenceComposition(long length) {
+    this.length = length;
+  }
+
+  /** Scans the bases of the sequence, which may be packed, without copying it as a whole. */
+  static SequenceComposition of(Sequence sequence) {
+    SequenceComposition composition = new SequenceComposition(sequence.getLength());
+    byte[] chunk = new byte[(int) Math.min(CHUNK_SIZE, Math.max(1, sequence.getLength()))];
+    long nRunStart = 0;
+    long upperCaseRunStart = 0;
+    long position = 1;
+    int chunkLength;
+    while ((chunkLength = sequence.copySequenceByte(position, chunk)) > 0) {
+      for (int i = 0; i < chunkLength; i++, position++) {
+        byte base = chunk[i];
+        composition.counts[base & 0xFF]++;
+        if (base == 'n') {
+          if (nRunStart == 0) {
+            nRunStart = position;
+          }
+        } else if (nRunStart != 0) {
+          composition.addNRun(nRunStart, position - 1);
+          nRunStart = 0;
+        }
+        if (base >= 'A' && base <= 'Z') {
+          if (upperCaseRunStart == 0) {
+            upperCaseRunStart = position;
+          }
+        } else if (upperCaseRunStart != 0) {
+          composition.addUpperCaseRun(upperCaseRunStart, position - 1);
+          upperCaseRunStart = 0;
+        }
+      }
+    }
+    if (nRunStart != 0) {
+      composition.addNRun(nRunStart, position - 1);
+    }
+    if (upperCaseRunStart != 0) {
+      composition.addUpperCaseRun(upperCaseRunStart, position - 1);
+    }
+    return composition;
+  }
+
+  public long getLength() {
+    return length;
+  }
+
+  /** Returns the number of bases equal to the byte. Bases are counted case sensitively. */
+  public long getCount(byte base) {
+    return counts[base & 0xFF];
+  }
+
+  public long getNCount() {
+    return counts['n'];
+  }
+
+  public BaseCount getBaseCount() {
+    long a = counts['a'];
+    long c = counts['c'];
+    long g = counts['g'];
+    long t = counts['t'];
+    return new BaseCount(a, c, g, t, length - a - c - g - t);
+  }
+
+  public int getNRunCount() {
+    return nRunCount;
+  }
+
+  public long getNRunStart(int run) {
+    return nRuns[checkRun(run, nRunCount) * 2];
+  }
+
+  public long getNRunEnd(int run) {
+    return nRuns[checkRun(run, nRunCount) * 2 + 1];
+  }
+
+  /** Returns true if all the bases from the begin position to the end position are n. */
+  public boolean isAllN(long beginPosition, long endPosition) {
+    if (beginPosition > endPosition) {
+      return true;
+    }
+    // The last run starting at or before the begin position.
+    int low = 0;
+    int high = nRunCount - 1;
+    int run = -1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (nRuns[mid * 2] <= beginPosition) {
+        run = mid;
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return run >= 0 && nRuns[run * 2 + 1] >= endPosition;
+  }
+
+  public int getUpperCaseRunCount() {
+    return upperCaseRunCount;
+  }
+
+  public long getUpperCaseRunStart(int run) {
+    return upperCaseRuns[checkRun(run, upperCaseRunCount) * 2];
+  }
+
+  public long getUpperCaseRunEnd(int run) {
+    return upperCaseRuns[checkRun(run, upperCaseRunCount) * 2 + 1];
+  }
+
+  private static int checkRun(int run, int runCount) {
+    if (run < 0 || run >= runCount) {
+      throw new IndexOutOfBoundsException("Run: " + run);
+    }
+    return run;
+  }
+
+  private void addNRun(long start, long end) {
+    if (nRunCount * 2 == nRuns.length) {
+      nRuns = Arrays.copyOf(nRuns, nRuns.length * 2);
+    }
+    nRuns[nRunCount * 2] = start;
+    nRuns[nRunCount * 2 + 1] = end;
+    nRunCount++;
+  }
+
+  private void addUpperCaseRun(long start, long end) {
+    if (upperCaseRunCount * 2 == upperCaseRuns.length) {
+      upperCaseRuns = Arrays.copyOf(upperCaseRuns, Math.max(16, upperCaseRuns.length * 2));
+    }
+    upperCaseRuns[upperCaseRunCount * 2] = start;
+    upperCaseRuns[upperCaseRunCount * 2 + 1] = end;
+    upperCaseRunCount++;
+  }
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import uk.ac.ebi.ena.taxonomy.client.TaxonomyClient;
+import uk.ac.ebi.ena.taxonomy.taxon.Taxon;
+
+/**
+ * Taxonomy client that caches the lookups of another client, so that the same organism is looked
+ * up once per submission instead of once per entry. Lookups without a result are cached too.
+ *
+ * <p>The cache holds at most {@code maximumSize} lookups, evicting the least recently used one,
+ * and a lookup expires {@code timeToLive} after it was made. The cached lookups can be saved to a
+ * snapshot file and loaded into another client, for example to validate without access to the
+ * taxonomy service. Lookups loaded from a snapshot do not expire.
+ *
+ * <p>The client is thread-safe if the client it wraps is.
+ */
+public class CachingTaxonomyClient extends TaxonomyClient {
+
+  public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+  public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofHours(1);
+
+  private static final long NO_EXPIRY = Long.MAX_VALUE;
+
+  private static class CachedLookup {
+    private final Object value;
+    private final long expiresAt;
+
+    private CachedLookup(Object value, long expiresAt) {
+      this.value = value;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+  private final TaxonomyClient taxonomyClient;
+  private final long timeToLive;
+  private final LongSupplier clock;
+  private final Map<List<Object>, CachedLookup> cache;
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+
+  private static class SharedInstanceHolder {
+    static final CachingTaxonomyClient INSTANCE = new CachingTaxonomyClient();
+  }
+
+  public CachingTaxonomyClient() {
+    this(new TaxonomyClient());
+  }
+
+  /** Returns the client shared by the validations that are not given a client of their own. */
+  public static CachingTaxonomyClient getSharedInstance() {
+    return SharedInstanceHolder.INSTANCE;
+  }
+
+  public CachingTaxonomyClient(TaxonomyClient taxonomyClient) {
+    this(taxonomyClient, DEFAULT_MAXIMUM_SIZE, DEFAULT_TIME_TO_LIVE);
+  }
+
+  public CachingTaxonomyClient(
+      TaxonomyClient taxonomyClient, int maximumSize, Duration timeToLive) {
+    this(taxonomyClient, maximumSize, timeToLive, System::nanoTime);
+  }
+
+  CachingTaxonomyClient(
+      TaxonomyClient taxonomyClient, int maximumSize, Duration timeToLive, LongSupplier clock) {
+    this.taxonomyClient = taxonomyClient;
+    this.timeToLive = timeToLive.toNanos();
+    this.clock = clock;
+    this.cache =
+        new LinkedHashMap<List<Object>, CachedLookup>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<List<Object>, CachedLookup> eldest) {
+            return size() > maximumSize;
+          }
+        };
+  }
+
+  @Override
+  public Taxon getTaxonByTaxid(Long taxId) {
+    return lookup(() -> taxonomyClient.getTaxonByTaxid(taxId), "getTaxonByTaxid", taxId);
+  }
+
+  @Override
+  public Taxon getTaxonByScientificName(String scientificName) {
+    return lookup(
+        () -> taxonomyClient.getTaxonByScientificName(scientificName),
+        "getTaxonByScientificName",
+        scientificName);
+  }
+
+  @Override
+  public Taxon getTaxonByCommonName(String commonName) {
+    return lookup(
+        () -> taxonomyClient.getTaxonByCommonName(commonName), "getTaxonByCommonName", commonName);
+  }
+
+  @Override
+  public List<Taxon> getTaxonsByScientificName(String scientificName) {
+    return copy(
+        lookup(
+            () -> taxonomyClient.getTaxonsByScientificName(scientificName),
+            "getTaxonsByScientificName",
+            scientificName));
+  }
+
+  @Override
+  public List<Taxon> getTaxonsByCommonName(String commonName) {
+    return copy(
+        lookup(
+            () -> taxonomyClient.getTaxonsByCommonName(commonName),
+            "getTaxonsByCommonName",
+            commonName));
+  }
+
+  @Override
+  public List<Taxon> getTaxonsByAnyName(String anyName) {
+    return copy(
+        lookup(() -> taxonomyClient.getTaxonsByAnyName(anyName), "getTaxonsByAnyName", anyName));
+  }
+
+  @Override
+  public List<Taxon> searchTaxa(List<Long> taxIds, String fields, boolean submittable) {
+    List<Long> key = taxIds == null ? null : new ArrayList<>(taxIds);
+    return copy(
+        lookup(
+            () -> taxonomyClient.searchTaxa(taxIds, fields, submittable),
+            "searchTaxa",
+            key,
+            fields,
+            submittable));
+  }
+
+  @Override
+  public boolean isChildOf(String name, String parentName) {
+    return lookup(() -> taxonomyClient.isChildOf(name, parentName), "isChildOf", name, parentName);
+  }
+
+  @Override
+  public boolean isChildOfAny(String name, String... parentNames) {
+    List<String> key = parentNames == null ? null : Arrays.asList(parentNames.clone());
+    return lookup(
+        () -> taxonomyClient.isChildOfAny(name, parentNames), "isChildOfAny", name, key);
+  }
+
+  @Override
+  public boolean isOrganismValid(String name) {
+    return lookup(() -> taxonomyClient.isOrganismValid(name), "isOrganismValid", name);
+  }
+
+  @Override
+  public boolean isOrganismMetagenome(String name) {
+    return lookup(() -> taxonomyClient.isOrganismMetagenome(name), "isOrganismMetagenome", name);
+  }
+
+  @Override
+  public boolean isOrganismFormal(String name) {
+    return lookup(() -> taxonomyClient.isOrganismFormal(name), "isOrganismFormal", name);
+  }
+
+  @Override
+  public boolean isProkaryotic(String name) {
+    return lookup(() -> taxonomyClient.isProkaryotic(name), "isProkaryotic", name);
+  }
+
+  @Override
+  public boolean isTaxidSubmittable(Long taxId, boolean metagenome) {
+    return lookup(
+        () -> taxonomyClient.isTaxidSubmittable(taxId, metagenome),
+        "isTaxidSubmittable",
+        taxId,
+        metagenome);
+  }
+
+  @Override
+  public boolean isOrganismSubmittable(String name, boolean metagenome) {
+    return lookup(
+        () -> taxonomyClient.isOrganismSubmittable(name, metagenome),
+        "isOrganismSubmittable",
+        name,
+        metagenome);
+  }
+
+  @Override
+  public boolean isAnyNameSubmittable(String name, boolean metagenome) {
+    return lookup(
+        () -> taxonomyClient.isAnyNameSubmittable(name, metagenome),
+        "isAnyNameSubmittable",
+        name,
+        metagenome);
+  }
+
+  /** Returns the number of lookups answered from the cache. */
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  /** Returns the number of lookups passed to the wrapped client. */
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  public int size() {
+    synchronized (cache) {
+      return cache.size();
+    }
+  }
+
+  public void clear() {
+    synchronized (cache) {
+      cache.clear();
+    }
+  }
+
+  /**
+   * Saves the cached lookups that have not expired to the snapshot file. Lookups with a result
+   * that is not serializable are not saved.
+   */
+  public void saveSnapshot(Path snapshotFile) throws IOException {
+    HashMap<List<Object>, Object> snapshot = new HashMap<>();
+    long now = clock.getAsLong();
+    synchronized (cache) {
+      for (Map.Entry<List<Object>, CachedLookup> entry : cache.entrySet()) {
+        CachedLookup cachedLookup = entry.getValue();
+        if (isExpired(cachedLookup, now) || !isSerializable(cachedLookup.value)) {
+          continue;
+        }
+        Object value = cachedLookup.value;
+        snapshot.put(
+            entry.getKey(), value instanceof List ? new ArrayList<>((List<?>) value) : value);
+      }
+    }
+    try (ObjectOutputStream out =
+        new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(snapshotFile)))) {
+      out.writeObject(snapshot);
+    }
+  }
+
+  /** Loads the lookups saved in the snapshot file into the cache. */
+  @SuppressWarnings("unchecked")
+  public void loadSnapshot(Path snapshotFile) throws IOException {
+    Map<List<Object>, Object> snapshot;
+    try (ObjectInputStream in =
+        new ObjectInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+      snapshot = (Map<List<Object>, Object>) in.readObject();
+    } catch (ClassNotFoundException e) {
+      throw new IOException("Invalid taxonomy snapshot: " + snapshotFile, e);
+    }
+    synchronized (cache) {
+      for (Map.Entry<List<Object>, Object> entry : snapshot.entrySet()) {
+        cache.put(entry.getKey(), new CachedLookup(entry.getValue(), NO_EXPIRY));
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T lookup(Supplier<T> remoteLookup, Object... key) {
+    List<Object> cacheKey = Arrays.asList(key);
+    long now = clock.getAsLong();
+    synchronized (cache) {
+      CachedLookup cachedLookup = cache.get(cacheKey);
+      if (cachedLookup != null && !isExpired(cachedLookup, now)) {
+        hitCount.incrementAndGet();
+        return (T) cachedLookup.value;
+      }
+    }
+    missCount.incrementAndGet();
+    // The wrapped client is called without holding the lock, so slow lookups of different
+    // organisms do not wait for each other.
+    T value = remoteLookup.get();
+    synchronized (cache) {
+      cache.put(cacheKey, new CachedLookup(value, now + timeToLive));
+    }
+    return value;
+  }
+
+  private static boolean isExpired(CachedLookup cachedLookup, long now) {
+    return cachedLookup.expiresAt != NO_EXPIRY && now - cachedLookup.expiresAt >= 0;
+  }
+
+  private static boolean isSerializable(Object value) {
+    if (value instanceof List) {
+      for (Object element : (List<?>) value) {
+        if (!isSerializable(element)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return value == null || value instanceof Serializable;
+  }
+
+  /** Returns a copy of the cached list, as callers may modify the list they are given. */
+  private static List<Taxon> copy(List<Taxon> taxons) {
+    return taxons == null ? null : new ArrayList<>(taxons);
+  }
+}
@@ -58,7 +58,8 @@ public class MasterEntryService {
               options.webinAuthUri.get(),
               options.biosamplesUri.get(),
               options.biosamplesWebinUsername.get(),
-              options.biosamplesWebinPassword.get());
+              options.biosamplesWebinPassword.get(),
+              options.getTaxonomyClient());
       masterEntry = getMasterEntryFromSubmittedXml(options, utils);
     }
 
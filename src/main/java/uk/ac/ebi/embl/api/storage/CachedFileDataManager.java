@@ -11,8 +11,8 @@
 package uk.ac.ebi.embl.api.storage;
 
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import uk.ac.ebi.embl.api.storage.tsv.TSVReader;
 
 public class CachedFileDataManager implements DataManager {
@@ -21,20 +21,21 @@ public class CachedFileDataManager implements DataManager {
   private final TSVReader reader = new TSVReader();
 
   public CachedFileDataManager() {
-    this.dataSetCache = new HashMap<String, DataSet>();
+    this.dataSetCache = new ConcurrentHashMap<>();
   }
 
   /**
-   * Retrieves DataSet object (from cache or loads it) for provided file name.
+   * Retrieves DataSet object (from cache or loads it) for provided file name. The cached data sets
+   * keep their column indexes, so lookups on a data set retrieved again do not rebuild them.
    *
    * @param fileName a file name
    * @return loaded DataSet object
    */
   public DataSet getDataSet(String fileName) {
-    if (dataSetCache.containsKey(fileName)) {
-      return dataSetCache.get(fileName);
+    DataSet dataSet = dataSetCache.get(fileName);
+    if (dataSet != null) {
+      return dataSet;
     }
-    DataSet dataSet;
     try {
       dataSet = loadDataSetAsStream(fileName);
     } catch (IOException e) {
@@ -12,11 +12,22 @@ package uk.ac.ebi.embl.api.storage;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Rows of a data file. Lookups by column value go through indexes that are built for a column on
+ * its first lookup and dropped when a row is added, so the data set can be shared between threads
+ * once it has been loaded.
+ */
 public class DataSet {
 
   private final List<DataRow> dataRows;
+  private final Map<Integer, Map<Object, List<DataRow>>> indexes = new ConcurrentHashMap<>();
+  private final Map<Integer, Map<Object, List<DataRow>>> ignoreCaseIndexes =
+      new ConcurrentHashMap<>();
 
   public DataSet() {
     this.dataRows = new ArrayList<DataRow>();
@@ -29,6 +40,8 @@ public class DataSet {
    */
   public void addRow(DataRow dataRow) {
     this.dataRows.add(dataRow);
+    this.indexes.clear();
+    this.ignoreCaseIndexes.clear();
   }
 
   /**
@@ -53,14 +66,9 @@ public class DataSet {
   }
 
   public DataRow findRow(int columnIndex, Object value) {
-    for (DataRow dataRow : dataRows) {
-      Object columnValue = dataRow.getColumn(columnIndex);
-      if (value.equals(columnValue)) {
-        return dataRow;
-      }
-    }
-    return null;
+    return first(findRows(columnIndex, value));
   }
+
   /**
    * checks whether dataset contains the value given (ignoring the case)
    *
@@ -69,12 +77,64 @@ public class DataSet {
    * @return
    */
   public DataRow findRowIgnoreCase(int columnIndex, String value) {
+    return first(findRowsIgnoreCase(columnIndex, value));
+  }
+
+  /**
+   * Finds the rows which values of specified column equals to provided value.
+   *
+   * @param columnIndex a number of column
+   * @param value a value to be compared
+   * @return the matching rows in data set order
+   */
+  public List<DataRow> findRows(int columnIndex, Object value) {
+    Map<Object, List<DataRow>> index =
+        indexes.computeIfAbsent(columnIndex, column -> buildIndex(column, false));
+    return index.getOrDefault(value, Collections.emptyList());
+  }
+
+  /**
+   * Finds the rows which values of specified column equals to provided value ignoring the case.
+   *
+   * @param columnIndex a number of column
+   * @param value a value to be compared
+   * @return the matching rows in data set order
+   */
+  public List<DataRow> findRowsIgnoreCase(int columnIndex, String value) {
+    if (value == null) {
+      return Collections.emptyList();
+    }
+    Map<Object, List<DataRow>> index =
+        ignoreCaseIndexes.computeIfAbsent(columnIndex, column -> buildIndex(column, true));
+    return index.getOrDefault(foldCase(value), Collections.emptyList());
+  }
+
+  private Map<Object, List<DataRow>> buildIndex(int columnIndex, boolean ignoreCase) {
+    Map<Object, List<DataRow>> index = new HashMap<>();
     for (DataRow dataRow : dataRows) {
-      String columnValue = (String) dataRow.getColumn(columnIndex);
-      if (value.equalsIgnoreCase(columnValue)) {
-        return dataRow;
+      if (!dataRow.hasColumn(columnIndex) || dataRow.getColumn(columnIndex) == null) {
+        continue;
       }
+      Object columnValue = dataRow.getColumn(columnIndex);
+      if (ignoreCase) {
+        columnValue = foldCase((String) columnValue);
+      }
+      index.computeIfAbsent(columnValue, k -> new ArrayList<>(1)).add(dataRow);
     }
-    return null;
+    index.replaceAll((k, rows) -> Collections.unmodifiableList(rows));
+    return index;
+  }
+
+  /** Folds the case the same way as {@link String#equalsIgnoreCase(String)}. */
+  private static String foldCase(String value) {
+    char[] chars = value.toCharArray();
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+    }
+    return new String(chars);
+  }
+
+  private static DataRow first(List<DataRow> rows) {
+    return rows.isEmpty() ? null : rows.get(0);
   }
 }
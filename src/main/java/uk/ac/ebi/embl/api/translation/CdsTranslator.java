@@ -72,7 +72,7 @@ public class CdsTranslator {
     if (cds == null || cds.getLocations() == null) return validationResult;
 
     if ((Entry.CON_DATACLASS.equals(entry.getDataClass())
-        && (entry.getSequence() == null || entry.getSequence().getSequenceByte() == null)))
+        && (entry.getSequence() == null || !entry.getSequence().hasSequenceByte())))
       return validationResult;
 
     // Check translation amino acids.
@@ -81,7 +81,7 @@ public class CdsTranslator {
       validationResult.append(validationCheck.check(cds));
     }
 
-    if (entry.getSequence() == null || entry.getSequence().getSequenceByte() == null) {
+    if (entry.getSequence() == null || !entry.getSequence().hasSequenceByte()) {
       validationResult.append(
           EntryValidations.createMessage(cds.getOrigin(), Severity.ERROR, "CDSTranslator-5"));
     }
@@ -10,9 +10,12 @@
  */
 package uk.ac.ebi.embl.api.translation;
 
+import java.io.Serializable;
 import java.util.List;
 
-public class Codon {
+public class Codon implements Serializable {
+
+  private static final long serialVersionUID = 6081397525286734520L;
 
   private String codon;
 
@@ -14,6 +14,8 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import uk.ac.ebi.embl.api.validation.ValidationException;
 
 /**
@@ -30,8 +32,30 @@ public class CodonTranslator {
     if (this.translationTable == null) {
       ValidationException.throwError("CodonTranslator-2");
     }
+    this.codonTable = null;
   }
 
+  /**
+   * Bases encoded as a bit mask of the unambiguous bases they stand for: a=1, c=2, g=4 and t=8.
+   * Bytes that are not lower case IUPAC bases are encoded as 0.
+   */
+  private static final byte[] BASE_CODES = new byte[256];
+
+  /** The lower case IUPAC base for each non-zero base code. */
+  private static final char[] CODE_BASES = new char[16];
+
+  private static final int START_CODONS = 0;
+  private static final int OTHER_CODONS = 1;
+
+  /** Codon tables of the translation tables without codon exceptions by table number. */
+  private static final ConcurrentMap<Integer, byte[][]> codonTables = new ConcurrentHashMap<>();
+
+  /**
+   * Start and other codon translations indexed by the base codes of the three bases, see {@link
+   * #getCodonIndex(byte[], int)}. Built when first needed.
+   */
+  private byte[][] codonTable;
+
   private static final Map<Character, List<Character>> ambiguousBaseMap =
       new HashMap<Character, List<Character>>();
 
@@ -80,6 +104,14 @@ public class CodonTranslator {
     addAmbiguousAminoAcid('J', 'I');
     addAmbiguousAminoAcid('J', 'L');
     addAmbiguousAminoAcid('J', 'J');
+    for (Map.Entry<Character, List<Character>> entry : ambiguousBaseMap.entrySet()) {
+      int code = 0;
+      for (char base : entry.getValue()) {
+        code |= 1 << "acgt".indexOf(base);
+      }
+      BASE_CODES[entry.getKey()] = (byte) code;
+      CODE_BASES[code] = entry.getKey();
+    }
   }
 
   private static void addAmbiguousBase(Character ambiguousBase, Character unAmbiguousBase) {
@@ -100,6 +132,89 @@ public class CodonTranslator {
 
   public void addCodonException(String codon, Character aminoAcid) {
     codonExceptionMap.put(codon, aminoAcid);
+    codonTable = null;
+  }
+
+  /**
+   * Translates the start codon at the offset using the precomputed codon table.
+   *
+   * @return the amino acid, or 0 if the codon has bases that are not lower case IUPAC bases
+   */
+  char translateStartCodon(byte[] sequence, int offset) {
+    return translateCodon(sequence, offset, START_CODONS);
+  }
+
+  /**
+   * Translates the non-start codon at the offset using the precomputed codon table.
+   *
+   * @return the amino acid, or 0 if the codon has bases that are not lower case IUPAC bases
+   */
+  char translateOtherCodon(byte[] sequence, int offset) {
+    return translateCodon(sequence, offset, OTHER_CODONS);
+  }
+
+  private char translateCodon(byte[] sequence, int offset, int codons) {
+    int index = getCodonIndex(sequence, offset);
+    if (index < 0) {
+      return 0;
+    }
+    if (codonTable == null) {
+      codonTable = getCodonTable();
+    }
+    return (char) codonTable[codons][index];
+  }
+
+  private static int getCodonIndex(byte[] sequence, int offset) {
+    int code1 = BASE_CODES[sequence[offset] & 0xFF];
+    int code2 = BASE_CODES[sequence[offset + 1] & 0xFF];
+    int code3 = BASE_CODES[sequence[offset + 2] & 0xFF];
+    if (code1 == 0 || code2 == 0 || code3 == 0) {
+      return -1;
+    }
+    return code1 << 8 | code2 << 4 | code3;
+  }
+
+  private byte[][] getCodonTable() {
+    if (!codonExceptionMap.isEmpty()) {
+      return buildCodonTable();
+    }
+    return codonTables.computeIfAbsent(translationTable.getNumber(), k -> buildCodonTable());
+  }
+
+  /**
+   * Translates every combination of IUPAC bases with {@link #translateCodon(Codon, Map)}, so the
+   * table resolves ambiguous codons exactly like the codon by codon translation. Combinations that
+   * can't be translated are left as 0.
+   */
+  private byte[][] buildCodonTable() {
+    byte[][] table = new byte[2][16 * 16 * 16];
+    char[] bases = new char[3];
+    for (int code1 = 1; code1 < 16; code1++) {
+      bases[0] = CODE_BASES[code1];
+      for (int code2 = 1; code2 < 16; code2++) {
+        bases[1] = CODE_BASES[code2];
+        for (int code3 = 1; code3 < 16; code3++) {
+          bases[2] = CODE_BASES[code3];
+          int index = code1 << 8 | code2 << 4 | code3;
+          table[START_CODONS][index] =
+              translateTableCodon(new String(bases), translationTable.getStartCodonMap());
+          table[OTHER_CODONS][index] =
+              translateTableCodon(new String(bases), translationTable.getOtherCodonMap());
+        }
+      }
+    }
+    return table;
+  }
+
+  private byte translateTableCodon(String bases, Map<String, Character> codonMap) {
+    Codon codon = new Codon();
+    codon.setCodon(bases);
+    try {
+      translateCodon(codon, codonMap);
+    } catch (ValidationException e) {
+      return 0;
+    }
+    return (byte) codon.getAminoAcid().charValue();
   }
 
   public void translateStartCodon(Codon codon) throws ValidationException {
@@ -11,7 +11,7 @@
 package uk.ac.ebi.embl.api.translation;
 
 import java.util.Arrays;
-import java.util.Vector;
+import java.util.BitSet;
 import uk.ac.ebi.embl.api.validation.ExtendedResult;
 import uk.ac.ebi.embl.api.validation.Origin;
 import uk.ac.ebi.embl.api.validation.ValidationException;
@@ -33,15 +33,21 @@ public class SimpleTranslator extends AbstractTranslator {
   protected void translateCodons(byte[] sequence, TranslationResult translationResult)
       throws ValidationException {
     int bases = sequence.length;
-    Vector<Codon> codons = new Vector<Codon>(bases / 3);
+    byte[] aminoAcids = new byte[bases / 3];
+    int codons = 0;
     for (int i = 0; i + 3 <= bases; i += 3) {
-      Codon codon = new Codon();
-      codon.setCodon(new String(Arrays.copyOfRange(sequence, i, i + 3)));
-      codon.setPos(i + 1);
-      codonTranslator.translateOtherCodon(codon);
-      codons.add(codon);
+      char aminoAcid = codonTranslator.translateOtherCodon(sequence, i);
+      if (aminoAcid == 0) {
+        Codon codon = new Codon();
+        codon.setCodon(new String(Arrays.copyOfRange(sequence, i, i + 3)));
+        codon.setPos(i + 1);
+        codonTranslator.translateOtherCodon(codon);
+        aminoAcid = codon.getAminoAcid();
+      }
+      aminoAcids[codons++] = (byte) aminoAcid;
     }
-    translationResult.setCodons(codons);
-    translationResult.setConceptualTranslationCodons(codons.size());
+    translationResult.setCodons(
+        sequence, 0, aminoAcids, codons, new BitSet(), false, codonTranslator);
+    translationResult.setConceptualTranslationCodons(codons);
   }
 }
@@ -10,8 +10,13 @@
  */
 package uk.ac.ebi.embl.api.translation;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
 import java.util.Vector;
+import uk.ac.ebi.embl.api.validation.ValidationException;
 
 public class TranslationResult implements Serializable {
 
@@ -54,16 +59,106 @@ public class TranslationResult implements Serializable {
     return fixedThreePrimePartial;
   }
 
+  // The translation is kept as one amino acid per codon. The codon objects are only created
+  // when they are needed, for example to write the translation diagnostics.
+  private byte[] sequence;
+  private int codonOffset;
+  private byte[] aminoAcids;
+  private int codonCount;
+  private BitSet translationExceptions;
+  private boolean startCodon;
+  private transient CodonTranslator codonTranslator;
   private Vector<Codon> codons;
 
-  protected void setCodons(Vector<Codon> codons) {
-    this.codons = codons;
+  /**
+   * Sets the translated codons.
+   *
+   * @param sequence the translated bases
+   * @param codonOffset the offset of the first codon in the bases
+   * @param aminoAcids the amino acid of each codon
+   * @param codonCount the number of codons, the last one may extend beyond the bases
+   * @param translationExceptions the codons translated using a translation exception
+   * @param startCodon true if the first codon was translated as a start codon
+   * @param codonTranslator the codon translator used to create the codon objects
+   */
+  protected void setCodons(
+      byte[] sequence,
+      int codonOffset,
+      byte[] aminoAcids,
+      int codonCount,
+      BitSet translationExceptions,
+      boolean startCodon,
+      CodonTranslator codonTranslator) {
+    this.sequence = sequence;
+    this.codonOffset = codonOffset;
+    this.aminoAcids = aminoAcids;
+    this.codonCount = codonCount;
+    this.translationExceptions = translationExceptions;
+    this.startCodon = startCodon;
+    this.codonTranslator = codonTranslator;
+    this.codons = null;
+  }
+
+  /** Returns the number of translated codons including stop codons. */
+  public int getCodonCount() {
+    return codonCount;
+  }
+
+  /** Returns the amino acid of the codon. */
+  public char getAminoAcid(int codon) {
+    return (char) aminoAcids[codon];
+  }
+
+  /** Returns the codons, creating them from the translation on first use. */
+  public Vector<Codon> getCodons() {
+    if (codons == null && aminoAcids != null) {
+      codons = createCodons();
+    }
+    return codons;
   }
 
-  public Vector<Codon> getCodons() {
+  private Vector<Codon> createCodons() {
+    Vector<Codon> codons = new Vector<>(codonCount);
+    for (int i = 0; i < codonCount; i++) {
+      Codon codon = new Codon();
+      codon.setCodon(getCodon(i));
+      codon.setPos(codonOffset + i * 3 + 1);
+      try {
+        if (i == 0 && startCodon) {
+          codonTranslator.translateStartCodon(codon);
+        } else {
+          codonTranslator.translateOtherCodon(codon);
+        }
+      } catch (ValidationException e) {
+        // The codon has already been translated.
+        throw new IllegalStateException(e);
+      }
+      codon.setAminoAcid(getAminoAcid(i));
+      codon.setTranslationException(translationExceptions.get(i));
+      codons.add(codon);
+    }
     return codons;
   }
 
+  /**
+   * Creates the codons before the result is written, as the codon translator they are created
+   * with is not serialized.
+   */
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    getCodons();
+    out.defaultWriteObject();
+  }
+
+  /** Returns the bases of the codon, a partial codon at the 3' end is extended with n. */
+  private String getCodon(int codon) {
+    char[] bases = new char[3];
+    int position = codonOffset + codon * 3;
+    for (int i = 0; i < 3; i++) {
+      bases[i] = position + i < sequence.length ? (char) sequence[position + i] : 'n';
+    }
+    return new String(bases);
+  }
+
   private String trailingBases;
 
   protected void setTrailingBases(String trailingBases) {
@@ -85,12 +180,12 @@ public class TranslationResult implements Serializable {
   }
 
   public String getSequence() {
-    if (codons == null) {
+    if (aminoAcids == null) {
       return "";
     }
-    StringBuilder sequence = new StringBuilder();
-    for (Codon codon : codons) {
-      sequence.append(codon.getCodon());
+    StringBuilder sequence = new StringBuilder(codonCount * 3 + trailingBases.length());
+    for (int i = 0; i < codonCount; ++i) {
+      sequence.append(getCodon(i));
     }
     sequence.append(trailingBases);
     return sequence.toString();
@@ -102,14 +197,10 @@ public class TranslationResult implements Serializable {
    * @return the translation including stop codons and trailing base
    */
   public String getTranslation() {
-    if (codons == null) {
+    if (aminoAcids == null) {
       return "";
     }
-    StringBuilder translation = new StringBuilder();
-    for (Codon codon : codons) {
-      translation.append(codon.getAminoAcid());
-    }
-    return translation.toString();
+    return new String(aminoAcids, 0, codonCount, StandardCharsets.US_ASCII);
   }
 
   /**
@@ -118,15 +209,10 @@ public class TranslationResult implements Serializable {
    * @return the translation excluding stop codons and trailing bases.
    */
   public String getConceptualTranslation() {
-    if (codons == null) {
+    if (aminoAcids == null) {
       return "";
     }
-    StringBuilder translation = new StringBuilder();
-    for (int i = 0; i < conceptualTranslationCodons; ++i) {
-      Codon codon = codons.get(i);
-      translation.append(codon.getAminoAcid());
-    }
-    return translation.toString();
+    return new String(aminoAcids, 0, conceptualTranslationCodons, StandardCharsets.US_ASCII);
   }
 
   private int translationLength;
@@ -194,36 +194,49 @@ public class Translator extends AbstractTranslator {
       throws ValidationException {
     int countX = 0;
     int bases = sequence.length;
-    Vector<Codon> codons = new Vector<Codon>(bases / 3);
+    int codonOffset = codonStart - 1;
+    boolean startCodon = !fivePrimePartial;
+    // One extra amino acid for the partial codon at the 3' end.
+    byte[] aminoAcids = new byte[Math.max(0, bases - codonOffset) / 3 + 1];
+    BitSet translationExceptions = new BitSet();
+    int codons = 0;
     // Complete codons.
-    int i = codonStart - 1;
+    int i = codonOffset;
     for (; i + 3 <= bases; i += 3) {
-      /*if(i>1430) {
-      	System.out.println("Debug point");
-      }*/
-      Codon codon = new Codon();
-      codon.setCodon(new String(Arrays.copyOfRange(sequence, i, i + 3)));
-      codon.setPos(i + 1);
-      if ((i == codonStart - 1) && !fivePrimePartial) {
+      char aminoAcid;
+      if ((i == codonOffset) && startCodon) {
+        Codon codon = createCodon(new String(sequence, i, 3), i);
         translateStartCodon(codon, translationResult);
+        aminoAcid = codon.getAminoAcid();
+        translationExceptions.set(codons, codon.isTranslationException());
       } else {
-        translateOtherCodon(codon);
+        aminoAcid = codonTranslator.translateOtherCodon(sequence, i);
+        if (aminoAcid == 0) {
+          Codon codon = createCodon(new String(sequence, i, 3), i);
+          codonTranslator.translateOtherCodon(codon);
+          aminoAcid = codon.getAminoAcid();
+        }
+        TranslationException translationException =
+            translationExceptionMap.isEmpty() ? null : translationExceptionMap.get(i + 1);
+        if (translationException != null) {
+          aminoAcid = translationException.aminoAcid;
+          translationExceptions.set(codons);
+        }
       }
-      codons.add(codon);
+      aminoAcids[codons++] = (byte) aminoAcid;
       // Added code to check CDS translations have more than 50% of X
-      if (codon.getAminoAcid().equals('X')) {
+      if (aminoAcid == 'X') {
         countX++;
       }
     }
-    if (countX > (codons.size() / 2)) {
+    if (countX > (codons / 2)) {
       ValidationException.throwError("Translator-20");
     }
     int trailingBases = bases - i;
     if (trailingBases > 0) {
-      Codon codon = new Codon();
-      codon.setCodon(extendCodon(new String(Arrays.copyOfRange(sequence, i, sequence.length))));
-      codon.setPos(i + 1);
-      if ((i == codonStart - 1) && !fivePrimePartial) {
+      Codon codon =
+          createCodon(extendCodon(new String(Arrays.copyOfRange(sequence, i, sequence.length))), i);
+      if ((i == codonOffset) && startCodon) {
         translateStartCodon(codon, translationResult);
       } else {
         translateOtherCodon(codon);
@@ -232,10 +245,18 @@ public class Translator extends AbstractTranslator {
       // Discard partial codon translations X.
       if (!codon.getAminoAcid().equals('X')) {
         trailingBases = 0;
-        codons.add(codon);
+        translationExceptions.set(codons, codon.isTranslationException());
+        aminoAcids[codons++] = (byte) codon.getAminoAcid().charValue();
       }
     }
-    translationResult.setCodons(codons);
+    translationResult.setCodons(
+        sequence,
+        codonOffset,
+        aminoAcids,
+        codons,
+        translationExceptions,
+        startCodon,
+        codonTranslator);
     if (trailingBases > 0) {
       translationResult.setTrailingBases(
           new String(
@@ -245,6 +266,13 @@ public class Translator extends AbstractTranslator {
     }
   }
 
+  private Codon createCodon(String bases, int offset) {
+    Codon codon = new Codon();
+    codon.setCodon(bases);
+    codon.setPos(offset + 1);
+    return codon;
+  }
+
   private Integer getEntryTranslationTable(
       Integer featureTranslationTable,
       TaxonomyClient taxonomyClient,
@@ -323,7 +351,7 @@ public class Translator extends AbstractTranslator {
       sequence = validateTranslationExceptions(sequence);
       validateCodons(sequence.length, translationResult);
       translateCodons(sequence, translationResult);
-      if (translationResult.getCodons().size() == 0) {
+      if (translationResult.getCodonCount() == 0) {
         if (exception) {
           // no conceptual translation
           translationResult.setConceptualTranslationCodons(0);
@@ -473,14 +501,14 @@ public class Translator extends AbstractTranslator {
   private void validateTranslation(TranslationResult translationResult) throws ValidationException {
     int trailingStopCodons = 0;
     int internalStopCodons = 0;
-    Vector<Codon> codons = translationResult.getCodons();
-    int i = codons.size();
+    int codons = translationResult.getCodonCount();
+    int i = codons;
     // Count the number of trailing stop codons.
-    while (i > 0 && codons.get(i - 1).getAminoAcid().equals('*')) {
+    while (i > 0 && translationResult.getAminoAcid(i - 1) == '*') {
       --i;
       ++trailingStopCodons;
     }
-    int conceptualTranslationCodons = codons.size() - trailingStopCodons;
+    int conceptualTranslationCodons = codons - trailingStopCodons;
     translationResult.setConceptualTranslationCodons(conceptualTranslationCodons);
     if (conceptualTranslationCodons == 0) {
       validateStopCodonOnly(translationResult);
@@ -488,7 +516,7 @@ public class Translator extends AbstractTranslator {
     } else {
       // Count the number of internal stop codons.
       while (i > 0) {
-        if (codons.get(i - 1).getAminoAcid().equals('*')) {
+        if (translationResult.getAminoAcid(i - 1) == '*') {
           ++internalStopCodons;
         }
         --i;
@@ -512,7 +540,7 @@ public class Translator extends AbstractTranslator {
     if (exception || nonTranslating) {
       return; // no conceptual translation
     }
-    if (!(translationResult.getCodons().size() == 1
+    if (!(translationResult.getCodonCount() == 1
         && translationResult.getTrailingBases().length() == 0
         && fivePrimePartial)) {
       // CDS feature can have a single stop codon only
@@ -605,7 +633,7 @@ public class Translator extends AbstractTranslator {
   private boolean validateStartCodon(TranslationResult translationResult)
       throws ValidationException {
     if (!fivePrimePartial && !exception && !peptideFeature) {
-      if (!translationResult.getCodons().get(0).getAminoAcid().equals('M') && !fivePrimePartial) {
+      if (translationResult.getAminoAcid(0) != 'M' && !fivePrimePartial) {
         if (nonTranslating) {
           return false; // no conceptual translation
         } else {
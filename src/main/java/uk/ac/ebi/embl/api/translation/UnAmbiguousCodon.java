@@ -10,7 +10,11 @@
  */
 package uk.ac.ebi.embl.api.translation;
 
-public class UnAmbiguousCodon {
+import java.io.Serializable;
+
+public class UnAmbiguousCodon implements Serializable {
+
+  private static final long serialVersionUID = -2947016113852254339L;
 
   private String codon;
 
@@ -80,6 +80,25 @@ public class GlobalDataSets {
     return getDataSet(file).getRows();
   }
 
+  /**
+   * Finds the first row of the data set file with the value in the column, using the column index
+   * of the data set.
+   */
+  public static DataRow findRow(GlobalDataSetFile file, int columnIndex, Object value) {
+    if (file == null) {
+      return null;
+    }
+    return getDataSet(file).findRow(columnIndex, value);
+  }
+
+  /** Finds the rows of the data set file with the value in the column. */
+  public static List<DataRow> findRows(GlobalDataSetFile file, int columnIndex, Object value) {
+    if (file == null) {
+      return null;
+    }
+    return getDataSet(file).findRows(columnIndex, value);
+  }
+
   /**
    * For unit testing that needs to modify the dataset to test certain scenarios.
    *
@@ -46,46 +46,48 @@ public class SequenceEntryUtils {
     return sequence.getMoleculeType();
   }
 
-  private static CVTable<String, String> chromosomeLocationToOrganelleValue = null;
+  private static final CVTable<String, String> chromosomeLocationToOrganelleValue =
+      new CVTable<String, String>();
+
+  static {
+    chromosomeLocationToOrganelleValue.put("mitochondrion", "mitochondrion");
+    chromosomeLocationToOrganelleValue.put("plastid:chloroplast", "chloroplast");
+    chromosomeLocationToOrganelleValue.put("mitochondrion:kinetoplast", "kinetoplast");
+    chromosomeLocationToOrganelleValue.put("plastid:chromoplast", "chromoplast");
+    chromosomeLocationToOrganelleValue.put("plastid:cyanelle", "cyanelle");
+    chromosomeLocationToOrganelleValue.put("plastid:leucoplast", "leucoplast");
+    chromosomeLocationToOrganelleValue.put("plastid:proplastid", "proplastid");
+    chromosomeLocationToOrganelleValue.put("plastid:apicoplast", "apicoplast");
+    chromosomeLocationToOrganelleValue.put("plastid", "plastid");
+    chromosomeLocationToOrganelleValue.put("nucleomorph", "nucleomorph");
+    chromosomeLocationToOrganelleValue.put("hydrogenosome", "hydrogenosome");
+    chromosomeLocationToOrganelleValue.put("chromatophore", "chromatophore");
+    chromosomeLocationToOrganelleValue.put("macronuclear", "macronuclear");
+  }
 
   public static String getOrganelleValue(String chromosomeLocation) {
-    if (chromosomeLocationToOrganelleValue == null) {
-      chromosomeLocationToOrganelleValue = new CVTable<String, String>();
-      chromosomeLocationToOrganelleValue.put("mitochondrion", "mitochondrion");
-      chromosomeLocationToOrganelleValue.put("plastid:chloroplast", "chloroplast");
-      chromosomeLocationToOrganelleValue.put("mitochondrion:kinetoplast", "kinetoplast");
-      chromosomeLocationToOrganelleValue.put("plastid:chromoplast", "chromoplast");
-      chromosomeLocationToOrganelleValue.put("plastid:cyanelle", "cyanelle");
-      chromosomeLocationToOrganelleValue.put("plastid:leucoplast", "leucoplast");
-      chromosomeLocationToOrganelleValue.put("plastid:proplastid", "proplastid");
-      chromosomeLocationToOrganelleValue.put("plastid:apicoplast", "apicoplast");
-      chromosomeLocationToOrganelleValue.put("plastid", "plastid");
-      chromosomeLocationToOrganelleValue.put("nucleomorph", "nucleomorph");
-      chromosomeLocationToOrganelleValue.put("hydrogenosome", "hydrogenosome");
-      chromosomeLocationToOrganelleValue.put("chromatophore", "chromatophore");
-      chromosomeLocationToOrganelleValue.put("macronuclear", "macronuclear");
-    }
     return chromosomeLocationToOrganelleValue.getId(chromosomeLocation);
   }
 
-  private static CVTable<Integer, String> chromosomeLocationToOrganelleId = null;
+  private static final CVTable<Integer, String> chromosomeLocationToOrganelleId =
+      new CVTable<Integer, String>();
+
+  static {
+    chromosomeLocationToOrganelleId.put(1, "mitochondrion");
+    chromosomeLocationToOrganelleId.put(2, "chloroplast");
+    chromosomeLocationToOrganelleId.put(3, "kinetoplast");
+    chromosomeLocationToOrganelleId.put(4, "chromoplast");
+    chromosomeLocationToOrganelleId.put(5, "cyanelle");
+    chromosomeLocationToOrganelleId.put(6, "leucoplast");
+    chromosomeLocationToOrganelleId.put(7, "proplastid");
+    chromosomeLocationToOrganelleId.put(8, "apicoplast");
+    chromosomeLocationToOrganelleId.put(9, "plastid");
+    chromosomeLocationToOrganelleId.put(10, "nucleomorph");
+    chromosomeLocationToOrganelleId.put(11, "hydrogenosome");
+    chromosomeLocationToOrganelleId.put(12, "chromatophore");
+  }
 
   public static Integer getOrganelleId(String chromosomeLocation) {
-    if (chromosomeLocationToOrganelleId == null) {
-      chromosomeLocationToOrganelleId = new CVTable<Integer, String>();
-      chromosomeLocationToOrganelleId.put(1, "mitochondrion");
-      chromosomeLocationToOrganelleId.put(2, "chloroplast");
-      chromosomeLocationToOrganelleId.put(3, "kinetoplast");
-      chromosomeLocationToOrganelleId.put(4, "chromoplast");
-      chromosomeLocationToOrganelleId.put(5, "cyanelle");
-      chromosomeLocationToOrganelleId.put(6, "leucoplast");
-      chromosomeLocationToOrganelleId.put(7, "proplastid");
-      chromosomeLocationToOrganelleId.put(8, "apicoplast");
-      chromosomeLocationToOrganelleId.put(9, "plastid");
-      chromosomeLocationToOrganelleId.put(10, "nucleomorph");
-      chromosomeLocationToOrganelleId.put(11, "hydrogenosome");
-      chromosomeLocationToOrganelleId.put(12, "chromatophore");
-    }
     return chromosomeLocationToOrganelleId.getId(chromosomeLocation);
   }
 
@@ -46,6 +46,15 @@ public class ValidationMessage<T extends Origin> implements Serializable {
   /** The message to which the messageKey resolves */
   private String message;
 
+  /**
+   * False until the message has been resolved from the message key. Messages are only resolved and
+   * formatted when they are used, so that the messages that are filtered out cost little.
+   */
+  private boolean messageResolved;
+
+  /** The parameters used to format the message, see {@link #getFormatParams}. */
+  private final Object[] formatParams;
+
   /** additional information to help resolve the error/warning/info */
   private String curatorMessage;
 
@@ -76,9 +85,35 @@ public class ValidationMessage<T extends Origin> implements Serializable {
     this.params = params;
     this.origins = new ArrayList<T>();
     this.messageKey = messageKeyParam;
-    if (!messageKeyParam.equals(NO_KEY)) {
-      this.message = ValidationMessageManager.getString(messageKeyParam, params);
+    this.messageResolved = messageKeyParam.equals(NO_KEY);
+    this.formatParams = messageResolved ? null : getFormatParams(params);
+  }
+
+  /**
+   * Returns the parameters with the values that may change before the message is formatted
+   * replaced by the text they would be formatted as.
+   */
+  private static Object[] getFormatParams(Object[] params) {
+    if (params == null) {
+      return null;
+    }
+    Object[] formatParams = params;
+    for (int i = 0; i < params.length; i++) {
+      Object param = params[i];
+      if (param == null
+          || param instanceof String
+          || param instanceof Number
+          || param instanceof Boolean
+          || param instanceof Character
+          || param instanceof Enum) {
+        continue;
+      }
+      if (formatParams == params) {
+        formatParams = params.clone();
+      }
+      formatParams[i] = param instanceof Date ? ((Date) param).clone() : param.toString();
     }
+    return formatParams;
   }
 
   public Object[] getParams() {
@@ -91,11 +126,16 @@ public class ValidationMessage<T extends Origin> implements Serializable {
    * @return message string
    */
   public String getMessage() {
+    if (!messageResolved) {
+      message = ValidationMessageManager.getString(messageKey, formatParams);
+      messageResolved = true;
+    }
     return message;
   }
 
   public void setMessage(String message) {
     this.message = message;
+    this.messageResolved = true;
   }
 
   public void setSeverity(Severity severity) {
@@ -12,12 +12,12 @@ package uk.ac.ebi.embl.api.validation;
 
 import java.text.MessageFormat;
 import java.util.Collections;
-import java.util.HashSet;
-import java.util.List;
-import java.util.MissingResourceException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.Set;
-import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ValidationMessageManager {
 
@@ -34,14 +34,28 @@ public class ValidationMessageManager {
 
   private static final String NO_MESSAGE = "Missing message: ";
 
-  private static final List<ResourceBundle> bundles = new Vector<ResourceBundle>();
-  private static final Set<String> bundleNames = Collections.synchronizedSet(new HashSet<String>());
+  /**
+   * The messages of the bundles added so far by key. A key has the message of the first bundle
+   * added that has it. The catalogue is replaced, never changed, when a bundle is added.
+   */
+  private static volatile Map<String, Message> catalogue = Collections.emptyMap();
+
+  private static final Set<String> bundleNames = ConcurrentHashMap.newKeySet();
 
   public static void addBundle(String bundleName) {
-    //        System.out.println("bundleName = " + bundleName);
-    if (!bundleNames.contains(bundleName)) {
-      bundles.add(ResourceBundle.getBundle(bundleName));
-      bundleNames.add(bundleName);
+    if (bundleNames.contains(bundleName)) {
+      return;
+    }
+    synchronized (ValidationMessageManager.class) {
+      if (!bundleNames.contains(bundleName)) {
+        ResourceBundle bundle = ResourceBundle.getBundle(bundleName);
+        Map<String, Message> messages = new HashMap<>(catalogue);
+        for (String key : bundle.keySet()) {
+          messages.computeIfAbsent(key, k -> new Message(bundle.getString(k)));
+        }
+        catalogue = Collections.unmodifiableMap(messages);
+        bundleNames.add(bundleName);
+      }
     }
   }
 
@@ -53,25 +67,40 @@ public class ValidationMessageManager {
    * @return Resource value or place-holder error String
    */
   public static String getString(String key, Object... params) {
-    String message = getStringSafely(key);
+    Message message = catalogue.get(key);
+    if (message == null) {
+      String noMessage = NO_MESSAGE + key;
+      return params != null && params.length > 0
+          ? MessageFormat.format(noMessage, params)
+          : noMessage;
+    }
     if (params != null && params.length > 0) {
-      return MessageFormat.format(message, params);
+      return message.format(params);
     } else {
-      return message;
+      return message.pattern;
     }
   }
 
-  /** Returns the message from one of the message bundles. */
-  private static String getStringSafely(String key) {
-    String resource = null;
-    for (ResourceBundle bundle : bundles) {
-      try {
-        resource = bundle.getString(key);
-      } catch (MissingResourceException mrex) {
-        continue;
+  /** A message and its format, parsed when the message is first formatted. */
+  private static class Message {
+
+    private final String pattern;
+    private volatile MessageFormat messageFormat;
+
+    private Message(String pattern) {
+      this.pattern = pattern;
+    }
+
+    /** Formats the message like {@link MessageFormat#format(String, Object...)}. */
+    private String format(Object[] params) {
+      Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+      MessageFormat format = messageFormat;
+      if (format == null || !locale.equals(format.getLocale())) {
+        format = new MessageFormat(pattern, locale);
+        messageFormat = format;
       }
-      return resource;
+      // The parsed format is shared between threads and only used to create copies.
+      return ((MessageFormat) format.clone()).format(params);
     }
-    return NO_MESSAGE + key;
   }
 }
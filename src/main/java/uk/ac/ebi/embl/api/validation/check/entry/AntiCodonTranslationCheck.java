@@ -12,7 +12,6 @@ package uk.ac.ebi.embl.api.validation.check.entry;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.Vector;
 import uk.ac.ebi.embl.api.entry.Entry;
 import uk.ac.ebi.embl.api.entry.feature.CdsFeature;
 import uk.ac.ebi.embl.api.entry.feature.Feature;
@@ -26,7 +25,6 @@ import uk.ac.ebi.embl.api.entry.sequence.Segment;
 import uk.ac.ebi.embl.api.entry.sequence.SegmentFactory;
 import uk.ac.ebi.embl.api.entry.sequence.Sequence;
 import uk.ac.ebi.embl.api.translation.CdsTranslator;
-import uk.ac.ebi.embl.api.translation.Codon;
 import uk.ac.ebi.embl.api.translation.TranslationResult;
 import uk.ac.ebi.embl.api.translation.Translator;
 import uk.ac.ebi.embl.api.validation.*;
@@ -61,7 +59,7 @@ public class AntiCodonTranslationCheck extends EntryValidationCheck {
         anticodonFeature = feature;
         if (SequenceEntryUtils.isQualifierAvailable(Qualifier.ANTICODON_QUALIFIER_NAME, feature)) {
           if (anticodonCheck.check(feature).isValid()
-              && entry.getSequence().getSequenceByte() != null) {
+              && entry.getSequence().hasSequenceByte()) {
             List<Qualifier> anticodonQualifiers =
                 feature.getQualifiers(Qualifier.ANTICODON_QUALIFIER_NAME);
             for (Qualifier qualifier : anticodonQualifiers) {
@@ -81,7 +79,7 @@ public class AntiCodonTranslationCheck extends EntryValidationCheck {
                   antiCodon.getSequence() == null ? null : antiCodon.getSequence().getBytes();
               sequenceString = segment.getSequenceByte();
 
-              if (sequence.getSequenceByte() == null) {
+              if (!sequence.hasSequenceByte()) {
                 return result;
               }
               boolean anticodonLocationComplement = antiCodonCompoundLocation.isComplement();
@@ -153,11 +151,8 @@ public class AntiCodonTranslationCheck extends EntryValidationCheck {
                 trans.translateCodons(sequenceString, translatorResult);
               }
 
-              Vector<Codon> codons = translatorResult.getCodons();
-              char resultaa = 0;
-              for (Codon codon : codons) {
-                resultaa = codon.getAminoAcid();
-              }
+              int codons = translatorResult.getCodonCount();
+              char resultaa = codons == 0 ? 0 : translatorResult.getAminoAcid(codons - 1);
 
               if (antiCodon.getAminoAcid().getLetter() != resultaa) {
                 reportError(
@@ -35,7 +35,6 @@ public class DuplicateFeatureCheck extends EntryValidationCheck {
   protected static final String DUPLICATE_CDS_PROTEIN_MESSAGE_ID = "DuplicateProteinAccession";
   protected static final String DUPLICATE_SOURCE_ORGANISM_MESSAGE_ID =
       "DuplicateOrganismAndLocation";
-  private static HashMap<MultiKey, Feature> featureMap;
   List<Feature> features;
 
   public ValidationResult check(Entry entry) {
@@ -48,7 +47,7 @@ public class DuplicateFeatureCheck extends EntryValidationCheck {
     if (entry == null) {
       return result;
     }
-    featureMap = new HashMap<>();
+    HashMap<MultiKey, Feature> featureMap = new HashMap<>();
     features = entry.getFeatures();
 
     for (Feature feature : features) {
@@ -86,7 +85,7 @@ public class DuplicateFeatureCheck extends EntryValidationCheck {
       }
       MultiKey key = new MultiKey(featureName, feature.getLocations());
       if (!featureMap.containsKey(key)) {
-        addMultiKeyAndValue(key, feature);
+        featureMap.put(key, feature);
       } else {
         Feature oldFeature = featureMap.get(key);
         if (featureName.equals(Feature.SOURCE_FEATURE_NAME)) {
@@ -120,8 +119,4 @@ public class DuplicateFeatureCheck extends EntryValidationCheck {
 
     return result;
   }
-
-  void addMultiKeyAndValue(MultiKey key, Feature feature) {
-    featureMap.put(key, feature);
-  }
 }
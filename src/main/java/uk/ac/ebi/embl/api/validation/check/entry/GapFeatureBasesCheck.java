@@ -16,6 +16,7 @@ import uk.ac.ebi.embl.api.entry.Entry;
 import uk.ac.ebi.embl.api.entry.feature.Feature;
 import uk.ac.ebi.embl.api.entry.location.CompoundLocation;
 import uk.ac.ebi.embl.api.entry.location.Location;
+import uk.ac.ebi.embl.api.entry.sequence.SequenceComposition;
 import uk.ac.ebi.embl.api.validation.*;
 import uk.ac.ebi.embl.api.validation.annotation.Description;
 
@@ -52,7 +53,7 @@ public class GapFeatureBasesCheck extends EntryValidationCheck {
       return result;
     }
 
-    if (entry.getSequence() == null || entry.getSequence().getSequenceByte() == null) {
+    if (entry.getSequence() == null || !entry.getSequence().hasSequenceByte()) {
       return result;
     }
 
@@ -72,23 +73,18 @@ public class GapFeatureBasesCheck extends EntryValidationCheck {
       Long start = location.getBeginPosition();
       Long end = location.getEndPosition();
 
-      byte[] sequenceByte = entry.getSequence().getSequenceByte();
-      if (sequenceByte == null || start == null || end == null) return result;
-      if (start < 0 || end > sequenceByte.length) {
+      SequenceComposition composition = entry.getSequence().getComposition();
+      if (start == null || end == null) return result;
+      if (start < 0 || end > composition.getLength()) {
         return result;
       }
-      int nBeginPosition =
-          start.intValue() - 1; // as sequenceByte are from 0 and location are from exact position
-      int nEndPosition =
-          end.intValue(); // Nothing needs to be done as we are iterating till i < nEndPosition
 
-      for (int i = nBeginPosition; i < nEndPosition; i++) {
-        if ('n' != (char) sequenceByte[i]) {
-          ValidationMessage<Origin> message = reportError(gapFeature.getOrigin(), MESSAGE_ID);
-          String report = ValidationMessageManager.getString(FAULTY_SEQUENCE_MESSAGE, start, end);
-          message.setReportMessage(report);
-          return result;
-        }
+      // The location is all n if it is within a run of n bases.
+      if (!composition.isAllN(start, end)) {
+        ValidationMessage<Origin> message = reportError(gapFeature.getOrigin(), MESSAGE_ID);
+        String report = ValidationMessageManager.getString(FAULTY_SEQUENCE_MESSAGE, start, end);
+        message.setReportMessage(report);
+        return result;
       }
     }
 
@@ -15,6 +15,7 @@ import uk.ac.ebi.embl.api.entry.Entry;
 import uk.ac.ebi.embl.api.entry.feature.Feature;
 import uk.ac.ebi.embl.api.entry.location.CompoundLocation;
 import uk.ac.ebi.embl.api.entry.location.Location;
+import uk.ac.ebi.embl.api.entry.sequence.SequenceComposition;
 import uk.ac.ebi.embl.api.validation.*;
 import uk.ac.ebi.embl.api.validation.annotation.Description;
 import uk.ac.ebi.embl.api.validation.annotation.ExcludeScope;
@@ -49,7 +50,7 @@ public class GapFeatureLocationsCheck extends EntryValidationCheck {
       return result;
     }
 
-    if (entry.getSequence() == null || entry.getSequence().getSequenceByte() == null) {
+    if (entry.getSequence() == null || !entry.getSequence().hasSequenceByte()) {
       return result;
     }
 
@@ -67,15 +68,14 @@ public class GapFeatureLocationsCheck extends EntryValidationCheck {
       int start = location.getBeginPosition().intValue();
       int end = location.getEndPosition().intValue();
 
-      byte[] sequenceByte = entry.getSequence().getSequenceByte();
+      SequenceComposition composition = entry.getSequence().getComposition();
 
-      if (sequenceByte == null) return result;
-
-      if (start <= 1 || sequenceByte.length <= end) {
+      if (start <= 1 || composition.getLength() <= end) {
         return result;
       }
 
-      if ('n' == (char) sequenceByte[start - 2] || 'n' == (char) sequenceByte[end]) {
+      // The bases before and after the gap.
+      if (composition.isAllN(start - 1, start - 1) || composition.isAllN(end + 1, end + 1)) {
         reportError(gapFeature.getOrigin(), MESSAGE_ID);
       }
 
@@ -20,9 +20,11 @@ import uk.ac.ebi.embl.api.RepositoryException;
 import uk.ac.ebi.embl.api.entry.Entry;
 import uk.ac.ebi.embl.api.entry.feature.CdsFeature;
 import uk.ac.ebi.embl.api.entry.feature.Feature;
+import uk.ac.ebi.embl.api.entry.feature.FeatureIntervalIndex;
 import uk.ac.ebi.embl.api.entry.feature.PeptideFeature;
 import uk.ac.ebi.embl.api.entry.location.CompoundLocation;
 import uk.ac.ebi.embl.api.entry.location.Location;
+import uk.ac.ebi.embl.api.entry.location.RemoteLocation;
 import uk.ac.ebi.embl.api.entry.qualifier.Qualifier;
 import uk.ac.ebi.embl.api.entry.sequence.Segment;
 import uk.ac.ebi.embl.api.entry.sequence.SegmentFactory;
@@ -52,7 +54,7 @@ public class PeptideFeatureCheck extends EntryValidationCheck {
 
       if (entry == null
           || (Entry.CON_DATACLASS.equals(entry.getDataClass())
-              && (entry.getSequence() == null || entry.getSequence().getSequenceByte() == null))) {
+              && (entry.getSequence() == null || !entry.getSequence().hasSequenceByte()))) {
         return result;
       }
 
@@ -63,10 +65,11 @@ public class PeptideFeatureCheck extends EntryValidationCheck {
 
       if (!peptideFeatures.isEmpty()) {
 
+        PeptideFeatureIndex peptideFeatureIndex = new PeptideFeatureIndex(peptideFeatures);
         for (Feature cdsFeature : cdsFeatures) {
 
           List<PeptideFeature> relevantPeptideFeatures = new ArrayList<>();
-          for (Feature peptideFeature : peptideFeatures) {
+          for (Feature peptideFeature : peptideFeatureIndex.getCandidateFeatures(cdsFeature)) {
 
             if ((areSame(cdsFeature, peptideFeature, Qualifier.LOCUS_TAG_QUALIFIER_NAME)
                     && areLocationsOnSameStrand(
@@ -268,4 +271,69 @@ public class PeptideFeatureCheck extends EntryValidationCheck {
         && peptideLocusQualifier != null
         && cdsLocusQualifier.getValue().equals(peptideLocusQualifier.getValue());
   }
+
+  /**
+   * Finds the peptide features that may share a locus tag with a CDS feature or overlap it,
+   * without comparing the CDS feature with every peptide feature.
+   */
+  private static class PeptideFeatureIndex {
+    private final List<PeptideFeature> peptideFeatures;
+    private final Map<PeptideFeature, Integer> positions = new IdentityHashMap<>();
+    private final Map<String, List<PeptideFeature>> locusTagFeatures = new HashMap<>();
+    private final List<PeptideFeature> remoteFeatures = new ArrayList<>();
+    private final FeatureIntervalIndex<PeptideFeature> localFeatures;
+
+    PeptideFeatureIndex(List<PeptideFeature> peptideFeatures) {
+      this.peptideFeatures = peptideFeatures;
+      List<PeptideFeature> local = new ArrayList<>();
+      for (PeptideFeature peptideFeature : peptideFeatures) {
+        positions.putIfAbsent(peptideFeature, positions.size());
+        Qualifier locusTag =
+            SequenceEntryUtils.getQualifier(Qualifier.LOCUS_TAG_QUALIFIER_NAME, peptideFeature);
+        if (locusTag != null && locusTag.getValue() != null) {
+          locusTagFeatures
+              .computeIfAbsent(locusTag.getValue(), k -> new ArrayList<>())
+              .add(peptideFeature);
+        }
+        if (peptideFeature.getLocations().hasRemoteLocation()) {
+          remoteFeatures.add(peptideFeature);
+        } else {
+          local.add(peptideFeature);
+        }
+      }
+      localFeatures = new FeatureIntervalIndex<>(local);
+    }
+
+    /**
+     * Returns the peptide features with the same locus tag as the CDS feature and the peptide
+     * features that may have a location overlapping one of the CDS feature, in their order.
+     */
+    List<PeptideFeature> getCandidateFeatures(Feature cdsFeature) {
+      long begin = Long.MAX_VALUE;
+      long end = Long.MIN_VALUE;
+      List<Location> locations = cdsFeature.getLocations().getLocations();
+      for (Location location : locations == null ? List.<Location>of() : locations) {
+        if (location instanceof RemoteLocation
+            || location.getBeginPosition() == null
+            || location.getEndPosition() == null) {
+          return peptideFeatures;
+        }
+        begin = Math.min(begin, Math.min(location.getBeginPosition(), location.getEndPosition()));
+        end = Math.max(end, Math.max(location.getBeginPosition(), location.getEndPosition()));
+      }
+      Set<PeptideFeature> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+      candidates.addAll(remoteFeatures);
+      if (begin <= end) {
+        candidates.addAll(localFeatures.getCandidateFeatures(begin, end));
+      }
+      Qualifier locusTag =
+          SequenceEntryUtils.getQualifier(Qualifier.LOCUS_TAG_QUALIFIER_NAME, cdsFeature);
+      if (locusTag != null && locusTagFeatures.containsKey(locusTag.getValue())) {
+        candidates.addAll(locusTagFeatures.get(locusTag.getValue()));
+      }
+      List<PeptideFeature> candidateFeatures = new ArrayList<>(candidates);
+      candidateFeatures.sort(Comparator.comparing(positions::get));
+      return candidateFeatures;
+    }
+  }
 }
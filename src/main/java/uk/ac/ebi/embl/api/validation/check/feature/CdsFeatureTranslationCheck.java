@@ -43,11 +43,11 @@ public class CdsFeatureTranslationCheck extends FeatureValidationCheck {
     result = new ExtendedResult<TranslationReportInfo>();
     if (entry == null || feature == null) return result;
     if (Entry.CON_DATACLASS.equals(entry.getDataClass())
-        && (entry.getSequence() == null || entry.getSequence().getSequenceByte() == null))
+        && (entry.getSequence() == null || !entry.getSequence().hasSequenceByte()))
       return result;
     try {
       if (entry.getSequence() != null
-          && entry.getSequence().getSequenceByte() != null
+          && entry.getSequence().hasSequenceByte()
           && entry.getSequence().getLength() != 0) {
         if (feature instanceof CdsFeature) {
           CdsFeature cdsFeature = (CdsFeature) feature;
@@ -11,7 +11,6 @@
 package uk.ac.ebi.embl.api.validation.check.feature;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import uk.ac.ebi.embl.api.entry.feature.CdsFeature;
 import uk.ac.ebi.embl.api.entry.feature.Feature;
@@ -31,8 +30,6 @@ import uk.ac.ebi.embl.api.validation.annotation.ExcludeScope;
 @ExcludeScope(validationScope = {ValidationScope.NCBI, ValidationScope.NCBI_MASTER})
 public class FeatureKeyCheck extends FeatureValidationCheck {
 
-  private final HashMap<String, FeatureKeyInfo> keysMap = new HashMap<String, FeatureKeyInfo>();
-
   private static final String KEY_NOT_FOUND_ID = "FeatureKeyCheck-1";
   private static final String MANDATORY_QUALIFIER_ABSENT = "FeatureKeyCheck-2";
   private static final String SINGLE_QUALIFIER_FAILURE = "FeatureKeyCheck-3";
@@ -43,49 +40,35 @@ public class FeatureKeyCheck extends FeatureValidationCheck {
 
   public FeatureKeyCheck() {}
 
-  private void init() {
+  /** Returns the qualifiers of the feature key, or null if the key is not in the CV. */
+  private FeatureKeyInfo getKeyInfo(String key) {
     DataSet keySet = GlobalDataSets.getDataSet(GlobalDataSetFile.FEATURE_KEYS);
     DataSet keyQualifiersSet = GlobalDataSets.getDataSet(GlobalDataSetFile.FEATURE_KEY_QUALIFIERS);
 
-    if (keySet != null && keyQualifiersSet != null) {
-      for (DataRow dataRow : keySet.getRows()) {
-        String key = dataRow.getString(0);
-        //                String noVal = dataRow.getString(1);
-        //                String newField = dataRow.getString(2);
-        keysMap.put(key, new FeatureKeyInfo(key));
-      }
-
-      for (DataRow dataRow : keyQualifiersSet.getRows()) {
-        String key = dataRow.getString(0);
-        String qual = dataRow.getString(1);
-        String mandatory = dataRow.getString(2);
-        String single = dataRow.getString(3);
-        String recomended = dataRow.getString(4);
-
-        if (keysMap.containsKey(key)) {
-          FeatureKeyCheck.FeatureKeyInfo keyInfo = keysMap.get(key);
-          FeatureQualifierInfo featureQualifierInfo =
-              new FeatureQualifierInfo(key, qual, mandatory, single, recomended);
-          keyInfo.addQualifierInfo(featureQualifierInfo);
-        } else {
-          throw new IllegalArgumentException("No matching key for " + key + " in FeatureKeyCheck");
-        }
-      }
-      //            System.out.println("Feature map made " + keysMap.size());
+    if (keySet == null || keyQualifiersSet == null || keySet.findRow(0, key) == null) {
+      return null;
+    }
+    FeatureKeyInfo keyInfo = new FeatureKeyInfo(key);
+    for (DataRow dataRow : keyQualifiersSet.findRows(0, key)) {
+      String qual = dataRow.getString(1);
+      String mandatory = dataRow.getString(2);
+      String single = dataRow.getString(3);
+      String recomended = dataRow.getString(4);
+      keyInfo.addQualifierInfo(new FeatureQualifierInfo(key, qual, mandatory, single, recomended));
     }
+    return keyInfo;
   }
 
   public ValidationResult check(Feature feature) {
-    init();
     result = new ValidationResult();
 
     if (feature == null) {
       return result;
     }
 
-    if (keysMap.containsKey(feature.getName())) { // check the key is in the CV
+    FeatureKeyInfo keyInfo = getKeyInfo(feature.getName());
+    if (keyInfo != null) { // check the key is in the CV
 
-      FeatureKeyCheck.FeatureKeyInfo keyInfo = keysMap.get(feature.getName());
       ArrayList<String> validFeatureQualifiers = new ArrayList<String>();
       if (keyInfo.getQualifierInfos().size() > 0) {
 
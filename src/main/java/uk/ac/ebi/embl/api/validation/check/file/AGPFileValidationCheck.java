@@ -11,14 +11,16 @@
 package uk.ac.ebi.embl.api.validation.check.file;
 
 import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
-import org.mapdb.Serializer;
-import uk.ac.ebi.embl.agp.reader.AGPFileReader;
 import uk.ac.ebi.embl.agp.reader.AGPLineReader;
+import uk.ac.ebi.embl.agp.reader.ParsedAGPFile;
 import uk.ac.ebi.embl.api.entry.AgpRow;
 import uk.ac.ebi.embl.api.entry.AssemblySequenceInfo;
 import uk.ac.ebi.embl.api.entry.Entry;
@@ -35,6 +37,9 @@ import uk.ac.ebi.embl.common.CommonUtil;
 @Description("")
 public class AGPFileValidationCheck extends FileValidationCheck {
 
+  /** The AGP files parsed by {@link #createContigDB()}, removed when they are checked. */
+  private final Map<File, ParsedAGPFile> parsedFiles = new HashMap<>();
+
   public AGPFileValidationCheck(SubmissionOptions options, SharedInfo sharedInfo) {
     super(options, sharedInfo);
   }
@@ -54,8 +59,8 @@ public class AGPFileValidationCheck extends FileValidationCheck {
         annotationMap = sharedInfo.annotationDB.hashMap("map").createOrOpen();
       }
     }
-    try (BufferedReader fileReader = CommonUtil.bufferedReaderFromFile(submissionFile.getFile());
-        PrintWriter fixedFileWriter = getFixedFileWriter(submissionFile)) {
+    AgpBuildScheduler scheduler = null;
+    try (PrintWriter fixedFileWriter = getFixedFileWriter(submissionFile)) {
       clearReportFile(getReportFile(submissionFile));
       if (!validateFileFormat(
           submissionFile.getFile(),
@@ -63,7 +68,6 @@ public class AGPFileValidationCheck extends FileValidationCheck {
         addErrorAndReport(validationResult, submissionFile, "InvalidFileFormat", "AGP");
         return validationResult;
       }
-      AGPFileReader reader = new AGPFileReader(new AGPLineReader(fileReader));
       HashMap<String, AssemblySequenceInfo> contigInfo = new HashMap<>();
       contigInfo.putAll(
           AssemblySequenceInfo.getMapObject(
@@ -75,20 +79,38 @@ public class AGPFileValidationCheck extends FileValidationCheck {
         addErrorAndReport(validationResult, submissionFile, "ContigInfoMissing");
         return validationResult;
       }
-      ValidationResult parseResult = reader.read();
-      validationResult.append(parseResult);
+      ParsedAGPFile agpFile = parsedFiles.remove(submissionFile.getFile());
+      if (agpFile == null) {
+        agpFile = parse(submissionFile);
+      }
       getOptions()
           .getEntryValidationPlanProperty()
           .fileType
           .set(uk.ac.ebi.embl.api.validation.FileType.AGP);
-      while (reader.isEntry()) {
+      // The objects are built, and then validated, after the objects placed in them.
+      List<Entry> entries = new ArrayList<>(agpFile.getObjectCount());
+      for (int object = 0; object < agpFile.getObjectCount(); object++) {
+        entries.add(agpFile.getEntry(object));
+      }
+      AgpComponentStore componentStore = sharedInfo.agpComponentStore;
+      scheduler =
+          new AgpBuildScheduler(
+              entries,
+              componentStore == null ? agpRow -> true : componentStore::hasComponentSequence,
+              getOptions().validationThreads);
+      scheduler.start(this::constructAGPSequence);
+      for (int object : scheduler.getBuildOrder()) {
+        ValidationResult parseResult = agpFile.getParseResult(object);
+        validationResult.append(parseResult);
         if (!parseResult.isValid()) {
           getReporter().writeToFile(getReportFile(submissionFile), parseResult);
           addMessageStats(parseResult.getMessages());
         }
 
-        Entry entry = reader.getEntry();
+        Entry entry = entries.get(object);
         origin = entry.getOrigin();
+        scheduler.awaitBuilt(object);
+        entries.set(object, null);
 
         // set validation scope and collect unplacedEntries
         getOptions()
@@ -136,7 +158,6 @@ public class AGPFileValidationCheck extends FileValidationCheck {
             .sequenceNumber
             .set(getOptions().getEntryValidationPlanProperty().sequenceNumber.get() + 1);
         validationPlan = new EmblEntryValidationPlan(getOptions().getEntryValidationPlanProperty());
-        constructAGPSequence(entry);
         ValidationResult planResult = validationPlan.execute(entry);
         validationResult.append(planResult);
 
@@ -156,9 +177,8 @@ public class AGPFileValidationCheck extends FileValidationCheck {
         } else {
           assignProteinAccessionAndWriteToFile(entry, fixedFileWriter, submissionFile, true);
         }
-        parseResult = reader.read();
-        validationResult.append(parseResult);
       }
+      validationResult.append(agpFile.getEndResult());
 
     } catch (ValidationEngineException vee) {
       getReporter()
@@ -168,6 +188,10 @@ public class AGPFileValidationCheck extends FileValidationCheck {
       getReporter()
           .writeToFile(getReportFile(submissionFile), Severity.ERROR, e.getMessage(), origin);
       throw new ValidationEngineException(e.getMessage(), e);
+    } finally {
+      if (scheduler != null) {
+        scheduler.close();
+      }
     }
     if (validationResult.isValid()) registerAGPfileInfo();
     return validationResult;
@@ -178,40 +202,37 @@ public class AGPFileValidationCheck extends FileValidationCheck {
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * Parses the AGP files and records their objects and component placements. The parsed files are
+   * kept for {@link #check(SubmissionFile)}, so that each file is only parsed once.
+   */
   public void createContigDB() throws ValidationEngineException {
     for (SubmissionFile submissionFile : options.submissionFiles.get().getFiles(FileType.AGP)) {
-      try (BufferedReader fileReader =
-          CommonUtil.bufferedReaderFromFile(submissionFile.getFile())) {
-        AGPFileReader reader = new AGPFileReader(new AGPLineReader(fileReader));
-        ValidationResult result = reader.read();
+      try {
+        ParsedAGPFile agpFile = parse(submissionFile);
+        parsedFiles.put(submissionFile.getFile(), agpFile);
 
-        while (reader.isEntry()) {
+        for (int object = 0; object < agpFile.getObjectCount(); object++) {
+          ValidationResult result = agpFile.getParseResult(object);
           if (result.isValid()) {
-            Entry entry = reader.getEntry();
-            addAgpEntryName(entry.getSubmitterAccession().toUpperCase());
+            addAgpEntryName(agpFile.getObjectName(object).toUpperCase());
 
-            for (AgpRow agpRow : entry.getSequence().getSortedAGPRows()) {
-              if (!agpRow.isGap()) {
-                if (agpRow.getComponent_id() != null && sharedInfo.contigDB != null) {
-                  // <componentAGPRowsMap> is to group which component placed where. If one
+            for (int row : agpFile.getSortedRows(object)) {
+              if (!agpFile.isGap(row)) {
+                String componentId = agpFile.getComponentId(row);
+                if (componentId != null && sharedInfo.agpComponentStore != null) {
+                  // The component store groups which component placed where. If one
                   // component(let's say contig1) contig is placed in multiple scaffolds,
-                  // this map will contain all the scaffolds where that component(contig1) has been
-                  // placed. K<contig1> V<all scaffolds in AGPROW format>
-                  ConcurrentMap<String, Object> componentAGPRowsMap =
-                      sharedInfo
-                          .contigDB
-                          .hashMap(
-                              "map", Serializer.STRING, sharedInfo.contigDB.getDefaultSerializer())
-                          .createOrOpen();
-                  List<AgpRow> agpRows =
-                      (List<AgpRow>)
-                          componentAGPRowsMap.get(agpRow.getComponent_id().toLowerCase());
-                  if (agpRows == null) {
-                    agpRows = new ArrayList<>();
-                  }
-                  agpRows.add(agpRow);
-                  componentAGPRowsMap.put(agpRow.getComponent_id().toLowerCase(), agpRows);
-                  sharedInfo.agpPlacedComponents.add(agpRow.getComponent_id().toUpperCase());
+                  // it will contain all the scaffolds where that component(contig1) has been
+                  // placed.
+                  sharedInfo.agpComponentStore.addPlacement(
+                      agpFile.getObject(row),
+                      agpFile.getPartNumber(row),
+                      componentId,
+                      agpFile.getComponentBeg(row),
+                      agpFile.getComponentEnd(row),
+                      agpFile.getOrientation(row));
+                  sharedInfo.agpPlacedComponents.add(componentId.toUpperCase());
                 }
               }
             }
@@ -223,10 +244,7 @@ public class AGPFileValidationCheck extends FileValidationCheck {
             throw new ValidationEngineException(
                 ex, ValidationEngineException.ReportErrorType.VALIDATION_ERROR);
           }
-          result = reader.read();
         }
-
-        if (sharedInfo.contigDB != null) sharedInfo.contigDB.commit();
       } catch (ValidationEngineException e) {
         throw e;
       } catch (Exception e) {
@@ -235,6 +253,12 @@ public class AGPFileValidationCheck extends FileValidationCheck {
     }
   }
 
+  private static ParsedAGPFile parse(SubmissionFile submissionFile) throws IOException {
+    try (BufferedReader fileReader = CommonUtil.bufferedReaderFromFile(submissionFile.getFile())) {
+      return ParsedAGPFile.read(new AGPLineReader(fileReader));
+    }
+  }
+
   private void registerAGPfileInfo() throws ValidationEngineException {
     AssemblySequenceInfo.writeMapObject(
         sharedInfo.agpInfo, options.processDir.get(), AssemblySequenceInfo.agpfileName);
@@ -0,0 +1,352 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.validation.check.file;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import uk.ac.ebi.embl.api.entry.AgpRow;
+import uk.ac.ebi.embl.api.entry.Entry;
+import uk.ac.ebi.embl.api.validation.ValidationEngineException;
+
+/**
+ * Builds the objects of an AGP file after the objects of the same file placed in them, whatever
+ * the order of the objects in the file. A contig is placed in a scaffold and a scaffold in a
+ * chromosome, so the objects and the components placed in them form a graph, which is checked for
+ * cycles and for components without a sequence before any object is built.
+ *
+ * <p>The build order is the file order where the file already lists objects after the objects
+ * placed in them. With more than one thread, the objects whose components have all been built are
+ * built in parallel on a fork-join pool, at most a few objects per thread ahead of the object
+ * being waited for. With a single thread each object is built on the calling thread when it is
+ * waited for.
+ */
+public class AgpBuildScheduler implements AutoCloseable {
+
+  /** Builds the sequence of an object. Called once for each object. */
+  @FunctionalInterface
+  public interface Builder {
+    void build(Entry object) throws ValidationEngineException;
+  }
+
+  private static final int BUILT_AHEAD_PER_THREAD = 4;
+
+  // Copied from the caller, and each object released once it has been built.
+  private final Entry[] objects;
+  private final int[][] dependencies;
+  private final int[][] dependents;
+  private final int[] buildOrder;
+  private final int[] positions;
+
+  private final ForkJoinPool pool;
+  private final int builtAhead;
+  private Builder builder;
+
+  // Guarded by this.
+  private final int[] pendingDependencies;
+  private final boolean[] submitted;
+  private int limit = 0;
+
+  private final List<CompletableFuture<Void>> built;
+  private int nextSerialPosition = 0;
+
+  // Set when the scheduler is closed, so that no more objects are built.
+  private volatile boolean closed = false;
+
+  /**
+   * @param objects the objects of the AGP file
+   * @param isComponentStored tells if the sequence of a component placement that is not an object
+   *     of the file is available
+   * @param threads the number of threads building the objects
+   * @throws ValidationEngineException if objects are placed in each other or a component has no
+   *     sequence
+   */
+  public AgpBuildScheduler(List<Entry> objects, Predicate<AgpRow> isComponentStored, int threads)
+      throws ValidationEngineException {
+    this.objects = objects.toArray(new Entry[0]);
+    int count = this.objects.length;
+    Map<String, List<Integer>> objectIndexes = new HashMap<>();
+    for (int object = 0; object < count; object++) {
+      String name = this.objects[object].getSubmitterAccession();
+      if (name != null) {
+        objectIndexes.computeIfAbsent(name.toLowerCase(), k -> new ArrayList<>()).add(object);
+      }
+    }
+
+    this.dependencies = new int[count][];
+    Set<String> missingComponents = new LinkedHashSet<>();
+    for (int object = 0; object < count; object++) {
+      Set<Integer> objectDependencies = new LinkedHashSet<>();
+      for (AgpRow agpRow : this.objects[object].getSequence().getAgpRows()) {
+        if (agpRow.isGap() || agpRow.getComponent_id() == null) {
+          continue;
+        }
+        List<Integer> componentObjects = objectIndexes.get(agpRow.getComponent_id().toLowerCase());
+        if (componentObjects != null) {
+          objectDependencies.addAll(componentObjects);
+        } else if (!isComponentStored.test(agpRow)) {
+          missingComponents.add(agpRow.getComponent_id());
+        }
+      }
+      dependencies[object] = objectDependencies.stream().mapToInt(Integer::intValue).toArray();
+    }
+    if (!missingComponents.isEmpty()) {
+      throw new ValidationEngineException(
+          "Failed to construct AGP sequences. Components not available: "
+              + String.join(", ", missingComponents),
+          ValidationEngineException.ReportErrorType.VALIDATION_ERROR);
+    }
+
+    int[] dependentCounts = new int[count];
+    for (int[] objectDependencies : dependencies) {
+      for (int dependency : objectDependencies) {
+        dependentCounts[dependency]++;
+      }
+    }
+    this.dependents = new int[count][];
+    for (int object = 0; object < count; object++) {
+      dependents[object] = new int[dependentCounts[object]];
+    }
+    this.pendingDependencies = new int[count];
+    Arrays.fill(dependentCounts, 0);
+    for (int object = 0; object < count; object++) {
+      for (int dependency : dependencies[object]) {
+        dependents[dependency][dependentCounts[dependency]++] = object;
+      }
+      pendingDependencies[object] = dependencies[object].length;
+    }
+
+    this.buildOrder = sort(pendingDependencies);
+    if (buildOrder.length < count) {
+      throw new ValidationEngineException(
+          "Failed to construct AGP sequences. Objects placed in each other: "
+              + String.join(", ", cycleNames()),
+          ValidationEngineException.ReportErrorType.VALIDATION_ERROR);
+    }
+    this.positions = new int[count];
+    for (int position = 0; position < count; position++) {
+      positions[buildOrder[position]] = position;
+    }
+
+    this.submitted = new boolean[count];
+    this.built = new ArrayList<>(count);
+    for (int object = 0; object < count; object++) {
+      built.add(new CompletableFuture<>());
+    }
+    if (threads > 1 && count > 1) {
+      this.pool = new ForkJoinPool(threads);
+      this.builtAhead = threads * BUILT_AHEAD_PER_THREAD;
+    } else {
+      this.pool = null;
+      this.builtAhead = 0;
+    }
+  }
+
+  /**
+   * Returns the objects in the order they are built: each object after the objects placed in it,
+   * and otherwise in file order.
+   */
+  public int[] getBuildOrder() {
+    return buildOrder.clone();
+  }
+
+  /** Starts building the objects. */
+  public void start(Builder builder) {
+    this.builder = builder;
+    if (pool != null) {
+      release(builtAhead);
+    }
+  }
+
+  /**
+   * Waits until the object has been built. The objects placed in it are built first.
+   *
+   * @throws ValidationEngineException if the object or an object placed in it failed to build
+   */
+  public void awaitBuilt(int object) throws ValidationEngineException {
+    if (pool == null) {
+      while (nextSerialPosition <= positions[object]) {
+        build(buildOrder[nextSerialPosition++]);
+      }
+      return;
+    }
+    release(positions[object] + 1 + builtAhead);
+    try {
+      built.get(object).get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof ValidationEngineException) {
+        throw (ValidationEngineException) e.getCause();
+      }
+      throw new ValidationEngineException(e.getCause().getMessage(), e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ValidationEngineException(e);
+    }
+  }
+
+  /** Submits the objects before the position in build order that are ready to be built. */
+  private synchronized void release(int position) {
+    int newLimit = Math.min(position, buildOrder.length);
+    for (; limit < newLimit; limit++) {
+      int object = buildOrder[limit];
+      if (pendingDependencies[object] == 0) {
+        submit(object);
+      }
+    }
+  }
+
+  private synchronized void completed(int object) {
+    for (int dependent : dependents[object]) {
+      if (--pendingDependencies[dependent] == 0 && positions[dependent] < limit) {
+        submit(dependent);
+      }
+    }
+  }
+
+  private void submit(int object) {
+    if (submitted[object] || closed) {
+      return;
+    }
+    submitted[object] = true;
+    pool.execute(
+        () -> {
+          if (closed) {
+            return;
+          }
+          try {
+            build(object);
+          } catch (Throwable e) {
+            failed(object, e);
+            return;
+          }
+          built.get(object).complete(null);
+          completed(object);
+        });
+  }
+
+  private void build(int object) throws ValidationEngineException {
+    Entry entry = objects[object];
+    objects[object] = null;
+    builder.build(entry);
+  }
+
+  /** Fails the object and every object it is placed in, directly or not. */
+  private void failed(int object, Throwable e) {
+    List<Integer> failedObjects = new ArrayList<>();
+    failedObjects.add(object);
+    while (!failedObjects.isEmpty()) {
+      int failedObject = failedObjects.remove(failedObjects.size() - 1);
+      if (built.get(failedObject).completeExceptionally(e)) {
+        for (int dependent : dependents[failedObject]) {
+          failedObjects.add(dependent);
+        }
+      }
+    }
+  }
+
+  /** Sorts the objects topologically, taking the ready object first in file order. */
+  private int[] sort(int[] pendingDependencies) {
+    int[] pending = pendingDependencies.clone();
+    PriorityQueue<Integer> ready = new PriorityQueue<>();
+    for (int object = 0; object < pending.length; object++) {
+      if (pending[object] == 0) {
+        ready.add(object);
+      }
+    }
+    int[] order = new int[pending.length];
+    int size = 0;
+    while (!ready.isEmpty()) {
+      int object = ready.poll();
+      order[size++] = object;
+      for (int dependent : dependents[object]) {
+        if (--pending[dependent] == 0) {
+          ready.add(dependent);
+        }
+      }
+    }
+    return Arrays.copyOf(order, size);
+  }
+
+  /**
+   * Returns the names of the objects on a cycle or between cycles, leaving out the objects that
+   * are only placed in them or only have them placed in them.
+   */
+  private Set<String> cycleNames() {
+    int count = objects.length;
+    boolean[] removed = new boolean[count];
+    // Objects with their components all outside cycles.
+    for (int object : sort(pendingDependencies)) {
+      removed[object] = true;
+    }
+    // Objects placed in no object on a cycle.
+    int[] pendingDependents = new int[count];
+    for (int object = 0; object < count; object++) {
+      for (int dependent : dependents[object]) {
+        if (!removed[dependent]) {
+          pendingDependents[object]++;
+        }
+      }
+    }
+    List<Integer> unplaced = new ArrayList<>();
+    for (int object = 0; object < count; object++) {
+      if (!removed[object] && pendingDependents[object] == 0) {
+        unplaced.add(object);
+      }
+    }
+    while (!unplaced.isEmpty()) {
+      int object = unplaced.remove(unplaced.size() - 1);
+      removed[object] = true;
+      for (int dependency : dependencies[object]) {
+        if (!removed[dependency] && --pendingDependents[dependency] == 0) {
+          unplaced.add(dependency);
+        }
+      }
+    }
+    Set<String> names = new LinkedHashSet<>();
+    for (int object = 0; object < count; object++) {
+      if (!removed[object]) {
+        names.add(objects[object].getSubmitterAccession());
+      }
+    }
+    return names;
+  }
+
+  /**
+   * Stops building objects. The builds in progress are not interrupted but waited for, as an
+   * interrupted build would close the channels of the stores it reads and writes.
+   */
+  @Override
+  public void close() {
+    if (pool != null) {
+      synchronized (this) {
+        closed = true;
+      }
+      pool.shutdown();
+      try {
+        while (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+          // Wait for the builds in progress.
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
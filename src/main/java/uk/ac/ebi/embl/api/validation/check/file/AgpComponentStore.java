@@ -0,0 +1,283 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.validation.check.file;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import uk.ac.ebi.embl.api.entry.AgpRow;
+import uk.ac.ebi.embl.api.entry.sequence.PackedSequence;
+import uk.ac.ebi.embl.api.entry.sequence.ReverseComplementer;
+import uk.ac.ebi.embl.api.entry.sequence.Sequence;
+
+/**
+ * Placements of AGP components and the component sequences needed to construct the AGP objects.
+ *
+ * <p>The placements are held in a compact index of primitive arrays keyed by the lowercase
+ * component id, and are found by object, part number and component range. The sequence of each
+ * placement, already reverse complemented for minus orientation, is appended once to a segment
+ * file and referenced by offset and length. Object sequences are assembled in chunks read from
+ * the segment file into a packed sequence, so the heap needed does not grow with the size of the
+ * uncompressed object.
+ *
+ * <p>Placements are added from a single thread. Once they have all been added, component sequences
+ * can be stored and appended from several threads, so that independent objects can be constructed
+ * in parallel. Only the index is locked: the segment file is written and read at positions
+ * reserved under the lock, with a buffer for each call. The segment file is deleted when the
+ * store is closed.
+ */
+public class AgpComponentStore implements Closeable {
+
+  private static final int NO_PLACEMENT = -1;
+  private static final long NO_SEGMENT = -1;
+  private static final int NO_PART_NUMBER = 0;
+  private static final int CHUNK_SIZE = 1 << 16;
+
+  private final Path segmentFile;
+  private final FileChannel channel;
+  private long segmentFileSize = 0;
+
+  private final Map<String, Integer> objectIds = new HashMap<>();
+  // Lowercase component id to its last placement, earlier placements are chained through next.
+  private final Map<String, Integer> components = new HashMap<>();
+
+  private int placementCount = 0;
+  private int[] objectId = new int[1024];
+  private int[] partNumber = new int[1024];
+  private long[] componentBeg = new long[1024];
+  private long[] componentEnd = new long[1024];
+  private boolean[] reverse = new boolean[1024];
+  private int[] next = new int[1024];
+  private long[] segmentOffset = new long[1024];
+  private long[] segmentLength = new long[1024];
+
+  public AgpComponentStore(Path segmentFile) throws IOException {
+    this.segmentFile = segmentFile;
+    this.channel =
+        FileChannel.open(
+            segmentFile,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+  }
+
+  /** Adds the placement of a component in an AGP object. Gap rows are ignored. */
+  public void addPlacement(AgpRow agpRow) {
+    if (agpRow.isGap()) {
+      return;
+    }
+    addPlacement(
+        agpRow.getObject(),
+        agpRow.getPart_number(),
+        agpRow.getComponent_id(),
+        agpRow.getComponent_beg(),
+        agpRow.getComponent_end(),
+        agpRow.getOrientation());
+  }
+
+  /** Adds the placement of a component in an AGP object from the columns of its row. */
+  public void addPlacement(
+      String object,
+      Integer partNumber,
+      String componentId,
+      Long componentBeg,
+      Long componentEnd,
+      String orientation) {
+    if (componentId == null) {
+      return;
+    }
+    if (placementCount == objectId.length) {
+      grow();
+    }
+    int placement = placementCount++;
+    this.objectId[placement] = objectId(object);
+    this.partNumber[placement] = partNumber == null ? NO_PART_NUMBER : partNumber;
+    this.componentBeg[placement] = componentBeg == null ? 0 : componentBeg;
+    this.componentEnd[placement] = componentEnd == null ? 0 : componentEnd;
+    reverse[placement] = "-".equals(orientation) || "minus".equals(orientation);
+    segmentOffset[placement] = NO_SEGMENT;
+    Integer previous = components.put(componentId.toLowerCase(), placement);
+    next[placement] = previous == null ? NO_PLACEMENT : previous;
+  }
+
+  public boolean hasComponent(String componentId) {
+    return components.containsKey(componentId.toLowerCase());
+  }
+
+  /** Returns true if the sequence of the component placement has been stored. */
+  public synchronized boolean hasComponentSequence(AgpRow agpRow) {
+    int placement = findPlacement(agpRow);
+    return placement != NO_PLACEMENT && segmentOffset[placement] != NO_SEGMENT;
+  }
+
+  /**
+   * Stores the sequence of every placement of the component. Placements with a range outside the
+   * sequence are left without a sequence. The sequence is copied in chunks, so the placements of
+   * a large object do not need to be materialised.
+   */
+  public void putComponentSequence(String componentId, Sequence sequence) throws IOException {
+    if (!sequence.hasSequenceByte()) {
+      return;
+    }
+    // Reserve the segments under the lock and write them outside it.
+    List<Integer> placements = new ArrayList<>();
+    List<Long> offsets = new ArrayList<>();
+    synchronized (this) {
+      Integer head = components.get(componentId.toLowerCase());
+      if (head == null) {
+        return;
+      }
+      for (int placement = head; placement != NO_PLACEMENT; placement = next[placement]) {
+        long beg = componentBeg[placement];
+        long end = componentEnd[placement];
+        if (beg < 1 || beg > end || end > sequence.getLength()) {
+          continue;
+        }
+        placements.add(placement);
+        offsets.add(segmentFileSize);
+        segmentFileSize += end - beg + 1;
+      }
+    }
+    byte[] chunk = new byte[CHUNK_SIZE];
+    ReverseComplementer reverseComplementer = new ReverseComplementer();
+    for (int i = 0; i < placements.size(); i++) {
+      int placement = placements.get(i);
+      long beg = componentBeg[placement];
+      long end = componentEnd[placement];
+      long offset = offsets.get(i);
+      for (long position = beg; position <= end; position += CHUNK_SIZE) {
+        int count = (int) Math.min(CHUNK_SIZE, end - position + 1);
+        if (reverse[placement]) {
+          // Write the chunks from the end of the component.
+          sequence.copySequenceByte(end - (position - beg) - count + 1, chunk);
+          reverseComplementer.reverseComplementByte(chunk, count);
+        } else {
+          sequence.copySequenceByte(position, chunk);
+        }
+        write(chunk, count, offset + position - beg);
+      }
+    }
+    // The segments are only found once they have been written.
+    synchronized (this) {
+      for (int i = 0; i < placements.size(); i++) {
+        int placement = placements.get(i);
+        segmentOffset[placement] = offsets.get(i);
+        segmentLength[placement] = componentEnd[placement] - componentBeg[placement] + 1;
+      }
+    }
+  }
+
+  /**
+   * Appends the stored sequence of the component placement described by the AGP row to the
+   * builder.
+   *
+   * @return false if the placement is not known or its sequence has not been stored
+   */
+  public boolean appendComponentSequence(AgpRow agpRow, PackedSequence.Builder builder)
+      throws IOException {
+    long start;
+    long end;
+    synchronized (this) {
+      int placement = findPlacement(agpRow);
+      if (placement == NO_PLACEMENT || segmentOffset[placement] == NO_SEGMENT) {
+        return false;
+      }
+      start = segmentOffset[placement];
+      end = start + segmentLength[placement];
+    }
+    byte[] bytes = new byte[(int) Math.min(CHUNK_SIZE, end - start)];
+    for (long offset = start; offset < end; offset += CHUNK_SIZE) {
+      int count = (int) Math.min(CHUNK_SIZE, end - offset);
+      read(bytes, count, offset);
+      builder.append(bytes, 0, count);
+    }
+    return true;
+  }
+
+  private int findPlacement(AgpRow agpRow) {
+    Integer head = components.get(agpRow.getComponent_id().toLowerCase());
+    Integer object = objectIds.get(agpRow.getObject().toLowerCase());
+    if (head == null || object == null) {
+      return NO_PLACEMENT;
+    }
+    int part = agpRow.getPart_number() == null ? NO_PART_NUMBER : agpRow.getPart_number();
+    long beg = agpRow.getComponent_beg() == null ? 0 : agpRow.getComponent_beg();
+    long end = agpRow.getComponent_end() == null ? 0 : agpRow.getComponent_end();
+    int match = NO_PLACEMENT;
+    for (int placement = head; placement != NO_PLACEMENT; placement = next[placement]) {
+      // The part number tells apart placements of the same range in one object.
+      if (objectId[placement] == object
+          && (part == NO_PART_NUMBER
+              || partNumber[placement] == NO_PART_NUMBER
+              || partNumber[placement] == part)
+          && componentBeg[placement] == beg
+          && componentEnd[placement] == end) {
+        // Placements are chained from the last one, keep the first one added.
+        match = placement;
+      }
+    }
+    return match;
+  }
+
+  private int objectId(String object) {
+    return objectIds.computeIfAbsent(object.toLowerCase(), k -> objectIds.size());
+  }
+
+  private void write(byte[] bytes, int count, long offset) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, count);
+    while (buffer.hasRemaining()) {
+      channel.write(buffer, offset + buffer.position());
+    }
+  }
+
+  private void read(byte[] bytes, int count, long offset) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, count);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, offset + buffer.position()) < 0) {
+        throw new EOFException("Segment file ended at " + (offset + buffer.position()));
+      }
+    }
+  }
+
+  private void grow() {
+    int capacity = objectId.length * 2;
+    objectId = Arrays.copyOf(objectId, capacity);
+    partNumber = Arrays.copyOf(partNumber, capacity);
+    componentBeg = Arrays.copyOf(componentBeg, capacity);
+    componentEnd = Arrays.copyOf(componentEnd, capacity);
+    reverse = Arrays.copyOf(reverse, capacity);
+    next = Arrays.copyOf(next, capacity);
+    segmentOffset = Arrays.copyOf(segmentOffset, capacity);
+    segmentLength = Arrays.copyOf(segmentLength, capacity);
+  }
+
+  @Override
+  public void close() {
+    try {
+      channel.close();
+      Files.deleteIfExists(segmentFile);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -64,7 +64,7 @@ public class AnnotationOnlyFlatfileValidationCheck extends FileValidationCheck {
         }
 
         Entry entry = entryReader.getEntry();
-        if (entry.getSequence() == null || entry.getSequence().getSequenceByte() == null) {
+        if (entry.getSequence() == null || !entry.getSequence().hasSequenceByte()) {
           if (StringUtils.isBlank(entry.getSubmitterAccession())) {
             throw new ValidationEngineException(
                 "Missing submitter sequence name for annotation only entry.");
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.validation.check.file;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import uk.ac.ebi.embl.api.entry.Entry;
+import uk.ac.ebi.embl.api.validation.ValidationEngineException;
+import uk.ac.ebi.embl.api.validation.ValidationResult;
+import uk.ac.ebi.embl.api.validation.plan.EmblEntryValidationPlan;
+import uk.ac.ebi.embl.api.validation.plan.EmblEntryValidationPlanProperty;
+
+/**
+ * Validates entries on worker threads while the reading thread keeps parsing. The stages queued
+ * after each validation run on the reading thread strictly in submission order, so report and
+ * output files are written exactly as in serial mode and the shared state is only updated from
+ * one thread.
+ *
+ * <p>With a single thread the plan and its stage are executed immediately on the calling thread.
+ */
+class EntryValidationPipeline implements AutoCloseable {
+
+  /** Stage run in submission order with the plan result, or null for a plain ordered stage. */
+  @FunctionalInterface
+  interface Stage {
+    void run(ValidationResult planResult) throws Exception;
+  }
+
+  private static final int QUEUED_ENTRIES_PER_THREAD = 4;
+
+  private final ExecutorService executor;
+  private final int maxQueued;
+  private final Deque<Task> queue = new ArrayDeque<>();
+
+  EntryValidationPipeline(int threads) {
+    if (threads > 1) {
+      this.executor = Executors.newFixedThreadPool(threads);
+      this.maxQueued = threads * QUEUED_ENTRIES_PER_THREAD;
+    } else {
+      this.executor = null;
+      this.maxQueued = 0;
+    }
+  }
+
+  /**
+   * Validates the entry with the current values of the plan property. In parallel mode the
+   * property is copied, so the caller can update it for the next entry straight away.
+   */
+  void validate(Entry entry, EmblEntryValidationPlanProperty planProperty, Stage stage)
+      throws Exception {
+    if (executor == null) {
+      stage.run(new EmblEntryValidationPlan(planProperty).execute(entry));
+      return;
+    }
+    EmblEntryValidationPlanProperty entryPlanProperty = planProperty.copy();
+    enqueue(
+        executor.submit(() -> new EmblEntryValidationPlan(entryPlanProperty).execute(entry)),
+        stage);
+  }
+
+  /** Runs the stage once all previously submitted stages have run. */
+  void then(Stage stage) throws Exception {
+    if (executor == null) {
+      stage.run(null);
+      return;
+    }
+    enqueue(CompletableFuture.completedFuture(null), stage);
+  }
+
+  /** Waits for all submitted entries and runs their remaining stages. */
+  void drain() throws Exception {
+    while (!queue.isEmpty()) {
+      runHead();
+    }
+  }
+
+  private void enqueue(Future<ValidationResult> result, Stage stage) throws Exception {
+    queue.addLast(new Task(result, stage));
+    while (queue.size() > maxQueued || (!queue.isEmpty() && queue.peekFirst().result.isDone())) {
+      runHead();
+    }
+  }
+
+  private void runHead() throws Exception {
+    Task task = queue.removeFirst();
+    ValidationResult planResult;
+    try {
+      planResult = task.result.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof ValidationEngineException) {
+        throw (ValidationEngineException) e.getCause();
+      }
+      throw new ValidationEngineException(e.getCause().getMessage(), e.getCause());
+    }
+    task.stage.run(planResult);
+  }
+
+  @Override
+  public void close() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  private static class Task {
+    private final Future<ValidationResult> result;
+    private final Stage stage;
+
+    Task(Future<ValidationResult> result, Stage stage) {
+      this.result = result;
+      this.stage = stage;
+    }
+  }
+}
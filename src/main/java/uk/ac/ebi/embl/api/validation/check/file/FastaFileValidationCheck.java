@@ -11,6 +11,9 @@
 package uk.ac.ebi.embl.api.validation.check.file;
 
 import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.concurrent.ConcurrentMap;
 import uk.ac.ebi.embl.api.entry.AssemblySequenceInfo;
@@ -20,14 +23,16 @@ import uk.ac.ebi.embl.api.validation.Origin;
 import uk.ac.ebi.embl.api.validation.Severity;
 import uk.ac.ebi.embl.api.validation.ValidationEngineException;
 import uk.ac.ebi.embl.api.validation.ValidationResult;
+import uk.ac.ebi.embl.api.validation.ValidationScope;
 import uk.ac.ebi.embl.api.validation.annotation.Description;
-import uk.ac.ebi.embl.api.validation.plan.EmblEntryValidationPlan;
 import uk.ac.ebi.embl.api.validation.submission.Context;
 import uk.ac.ebi.embl.api.validation.submission.SubmissionFile;
 import uk.ac.ebi.embl.api.validation.submission.SubmissionOptions;
 import uk.ac.ebi.embl.common.CommonUtil;
 import uk.ac.ebi.embl.fasta.reader.FastaFileReader;
 import uk.ac.ebi.embl.fasta.reader.FastaLineReader;
+import uk.ac.ebi.embl.fasta.reader.MappedFastaFileReader;
+import uk.ac.ebi.embl.flatfile.reader.FlatFileReader;
 
 @Description("")
 public class FastaFileValidationCheck extends FileValidationCheck {
@@ -54,8 +59,11 @@ public class FastaFileValidationCheck extends FileValidationCheck {
       }
     }
 
-    try (BufferedReader fileReader = CommonUtil.bufferedReaderFromFile(submissionFile.getFile());
-        PrintWriter fixedFileWriter = getFixedFileWriter(submissionFile)) {
+    try (Closeable reportBuffer = openBufferedReporter();
+        BufferedReader fileReader = CommonUtil.bufferedReaderFromFile(submissionFile.getFile());
+        PrintWriter fixedFileWriter = getFixedFileWriter(submissionFile);
+        EntryValidationPipeline pipeline =
+            new EntryValidationPipeline(getOptions().validationThreads)) {
       clearReportFile(getReportFile(submissionFile));
 
       if (!validateFileFormat(
@@ -64,15 +72,18 @@ public class FastaFileValidationCheck extends FileValidationCheck {
         addErrorAndReport(validationResult, submissionFile, "InvalidFileFormat", "flatfile");
         return validationResult;
       }
-      FastaFileReader reader = new FastaFileReader(new FastaLineReader(fileReader));
+      FlatFileReader<Entry> reader = getFastaReader(submissionFile.getFile(), fileReader);
       ValidationResult parseResult = reader.read();
       validationResult.append(parseResult);
-      EmblEntryValidationPlan validationPlan;
 
       while (reader.isEntry()) {
         if (!parseResult.isValid()) {
-          getReporter().writeToFile(getReportFile(submissionFile), parseResult);
-          addMessageStats(parseResult.getMessages());
+          ValidationResult entryParseResult = parseResult;
+          pipeline.then(
+              planResult -> {
+                getReporter().writeToFile(getReportFile(submissionFile), entryParseResult);
+                addMessageStats(entryParseResult.getMessages());
+              });
         }
 
         Entry entry = reader.getEntry();
@@ -122,32 +133,38 @@ public class FastaFileValidationCheck extends FileValidationCheck {
           entry.getSequence().setTopology(chrListToplogy);
         }
 
-        validationPlan = new EmblEntryValidationPlan(getOptions().getEntryValidationPlanProperty());
-        ValidationResult planResult = validationPlan.execute(entry);
-        validationResult.append(planResult);
-
-        if (null != entry.getSubmitterAccession()) {
-          addEntryName(entry.getSubmitterAccession());
-          int assemblyLevel =
-              getAssemblyLevel(getOptions().getEntryValidationPlanProperty().validationScope.get());
-          AssemblySequenceInfo sequenceInfo =
-              new AssemblySequenceInfo(entry.getSequence().getLength(), assemblyLevel, null);
-          sharedInfo.fastaInfo.put(entry.getSubmitterAccession().toUpperCase(), sequenceInfo);
-        }
+        Entry validatedEntry = entry;
+        ValidationScope validationScope =
+            getOptions().getEntryValidationPlanProperty().validationScope.get();
+        pipeline.validate(
+            validatedEntry,
+            getOptions().getEntryValidationPlanProperty(),
+            planResult -> {
+              validationResult.append(planResult);
 
-        if (!planResult.isValid()) {
-          getReporter().writeToFile(getReportFile(submissionFile), planResult);
-          addMessageStats(planResult.getMessages());
-        } else {
-          assignProteinAccessionAndWriteToFile(entry, fixedFileWriter, submissionFile, false);
-        }
+              if (null != validatedEntry.getSubmitterAccession()) {
+                addEntryName(validatedEntry.getSubmitterAccession());
+                int assemblyLevel = getAssemblyLevel(validationScope);
+                AssemblySequenceInfo sequenceInfo =
+                    new AssemblySequenceInfo(
+                        validatedEntry.getSequence().getLength(), assemblyLevel, null);
+                sharedInfo.fastaInfo.put(
+                    validatedEntry.getSubmitterAccession().toUpperCase(), sequenceInfo);
+              }
+
+              if (!planResult.isValid()) {
+                getReporter().writeToFile(getReportFile(submissionFile), planResult);
+                addMessageStats(planResult.getMessages());
+              } else {
+                assignProteinAccessionAndWriteToFile(
+                    validatedEntry, fixedFileWriter, submissionFile, false, validationScope);
+              }
+              validationResult.append(planResult);
+              sharedInfo.sequenceCount++;
+            });
         parseResult = reader.read();
-        validationResult.append(planResult);
-        sharedInfo.sequenceCount++;
-      }
-      if (sharedInfo.contigDB != null) {
-        sharedInfo.contigDB.commit();
       }
+      pipeline.drain();
     } catch (ValidationEngineException e) {
       getReporter()
           .writeToFile(getReportFile(submissionFile), Severity.ERROR, e.getMessage(), origin);
@@ -162,6 +179,14 @@ public class FastaFileValidationCheck extends FileValidationCheck {
     return validationResult;
   }
 
+  private FlatFileReader<Entry> getFastaReader(File file, BufferedReader fileReader)
+      throws IOException {
+    if (getOptions().isMappedFastaReader && !CommonUtil.isCompressed(file)) {
+      return new MappedFastaFileReader(file);
+    }
+    return new FastaFileReader(new FastaLineReader(fileReader));
+  }
+
   private void registerFastaInfo() throws ValidationEngineException {
     AssemblySequenceInfo.writeMapObject(
         sharedInfo.fastaInfo, options.processDir.get(), AssemblySequenceInfo.fastafileName);
@@ -11,7 +11,6 @@
 package uk.ac.ebi.embl.api.validation.check.file;
 
 import java.io.*;
-import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -37,7 +36,7 @@ import uk.ac.ebi.embl.api.entry.location.Order;
 import uk.ac.ebi.embl.api.entry.qualifier.Qualifier;
 import uk.ac.ebi.embl.api.entry.qualifier.QualifierFactory;
 import uk.ac.ebi.embl.api.entry.reference.*;
-import uk.ac.ebi.embl.api.entry.sequence.ReverseComplementer;
+import uk.ac.ebi.embl.api.entry.sequence.PackedSequence;
 import uk.ac.ebi.embl.api.entry.sequence.Sequence;
 import uk.ac.ebi.embl.api.storage.DataRow;
 import uk.ac.ebi.embl.api.storage.DataSet;
@@ -51,6 +50,7 @@ import uk.ac.ebi.embl.api.validation.helper.EntryUtils;
 import uk.ac.ebi.embl.api.validation.helper.ReferenceUtils;
 import uk.ac.ebi.embl.api.validation.helper.Utils;
 import uk.ac.ebi.embl.api.validation.report.DefaultSubmissionReporter;
+import uk.ac.ebi.embl.api.validation.report.ReportFileWriter;
 import uk.ac.ebi.embl.api.validation.report.SubmissionReporter;
 import uk.ac.ebi.embl.api.validation.submission.Context;
 import uk.ac.ebi.embl.api.validation.submission.SubmissionFile;
@@ -71,9 +71,18 @@ public abstract class FileValidationCheck {
 
   public static final String masterFileName = "master.dat";
 
+  private static final byte[] GAP_BASES = new byte[1 << 16];
+
+  static {
+    Arrays.fill(GAP_BASES, (byte) 'n');
+  }
+
   protected SubmissionOptions options = null;
   protected SubmissionReporter reporter = null;
 
+  /** The reporter that buffers the messages of the file being checked, or null. */
+  private volatile DefaultSubmissionReporter bufferedReporter = null;
+
   protected ConcurrentMap<String, AtomicLong> messageStats = null;
 
   protected TaxonomyClient taxonomyClient = null;
@@ -91,7 +100,7 @@ public abstract class FileValidationCheck {
     this.sharedInfo = sharedInfo;
 
     messageStats = new ConcurrentHashMap<String, AtomicLong>();
-    taxonomyClient = new TaxonomyClient();
+    taxonomyClient = options.getTaxonomyClient();
     ValidationMessageManager.addBundle(ValidationMessageManager.GENOMEASSEMBLY_VALIDATION_BUNDLE);
     ValidationMessageManager.addBundle(ValidationMessageManager.STANDARD_VALIDATION_BUNDLE);
     ValidationMessageManager.addBundle(ValidationMessageManager.STANDARD_FIXER_BUNDLE);
@@ -110,8 +119,27 @@ public abstract class FileValidationCheck {
   public SubmissionReporter getReporter() {
     HashSet<Severity> severity = new HashSet<>();
     severity.add(Severity.ERROR);
-    if (reporter == null) return new DefaultSubmissionReporter(severity);
-    return reporter;
+    if (reporter != null) return reporter;
+    DefaultSubmissionReporter buffered = bufferedReporter;
+    if (buffered != null) return buffered;
+    return new DefaultSubmissionReporter(severity);
+  }
+
+  /**
+   * Keeps the report files open and buffers the messages written to them by the default reporter
+   * until the returned resource is closed, when the messages are written and the report files are
+   * synced to disk.
+   */
+  protected Closeable openBufferedReporter() {
+    HashSet<Severity> severity = new HashSet<>();
+    severity.add(Severity.ERROR);
+    DefaultSubmissionReporter buffered =
+        new DefaultSubmissionReporter(severity, ReportFileWriter.FlushPolicy.DEFAULT);
+    bufferedReporter = buffered;
+    return () -> {
+      bufferedReporter = null;
+      buffered.close();
+    };
   }
 
   public Path getReportFile(SubmissionFile submissionFile) {
@@ -320,8 +348,9 @@ public abstract class FileValidationCheck {
   }
 
   void addMessageStat(ValidationMessage message) {
-    if (messageStats.putIfAbsent(message.getMessageKey(), new AtomicLong(1)) != null)
-      messageStats.get(message.getMessageKey()).incrementAndGet();
+    messageStats
+        .computeIfAbsent(message.getMessageKey(), key -> new AtomicLong())
+        .incrementAndGet();
   }
 
   void addMessageStats(Collection<ValidationMessage<Origin>> result) {
@@ -503,28 +532,9 @@ public abstract class FileValidationCheck {
     // scaff2 contig1 300-500
     // scaff3 scaff1 1-300 : currently we are not setting seq to it bcoz scaff1 is not part of
     // fasta/flatfile
-    if (sharedInfo.contigDB != null && entry.getSubmitterAccession() != null) {
-      ConcurrentMap<String, List<AgpRow>> contigMap =
-          (ConcurrentMap<String, List<AgpRow>>) sharedInfo.contigDB.hashMap("map").createOrOpen();
-      List<AgpRow> agpRows = contigMap.get(entry.getSubmitterAccession().toLowerCase());
-      if (agpRows != null) {
-        for (AgpRow agpRow : agpRows) {
-          if ("-".equals(agpRow.getOrientation()) || "minus".equals(agpRow.getOrientation())) {
-            ReverseComplementer reverseComplementer = new ReverseComplementer();
-            agpRow.setSequence(
-                reverseComplementer.reverseComplementByte(
-                    entry
-                        .getSequence()
-                        .getSequenceByte(agpRow.getComponent_beg(), agpRow.getComponent_end())));
-          } else {
-            agpRow.setSequence(
-                entry
-                    .getSequence()
-                    .getSequenceByte(agpRow.getComponent_beg(), agpRow.getComponent_end()));
-          }
-        }
-        contigMap.put(entry.getSubmitterAccession().toLowerCase(), agpRows);
-      }
+    if (sharedInfo.agpComponentStore != null) {
+      sharedInfo.agpComponentStore.putComponentSequence(
+          entry.getSubmitterAccession(), entry.getSequence());
     }
   }
 
@@ -641,7 +651,8 @@ public abstract class FileValidationCheck {
                 options.webinAuthUri.get(),
                 options.biosamplesUri.get(),
                 options.biosamplesWebinUsername.get(),
-                options.biosamplesWebinPassword.get());
+                options.biosamplesWebinPassword.get(),
+                options.getTaxonomyClient());
 
         Reference reference =
             eraProDao.getReference(entry, options.analysisId.get(), AnalysisType.SEQUENCE_FLATFILE);
@@ -753,19 +764,24 @@ public abstract class FileValidationCheck {
   }
 
   void writeEntryToFile(Entry entry, SubmissionFile submissionFile) throws IOException {
+    writeEntryToFile(
+        entry,
+        submissionFile,
+        getOptions().getEntryValidationPlanProperty().validationScope.get());
+  }
+
+  void writeEntryToFile(Entry entry, SubmissionFile submissionFile, ValidationScope validationScope)
+      throws IOException {
     if (!getOptions().forceReducedFlatfileCreation
         && (getOptions().isWebinCLI || EntryUtils.excludeDistribution(sharedInfo.assemblyType))) {
       return;
     }
-    if (getOptions().getEntryValidationPlanProperty().validationScope.get()
-            == ValidationScope.ASSEMBLY_CONTIG
+    if (validationScope == ValidationScope.ASSEMBLY_CONTIG
         || getOptions().context.orElse(null) == Context.transcriptome) {
       new EmblReducedFlatFileWriter(entry).write(getContigsReducedFileWriter(submissionFile));
-    } else if (getOptions().getEntryValidationPlanProperty().validationScope.get()
-        == ValidationScope.ASSEMBLY_SCAFFOLD) {
+    } else if (validationScope == ValidationScope.ASSEMBLY_SCAFFOLD) {
       new EmblReducedFlatFileWriter(entry).write(getScaffoldsReducedFileWriter(submissionFile));
-    } else if (getOptions().getEntryValidationPlanProperty().validationScope.get()
-        == ValidationScope.ASSEMBLY_CHROMOSOME) {
+    } else if (validationScope == ValidationScope.ASSEMBLY_CHROMOSOME) {
       new EmblEntryWriter(entry).write(getChromosomeFileWriter(submissionFile));
     }
   }
@@ -773,93 +789,88 @@ public abstract class FileValidationCheck {
   void assignProteinAccessionAndWriteToFile(
       Entry entry, PrintWriter fixedFileWriter, SubmissionFile submissionFile, boolean isAGP)
       throws ValidationEngineException, IOException {
+    assignProteinAccessionAndWriteToFile(
+        entry,
+        fixedFileWriter,
+        submissionFile,
+        isAGP,
+        getOptions().getEntryValidationPlanProperty().validationScope.get());
+  }
+
+  /**
+   * @param validationScope the scope the entry was validated with, which may differ from the
+   *     current plan property scope when entries are validated in parallel
+   */
+  void assignProteinAccessionAndWriteToFile(
+      Entry entry,
+      PrintWriter fixedFileWriter,
+      SubmissionFile submissionFile,
+      boolean isAGP,
+      ValidationScope validationScope)
+      throws ValidationEngineException, IOException {
     if (fixedFileWriter != null) {
       assignProteinAccession(entry);
       if (getOptions().context.get() == Context.sequence) {
         EmblEntryWriter emblEntryWriter = new EmblEntryWriter(entry);
         emblEntryWriter.write(fixedFileWriter);
       } else {
-        writeEntryToFile(entry, submissionFile);
+        writeEntryToFile(entry, submissionFile, validationScope);
       }
     }
   }
 
   public void constructAGPSequence(Entry conEntry) throws ValidationEngineException {
     try {
-      ByteBuffer sequenceBuffer =
-          ByteBuffer.wrap(new byte[Long.valueOf(conEntry.getSequence().getLength()).intValue()]);
-
-      ConcurrentMap contigMap = null;
-      if (sharedInfo.contigDB != null) {
-        contigMap = sharedInfo.contigDB.hashMap("map").createOrOpen();
-      }
+      // The object sequence is built in packed form, so objects longer than the maximum array
+      // size can be constructed without holding the uncompressed bases.
+      PackedSequence.Builder sequenceBuilder =
+          new PackedSequence.Builder(conEntry.getSequence().getLength());
 
+      AgpComponentStore componentStore = sharedInfo.agpComponentStore;
       for (AgpRow sequencePlacedInCONEntry : conEntry.getSequence().getSortedAGPRows()) {
         if (!sequencePlacedInCONEntry.isGap()) {
-          Object sequence;
-          if (sequencePlacedInCONEntry.getComponent_id() != null && sharedInfo.contigDB != null) {
+          if (sequencePlacedInCONEntry.getComponent_id() != null && componentStore != null) {
             // Component can be a contig/scaffold, single contig(component) can be placed in
-            // multiple agp objects(scaffold/chromosomes)
-            Object allPlacementOfCurrentlyPlacedSequence =
-                contigMap.get(sequencePlacedInCONEntry.getComponent_id().toLowerCase());
-            if (allPlacementOfCurrentlyPlacedSequence != null) {
-              for (AgpRow component : (List<AgpRow>) allPlacementOfCurrentlyPlacedSequence) {
-                // proceed only if the component belongs to the current object(AGP row).Basically,
-                // filter the sequence parts placed in current CON entry
-                if (component.getObject().equalsIgnoreCase(sequencePlacedInCONEntry.getObject())) {
-                  sequence = component.getSequence();
-                  if (sequence != null) {
-                    // It has been already reverseComplemented(if orientation is -) in
-                    // collectContigInfo(same file) method
-                    sequenceBuffer.put((byte[]) sequence);
-                  } else {
-                    throw new ValidationEngineException(
-                        "Failed to contruct AGP Sequence. invalid component:"
-                            + sequencePlacedInCONEntry.getComponent_id());
-                  }
-                }
-              }
-            } else {
+            // multiple agp objects(scaffold/chromosomes). The stored sequence has been already
+            // reverseComplemented(if orientation is -) in collectContigInfo(same file) method
+            if (!componentStore.hasComponent(sequencePlacedInCONEntry.getComponent_id())) {
               throw new ValidationEngineException(
                   "Component not available in sequence lookup db(contigDB)"
                       + sequencePlacedInCONEntry.getComponent_id());
             }
+            if (!componentStore.appendComponentSequence(
+                sequencePlacedInCONEntry, sequenceBuilder)) {
+              throw new ValidationEngineException(
+                  "Failed to contruct AGP Sequence. invalid component:"
+                      + sequencePlacedInCONEntry.getComponent_id());
+            }
           } else {
             throw new ValidationEngineException(
                 "Either Component missing for current conEntry or sequence db(contigDB) not available."
                     + conEntry.getSubmitterAccession());
           }
 
-        } else if (sequencePlacedInCONEntry.getGap_length() != null)
-          sequenceBuffer.put(
-              StringUtils.repeat(
-                      "N".toLowerCase(), sequencePlacedInCONEntry.getGap_length().intValue())
-                  .getBytes());
+        } else if (sequencePlacedInCONEntry.getGap_length() != null) {
+          for (long remaining = sequencePlacedInCONEntry.getGap_length();
+              remaining > 0;
+              remaining -= GAP_BASES.length) {
+            sequenceBuilder.append(GAP_BASES, 0, (int) Math.min(GAP_BASES.length, remaining));
+          }
+        }
       }
       // Sequence is set here
-      conEntry.getSequence().setSequence(sequenceBuffer);
+      conEntry.getSequence().setPackedSequence(sequenceBuilder.build());
 
       // check if the current object(scaffold) is placed(will be a component) on another
       // object(could be another scaffold/chromosome)
-      // if yes, construct sequence for all the objects where the current object has been placed
-      List<AgpRow> agpRows =
-          (List<AgpRow>) contigMap.get(conEntry.getSubmitterAccession().toLowerCase());
-      if (agpRows != null) {
-        for (AgpRow agpRow : agpRows) {
-          agpRow.setSequence(
-              conEntry
-                  .getSequence()
-                  .getSequenceByte(agpRow.getComponent_beg(), agpRow.getComponent_end()));
-          if ("-".equals(agpRow.getOrientation()) || "minus".equals(agpRow.getOrientation())) {
-            ReverseComplementer reverseComplementer = new ReverseComplementer();
-            agpRow.setSequence(reverseComplementer.reverseComplementByte(agpRow.getSequence()));
-          }
-        }
-        contigMap.put(conEntry.getSubmitterAccession().toLowerCase(), agpRows);
+      // if yes, store the sequence for all the objects where the current object has been placed
+      if (componentStore != null) {
+        componentStore.putComponentSequence(
+            conEntry.getSubmitterAccession(), conEntry.getSequence());
       }
 
-      sharedInfo.contigDB.commit();
-
+    } catch (ValidationEngineException e) {
+      throw e;
     } catch (Exception e) {
       throw new ValidationEngineException(e);
     }
@@ -922,7 +933,7 @@ public abstract class FileValidationCheck {
         entryReader.read();
         if (entryReader.isEntry()) {
           Entry entry = entryReader.getEntry();
-          return entry.getSequence() == null || entry.getSequence().getSequenceByte() == null;
+          return entry.getSequence() == null || !entry.getSequence().hasSequenceByte();
         } else {
           throw new ValidationEngineException(
               "Could not read flatfile, please check the flatfile formatted correctly.",
@@ -939,8 +950,13 @@ public abstract class FileValidationCheck {
     return sharedInfo;
   }
 
+  /**
+   * Information shared between the file checks of a submission. When entries are validated in
+   * parallel it is still only updated from the thread reading the file, see {@link
+   * EntryValidationPipeline}.
+   */
   public static class SharedInfo {
-    public DB contigDB;
+    public AgpComponentStore agpComponentStore;
     public DB annotationDB;
 
     public Entry masterEntry = null;
@@ -954,24 +970,28 @@ public abstract class FileValidationCheck {
         new HashMap<>(); // key is uppercase submitter accession
     public final List<String> chromosomeNames =
         new ArrayList<>(); // key is uppercase submitter accessio
+    /** The names and accessions of the sequence information maps and name sets below. */
+    public final SequenceNameRegistry sequenceNames = new SequenceNameRegistry();
+
     public final Map<String, AssemblySequenceInfo> sequenceInfo =
-        new LinkedHashMap<>(); // key is uppercase submitter accessio
+        new SequenceInfoMap(sequenceNames); // key is uppercase submitter accessio
     public final Map<String, AssemblySequenceInfo> fastaInfo =
-        new LinkedHashMap<>(); // key is uppercase submitter accessio
+        new SequenceInfoMap(sequenceNames); // key is uppercase submitter accessio
     public final Map<String, AssemblySequenceInfo> flatfileInfo =
-        new LinkedHashMap<>(); // key is uppercase submitter accessio
+        new SequenceInfoMap(sequenceNames); // key is uppercase submitter accessio
     public final Map<String, String> polysampleInfo = new LinkedHashMap<>();
     public final Map<String, AssemblySequenceInfo> agpInfo =
-        new LinkedHashMap<>(); // key is uppercase submitter accessio
+        new SequenceInfoMap(sequenceNames); // key is uppercase submitter accessio
     public final List<String> duplicateEntryNames =
         new ArrayList<>(); // key is uppercase submitter accessio
-    public final HashSet<String> entryNames =
-        new HashSet<>(); // key is uppercase submitter accessio
-    public final Set<String> agpEntryNames = new HashSet<>(); // key is uppercase submitter accessio
+    public final Set<String> entryNames =
+        new SequenceNameSet(sequenceNames); // key is uppercase submitter accessio
+    public final Set<String> agpEntryNames =
+        new SequenceNameSet(sequenceNames); // key is uppercase submitter accessio
     public final Set<String> agpPlacedComponents =
-        new HashSet<>(); // key is uppercase submitter accessio
+        new SequenceNameSet(sequenceNames); // key is uppercase submitter accessio
     public final Set<String> unplacedEntryNames =
-        new HashSet<>(); // key is uppercase submitter accessio
+        new SequenceNameSet(sequenceNames); // key is uppercase submitter accessio
     public final Set<String> unlocalisedEntryNames =
         new HashSet<>(); // key is uppercase submitter accessio
     public final Map<String, Long> chromosomeLocationCount =
@@ -995,7 +1015,8 @@ public abstract class FileValidationCheck {
         if (feature instanceof CdsFeature && !(feature instanceof PeptideFeature)) {
           try {
             String proteinId =
-                EntryDAOUtilsImpl.getEntryDAOUtilsImpl(getOptions().enproConnection.get())
+                EntryDAOUtilsImpl.getEntryDAOUtilsImpl(
+                        getOptions().enproConnection.get(), getOptions().getTaxonomyClient())
                     .getNewProteinId();
             if (proteinId == null) {
               throw new ValidationEngineException("Unknown issue, could not assign new protein_id");
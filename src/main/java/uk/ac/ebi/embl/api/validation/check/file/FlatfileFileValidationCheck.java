@@ -11,13 +11,13 @@
 package uk.ac.ebi.embl.api.validation.check.file;
 
 import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.PrintWriter;
 import org.apache.commons.lang3.StringUtils;
 import uk.ac.ebi.embl.api.entry.AssemblySequenceInfo;
 import uk.ac.ebi.embl.api.entry.Entry;
 import uk.ac.ebi.embl.api.validation.*;
 import uk.ac.ebi.embl.api.validation.annotation.Description;
-import uk.ac.ebi.embl.api.validation.plan.EmblEntryValidationPlan;
 import uk.ac.ebi.embl.api.validation.submission.Context;
 import uk.ac.ebi.embl.api.validation.submission.SubmissionFile;
 import uk.ac.ebi.embl.api.validation.submission.SubmissionOptions;
@@ -36,13 +36,17 @@ public class FlatfileFileValidationCheck extends FileValidationCheck {
 
   @Override
   public ValidationResult check(SubmissionFile submissionFile) throws ValidationEngineException {
-    EmblEntryValidationPlan validationPlan;
     fixedFileWriter = null;
     ValidationResult validationResult = new ValidationResult();
     Origin origin = null;
 
-    try (BufferedReader fileReader = CommonUtil.bufferedReaderFromFile(submissionFile.getFile());
-        PrintWriter fixedFileWriter = getFixedFileWriter(submissionFile)) {
+    // Template submissions are limited in size and count the sequences while reading.
+    int validationThreads =
+        options.context.get() == Context.sequence ? 1 : getOptions().validationThreads;
+    try (Closeable reportBuffer = openBufferedReporter();
+        BufferedReader fileReader = CommonUtil.bufferedReaderFromFile(submissionFile.getFile());
+        PrintWriter fixedFileWriter = getFixedFileWriter(submissionFile);
+        EntryValidationPipeline pipeline = new EntryValidationPipeline(validationThreads)) {
       boolean isGenbankFile = isGenbank(submissionFile.getFile());
       clearReportFile(getReportFile(submissionFile));
       if (!isGenbankFile
@@ -65,8 +69,12 @@ public class FlatfileFileValidationCheck extends FileValidationCheck {
 
       while (entryReader.isEntry()) {
         if (!parseResult.isValid()) {
-          getReporter().writeToFile(getReportFile(submissionFile), parseResult);
-          addMessageStats(parseResult.getMessages());
+          ValidationResult entryParseResult = parseResult;
+          pipeline.then(
+              planResult -> {
+                getReporter().writeToFile(getReportFile(submissionFile), entryParseResult);
+                addMessageStats(entryParseResult.getMessages());
+              });
         }
 
         Entry entry = entryReader.getEntry();
@@ -80,7 +88,7 @@ public class FlatfileFileValidationCheck extends FileValidationCheck {
               .getEntryValidationPlanProperty()
               .sequenceNumber
               .set(getOptions().getEntryValidationPlanProperty().sequenceNumber.get() + 1);
-          if (entry.getSequence() == null || entry.getSequence().getSequenceByte() == null) {
+          if (entry.getSequence() == null || !entry.getSequence().hasSequenceByte()) {
             entryReader.read();
             continue;
           } else {
@@ -92,6 +100,7 @@ public class FlatfileFileValidationCheck extends FileValidationCheck {
 
         if (StringUtils.isBlank(entry.getSubmitterAccession())
             && getOptions().context.get() == Context.genome) {
+          pipeline.drain();
           addErrorAndReport(validationResult, submissionFile, "EntryNameRequired");
           return validationResult;
         }
@@ -115,31 +124,42 @@ public class FlatfileFileValidationCheck extends FileValidationCheck {
 
         checkChromosomeTopology(entry);
 
-        validationPlan = new EmblEntryValidationPlan(getOptions().getEntryValidationPlanProperty());
         appendHeader(entry);
         addSubmitterSeqIdQual(entry);
-        ValidationResult planResult = validationPlan.execute(entry);
-        validationResult.append(planResult);
-
-        if (null != entry.getSubmitterAccession()) {
-          addEntryName(entry.getSubmitterAccession());
-          int assemblyLevel =
-              getAssemblyLevel(getOptions().getEntryValidationPlanProperty().validationScope.get());
-          AssemblySequenceInfo sequenceInfo =
-              new AssemblySequenceInfo(entry.getSequence().getLength(), assemblyLevel, null);
-          sharedInfo.flatfileInfo.put(entry.getSubmitterAccession().toUpperCase(), sequenceInfo);
-        }
-
-        if (!planResult.isValid()) {
-          getReporter().writeToFile(getReportFile(submissionFile), planResult);
-          addMessageStats(planResult.getMessages(Severity.ERROR));
-        } else {
-          assignProteinAccessionAndWriteToFile(entry, fixedFileWriter, submissionFile, false);
-        }
+        ValidationScope validationScope =
+            getOptions().getEntryValidationPlanProperty().validationScope.get();
+        pipeline.validate(
+            entry,
+            getOptions().getEntryValidationPlanProperty(),
+            planResult -> {
+              validationResult.append(planResult);
+
+              if (null != entry.getSubmitterAccession()) {
+                addEntryName(entry.getSubmitterAccession());
+                int assemblyLevel = getAssemblyLevel(validationScope);
+                AssemblySequenceInfo sequenceInfo =
+                    new AssemblySequenceInfo(entry.getSequence().getLength(), assemblyLevel, null);
+                sharedInfo.flatfileInfo.put(
+                    entry.getSubmitterAccession().toUpperCase(), sequenceInfo);
+              }
+
+              if (!planResult.isValid()) {
+                getReporter().writeToFile(getReportFile(submissionFile), planResult);
+                addMessageStats(planResult.getMessages(Severity.ERROR));
+              } else {
+                assignProteinAccessionAndWriteToFile(
+                    entry, fixedFileWriter, submissionFile, false, validationScope);
+              }
+            });
         parseResult = entryReader.read();
-        validationResult.append(parseResult);
-        sharedInfo.sequenceCount++;
+        ValidationResult nextParseResult = parseResult;
+        pipeline.then(
+            planResult -> {
+              validationResult.append(nextParseResult);
+              sharedInfo.sequenceCount++;
+            });
       }
+      pipeline.drain();
     } catch (ValidationEngineException e) {
       getReporter()
           .writeToFile(getReportFile(submissionFile), Severity.ERROR, e.getMessage(), origin);
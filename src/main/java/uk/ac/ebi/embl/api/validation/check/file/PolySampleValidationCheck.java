@@ -28,7 +28,6 @@ import uk.ac.ebi.embl.fasta.reader.FastaFileReader;
 import uk.ac.ebi.embl.fasta.reader.FastaLineReader;
 import uk.ac.ebi.embl.template.PolySample;
 import uk.ac.ebi.embl.template.SequenceTax;
-import uk.ac.ebi.ena.taxonomy.client.TaxonomyClient;
 import uk.ac.ebi.ena.taxonomy.taxon.Taxon;
 
 public class PolySampleValidationCheck extends FileValidationCheck {
@@ -79,7 +78,6 @@ public class PolySampleValidationCheck extends FileValidationCheck {
               new ValidationMessage<>(Severity.ERROR, "Empty sequence tax map"));
         }
 
-        TaxonomyClient taxonomyClient = new TaxonomyClient();
         List<Taxon> taxons =
             taxonomyClient.searchTaxa(
                 sequenceTaxMap.values().stream()
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.validation.check.file;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import uk.ac.ebi.embl.api.entry.AssemblySequenceInfo;
+
+/**
+ * A map from sequence name to sequence information kept in primitive columns: the {@link
+ * SequenceNameRegistry} ids of the name and accession, the sequence length and the assembly level.
+ * Like a {@link java.util.LinkedHashMap} the entries are iterated in the order in which their names
+ * were first put.
+ *
+ * <p>The values returned are copies, so changing them does not change the map. Null names and
+ * values are not allowed.
+ */
+public class SequenceInfoMap extends AbstractMap<String, AssemblySequenceInfo> {
+
+  private static final int NO_ENTRY = -1;
+
+  private final SequenceNameRegistry registry;
+
+  /** The entry of each name id, or {@link #NO_ENTRY}. */
+  private int[] entries = new int[0];
+
+  private int entryCount = 0;
+  private int[] nameIds = new int[1024];
+  private int[] accessionIds = new int[1024];
+  private long[] sequenceLengths = new long[1024];
+  private int[] assemblyLevels = new int[1024];
+
+  private int size = 0;
+  private int modCount = 0;
+
+  private final Set<Map.Entry<String, AssemblySequenceInfo>> entrySet = new EntrySet();
+
+  public SequenceInfoMap(SequenceNameRegistry registry) {
+    this.registry = registry;
+  }
+
+  @Override
+  public AssemblySequenceInfo put(String name, AssemblySequenceInfo sequenceInfo) {
+    if (sequenceInfo == null) {
+      throw new NullPointerException("Sequence information is null");
+    }
+    int nameId = registry.add(name);
+    int accessionId =
+        sequenceInfo.getAccession() == null
+            ? SequenceNameRegistry.NO_ID
+            : registry.add(sequenceInfo.getAccession());
+    int entry = getEntry(nameId);
+    AssemblySequenceInfo previous = null;
+    if (entry == NO_ENTRY) {
+      entry = addEntry(nameId);
+    } else {
+      previous = getValue(entry);
+    }
+    accessionIds[entry] = accessionId;
+    sequenceLengths[entry] = sequenceInfo.getSequenceLength();
+    assemblyLevels[entry] = sequenceInfo.getAssemblyLevel();
+    return previous;
+  }
+
+  @Override
+  public AssemblySequenceInfo get(Object name) {
+    int entry = getEntry(name);
+    return entry == NO_ENTRY ? null : getValue(entry);
+  }
+
+  @Override
+  public boolean containsKey(Object name) {
+    return getEntry(name) != NO_ENTRY;
+  }
+
+  @Override
+  public AssemblySequenceInfo remove(Object name) {
+    int entry = getEntry(name);
+    if (entry == NO_ENTRY) {
+      return null;
+    }
+    AssemblySequenceInfo previous = getValue(entry);
+    removeEntry(entry);
+    return previous;
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(entries, NO_ENTRY);
+    entryCount = 0;
+    size = 0;
+    modCount++;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Set<Map.Entry<String, AssemblySequenceInfo>> entrySet() {
+    return entrySet;
+  }
+
+  private int getEntry(Object name) {
+    if (!(name instanceof String)) {
+      return NO_ENTRY;
+    }
+    return getEntry(registry.getId((String) name));
+  }
+
+  private int getEntry(int nameId) {
+    return nameId >= 0 && nameId < entries.length ? entries[nameId] : NO_ENTRY;
+  }
+
+  private AssemblySequenceInfo getValue(int entry) {
+    return new AssemblySequenceInfo(
+        sequenceLengths[entry],
+        assemblyLevels[entry],
+        accessionIds[entry] == SequenceNameRegistry.NO_ID
+            ? null
+            : registry.getName(accessionIds[entry]));
+  }
+
+  private int addEntry(int nameId) {
+    if (nameId >= entries.length) {
+      int length = entries.length;
+      entries = Arrays.copyOf(entries, Math.max(nameId + 1, length + (length >> 1) + 16));
+      Arrays.fill(entries, length, entries.length, NO_ENTRY);
+    }
+    if (entryCount == nameIds.length) {
+      if (size < entryCount / 2) {
+        compact();
+      } else {
+        int capacity = nameIds.length + (nameIds.length >> 1);
+        nameIds = Arrays.copyOf(nameIds, capacity);
+        accessionIds = Arrays.copyOf(accessionIds, capacity);
+        sequenceLengths = Arrays.copyOf(sequenceLengths, capacity);
+        assemblyLevels = Arrays.copyOf(assemblyLevels, capacity);
+      }
+    }
+    int entry = entryCount++;
+    nameIds[entry] = nameId;
+    entries[nameId] = entry;
+    size++;
+    modCount++;
+    return entry;
+  }
+
+  /** Removed entries keep their column slot, marked by a removed name id, until compacted. */
+  private void removeEntry(int entry) {
+    entries[nameIds[entry]] = NO_ENTRY;
+    nameIds[entry] = SequenceNameRegistry.NO_ID;
+    size--;
+    modCount++;
+  }
+
+  private void compact() {
+    int count = 0;
+    for (int entry = 0; entry < entryCount; entry++) {
+      if (nameIds[entry] != SequenceNameRegistry.NO_ID) {
+        nameIds[count] = nameIds[entry];
+        accessionIds[count] = accessionIds[entry];
+        sequenceLengths[count] = sequenceLengths[entry];
+        assemblyLevels[count] = assemblyLevels[entry];
+        entries[nameIds[count]] = count;
+        count++;
+      }
+    }
+    entryCount = count;
+  }
+
+  private class EntrySet extends AbstractSet<Map.Entry<String, AssemblySequenceInfo>> {
+
+    @Override
+    public Iterator<Map.Entry<String, AssemblySequenceInfo>> iterator() {
+      return new Iterator<Map.Entry<String, AssemblySequenceInfo>>() {
+        private int next = skipRemoved(0);
+        private int last = NO_ENTRY;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+          return next < entryCount;
+        }
+
+        @Override
+        public Map.Entry<String, AssemblySequenceInfo> next() {
+          if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+          }
+          if (next >= entryCount) {
+            throw new NoSuchElementException();
+          }
+          last = next;
+          next = skipRemoved(next + 1);
+          return new AbstractMap.SimpleImmutableEntry<>(
+              registry.getName(nameIds[last]), getValue(last));
+        }
+
+        @Override
+        public void remove() {
+          if (last == NO_ENTRY) {
+            throw new IllegalStateException();
+          }
+          if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+          }
+          removeEntry(last);
+          last = NO_ENTRY;
+          expectedModCount = modCount;
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public void clear() {
+      SequenceInfoMap.this.clear();
+    }
+
+    private int skipRemoved(int entry) {
+      while (entry < entryCount && nameIds[entry] == SequenceNameRegistry.NO_ID) {
+        entry++;
+      }
+      return entry;
+    }
+  }
+}
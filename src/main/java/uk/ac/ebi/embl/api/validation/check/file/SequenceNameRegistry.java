@@ -0,0 +1,240 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.validation.check.file;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Assigns each name a dense int id, starting from 0, and stores each name once as UTF-8 bytes. The
+ * name sets and sequence information maps of {@link FileValidationCheck.SharedInfo} keep the ids
+ * of their names instead of the names.
+ *
+ * <p>The name bytes are kept on the heap until they exceed the spill threshold, and are then moved
+ * to a memory-mapped temporary file. The file is deleted as soon as it has been opened where the
+ * platform allows it, and otherwise when the JVM exits.
+ *
+ * <p>The registry is not thread-safe.
+ */
+public class SequenceNameRegistry {
+
+  public static final long DEFAULT_SPILL_THRESHOLD = 64L * 1024 * 1024;
+
+  public static final int NO_ID = -1;
+
+  /** The size of the mapped file segments. A name is never split between segments. */
+  private static final int SEGMENT_SIZE = 1 << 26;
+
+  private final long spillThreshold;
+
+  private int size = 0;
+  private long[] offsets = new long[1024];
+  private int[] lengths = new int[1024];
+  private int[] hashes = new int[1024];
+
+  /** Open addressing hash table of ids plus one, 0 for an empty slot. */
+  private int[] table = new int[2048];
+
+  private long byteCount = 0;
+  private byte[] heapBytes = new byte[64 * 1024];
+  private FileChannel channel;
+  private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+  public SequenceNameRegistry() {
+    this(DEFAULT_SPILL_THRESHOLD);
+  }
+
+  /**
+   * @param spillThreshold the number of name bytes above which the names are moved to a
+   *     memory-mapped file
+   */
+  public SequenceNameRegistry(long spillThreshold) {
+    this.spillThreshold = Math.min(spillThreshold, Integer.MAX_VALUE - 8);
+  }
+
+  /** Returns the id of the name, assigning a new id if the name has none. */
+  public int add(String name) {
+    byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+    int hash = name.hashCode();
+    int slot = findSlot(bytes, hash);
+    if (table[slot] != 0) {
+      return table[slot] - 1;
+    }
+    if (bytes.length > SEGMENT_SIZE) {
+      throw new IllegalArgumentException("Sequence name is too long: " + bytes.length + " bytes");
+    }
+    if (size == offsets.length) {
+      int capacity = offsets.length + (offsets.length >> 1);
+      offsets = Arrays.copyOf(offsets, capacity);
+      lengths = Arrays.copyOf(lengths, capacity);
+      hashes = Arrays.copyOf(hashes, capacity);
+    }
+    int id = size++;
+    offsets[id] = append(bytes);
+    lengths[id] = bytes.length;
+    hashes[id] = hash;
+    table[slot] = id + 1;
+    if (size * 2L > table.length) {
+      rehash();
+    }
+    return id;
+  }
+
+  /** Returns the id of the name, or {@link #NO_ID} if the name has none. */
+  public int getId(String name) {
+    if (name == null) {
+      return NO_ID;
+    }
+    int slot = findSlot(name.getBytes(StandardCharsets.UTF_8), name.hashCode());
+    return table[slot] - 1;
+  }
+
+  public String getName(int id) {
+    if (id < 0 || id >= size) {
+      throw new IndexOutOfBoundsException("Sequence name id: " + id);
+    }
+    byte[] bytes = new byte[lengths[id]];
+    if (channel == null) {
+      System.arraycopy(heapBytes, (int) offsets[id], bytes, 0, bytes.length);
+    } else {
+      segments
+          .get((int) (offsets[id] / SEGMENT_SIZE))
+          .get((int) (offsets[id] % SEGMENT_SIZE), bytes);
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /** Returns the number of names. The ids are from 0 to the number of names. */
+  public int size() {
+    return size;
+  }
+
+  /** Returns true if the names have been moved to a memory-mapped file. */
+  public boolean isSpilled() {
+    return channel != null;
+  }
+
+  private int findSlot(byte[] bytes, int hash) {
+    int mask = table.length - 1;
+    int slot = mix(hash) & mask;
+    while (table[slot] != 0) {
+      int id = table[slot] - 1;
+      if (hashes[id] == hash && nameEquals(id, bytes)) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void rehash() {
+    int[] newTable = new int[table.length * 2];
+    int mask = newTable.length - 1;
+    for (int id = 0; id < size; id++) {
+      int slot = mix(hashes[id]) & mask;
+      while (newTable[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      newTable[slot] = id + 1;
+    }
+    table = newTable;
+  }
+
+  private static int mix(int hash) {
+    hash *= 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
+
+  private boolean nameEquals(int id, byte[] bytes) {
+    if (lengths[id] != bytes.length) {
+      return false;
+    }
+    if (channel == null) {
+      int offset = (int) offsets[id];
+      return Arrays.equals(heapBytes, offset, offset + bytes.length, bytes, 0, bytes.length);
+    }
+    MappedByteBuffer segment = segments.get((int) (offsets[id] / SEGMENT_SIZE));
+    int offset = (int) (offsets[id] % SEGMENT_SIZE);
+    for (int i = 0; i < bytes.length; i++) {
+      if (segment.get(offset + i) != bytes[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Appends the name bytes and returns their offset. */
+  private long append(byte[] bytes) {
+    long offset = byteCount;
+    if (offset % SEGMENT_SIZE + bytes.length > SEGMENT_SIZE) {
+      offset += SEGMENT_SIZE - offset % SEGMENT_SIZE;
+    }
+    if (channel == null && offset + bytes.length > spillThreshold) {
+      spill();
+    }
+    if (channel == null) {
+      if (offset + bytes.length > heapBytes.length) {
+        long capacity = Math.max(offset + bytes.length, heapBytes.length * 2L);
+        heapBytes = Arrays.copyOf(heapBytes, (int) Math.min(capacity, spillThreshold));
+      }
+      System.arraycopy(bytes, 0, heapBytes, (int) offset, bytes.length);
+    } else {
+      segment((int) (offset / SEGMENT_SIZE)).put((int) (offset % SEGMENT_SIZE), bytes);
+    }
+    byteCount = offset + bytes.length;
+    return offset;
+  }
+
+  private void spill() {
+    try {
+      Path file = Files.createTempFile("sequence-names", ".tmp");
+      channel =
+          FileChannel.open(
+              file,
+              StandardOpenOption.READ,
+              StandardOpenOption.WRITE,
+              StandardOpenOption.TRUNCATE_EXISTING);
+      try {
+        Files.delete(file);
+      } catch (IOException e) {
+        file.toFile().deleteOnExit();
+      }
+      for (long offset = 0; offset < byteCount; offset += SEGMENT_SIZE) {
+        int length = (int) Math.min(SEGMENT_SIZE, byteCount - offset);
+        segment((int) (offset / SEGMENT_SIZE)).put(0, heapBytes, (int) offset, length);
+      }
+      heapBytes = null;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to spill sequence names to file", e);
+    }
+  }
+
+  private MappedByteBuffer segment(int index) {
+    try {
+      while (segments.size() <= index) {
+        long position = (long) segments.size() * SEGMENT_SIZE;
+        segments.add(channel.map(FileChannel.MapMode.READ_WRITE, position, SEGMENT_SIZE));
+      }
+      return segments.get(index);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to map sequence names file", e);
+    }
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.validation.check.file;
+
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A set of names kept as a bit set of their {@link SequenceNameRegistry} ids. The names are
+ * iterated in the order in which they were first added to the registry. Null names are not
+ * allowed.
+ */
+public class SequenceNameSet extends AbstractSet<String> {
+
+  private final SequenceNameRegistry registry;
+  private final BitSet ids = new BitSet();
+  private int size = 0;
+  private int modCount = 0;
+
+  public SequenceNameSet(SequenceNameRegistry registry) {
+    this.registry = registry;
+  }
+
+  @Override
+  public boolean add(String name) {
+    int id = registry.add(name);
+    if (ids.get(id)) {
+      return false;
+    }
+    ids.set(id);
+    size++;
+    modCount++;
+    return true;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    if (!(o instanceof String)) {
+      return false;
+    }
+    int id = registry.getId((String) o);
+    return id != SequenceNameRegistry.NO_ID && ids.get(id);
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    if (!contains(o)) {
+      return false;
+    }
+    removeId(registry.getId((String) o));
+    return true;
+  }
+
+  @Override
+  public void clear() {
+    ids.clear();
+    size = 0;
+    modCount++;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Iterator<String> iterator() {
+    return new Iterator<String>() {
+      private int nextId = ids.nextSetBit(0);
+      private int lastId = SequenceNameRegistry.NO_ID;
+      private int expectedModCount = modCount;
+
+      @Override
+      public boolean hasNext() {
+        return nextId >= 0;
+      }
+
+      @Override
+      public String next() {
+        if (modCount != expectedModCount) {
+          throw new ConcurrentModificationException();
+        }
+        if (nextId < 0) {
+          throw new NoSuchElementException();
+        }
+        lastId = nextId;
+        nextId = ids.nextSetBit(nextId + 1);
+        return registry.getName(lastId);
+      }
+
+      @Override
+      public void remove() {
+        if (lastId == SequenceNameRegistry.NO_ID) {
+          throw new IllegalStateException();
+        }
+        if (modCount != expectedModCount) {
+          throw new ConcurrentModificationException();
+        }
+        removeId(lastId);
+        lastId = SequenceNameRegistry.NO_ID;
+        expectedModCount = modCount;
+      }
+    };
+  }
+
+  private void removeId(int id) {
+    ids.clear(id);
+    size--;
+    modCount++;
+  }
+}
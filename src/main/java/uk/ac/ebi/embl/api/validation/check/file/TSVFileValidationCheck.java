@@ -17,7 +17,6 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.zip.GZIPInputStream;
 import org.apache.commons.lang.StringUtils;
 import uk.ac.ebi.embl.api.entry.Entry;
 import uk.ac.ebi.embl.api.storage.DataRow;
@@ -28,12 +27,15 @@ import uk.ac.ebi.embl.api.validation.annotation.Description;
 import uk.ac.ebi.embl.api.validation.submission.Context;
 import uk.ac.ebi.embl.api.validation.submission.SubmissionFile;
 import uk.ac.ebi.embl.api.validation.submission.SubmissionOptions;
+import uk.ac.ebi.embl.common.DecompressingInputStream;
 import uk.ac.ebi.embl.flatfile.writer.embl.EmblEntryWriter;
 import uk.ac.ebi.embl.template.*;
 
 @Description("")
 public class TSVFileValidationCheck extends FileValidationCheck {
   public static final String TEMPLATE_FILE_NAME = "TEMPLATE_";
+  private static final int TSV_BUFFER_SIZE = 1 << 16;
+  private static final int TEMPLATE_ID_READ_LIMIT = 1 << 20;
 
   public TSVFileValidationCheck(SubmissionOptions options, SharedInfo sharedInfo) {
     super(options, sharedInfo);
@@ -54,16 +56,18 @@ public class TSVFileValidationCheck extends FileValidationCheck {
   public ValidationResult validateTemplateSubmission(SubmissionFile submissionFile)
       throws ValidationEngineException {
     ValidationResult validationResult = new ValidationResult();
+    File submittedDataFile = submissionFile.getFile();
+    BufferedInputStream submittedData = null;
     try (PrintWriter fixedFileWriter = getFixedFileWriter(submissionFile)) {
       clearReportFile(getReportFile(submissionFile));
 
-      String templateId = getTemplateIdFromTsvFile(submissionFile.getFile());
+      submittedData = openTsvFile(submittedDataFile);
+      String templateId = getTemplateIdFromTsvFile(submittedData);
       if (StringUtils.isBlank(templateId)) {
         throw new ValidationEngineException(
             "Missing template id", ValidationEngineException.ReportErrorType.VALIDATION_ERROR);
       }
 
-      File submittedDataFile = submissionFile.getFile();
       String templateDir = submittedDataFile.getParent();
       File templateFile = getTemplateFromResourceAndWriteToProcessDir(templateId, templateDir);
       TemplateLoader templateLoader = new TemplateLoader();
@@ -79,11 +83,14 @@ public class TSVFileValidationCheck extends FileValidationCheck {
         templateProcessor = new TemplateProcessor(templateInfo, options);
         templateInfo.setAnalysisId(options.analysisId.get());
       }
-      FileInputStream submittedDataFis = new FileInputStream(submittedDataFile);
-      BufferedInputStream bufferedInputStremSubmittedData =
-          new BufferedInputStream(new GZIPInputStream(submittedDataFis));
-      CSVReader csvReader =
-          new CSVReader(bufferedInputStremSubmittedData, templateInfo.getTokens(), 0);
+      try {
+        submittedData.reset();
+      } catch (IOException e) {
+        // The lines read for the template id were longer than the mark limit.
+        submittedData.close();
+        submittedData = openTsvFile(submittedDataFile);
+      }
+      CSVReader csvReader = new CSVReader(submittedData, templateInfo.getTokens(), 0);
       CSVLine csvLine;
       Entry entry;
       TemplateProcessorResultSet templateProcessorResultSet;
@@ -127,6 +134,14 @@ public class TSVFileValidationCheck extends FileValidationCheck {
     } catch (Exception e) {
       e.printStackTrace();
       throw new ValidationEngineException(e.toString(), e);
+    } finally {
+      if (submittedData != null) {
+        try {
+          submittedData.close();
+        } catch (IOException e) {
+          // Ignore.
+        }
+      }
     }
     return validationResult;
   }
@@ -157,29 +172,45 @@ public class TSVFileValidationCheck extends FileValidationCheck {
     }
   }
 
-  private String getTemplateIdFromTsvFile(File submittedFile) throws ValidationEngineException {
-    String templateId = null;
-    try (BufferedReader reader =
-        new BufferedReader(
-            new InputStreamReader(
-                new GZIPInputStream(new FileInputStream(submittedFile)), StandardCharsets.UTF_8))) {
-      Optional<String> templateIdOpt =
-          reader
-              .lines()
-              .limit(10)
-              .map(line -> CSVReader.getChecklistIdFromIdLine(line))
-              .filter(id -> id != null)
-              .findFirst();
-
-      if (templateIdOpt.isPresent()) {
-        templateId = templateIdOpt.orElse(null);
-        if (StringUtils.isEmpty(templateId))
-          throw new ValidationEngineException(
-              "Template id: '" + templateId + " is not valid. Example id is ERT000003",
-              ValidationEngineException.ReportErrorType.VALIDATION_ERROR);
-      }
+  /**
+   * Opens the gzipped TSV file marked at its start, so that it can be read again after the template
+   * id without being decompressed again.
+   */
+  private BufferedInputStream openTsvFile(File submittedFile) {
+    try {
+      BufferedInputStream submittedData =
+          new BufferedInputStream(DecompressingInputStream.gzip(submittedFile), TSV_BUFFER_SIZE);
+      submittedData.mark(TEMPLATE_ID_READ_LIMIT);
+      return submittedData;
     } catch (IOException e) {
       e.printStackTrace();
+      return null;
+    }
+  }
+
+  private String getTemplateIdFromTsvFile(InputStream submittedData)
+      throws ValidationEngineException {
+    if (submittedData == null) {
+      return null;
+    }
+    String templateId = null;
+    // The reader is not closed, as that would close the stream.
+    BufferedReader reader =
+        new BufferedReader(new InputStreamReader(submittedData, StandardCharsets.UTF_8));
+    Optional<String> templateIdOpt =
+        reader
+            .lines()
+            .limit(10)
+            .map(line -> CSVReader.getChecklistIdFromIdLine(line))
+            .filter(id -> id != null)
+            .findFirst();
+
+    if (templateIdOpt.isPresent()) {
+      templateId = templateIdOpt.orElse(null);
+      if (StringUtils.isEmpty(templateId))
+        throw new ValidationEngineException(
+            "Template id: '" + templateId + " is not valid. Example id is ERT000003",
+            ValidationEngineException.ReportErrorType.VALIDATION_ERROR);
     }
     return templateId;
   }
@@ -30,13 +30,15 @@ public class SequenceBasesCheck extends SequenceValidationCheck {
 
   private static final String MESSAGE_ID = "SequenceBasesCheck";
   private static final String TERMINAL_N_ID = "SequenceBasesCheck-2";
+  // The bases copied from the sequence at a time.
+  private static final int CHUNK_SIZE = 64 * 1024;
 
   private boolean ignoreTerminalNError = false;
 
   public ValidationResult check(Sequence sequence) {
     ValidationResult result = new ValidationResult();
     if (sequence == null
-        || sequence.getSequenceByte() == null
+        || !sequence.hasSequenceByte()
         || sequence.getContigs().size() > 0) {
       return result;
     }
@@ -45,14 +47,14 @@ public class SequenceBasesCheck extends SequenceValidationCheck {
       return result; // not validating amino acids here
     }
 
-    byte[] sequenceByte = sequence.getSequenceByte();
+    long length = sequence.getLength();
     if (sequence.getTopology() != null
         && !sequence.getTopology().equals(Sequence.Topology.CIRCULAR)) {
 
       if (!ignoreTerminalNError
-          && sequenceByte != null
-          && sequenceByte.length != 0
-          && ('n' == sequenceByte[0] || 'n' == sequenceByte[sequenceByte.length - 1])) {
+          && length != 0
+          && ('n' == sequence.getSequenceByte(1L, 1L)[0]
+              || 'n' == sequence.getSequenceByte(length, length)[0])) {
         reportError(result, TERMINAL_N_ID);
       }
     }
@@ -84,32 +86,42 @@ public class SequenceBasesCheck extends SequenceValidationCheck {
     	reportError(result, MESSAGE_ID, base);
     }*/
 
-    for (byte base : sequenceByte) {
-      switch ((char) base) {
-        case 'a':
-        case 'c':
-        case 'g':
-        case 't':
-        case 'u':
-        case 'b':
-        case 'd':
-        case 'h':
-        case 'k':
-        case 'm':
-        case 'n':
-        case 'r':
-        case 's':
-        case 'v':
-        case 'w':
-        case 'y':
-          break;
-        default:
-          reportError(result, MESSAGE_ID, (char) base);
+    byte[] chunk = new byte[(int) Math.min(CHUNK_SIZE, length)];
+    long position = 1;
+    int chunkLength;
+    while ((chunkLength = sequence.copySequenceByte(position, chunk)) > 0) {
+      position += chunkLength;
+      for (int i = 0; i < chunkLength; i++) {
+        checkBase(result, chunk[i]);
       }
     }
     return result;
   }
 
+  private void checkBase(ValidationResult result, byte base) {
+    switch ((char) base) {
+      case 'a':
+      case 'c':
+      case 'g':
+      case 't':
+      case 'u':
+      case 'b':
+      case 'd':
+      case 'h':
+      case 'k':
+      case 'm':
+      case 'n':
+      case 'r':
+      case 's':
+      case 'v':
+      case 'w':
+      case 'y':
+        break;
+      default:
+        reportError(result, MESSAGE_ID, (char) base);
+    }
+  }
+
   public void setIgnoreTerminalNError(boolean ignoreTerminalNError) {
     this.ignoreTerminalNError = ignoreTerminalNError;
   }
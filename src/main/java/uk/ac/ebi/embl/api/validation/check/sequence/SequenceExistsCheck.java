@@ -38,7 +38,7 @@ public class SequenceExistsCheck extends EntryValidationCheck {
     }
 
     if (entry.getSequence() == null
-        || entry.getSequence().getSequenceByte() == null
+        || !entry.getSequence().hasSequenceByte()
         || entry.getSequence().getLength() == 0) {
       result.append(EntryValidations.createMessage(entry.getOrigin(), Severity.ERROR, MESSAGE_ID));
     }
@@ -17,6 +17,7 @@ import uk.ac.ebi.embl.api.entry.Entry;
 import uk.ac.ebi.embl.api.entry.feature.Feature;
 import uk.ac.ebi.embl.api.entry.location.CompoundLocation;
 import uk.ac.ebi.embl.api.entry.location.Location;
+import uk.ac.ebi.embl.api.entry.sequence.SequenceComposition;
 import uk.ac.ebi.embl.api.validation.SequenceEntryUtils;
 import uk.ac.ebi.embl.api.validation.ValidationResult;
 import uk.ac.ebi.embl.api.validation.ValidationScope;
@@ -70,81 +71,54 @@ public class SequenceToGapFeatureBasesCheck extends EntryValidationCheck {
     gapFeatures.addAll(
         assembly_gapFeatures); // assembly_gaps and gaps are mutually exclusive,there is other check
     // to complain
-    if (entry.getSequence() == null || entry.getSequence().getSequenceByte() == null) {
+    if (entry.getSequence() == null || !entry.getSequence().hasSequenceByte()) {
       return result;
     }
 
-    int baseCount = 0;
-    List<NRegion> nRegions = new ArrayList<NRegion>();
-    boolean lastBaseN = false;
-    int matchStart = 0;
-    int matchEnd = 0;
-    int nCount = 0;
-    byte[] sequenceByte = entry.getSequence().getSequenceByte();
-    for (byte base : sequenceByte) {
-
-      if ('n' == (char) base) {
-        nCount++;
-        if (!lastBaseN) {
-          matchStart = baseCount + 1; // as arrays are from 0 and sequence starts from 1
-          lastBaseN = true;
-        }
-
-      } else {
-        if (lastBaseN) {
-          matchEnd = baseCount;
-          lastBaseN = false;
-          //                    System.out.println("matchStart = " + matchStart);
-          //                    System.out.println("matchEnd = " + matchEnd);
-          //                  System.out.println("matchedString = " + matchedString);
-          NRegion regionMatch = new NRegion(matchStart, matchEnd);
-          nRegions.add(regionMatch);
-        }
-      }
-      baseCount++;
-    }
-
-    if ((Float.valueOf(nCount) / sequenceByte.length) * 100 >= N_PERCENTAGE) {
+    SequenceComposition composition = entry.getSequence().getComposition();
+    long sequenceLength = composition.getLength();
+    if ((Float.valueOf(composition.getNCount()) / sequenceLength) * 100 >= N_PERCENTAGE) {
       reportError(entry.getSequence().getOrigin(), MESSAGE_SEQ_WITH_MORE_N, N_PERCENTAGE);
     }
 
-    if (lastBaseN) {
-      matchEnd = baseCount;
-      lastBaseN = false;
-      //            System.out.println("matchStart = " + matchStart);
-      //            System.out.println("matchEnd = " + matchEnd);
-      //          System.out.println("matchedString = " + matchedString);
-      NRegion regionMatch = new NRegion(matchStart, matchEnd);
-      nRegions.add(regionMatch);
+    // The n runs are in sequence order, so they are matched against the gap feature locations
+    // sorted by position. A gap feature without a single location stops the matching, and the
+    // runs are then matched against the gap features before it only.
+    List<long[]> gapLocations = new ArrayList<>();
+    for (Feature gapFeature : gapFeatures) {
+      CompoundLocation<Location> compoundLocation = gapFeature.getLocations();
+      if (compoundLocation == null
+          || compoundLocation.getLocations() == null
+          || compoundLocation.getLocations().size() != 1) {
+        break;
+      }
+      Location location = compoundLocation.getLocations().get(0);
+      if (location.getBeginPosition() != null && location.getEndPosition() != null) {
+        gapLocations.add(new long[] {location.getBeginPosition(), location.getEndPosition()});
+      }
     }
-
-    for (NRegion nRegion : nRegions) {
-
-      boolean matchedRegion = false;
-      // whether we have found a gap feature that corresponds to this nRegion
-      for (Feature gapFeature : gapFeatures) {
-        CompoundLocation<Location> compoundLocation = gapFeature.getLocations();
-        if (compoundLocation == null
-            || compoundLocation.getLocations() == null
-            || compoundLocation.getLocations().size() != 1) {
-          // if there is more than 1 location, just bail, there are other checks to complain if the
-          // location is
-          // not a single location
-          break;
-        }
-
-        Location location = compoundLocation.getLocations().get(0);
-        Long featureStart = location.getBeginPosition();
-        Long featureEnd = location.getEndPosition();
-
-        if (nRegion.getStart() == featureStart && nRegion.getEnd() == featureEnd) {
-          matchedRegion = true;
-          break;
-        }
+    gapLocations.sort(
+        (location1, location2) ->
+            location1[0] != location2[0]
+                ? Long.compare(location1[0], location2[0])
+                : Long.compare(location1[1], location2[1]));
+
+    int gapLocation = 0;
+    for (int run = 0; run < composition.getNRunCount(); run++) {
+      long start = composition.getNRunStart(run);
+      long end = composition.getNRunEnd(run);
+      while (gapLocation < gapLocations.size()
+          && (gapLocations.get(gapLocation)[0] < start
+              || (gapLocations.get(gapLocation)[0] == start
+                  && gapLocations.get(gapLocation)[1] < end))) {
+        gapLocation++;
       }
-
+      boolean matchedRegion =
+          gapLocation < gapLocations.size()
+              && gapLocations.get(gapLocation)[0] == start
+              && gapLocations.get(gapLocation)[1] == end;
       if (!matchedRegion) {
-        processMissingGapFeature(entry, nRegion);
+        processMissingGapFeature(entry, new NRegion((int) start, (int) end));
       }
     }
 
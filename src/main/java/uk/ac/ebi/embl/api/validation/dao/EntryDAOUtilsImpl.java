@@ -23,26 +23,38 @@ import uk.ac.ebi.embl.api.entry.Text;
 import uk.ac.ebi.embl.api.entry.feature.SourceFeature;
 import uk.ac.ebi.embl.api.entry.qualifier.Qualifier;
 import uk.ac.ebi.embl.api.entry.qualifier.QualifierFactory;
+import uk.ac.ebi.embl.api.service.CachingTaxonomyClient;
 import uk.ac.ebi.embl.api.validation.SequenceEntryUtils;
 import uk.ac.ebi.ena.taxonomy.client.TaxonomyClient;
 
+/**
+ * Looks up entry data in the ENA database. One instance is shared by all the validation threads,
+ * and so is its connection, so the queries are run one at a time.
+ */
 public class EntryDAOUtilsImpl implements EntryDAOUtils {
   private final Connection connection;
+  private final TaxonomyClient taxonomyClient;
   private static EntryDAOUtilsImpl entryDAOUtils;
 
   public static EntryDAOUtilsImpl getEntryDAOUtilsImpl(Connection connection) {
+    return getEntryDAOUtilsImpl(connection, CachingTaxonomyClient.getSharedInstance());
+  }
+
+  public static synchronized EntryDAOUtilsImpl getEntryDAOUtilsImpl(
+      Connection connection, TaxonomyClient taxonomyClient) {
     if (null == entryDAOUtils) {
-      entryDAOUtils = new EntryDAOUtilsImpl(connection);
+      entryDAOUtils = new EntryDAOUtilsImpl(connection, taxonomyClient);
     }
     return entryDAOUtils;
   }
 
-  private EntryDAOUtilsImpl(Connection connection) {
+  private EntryDAOUtilsImpl(Connection connection, TaxonomyClient taxonomyClient) {
     this.connection = connection;
+    this.taxonomyClient = taxonomyClient;
   }
 
   @Override
-  public ArrayList<Qualifier> getChromosomeQualifiers(
+  public synchronized ArrayList<Qualifier> getChromosomeQualifiers(
       String analysisId, String submitterAccession, SourceFeature source) throws SQLException {
     String sql =
         "select chromosome_name, chromosome_location, chromosome_type "
@@ -52,7 +64,6 @@ public class EntryDAOUtilsImpl implements EntryDAOUtils {
     ResultSet rs = null;
     boolean virus = false;
     if (source != null) {
-      TaxonomyClient taxonomyClient = new TaxonomyClient();
       String scientificName = source.getScientificName();
       virus = taxonomyClient.isChildOf(scientificName, "Viruses");
     }
@@ -110,7 +121,8 @@ public class EntryDAOUtilsImpl implements EntryDAOUtils {
   }
 
   @Override
-  public boolean isValueExists(String tableName, String constraintKey, String constraintValue)
+  public synchronized boolean isValueExists(
+      String tableName, String constraintKey, String constraintValue)
       throws SQLException {
     String sqlSearchStringTemp = "select 1 from %s where %s ='%s'";
     String sql = String.format(sqlSearchStringTemp, tableName, constraintKey, constraintValue);
@@ -125,7 +137,7 @@ public class EntryDAOUtilsImpl implements EntryDAOUtils {
   }
 
   @Override
-  public boolean isEntryExists(String accession) throws SQLException {
+  public synchronized boolean isEntryExists(String accession) throws SQLException {
     ResultSet rs = null;
     PreparedStatement ps = null;
     try {
@@ -141,7 +153,7 @@ public class EntryDAOUtilsImpl implements EntryDAOUtils {
   }
 
   @Override
-  public Long getSequenceLength(String accession) throws SQLException {
+  public synchronized Long getSequenceLength(String accession) throws SQLException {
     ResultSet rs = null;
     PreparedStatement ps = null;
     try {
@@ -163,7 +175,7 @@ public class EntryDAOUtilsImpl implements EntryDAOUtils {
   }
 
   @Override
-  public boolean isProjectValid(String project) throws SQLException {
+  public synchronized boolean isProjectValid(String project) throws SQLException {
     ResultSet rs = null;
     PreparedStatement ps = null;
     try {
@@ -181,7 +193,7 @@ public class EntryDAOUtilsImpl implements EntryDAOUtils {
   }
 
   @Override
-  public HashSet<String> getProjectLocutagPrefix(String project) throws SQLException {
+  public synchronized HashSet<String> getProjectLocutagPrefix(String project) throws SQLException {
     ResultSet rs = null;
     PreparedStatement ps = null;
     HashSet<String> locusTagPrefixes = new HashSet<String>();
@@ -203,7 +215,7 @@ public class EntryDAOUtilsImpl implements EntryDAOUtils {
   }
 
   @Override
-  public String isEcnumberValid(String ecNumber) throws SQLException {
+  public synchronized String isEcnumberValid(String ecNumber) throws SQLException {
     ResultSet rs = null;
     PreparedStatement ps = null;
     try {
@@ -220,7 +232,7 @@ public class EntryDAOUtilsImpl implements EntryDAOUtils {
   }
 
   @Override
-  public Entry getEntryInfo(String primaryAcc) throws SQLException {
+  public synchronized Entry getEntryInfo(String primaryAcc) throws SQLException {
     Entry entry = (new EntryFactory()).createEntry();
     ResultSet rs = null;
     PreparedStatement ps = null;
@@ -250,7 +262,7 @@ public class EntryDAOUtilsImpl implements EntryDAOUtils {
   }
 
   @Override
-  public String getDbcode(String prefix) throws SQLException {
+  public synchronized String getDbcode(String prefix) throws SQLException {
     if (prefix == null) return null;
     String sql = "select dbcode from cv_database_prefix where prefix= ?";
     ResultSet rs = null;
@@ -271,7 +283,8 @@ public class EntryDAOUtilsImpl implements EntryDAOUtils {
   }
 
   @Override
-  public boolean isChromosomeValid(String analysisId, String chromosomeName) throws SQLException {
+  public synchronized boolean isChromosomeValid(String analysisId, String chromosomeName)
+      throws SQLException {
     String sql = "select 1 from gcs_chromosome where assembly_id = ? and chromosome_name = ?";
 
     try (PreparedStatement ps = connection.prepareStatement(sql)) {
@@ -283,7 +296,7 @@ public class EntryDAOUtilsImpl implements EntryDAOUtils {
   }
 
   @Override
-  public String getNewProteinId() throws SQLException {
+  public synchronized String getNewProteinId() throws SQLException {
     try (PreparedStatement pstsmt =
             connection.prepareStatement("select prefix_pkg.get_new_protein_id from dual");
         ResultSet rs = pstsmt.executeQuery()) {
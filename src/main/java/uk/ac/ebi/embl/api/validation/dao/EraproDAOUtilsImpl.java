@@ -30,6 +30,7 @@ import uk.ac.ebi.embl.api.entry.reference.Reference;
 import uk.ac.ebi.embl.api.entry.sequence.Sequence;
 import uk.ac.ebi.embl.api.entry.sequence.Sequence.Topology;
 import uk.ac.ebi.embl.api.entry.sequence.SequenceFactory;
+import uk.ac.ebi.embl.api.service.CachingTaxonomyClient;
 import uk.ac.ebi.embl.api.validation.SequenceEntryUtils;
 import uk.ac.ebi.embl.api.validation.ValidationEngineException;
 import uk.ac.ebi.embl.api.validation.dao.model.Analysis;
@@ -51,6 +52,7 @@ public class EraproDAOUtilsImpl implements EraproDAOUtils {
   private final HashMap<String, Entry> masterCache = new HashMap<String, Entry>();
 
   private final SampleService sampleService;
+  private final TaxonomyClient taxonomyClient;
   private static List<String> nullQualifierValues =
       List.of("not applicable", "not collected", "not provided", "restricted access", "missing");
   private static List<String> noValueQualifiers =
@@ -110,7 +112,30 @@ public class EraproDAOUtilsImpl implements EraproDAOUtils {
       String biosamplesUri,
       String biosamplesWebinUsername,
       String biosamplesWebinPassword) {
+    this(
+        connection,
+        webinRestUri,
+        webinUsername,
+        webinPassword,
+        webinAuthUri,
+        biosamplesUri,
+        biosamplesWebinUsername,
+        biosamplesWebinPassword,
+        CachingTaxonomyClient.getSharedInstance());
+  }
+
+  public EraproDAOUtilsImpl(
+      Connection connection,
+      String webinRestUri,
+      String webinUsername,
+      String webinPassword,
+      String webinAuthUri,
+      String biosamplesUri,
+      String biosamplesWebinUsername,
+      String biosamplesWebinPassword,
+      TaxonomyClient taxonomyClient) {
     this.connection = connection;
+    this.taxonomyClient = taxonomyClient;
 
     if (StringUtils.isBlank(webinUsername) || StringUtils.isBlank(webinPassword)) {
       throw new IllegalArgumentException("Invalid Webin username or password.");
@@ -417,7 +442,7 @@ public class EraproDAOUtilsImpl implements EraproDAOUtils {
   public SourceFeature getSourceFeature(String sampleId) throws Exception {
     Sample sample = sampleService.getSample(sampleId);
 
-    return new SourceFeatureUtils().constructSourceFeature(sample, new TaxonomyClient());
+    return new SourceFeatureUtils().constructSourceFeature(sample, taxonomyClient);
   }
 
   @Override
@@ -469,7 +494,6 @@ public class EraproDAOUtilsImpl implements EraproDAOUtils {
 
     SequenceFactory sequenceFactory = new SequenceFactory();
     SourceFeature sourceFeature = null;
-    TaxonomyClient taxonClient = new TaxonomyClient();
     String sampleId = null;
     String projectId;
     Sample sample = null;
@@ -568,7 +592,7 @@ public class EraproDAOUtilsImpl implements EraproDAOUtils {
 
         sample = sampleService.getSample(sampleId);
 
-        if (molType != null && taxonClient.isChildOf(sample.getOrganism(), "Viruses")) {
+        if (molType != null && taxonomyClient.isChildOf(sample.getOrganism(), "Viruses")) {
           masterEntry.getSequence().setMoleculeType(molType);
         }
 
@@ -600,7 +624,7 @@ public class EraproDAOUtilsImpl implements EraproDAOUtils {
       masterEntry.addReference(getSubmitterReference(analysisId));
     }
 
-    sourceFeature = new SourceFeatureUtils().constructSourceFeature(sample, taxonClient);
+    sourceFeature = new SourceFeatureUtils().constructSourceFeature(sample, taxonomyClient);
 
     masterEntry.addFeature(sourceFeature);
     String description =
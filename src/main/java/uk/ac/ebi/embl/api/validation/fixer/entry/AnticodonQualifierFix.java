@@ -67,7 +67,7 @@ public class AnticodonQualifierFix extends EntryValidationCheck {
             qualifier.getAminoAcidString(); // from the original anticodon value(e.g. aa :SeC)
         SegmentFactory factory = new SegmentFactory();
         Segment segment =
-            (entry.getSequence() != null && entry.getSequence().getSequenceByte() != null)
+            (entry.getSequence() != null && entry.getSequence().hasSequenceByte())
                 ? factory.createSegment(entry.getSequence(), location)
                 : null;
         if (segment == null) continue;
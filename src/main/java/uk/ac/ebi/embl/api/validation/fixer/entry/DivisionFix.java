@@ -85,7 +85,7 @@ public class DivisionFix extends EntryValidationCheck {
     String division = getDivisionFromCache(primarySF.getTaxId().toString());
     if (empty(division)) {
       if (primarySF.getTaxId() != null) {
-        Taxon taxon = new TaxonomyClient().getTaxonByTaxid(primarySF.getTaxId());
+        Taxon taxon = getTaxonomyClient().getTaxonByTaxid(primarySF.getTaxId());
         if (taxon != null && taxon.getDivision() != null) {
           division = taxon.getDivision();
         }
@@ -100,7 +100,7 @@ public class DivisionFix extends EntryValidationCheck {
     if (empty(division)) {
       List<Taxon> taxonList;
       if (!(taxonList =
-              new TaxonomyClient().getTaxonsByScientificName(primarySF.getScientificName()))
+              getTaxonomyClient().getTaxonsByScientificName(primarySF.getScientificName()))
           .isEmpty()) {
         division = taxonList.get(0).getDivision();
         saveDivisionCache(primarySF.getScientificName(), division);
@@ -122,6 +122,13 @@ public class DivisionFix extends EntryValidationCheck {
     EmblEntryValidationPlan.divisionCache.put(divisionKey, division);
   }
 
+  private TaxonomyClient getTaxonomyClient() {
+    TaxonomyClient taxonomyClient = getEmblEntryValidationPlanProperty().taxonClient.get();
+    return taxonomyClient != null
+        ? taxonomyClient
+        : getEmblEntryValidationPlanProperty().getOptions().getTaxonomyClient();
+  }
+
   private boolean shouldSetDivision(Entry entry) {
     if (empty(entry.getDivision())) {
       return true;
@@ -34,7 +34,7 @@ public class NonContoAGPFix extends EntryValidationCheck {
       result = new ValidationResult();
       List<AgpRow> agpRows = new ArrayList<AgpRow>();
       if (entry.getSequence() != null
-          && entry.getSequence().getSequenceByte() != null
+          && entry.getSequence().hasSequenceByte()
           && SequenceEntryUtils.getFeatures(Feature.ASSEMBLY_GAP_FEATURE_NAME, entry).size()
               != 0) // non-CON entries
       {
@@ -33,7 +33,7 @@ public class ContigstosequenceFix extends EntryValidationCheck {
     if (entry == null || FileType.AGP.equals(getEmblEntryValidationPlanProperty().fileType.get())) {
       return result;
     }
-    if (entry.getSequence() != null && entry.getSequence().getSequenceByte() != null) {
+    if (entry.getSequence() != null && entry.getSequence().hasSequenceByte()) {
       return result;
     }
     if (entry.getSequence() == null
@@ -14,6 +14,7 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import uk.ac.ebi.embl.api.entry.Entry;
 import uk.ac.ebi.embl.api.entry.sequence.Sequence;
+import uk.ac.ebi.embl.api.entry.sequence.SequenceComposition;
 import uk.ac.ebi.embl.api.validation.Severity;
 import uk.ac.ebi.embl.api.validation.ValidationMessage;
 import uk.ac.ebi.embl.api.validation.ValidationResult;
@@ -36,13 +37,11 @@ public class SequenceBasesFix extends EntryValidationCheck {
 
   private static final String SEQUENCE_BASES_FIX_ID_1 = "SequenceBasesFix_1";
   private static final String SEQUENCE_BASES_FIX_ID_2 = "SequenceBasesFix_2";
-  String beginDelSequenceStr;
-  String endDelSequenceStr;
+  int beginDeletedBases;
 
   public ValidationResult check(Entry entry) {
     result = new ValidationResult();
-    beginDelSequenceStr = "";
-    endDelSequenceStr = "";
+    beginDeletedBases = 0;
 
     if (entry == null) {
       return result;
@@ -54,7 +53,7 @@ public class SequenceBasesFix extends EntryValidationCheck {
       return result;
     }
 
-    if (sequence.getSequenceByte() == null) {
+    if (!sequence.hasSequenceByte() || sequence.getLength() == 0) {
       return result;
     }
 
@@ -68,21 +67,19 @@ public class SequenceBasesFix extends EntryValidationCheck {
 
       // Delete the n's at the beginning and end of the Sequence
 
-      ByteBuffer strippedSequence = removeChar(sequence);
+      long length = sequence.getLength();
+      long strippedLength = removeChar(sequence);
 
       /** bail out if there are no terminal Ns to fix */
-      if (strippedSequence.array().length == sequence.getLength()) {
+      if (strippedLength == length) {
         return result;
       } else {
 
         reportMessage(Severity.FIX, sequence.getOrigin(), SEQUENCE_BASES_FIX_ID_2);
         // If submitters provided the ID line sequence length we should replace it with the length
         // after trimming Ns
-        entry.setIdLineSequenceLength(strippedSequence.array().length);
+        entry.setIdLineSequenceLength(strippedLength);
       }
-
-      /** otherwise set the new stripped sequence */
-      entry.getSequence().setSequence(strippedSequence);
       // entry.getSequence().setLength(entry.getSequence().getSequenceByte().length);
 
       if (entry.getSequence().getLength() > 0) {
@@ -92,7 +89,7 @@ public class SequenceBasesFix extends EntryValidationCheck {
          * feature locations according to new sequence locations
          */
         ArrayList<ValidationMessage> validationMessages =
-            Utils.shiftLocation(entry, beginDelSequenceStr.length(), false);
+            Utils.shiftLocation(entry, beginDeletedBases, false);
 
         for (ValidationMessage validationMessage : validationMessages) {
           result.append(validationMessage);
@@ -106,42 +103,48 @@ public class SequenceBasesFix extends EntryValidationCheck {
   }
 
   /*
-   * Method to delete the base n's at the beginning and end of the sequence
+   * Method to delete the base n's at the beginning and end of the sequence. The terminal n's are
+   * the first and last runs of n of the sequence composition, if they start and end the sequence.
    */
-  private ByteBuffer removeChar(Sequence sequenceObj) {
-
-    byte[] sequenceByte = sequenceObj.getSequenceByte();
-    int beginPosition = 0;
-    int endPosition = (int) sequenceObj.getLength();
-    if (sequenceByte[0] == 'n') {
-      for (byte base : sequenceByte) {
-        if ('n' == (char) base) {
-          beginPosition++;
-          beginDelSequenceStr += (char) base;
-        } else {
-          break;
-        }
-      }
+  private long removeChar(Sequence sequenceObj) {
+
+    long length = sequenceObj.getLength();
+    SequenceComposition composition = sequenceObj.getComposition();
+    int runCount = composition.getNRunCount();
+    long beginPosition = 0;
+    if (runCount > 0 && composition.getNRunStart(0) == 1) {
+      beginPosition = composition.getNRunEnd(0);
+    }
+    beginDeletedBases = (int) beginPosition;
 
-      if (beginPosition == endPosition) {
-        return ByteBuffer.wrap(new byte[0]);
-      }
+    if (beginPosition == length) {
+      sequenceObj.setSequence(ByteBuffer.wrap(new byte[0]));
+      return 0;
     }
-    if (sequenceByte[endPosition - 1] == 'n') {
 
-      for (int i = endPosition - 1; i > 0; i--) {
-        if ('n' == sequenceByte[i]) {
-          endPosition--;
-        } else {
-          break;
-        }
-      }
+    long endPosition = length;
+    if (runCount > 0 && composition.getNRunEnd(runCount - 1) == length) {
+      endPosition = composition.getNRunStart(runCount - 1) - 1;
     }
 
-    int length = endPosition - beginPosition;
-    int offset = beginPosition;
-    byte[] strippedSequence = new byte[length];
-    System.arraycopy(sequenceObj.getSequenceByte(), offset, strippedSequence, 0, length);
-    return ByteBuffer.wrap(strippedSequence, 0, strippedSequence.length);
+    if (beginPosition == 0 && endPosition == length) {
+      return length;
+    }
+
+    long strippedLength = endPosition - beginPosition;
+    if (sequenceObj.getPackedSequence() != null) {
+      sequenceObj.setPackedSequence(
+          sequenceObj.getPackedSequence().subSequence(beginPosition, strippedLength));
+    } else {
+      byte[] strippedSequence = new byte[(int) strippedLength];
+      System.arraycopy(
+          sequenceObj.getSequenceByte(),
+          (int) beginPosition,
+          strippedSequence,
+          0,
+          strippedSequence.length);
+      sequenceObj.setSequence(ByteBuffer.wrap(strippedSequence));
+    }
+    return strippedLength;
   }
 }
@@ -11,8 +11,11 @@
 package uk.ac.ebi.embl.api.validation.helper;
 
 import java.io.*;
-import java.util.zip.GZIPInputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.StandardOpenOption;
 import uk.ac.ebi.embl.api.validation.FileType;
+import uk.ac.ebi.embl.common.CommonUtil;
 
 /** Created by IntelliJ IDEA. User: lbower Date: 08-Feb-2012 Time: 16:08:06 */
 public class FileUtils {
@@ -89,27 +92,27 @@ public class FileUtils {
     if (!zipFile.getName().matches("^.+\\.gz$")) {
       return file;
     }
-    byte[] buffer = new byte[1024];
-    GZIPInputStream zis = new GZIPInputStream(new FileInputStream(zipFile));
     File tempFile =
         new File(
             zipFile.getParent()
                 + File.separator
                 + zipFile.getName().substring(0, zipFile.getName().lastIndexOf(".gz")));
-    if (!tempFile.exists()) {
-      tempFile.createNewFile();
-    }
 
-    FileOutputStream fos = new FileOutputStream(tempFile);
-    int len;
-    while ((len = zis.read(buffer)) > 0) {
-      fos.write(buffer, 0, len);
+    try (ReadableByteChannel in = CommonUtil.channelFromFile(zipFile);
+        FileChannel out =
+            FileChannel.open(
+                tempFile.toPath(),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+      // The channel blocks, so nothing transferred means the end of the file.
+      long position = 0;
+      long count;
+      while ((count = out.transferFrom(in, position, 1 << 20)) > 0) {
+        position += count;
+      }
     }
 
-    fos.close();
-
-    zis.close();
-
     return tempFile.getAbsolutePath();
   }
 
@@ -381,23 +381,21 @@ public class QualifierHelper {
             new QualifierInfo(
                 qualifierName, regex, noValue.equals("Y"), newField.equals("Y"), comments);
         if (!qualifierName.equals("EC_number")) { // EMD-2496
-          List<DataRow> regexpRows = GlobalDataSets.getRows(GlobalDataSetFile.FEATURE_REGEX_GROUPS);
+          List<DataRow> regexpRows =
+              GlobalDataSets.findRows(GlobalDataSetFile.FEATURE_REGEX_GROUPS, 0, qualifierName);
           if (null == regexpRows) {
             throw new IllegalArgumentException("");
           } else {
             for (DataRow regexpRow :
                 regexpRows) { // look at all the qualifier values associatesd with a regexp group
-              if (regexpRow.getString(0).equals(qualifierName)) {
-                String regexGroupId = Utils.parseTSVString(regexpRow.getString(1));
-                boolean caseInsensitive =
-                    Utils.parseTSVString(regexpRow.getString(2)).equals("TRUE");
-                String[] regexpGroupValues = regexpRow.getStringArray(3);
-
-                RegexGroupInfo groupInfo = new RegexGroupInfo(regexGroupId);
-                groupInfo.addValues(Arrays.asList(regexpGroupValues));
-                groupInfo.setCaseInseneitive(caseInsensitive);
-                qualifierInfo.addRegexGroupInfo(groupInfo);
-              }
+              String regexGroupId = Utils.parseTSVString(regexpRow.getString(1));
+              boolean caseInsensitive = Utils.parseTSVString(regexpRow.getString(2)).equals("TRUE");
+              String[] regexpGroupValues = regexpRow.getStringArray(3);
+
+              RegexGroupInfo groupInfo = new RegexGroupInfo(regexGroupId);
+              groupInfo.addValues(Arrays.asList(regexpGroupValues));
+              groupInfo.setCaseInseneitive(caseInsensitive);
+              qualifierInfo.addRegexGroupInfo(groupInfo);
             }
           }
         }
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.validation.plan;
+
+import uk.ac.ebi.embl.api.validation.annotation.ExcludeScope;
+import uk.ac.ebi.embl.api.validation.annotation.GroupIncludeScope;
+import uk.ac.ebi.embl.api.validation.annotation.RemoteExclude;
+
+/** Scope annotations of a check class, read once per class. */
+final class CheckAnnotations {
+
+  private static final ClassValue<CheckAnnotations> annotations =
+      new ClassValue<CheckAnnotations>() {
+        @Override
+        protected CheckAnnotations computeValue(Class<?> checkClass) {
+          return new CheckAnnotations(checkClass);
+        }
+      };
+
+  final ExcludeScope excludeScope;
+  final RemoteExclude remoteExclude;
+  final GroupIncludeScope groupIncludeScope;
+
+  private CheckAnnotations(Class<?> checkClass) {
+    this.excludeScope = checkClass.getAnnotation(ExcludeScope.class);
+    this.remoteExclude = checkClass.getAnnotation(RemoteExclude.class);
+    this.groupIncludeScope = checkClass.getAnnotation(GroupIncludeScope.class);
+  }
+
+  static CheckAnnotations of(Class<?> checkClass) {
+    return annotations.get(checkClass);
+  }
+}
@@ -10,49 +10,33 @@
  */
 package uk.ac.ebi.embl.api.validation.plan;
 
-import java.lang.reflect.InvocationTargetException;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
+import java.util.Map;
 import uk.ac.ebi.embl.api.entry.Entry;
 import uk.ac.ebi.embl.api.entry.feature.Feature;
 import uk.ac.ebi.embl.api.validation.EmblEntryValidationCheck;
 import uk.ac.ebi.embl.api.validation.ValidationEngineException;
 import uk.ac.ebi.embl.api.validation.ValidationResult;
-import uk.ac.ebi.embl.api.validation.check.entry.EntryValidationCheck;
 import uk.ac.ebi.embl.api.validation.check.feature.CdsFeatureTranslationCheck;
 import uk.ac.ebi.embl.api.validation.check.feature.FeatureLocationCheck;
-import uk.ac.ebi.embl.api.validation.check.feature.FeatureValidationCheck;
-import uk.ac.ebi.embl.api.validation.check.sequence.SequenceValidationCheck;
 import uk.ac.ebi.embl.api.validation.check.sourcefeature.ChromosomeSourceQualifierCheck;
 
 public class EmblEntryValidationPlan extends ValidationPlan {
   int assemblySeqnumber = 1;
-  public static HashMap<String, String> divisionCache = new HashMap<>();
+  public static Map<String, String> divisionCache = Collections.synchronizedMap(new HashMap<>());
 
   public EmblEntryValidationPlan(EmblEntryValidationPlanProperty planProperty) {
     super(planProperty);
   }
 
   private ValidationResult execute(Entry entry) throws ValidationEngineException {
-    List<Class<? extends EmblEntryValidationCheck<?>>> checks =
-        new ArrayList<Class<? extends EmblEntryValidationCheck<?>>>();
-    List<Class<? extends EmblEntryValidationCheck<?>>> fixes =
-        new ArrayList<Class<? extends EmblEntryValidationCheck<?>>>();
     validatePlanProperty();
-    if (planProperty.isSourceUpdate.get()) {
-      checks.addAll(ValidationUnit.SOURCE_FEATURE_CHECKS.getValidationUnit());
-      fixes.addAll(ValidationUnit.SOURCE_FEATURE_FIXES.getValidationUnit());
-    } else {
-      checks.addAll(ValidationUnit.SEQUENCE_ENTRY_CHECKS.getValidationUnit());
-      if (planProperty.getOptions().isFixMode) {
-        fixes.addAll(ValidationUnit.SEQUENCE_ENTRY_FIXES.getValidationUnit());
-      }
-    }
-
     try {
-      executeChecksandFixes(fixes, entry);
-      executeChecksandFixes(checks, entry);
+      ValidationCheckChain chain =
+          ValidationCheckChain.get(
+              this, planProperty.getOptions().isFixMode, planProperty.isSourceUpdate.get());
+      executeChecksandFixes(chain, entry);
     } catch (Exception e) {
       throw new ValidationEngineException(e);
     }
@@ -76,21 +60,19 @@ public class EmblEntryValidationPlan extends ValidationPlan {
     return validationResult;
   }
 
-  private void executeChecksandFixes(
-      List<Class<? extends EmblEntryValidationCheck<?>>> checks, Entry entry)
-      throws ValidationEngineException, IllegalArgumentException, SecurityException,
-          InstantiationException, IllegalAccessException, InvocationTargetException,
-          NoSuchMethodException {
-    for (Class<? extends EmblEntryValidationCheck<?>> validationCheck : checks) {
-      EmblEntryValidationCheck<?> check =
-          validationCheck.getConstructor((Class[]) null).newInstance((Object[]) null);
-      if (check instanceof SequenceValidationCheck) {
-        execute(check, entry.getSequence());
+  private void executeChecksandFixes(ValidationCheckChain chain, Entry entry)
+      throws ValidationEngineException, ReflectiveOperationException {
+    for (ValidationCheckChain.Step step : chain.getSteps()) {
+      EmblEntryValidationCheck<?> check = step.newCheck();
+      if (step.sequenceCheck) {
+        setCheckProperties(check);
+        executeInScope(check, step.annotations, entry.getSequence());
       }
-      if (check instanceof EntryValidationCheck) {
-        execute(check, entry);
+      if (step.entryCheck) {
+        setCheckProperties(check);
+        executeInScope(check, step.annotations, entry);
       }
-      if (check instanceof FeatureValidationCheck) {
+      if (step.featureCheck) {
         for (Feature feature : entry.getFeatures()) {
           if (check instanceof CdsFeatureTranslationCheck) {
             ((CdsFeatureTranslationCheck) check).setEntry(entry);
@@ -101,7 +83,8 @@ public class EmblEntryValidationPlan extends ValidationPlan {
           if (check instanceof ChromosomeSourceQualifierCheck) {
             ((ChromosomeSourceQualifierCheck) check).setEntry(entry);
           }
-          execute(check, feature);
+          setCheckProperties(check);
+          executeInScope(check, step.annotations, feature);
         }
       }
     }
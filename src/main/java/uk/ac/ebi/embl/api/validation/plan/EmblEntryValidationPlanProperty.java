@@ -46,4 +46,25 @@ public class EmblEntryValidationPlanProperty {
   public SubmissionOptions getOptions() {
     return options;
   }
+
+  /**
+   * Returns a copy of the current property values, so that an entry can be validated on another
+   * thread while this property is updated for the next entry.
+   */
+  public EmblEntryValidationPlanProperty copy() {
+    EmblEntryValidationPlanProperty copy = new EmblEntryValidationPlanProperty(options);
+    copy.validationScope.set(validationScope.get());
+    copy.enproConnection.set(enproConnection.get());
+    copy.eraproConnection.set(eraproConnection.get());
+    copy.taxonClient.set(taxonClient.get());
+    copy.isRemote.set(isRemote.get());
+    copy.fileType.set(fileType.get());
+    copy.analysis_id.set(analysis_id.get());
+    copy.organism.set(organism.get());
+    copy.assemblySequenceInfo.set(assemblySequenceInfo.get());
+    copy.sequenceNumber.set(sequenceNumber.get());
+    copy.ncbiCon.set(ncbiCon.get());
+    copy.isSourceUpdate.set(isSourceUpdate.get());
+    return copy;
+  }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.validation.plan;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import uk.ac.ebi.embl.api.validation.EmblEntryValidationCheck;
+import uk.ac.ebi.embl.api.validation.check.entry.EntryValidationCheck;
+import uk.ac.ebi.embl.api.validation.check.feature.FeatureValidationCheck;
+import uk.ac.ebi.embl.api.validation.check.sequence.SequenceValidationCheck;
+
+/**
+ * Fixes and checks that {@link EmblEntryValidationPlan} runs for one combination of validation
+ * scope, remote, fix mode and source update. The scope annotations are resolved and the excluded
+ * checks are dropped when the chain is built, so only the checks that apply are instantiated for
+ * each entry. Chains are immutable and shared between plans and threads.
+ */
+final class ValidationCheckChain {
+
+  private static final ConcurrentMap<List<Object>, ValidationCheckChain> chains =
+      new ConcurrentHashMap<>();
+
+  /** A check class with its resolved annotations and constructor. */
+  static final class Step {
+    final Constructor<? extends EmblEntryValidationCheck<?>> constructor;
+    final CheckAnnotations annotations;
+    final boolean sequenceCheck;
+    final boolean entryCheck;
+    final boolean featureCheck;
+
+    private Step(Class<? extends EmblEntryValidationCheck<?>> checkClass)
+        throws NoSuchMethodException {
+      this.constructor = checkClass.getConstructor();
+      this.annotations = CheckAnnotations.of(checkClass);
+      this.sequenceCheck = SequenceValidationCheck.class.isAssignableFrom(checkClass);
+      this.entryCheck = EntryValidationCheck.class.isAssignableFrom(checkClass);
+      this.featureCheck = FeatureValidationCheck.class.isAssignableFrom(checkClass);
+    }
+
+    EmblEntryValidationCheck<?> newCheck() throws ReflectiveOperationException {
+      return constructor.newInstance();
+    }
+  }
+
+  private final List<Step> steps;
+
+  private ValidationCheckChain(List<Step> steps) {
+    this.steps = Collections.unmodifiableList(steps);
+  }
+
+  List<Step> getSteps() {
+    return steps;
+  }
+
+  /** Returns the chain for the plan's validation scope and remote flag. */
+  static ValidationCheckChain get(ValidationPlan plan, boolean fixMode, boolean sourceUpdate) {
+    List<Object> key = Arrays.asList(plan.validationScope, plan.isRemote(), fixMode, sourceUpdate);
+    return chains.computeIfAbsent(key, k -> build(plan, fixMode, sourceUpdate));
+  }
+
+  private static ValidationCheckChain build(
+      ValidationPlan plan, boolean fixMode, boolean sourceUpdate) {
+    List<Class<? extends EmblEntryValidationCheck<?>>> checks = new ArrayList<>();
+    if (sourceUpdate) {
+      checks.addAll(ValidationUnit.SOURCE_FEATURE_FIXES.getValidationUnit());
+      checks.addAll(ValidationUnit.SOURCE_FEATURE_CHECKS.getValidationUnit());
+    } else {
+      if (fixMode) {
+        checks.addAll(ValidationUnit.SEQUENCE_ENTRY_FIXES.getValidationUnit());
+      }
+      checks.addAll(ValidationUnit.SEQUENCE_ENTRY_CHECKS.getValidationUnit());
+    }
+    List<Step> steps = new ArrayList<>();
+    for (Class<? extends EmblEntryValidationCheck<?>> checkClass : checks) {
+      try {
+        Step step = new Step(checkClass);
+        if (plan.isInScope(step.annotations)) {
+          steps.add(step);
+        }
+      } catch (NoSuchMethodException e) {
+        throw new IllegalStateException("No default constructor: " + checkClass.getName(), e);
+      }
+    }
+    return new ValidationCheckChain(steps);
+  }
+}
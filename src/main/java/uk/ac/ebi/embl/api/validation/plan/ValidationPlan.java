@@ -10,15 +10,12 @@
  */
 package uk.ac.ebi.embl.api.validation.plan;
 
+import uk.ac.ebi.embl.api.service.CachingTaxonomyClient;
 import uk.ac.ebi.embl.api.validation.*;
-import uk.ac.ebi.embl.api.validation.annotation.ExcludeScope;
-import uk.ac.ebi.embl.api.validation.annotation.GroupIncludeScope;
-import uk.ac.ebi.embl.api.validation.annotation.RemoteExclude;
 import uk.ac.ebi.embl.api.validation.dao.EntryDAOUtils;
 import uk.ac.ebi.embl.api.validation.dao.EntryDAOUtilsImpl;
 import uk.ac.ebi.embl.api.validation.dao.EraproDAOUtils;
 import uk.ac.ebi.embl.api.validation.dao.EraproDAOUtilsImpl;
-import uk.ac.ebi.ena.taxonomy.client.TaxonomyClient;
 
 /**
  * This class is intended for implementation of validation execution plan. It provides basic
@@ -38,7 +35,12 @@ public abstract class ValidationPlan {
   protected ValidationPlan(EmblEntryValidationPlanProperty property) {
     this(property.validationScope.get());
     this.planProperty = property;
-    this.planProperty.taxonClient.set(new TaxonomyClient());
+    if (this.planProperty.taxonClient.get() == null) {
+      this.planProperty.taxonClient.set(
+          property.getOptions() != null
+              ? property.getOptions().getTaxonomyClient()
+              : CachingTaxonomyClient.getSharedInstance());
+    }
     this.remote = property.isRemote.get();
   }
   /**
@@ -49,6 +51,10 @@ public abstract class ValidationPlan {
     this.validationScope = validationScope;
   }
 
+  boolean isRemote() {
+    return remote;
+  }
+
   public void addMessageBundle(String bundleName) {
     ValidationMessageManager.addBundle(bundleName);
   }
@@ -84,10 +90,21 @@ public abstract class ValidationPlan {
     if (check == null) {
       return validationResult;
     }
+    setCheckProperties(check);
+    CheckAnnotations annotations = CheckAnnotations.of(check.getClass());
+    if (!isInScope(annotations)) {
+      return validationResult;
+    }
+    return executeInScope(check, annotations, target);
+  }
+
+  void setCheckProperties(ValidationCheck check) throws ValidationEngineException {
     try {
       check.setEmblEntryValidationPlanProperty(planProperty);
       if (planProperty.enproConnection.get() != null && entryDAOUtils == null) {
-        entryDAOUtils = EntryDAOUtilsImpl.getEntryDAOUtilsImpl(planProperty.enproConnection.get());
+        entryDAOUtils =
+            EntryDAOUtilsImpl.getEntryDAOUtilsImpl(
+                planProperty.enproConnection.get(), planProperty.taxonClient.get());
       }
       check.setEntryDAOUtils(entryDAOUtils);
       if (planProperty.eraproConnection.get() != null && eraproDAOUtils == null) {
@@ -100,48 +117,44 @@ public abstract class ValidationPlan {
                 planProperty.getOptions().webinAuthUri.get(),
                 planProperty.getOptions().biosamplesUri.get(),
                 planProperty.getOptions().biosamplesWebinUsername.get(),
-                planProperty.getOptions().biosamplesWebinPassword.get());
+                planProperty.getOptions().biosamplesWebinPassword.get(),
+                planProperty.taxonClient.get());
       }
 
       check.setEraproDAOUtils(eraproDAOUtils);
     } catch (Exception e) {
       throw new ValidationEngineException(e);
     }
+  }
 
-    Class<? extends ValidationCheck> checkClass = check.getClass();
-    ExcludeScope excludeScopeAnnotation = checkClass.getAnnotation(ExcludeScope.class);
-    RemoteExclude remoteExclude = checkClass.getAnnotation(RemoteExclude.class);
-    GroupIncludeScope groupIncludeAnnotation = checkClass.getAnnotation(GroupIncludeScope.class);
-
-    if (remoteExclude != null && remote) {
-      return validationResult;
+  /** Returns false if the check is excluded by its annotations from this plan's scope. */
+  boolean isInScope(CheckAnnotations annotations) {
+    if (annotations.remoteExclude != null && remote) {
+      return false;
     }
-    if (excludeScopeAnnotation != null
-        && isInValidationScope(excludeScopeAnnotation.validationScope())) {
-      return validationResult;
+    if (annotations.excludeScope != null
+        && isInValidationScope(annotations.excludeScope.validationScope())) {
+      return false;
     }
-
-    if (groupIncludeAnnotation != null
-        && !isInValidationScopeGroup(groupIncludeAnnotation.group())) {
-      return validationResult;
+    if (annotations.groupIncludeScope != null
+        && !isInValidationScopeGroup(annotations.groupIncludeScope.group())) {
+      return false;
     }
+    return true;
+  }
 
-    // inject data sets
-    /*if(null != checkDataSetAnnotation) {
-    			Stream.of(checkDataSetAnnotation.dataSetNames()).forEach( dsName -> GlobalDataSets.loadIfNotExist(dsName, dataManager, fileManager, devMode));
-            }
-    */
+  @SuppressWarnings("unchecked")
+  ValidationResult executeInScope(
+      ValidationCheck check, CheckAnnotations annotations, Object target)
+      throws ValidationEngineException {
     validationResult.append(check.check(target));
 
-    if (excludeScopeAnnotation != null) {
-      demoteSeverity(validationResult, excludeScopeAnnotation.maxSeverity());
+    if (annotations.excludeScope != null) {
+      demoteSeverity(validationResult, annotations.excludeScope.maxSeverity());
     }
-    if (groupIncludeAnnotation != null) {
-      demoteSeverity(validationResult, groupIncludeAnnotation.maxSeverity());
+    if (annotations.groupIncludeScope != null) {
+      demoteSeverity(validationResult, annotations.groupIncludeScope.maxSeverity());
     }
-
-    //        System.out.println(this.result.count());
-
     return validationResult;
   }
 
@@ -11,6 +11,8 @@
 package uk.ac.ebi.embl.api.validation.report;
 
 import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
@@ -20,17 +22,36 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 import uk.ac.ebi.embl.api.validation.*;
 
-public class DefaultSubmissionReporter implements SubmissionReporter {
+/**
+ * Writes validation messages to report files. By default each write opens the report file, appends
+ * the messages, syncs the file to disk and closes it. A reporter created with a flush policy keeps
+ * one {@link ReportFileWriter} open per report file instead, and the messages are only guaranteed
+ * to be in the file once the reporter has been flushed or closed.
+ */
+public class DefaultSubmissionReporter implements SubmissionReporter, Closeable {
 
   private final HashSet<Severity> reportSeverity;
 
+  /** The flush policy of the report file writers, or null if the writes are not buffered. */
+  private final ReportFileWriter.FlushPolicy flushPolicy;
+
+  private final Map<Path, ReportFileWriter> reportFileWriters = new HashMap<>();
+
   public DefaultSubmissionReporter(HashSet<Severity> reportSeverity) {
+    this(reportSeverity, null);
+  }
+
+  public DefaultSubmissionReporter(
+      HashSet<Severity> reportSeverity, ReportFileWriter.FlushPolicy flushPolicy) {
     this.reportSeverity = reportSeverity;
+    this.flushPolicy = flushPolicy;
   }
 
   // Create message
@@ -136,6 +157,10 @@ public class DefaultSubmissionReporter implements SubmissionReporter {
   }
 
   private void writeMessages(Path reportFile, WriteCallback callback) {
+    if (flushPolicy != null && reportFile != null) {
+      writeBufferedMessages(reportFile, callback);
+      return;
+    }
     OutputStream strm = System.out;
     if (reportFile != null) {
       try {
@@ -168,6 +193,54 @@ public class DefaultSubmissionReporter implements SubmissionReporter {
     }
   }
 
+  private void writeBufferedMessages(Path reportFile, WriteCallback callback) {
+    ByteArrayOutputStream strm = new ByteArrayOutputStream();
+    try {
+      callback.write(strm);
+      if (strm.size() > 0) {
+        getReportFileWriter(reportFile).write(strm.toByteArray());
+      }
+    } catch (IOException e) {
+      //
+    }
+  }
+
+  private synchronized ReportFileWriter getReportFileWriter(Path reportFile) throws IOException {
+    ReportFileWriter writer = reportFileWriters.get(reportFile);
+    if (writer == null) {
+      writer = new ReportFileWriter(reportFile, flushPolicy);
+      reportFileWriters.put(reportFile, writer);
+    }
+    return writer;
+  }
+
+  /** Writes the buffered messages to the report files. */
+  public synchronized void flush() {
+    for (ReportFileWriter writer : reportFileWriters.values()) {
+      try {
+        writer.flush();
+      } catch (IOException e) {
+        //
+      }
+    }
+  }
+
+  /**
+   * Writes the buffered messages to the report files and closes them. The reporter can still be
+   * used after it has been closed.
+   */
+  @Override
+  public synchronized void close() {
+    for (ReportFileWriter writer : reportFileWriters.values()) {
+      try {
+        writer.close();
+      } catch (IOException e) {
+        //
+      }
+    }
+    reportFileWriters.clear();
+  }
+
   // Write message
   //
 
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.validation.report;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends to a report file through a buffer. The buffer is written to the file when it is full,
+ * when a write finds the oldest buffered bytes older than the flush interval, and when the writer
+ * is flushed or closed. The file is synced to disk once, when the writer is closed.
+ *
+ * <p>If the writer is asynchronous the buffers are written to the file by a writer thread, in the
+ * order in which they were filled. The methods can be called from any thread.
+ */
+public class ReportFileWriter implements Closeable {
+
+  /** When the buffered report messages are written to the file. */
+  public static class FlushPolicy {
+
+    public static final FlushPolicy DEFAULT = new FlushPolicy(64 * 1024, 1000, false);
+
+    private final int bufferSize;
+    private final long flushIntervalMillis;
+    private final boolean asynchronous;
+
+    /**
+     * @param bufferSize the number of bytes buffered before they are written to the file
+     * @param flushIntervalMillis the time after which buffered bytes are written to the file by the
+     *     next write, or 0 to only write full buffers
+     * @param asynchronous true if the buffers are written to the file by a writer thread
+     */
+    public FlushPolicy(int bufferSize, long flushIntervalMillis, boolean asynchronous) {
+      if (bufferSize <= 0) {
+        throw new IllegalArgumentException("Report buffer size must be positive: " + bufferSize);
+      }
+      this.bufferSize = bufferSize;
+      this.flushIntervalMillis = flushIntervalMillis;
+      this.asynchronous = asynchronous;
+    }
+
+    public int getBufferSize() {
+      return bufferSize;
+    }
+
+    public long getFlushIntervalMillis() {
+      return flushIntervalMillis;
+    }
+
+    public boolean isAsynchronous() {
+      return asynchronous;
+    }
+  }
+
+  private final FileChannel channel;
+  private final FlushPolicy flushPolicy;
+  private final ExecutorService writerThread;
+
+  private final byte[] buffer;
+  private int length;
+
+  /** The time the oldest buffered bytes were written. */
+  private long bufferedTime;
+
+  /** The first error of the writer thread, reported by the next call. */
+  private volatile IOException writeError;
+
+  private boolean closed;
+
+  public ReportFileWriter(Path reportFile, FlushPolicy flushPolicy) throws IOException {
+    this.channel =
+        FileChannel.open(reportFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    this.flushPolicy = flushPolicy;
+    this.buffer = new byte[flushPolicy.getBufferSize()];
+    this.writerThread =
+        flushPolicy.isAsynchronous()
+            ? Executors.newSingleThreadExecutor(
+                runnable -> {
+                  Thread thread = new Thread(runnable, "report-writer-" + reportFile.getFileName());
+                  thread.setDaemon(true);
+                  return thread;
+                })
+            : null;
+  }
+
+  public synchronized void write(byte[] bytes) throws IOException {
+    checkOpen();
+    if (length == 0) {
+      bufferedTime = System.nanoTime();
+    }
+    int offset = 0;
+    while (offset < bytes.length) {
+      int copied = Math.min(buffer.length - length, bytes.length - offset);
+      System.arraycopy(bytes, offset, buffer, length, copied);
+      length += copied;
+      offset += copied;
+      if (length == buffer.length) {
+        writeBuffer();
+      }
+    }
+    if (length > 0
+        && flushPolicy.getFlushIntervalMillis() > 0
+        && System.nanoTime() - bufferedTime
+            >= TimeUnit.MILLISECONDS.toNanos(flushPolicy.getFlushIntervalMillis())) {
+      writeBuffer();
+    }
+  }
+
+  /** Writes the buffered bytes to the file, without syncing it to disk. */
+  public synchronized void flush() throws IOException {
+    checkOpen();
+    writeBuffer();
+  }
+
+  /** Writes the buffered bytes to the file, syncs it to disk and closes it. */
+  @Override
+  public synchronized void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      writeBuffer();
+      if (writerThread != null) {
+        writerThread.shutdown();
+        try {
+          writerThread.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IOException("Interrupted while writing report file", e);
+        }
+        if (writeError != null) {
+          throw writeError;
+        }
+      }
+      channel.force(true);
+    } finally {
+      channel.close();
+    }
+  }
+
+  private void writeBuffer() throws IOException {
+    if (length == 0) {
+      return;
+    }
+    if (writerThread == null) {
+      writeFully(ByteBuffer.wrap(buffer, 0, length));
+    } else {
+      if (writeError != null) {
+        throw writeError;
+      }
+      ByteBuffer bytes = ByteBuffer.wrap(Arrays.copyOf(buffer, length));
+      writerThread.execute(
+          () -> {
+            try {
+              if (writeError == null) {
+                writeFully(bytes);
+              }
+            } catch (IOException e) {
+              writeError = e;
+            }
+          });
+    }
+    length = 0;
+  }
+
+  private void writeFully(ByteBuffer bytes) throws IOException {
+    while (bytes.hasRemaining()) {
+      channel.write(bytes);
+    }
+  }
+
+  private void checkOpen() throws IOException {
+    if (closed) {
+      throw new IOException("Report file writer is closed");
+    }
+  }
+}
@@ -21,6 +21,7 @@ import java.util.Set;
 import uk.ac.ebi.embl.api.entry.feature.SourceFeature;
 import uk.ac.ebi.embl.api.entry.genomeassembly.AssemblyInfoEntry;
 import uk.ac.ebi.embl.api.entry.genomeassembly.AssemblyType;
+import uk.ac.ebi.embl.api.service.CachingTaxonomyClient;
 import uk.ac.ebi.embl.api.validation.ValidationEngineException;
 import uk.ac.ebi.embl.api.validation.plan.EmblEntryValidationPlanProperty;
 import uk.ac.ebi.ena.taxonomy.client.TaxonomyClient;
@@ -44,6 +45,12 @@ public class SubmissionOptions {
 
   public Optional<ServiceConfig> serviceConfig = Optional.empty();
 
+  /**
+   * Taxonomy client shared by the validation of the submission. A {@link CachingTaxonomyClient} is
+   * used if none is given.
+   */
+  public Optional<TaxonomyClient> taxonomyClient = Optional.empty();
+
   public Optional<String> webinAuthUri = Optional.empty();
   public Optional<String> biosamplesUri = Optional.empty();
   public Optional<String> biosamplesWebinAuthToken = Optional.empty();
@@ -58,6 +65,11 @@ public class SubmissionOptions {
   public boolean ignoreErrors = false;
   public boolean isWebinCLI = false;
   public boolean forceReducedFlatfileCreation = false;
+  // Read uncompressed FASTA files through memory mapped regions.
+  public boolean isMappedFastaReader = false;
+  // Number of threads validating FASTA and flat file entries and constructing AGP objects. Output
+  // is identical for any value.
+  public int validationThreads = 1;
   private String projectId;
   private String templateId;
   public int minGapLength = 0;
@@ -153,7 +165,7 @@ public class SubmissionOptions {
     if (Context.genome.equals(context.get())) {
       property.sequenceNumber.set(1);
     }
-    property.taxonClient.set(new TaxonomyClient());
+    property.taxonClient.set(getTaxonomyClient());
     property.isRemote.set(isWebinCLI);
 
     if (webinRestUri.isPresent() && webinUsername.isPresent() && webinPassword.isPresent()) {
@@ -174,6 +186,13 @@ public class SubmissionOptions {
     return property;
   }
 
+  public synchronized TaxonomyClient getTaxonomyClient() {
+    if (!taxonomyClient.isPresent()) {
+      taxonomyClient = Optional.of(new CachingTaxonomyClient());
+    }
+    return taxonomyClient.get();
+  }
+
   public String getWebinERAServiceUrl() {
     return serviceConfig.get().getEraServiceUrl();
   }
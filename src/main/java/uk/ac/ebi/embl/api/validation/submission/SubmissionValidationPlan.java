@@ -15,8 +15,7 @@ import static uk.ac.ebi.embl.api.validation.check.file.FileValidationCheck.*;
 import static uk.ac.ebi.embl.api.validation.helper.Utils.validateAssemblySequenceCount;
 
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.ObjectOutputStream;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -65,11 +64,12 @@ public class SubmissionValidationPlan {
       if (options.context.get().getFileTypes().contains(FileType.AGP)) {
         agpCheck = new AGPFileValidationCheck(options, sharedInfo);
         if (sharedInfo.hasAgp) {
-          sharedInfo.contigDB =
-              DBMaker.fileDB(options.reportDir.get() + File.separator + getcontigDbname())
-                  .fileDeleteAfterClose()
-                  .closeOnJvmShutdown()
-                  .make();
+          try {
+            sharedInfo.agpComponentStore =
+                new AgpComponentStore(Paths.get(options.reportDir.get(), getcontigDbname()));
+          } catch (IOException e) {
+            throw new ValidationEngineException(e);
+          }
           agpCheck.createContigDB();
         }
       }
@@ -163,8 +163,8 @@ public class SubmissionValidationPlan {
       }
       throw e;
     } finally {
-      if (sharedInfo.contigDB != null) {
-        sharedInfo.contigDB.close();
+      if (sharedInfo.agpComponentStore != null) {
+        sharedInfo.agpComponentStore.close();
       }
       if (sharedInfo.annotationDB != null) {
         sharedInfo.annotationDB.close();
@@ -438,20 +438,8 @@ public class SubmissionValidationPlan {
   }
 
   private void writeUnplacedList() throws ValidationEngineException {
-
-    try {
-      Files.deleteIfExists(Paths.get(options.processDir.get(), "unplaced.txt"));
-    } catch (Exception e) {
-      throw new ValidationEngineException("Failed to delete unplaced file: " + e.getMessage(), e);
-    }
-    try (ObjectOutputStream oos =
-        new ObjectOutputStream(
-            new FileOutputStream(options.processDir.get() + File.separator + "unplaced.txt"))) {
-      oos.writeObject(sharedInfo.unplacedEntryNames);
-
-    } catch (Exception e) {
-      throw new ValidationEngineException("Failed to write unplaced file: " + e.getMessage(), e);
-    }
+    AssemblySequenceInfo.writeSetObject(
+        sharedInfo.unplacedEntryNames, options.processDir.get(), "unplaced.txt");
   }
 
   private void writeSequenceInfo() throws ValidationEngineException {
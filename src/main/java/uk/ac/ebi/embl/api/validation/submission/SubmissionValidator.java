@@ -18,6 +18,7 @@ import uk.ac.ebi.embl.api.entry.feature.SourceFeature;
 import uk.ac.ebi.embl.api.entry.genomeassembly.AssemblyInfoEntry;
 import uk.ac.ebi.embl.api.entry.genomeassembly.AssemblyType;
 import uk.ac.ebi.embl.api.entry.qualifier.Qualifier;
+import uk.ac.ebi.embl.api.service.CachingTaxonomyClient;
 import uk.ac.ebi.embl.api.service.SequenceToolsServices;
 import uk.ac.ebi.embl.api.service.WebinSampleRetrievalService;
 import uk.ac.ebi.embl.api.validation.*;
@@ -40,12 +41,12 @@ public class SubmissionValidator implements Validator<Manifest, ValidationRespon
   private final TaxonomyClient taxonomyClient;
 
   public SubmissionValidator() {
-    this.taxonomyClient = new TaxonomyClient();
+    this.taxonomyClient = new CachingTaxonomyClient();
   }
 
   public SubmissionValidator(SubmissionOptions options) {
     this.options = options;
-    this.taxonomyClient = new TaxonomyClient();
+    this.taxonomyClient = options.getTaxonomyClient();
   }
 
   public void validate() throws ValidationEngineException {
@@ -127,6 +128,7 @@ public class SubmissionValidator implements Validator<Manifest, ValidationRespon
           "Process directory is missing.", ValidationEngineException.ReportErrorType.SYSTEM_ERROR);
     }
     SubmissionOptions options = new SubmissionOptions();
+    options.taxonomyClient = Optional.of(taxonomyClient);
     // Set all common options
     AssemblyInfoEntry assemblyInfo = new AssemblyInfoEntry();
 
@@ -146,7 +148,7 @@ public class SubmissionValidator implements Validator<Manifest, ValidationRespon
 
       SourceFeature sourceFeature =
           new SourceFeatureUtils()
-              .constructSourceFeature(manifest.getSample(), new TaxonomyClient());
+              .constructSourceFeature(manifest.getSample(), taxonomyClient);
       sourceFeature.addQualifier(
           Qualifier.DB_XREF_QUALIFIER_NAME, String.valueOf(manifest.getSample().getTaxId()));
 
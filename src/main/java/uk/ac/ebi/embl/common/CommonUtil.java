@@ -13,23 +13,44 @@ package uk.ac.ebi.embl.common;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.util.zip.GZIPInputStream;
-import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 
 public class CommonUtil {
 
+  private static final int READER_BUFFER_SIZE = 1 << 16;
+
+  public static boolean isCompressed(File file) {
+    return file.getName().matches("^.+\\.(gz|gzip|bz2|bzip2)$");
+  }
+
   public static BufferedReader bufferedReaderFromFile(File file) throws IOException {
+    return new BufferedReader(new InputStreamReader(inputStreamFromFile(file)), READER_BUFFER_SIZE);
+  }
+
+  /**
+   * Opens the file, decompressing gzip and bzip2 files ahead of the reader on background threads.
+   * The stream must be closed.
+   */
+  public static InputStream inputStreamFromFile(File file) throws IOException {
     if (file.getName().matches("^.+\\.(gz|gzip)$")) {
-      GZIPInputStream gzip = new GZIPInputStream(new FileInputStream(file));
-      return new BufferedReader(new InputStreamReader(gzip));
+      return DecompressingInputStream.gzip(file);
     } else if (file.getName().matches("^.+\\.(bz2|bzip2)$")) {
-      BZip2CompressorInputStream bzIn = new BZip2CompressorInputStream(new FileInputStream(file));
-      return new BufferedReader(new InputStreamReader(bzIn));
+      return DecompressingInputStream.bzip2(file);
     } else {
-      return new BufferedReader(new FileReader(file));
+      return new FileInputStream(file);
+    }
+  }
+
+  /** Opens the file as a channel of its decompressed bytes. The channel must be closed. */
+  public static ReadableByteChannel channelFromFile(File file) throws IOException {
+    if (isCompressed(file)) {
+      return Channels.newChannel(inputStreamFromFile(file));
     }
+    return FileChannel.open(file.toPath());
   }
 }
@@ -0,0 +1,479 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.common;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+
+/**
+ * Decompresses a gzip or bzip2 file ahead of the reader on background threads.
+ *
+ * <p>BGZF files, the gzip files written by bgzip as a series of small members that record their
+ * compressed size, and bzip2 files made of many small streams, such as the ones written by pbzip2,
+ * are decoded in parallel. Other large files are decoded on a single background thread, and small
+ * files on the reading thread. Only a few parts of the file are decoded ahead of the reader, and
+ * each part is bounded in decoded size: a BGZF part by the sizes its blocks record, and a bzip2
+ * stream by decoding ahead only its first few megabytes and the rest as it is read. So the memory
+ * used depends on neither the file size nor how well it compresses.
+ *
+ * <p>The stream must be closed to stop the background threads.
+ */
+public class DecompressingInputStream extends InputStream {
+
+  /** Files smaller than this are decoded on the reading thread. */
+  static final long MIN_BACKGROUND_FILE_SIZE = 1 << 20;
+
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final int CHUNK_SIZE = 1 << 20;
+
+  /** bzip2 streams larger than this are decoded on one thread with the rest of the file. */
+  private static final int MAX_PARALLEL_STREAM_SIZE = 4 << 20;
+
+  /** The bytes of a bzip2 stream decoded ahead of the reader. The rest is decoded when read. */
+  private static final int MAX_DECODED_AHEAD = 4 << 20;
+
+  /** The largest data size of a BGZF block. */
+  private static final int MAX_BGZF_BLOCK_DATA_SIZE = 1 << 16;
+
+  /** The bzip2 stream header and the magic number of its first block. */
+  private static final int BZIP2_HEADER_LENGTH = 10;
+
+  private static final Future<InputStream> END =
+      CompletableFuture.completedFuture(InputStream.nullInputStream());
+
+  private final FileChannel channel;
+  private final ExecutorService executor;
+  private final BlockingQueue<Future<InputStream>> parts;
+  private final Thread producer;
+  private volatile boolean closed = false;
+
+  private InputStream part = InputStream.nullInputStream();
+  private boolean ended = false;
+
+  private interface Producer {
+    void produce(DecompressingInputStream stream) throws Exception;
+  }
+
+  private DecompressingInputStream(
+      File file, FileChannel channel, int threadCount, Producer producer) {
+    this.channel = channel;
+    this.executor =
+        threadCount > 0
+            ? Executors.newFixedThreadPool(
+                threadCount,
+                runnable -> {
+                  Thread thread = new Thread(runnable, "decompress-" + file.getName());
+                  thread.setDaemon(true);
+                  return thread;
+                })
+            : null;
+    this.parts = new ArrayBlockingQueue<>(Math.max(2, threadCount * 2));
+    this.producer = new Thread(() -> run(producer), "decompress-" + file.getName());
+    this.producer.setDaemon(true);
+  }
+
+  /** Opens a gzip file. Multi-member files are read to the end of their last member. */
+  public static InputStream gzip(File file) throws IOException {
+    if (file.length() < MIN_BACKGROUND_FILE_SIZE) {
+      return new GZIPInputStream(new FileInputStream(file), BUFFER_SIZE);
+    }
+    FileChannel channel = FileChannel.open(file.toPath());
+    try {
+      byte[] header = new byte[BUFFER_SIZE];
+      int length = read(channel, header, 0);
+      if (bgzfBlockSize(header, 0, length) > 0) {
+        return start(
+            new DecompressingInputStream(
+                file, channel, threadCount(), stream -> stream.produceBgzf()));
+      }
+      InputStream in = new GZIPInputStream(newInputStream(channel, 0), BUFFER_SIZE);
+      return start(new DecompressingInputStream(file, channel, 0, stream -> stream.copy(in)));
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /** Opens a bzip2 file. Files made of several streams are read to the end of their last stream. */
+  public static InputStream bzip2(File file) throws IOException {
+    if (file.length() < MIN_BACKGROUND_FILE_SIZE) {
+      return new BZip2CompressorInputStream(
+          new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE), true);
+    }
+    FileChannel channel = FileChannel.open(file.toPath());
+    try {
+      byte[] header = new byte[BZIP2_HEADER_LENGTH];
+      if (read(channel, header, 0) == header.length && isBzip2Header(header, 0)) {
+        return start(
+            new DecompressingInputStream(
+                file, channel, threadCount(), stream -> stream.produceBzip2()));
+      }
+      InputStream in = new BZip2CompressorInputStream(newInputStream(channel, 0), true);
+      return start(new DecompressingInputStream(file, channel, 0, stream -> stream.copy(in)));
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  private static DecompressingInputStream start(DecompressingInputStream stream) {
+    stream.producer.start();
+    return stream;
+  }
+
+  private static int threadCount() {
+    return Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+  }
+
+  @Override
+  public int read() throws IOException {
+    byte[] b = new byte[1];
+    return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+    if (len == 0) {
+      return 0;
+    }
+    while (true) {
+      int count = part.read(b, off, len);
+      if (count != -1 || ended) {
+        return count;
+      }
+      nextPart();
+    }
+  }
+
+  @Override
+  public int available() throws IOException {
+    return closed ? 0 : part.available();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    producer.interrupt();
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+    parts.clear();
+    channel.close();
+  }
+
+  private void nextPart() throws IOException {
+    part.close();
+    part = InputStream.nullInputStream();
+    try {
+      Future<InputStream> future = parts.take();
+      if (future == END) {
+        ended = true;
+        return;
+      }
+      part = future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while decompressing");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+
+  private void run(Producer producer) {
+    try {
+      producer.produce(this);
+      parts.put(END);
+    } catch (InterruptedException e) {
+      // Closed.
+    } catch (Throwable e) {
+      if (!closed) {
+        try {
+          parts.put(CompletableFuture.failedFuture(e));
+        } catch (InterruptedException ex) {
+          // Closed.
+        }
+      }
+    }
+  }
+
+  private void submit(Callable<InputStream> task) throws InterruptedException {
+    parts.put(executor.submit(task));
+  }
+
+  /** Decodes the rest of the stream on the producer thread. */
+  private void copy(InputStream in) throws IOException, InterruptedException {
+    try (InputStream closeable = in) {
+      byte[] bytes;
+      do {
+        bytes = closeable.readNBytes(CHUNK_SIZE);
+        if (bytes.length > 0) {
+          parts.put(CompletableFuture.completedFuture(new ByteArrayInputStream(bytes)));
+        }
+      } while (bytes.length == CHUNK_SIZE);
+    }
+  }
+
+  /**
+   * Reads the BGZF blocks in groups of about {@link #CHUNK_SIZE}, compressed and decoded, and
+   * inflates each group in a task.
+   */
+  private void produceBgzf() throws IOException, InterruptedException {
+    long size = channel.size();
+    long position = 0;
+    while (position < size) {
+      byte[] group = new byte[(int) Math.min(CHUNK_SIZE, size - position)];
+      int length = read(channel, group, position);
+      int end = 0;
+      long dataSize = 0;
+      int blockSize;
+      while ((blockSize = bgzfBlockSize(group, end, length)) > 0 && end + blockSize <= length) {
+        long blockDataSize = unsignedInt(group, end + blockSize - 4);
+        if (blockDataSize > MAX_BGZF_BLOCK_DATA_SIZE
+            || (end > 0 && dataSize + blockDataSize > CHUNK_SIZE)) {
+          break;
+        }
+        dataSize += blockDataSize;
+        end += blockSize;
+      }
+      if (end == 0) {
+        // Not BGZF from here on: decode the rest like GZIPInputStream does.
+        InputStream in;
+        try {
+          in = new GZIPInputStream(newInputStream(channel, position), BUFFER_SIZE);
+        } catch (IOException e) {
+          // GZIPInputStream ignores data after the last member that is not a member.
+          return;
+        }
+        copy(in);
+        return;
+      }
+      int groupLength = end;
+      submit(() -> new ByteArrayInputStream(inflateBgzf(group, groupLength)));
+      position += end;
+    }
+  }
+
+  /**
+   * Finds the bzip2 streams by their header and decodes each in a task. A stream larger than
+   * {@link #MAX_PARALLEL_STREAM_SIZE} is decoded with the rest of the file on this thread.
+   */
+  private void produceBzip2() throws IOException, InterruptedException {
+    long size = channel.size();
+    long streamStart = 0;
+    while (true) {
+      long limit = Math.min(size, streamStart + MAX_PARALLEL_STREAM_SIZE);
+      long next = findBzip2Header(streamStart + BZIP2_HEADER_LENGTH, limit);
+      if (next < 0 && limit < size) {
+        copy(new BZip2CompressorInputStream(newInputStream(channel, streamStart), true));
+        return;
+      }
+      long start = streamStart;
+      long end = next < 0 ? size : next;
+      submit(() -> decodeBzip2(start, end));
+      if (next < 0) {
+        return;
+      }
+      streamStart = next;
+    }
+  }
+
+  /**
+   * Decodes the first {@link #MAX_DECODED_AHEAD} bytes of the bzip2 stream. The rest of the stream
+   * is decoded when it is read.
+   */
+  private InputStream decodeBzip2(long start, long end) throws IOException {
+    byte[] bytes = new byte[(int) (end - start)];
+    if (read(channel, bytes, start) != bytes.length) {
+      throw new EOFException("Unexpected end of bzip2 file");
+    }
+    InputStream in = new BZip2CompressorInputStream(new ByteArrayInputStream(bytes), true);
+    byte[] decoded = in.readNBytes(MAX_DECODED_AHEAD);
+    if (decoded.length < MAX_DECODED_AHEAD) {
+      in.close();
+      return new ByteArrayInputStream(decoded);
+    }
+    return new SequenceInputStream(new ByteArrayInputStream(decoded), in);
+  }
+
+  /** Returns the position of the first bzip2 header within the range, or -1 if there is none. */
+  private long findBzip2Header(long from, long to) throws IOException {
+    byte[] buffer = new byte[BUFFER_SIZE];
+    long position = from;
+    while (position + BZIP2_HEADER_LENGTH <= to) {
+      int length = read(channel, buffer, position);
+      length = (int) Math.min(length, to - position);
+      for (int i = 0; i + BZIP2_HEADER_LENGTH <= length; i++) {
+        if (buffer[i] == 'B' && isBzip2Header(buffer, i)) {
+          return position + i;
+        }
+      }
+      if (length < BZIP2_HEADER_LENGTH) {
+        return -1;
+      }
+      position += length - BZIP2_HEADER_LENGTH + 1;
+    }
+    return -1;
+  }
+
+  private static boolean isBzip2Header(byte[] b, int off) {
+    return b[off] == 'B'
+        && b[off + 1] == 'Z'
+        && b[off + 2] == 'h'
+        && b[off + 3] >= '1'
+        && b[off + 3] <= '9'
+        && b[off + 4] == 0x31
+        && b[off + 5] == 0x41
+        && b[off + 6] == 0x59
+        && b[off + 7] == 0x26
+        && b[off + 8] == 0x53
+        && b[off + 9] == 0x59;
+  }
+
+  /**
+   * Returns the size of the BGZF block that starts at the offset, or -1 if there is no complete
+   * BGZF header within the length.
+   */
+  private static int bgzfBlockSize(byte[] b, int off, int length) {
+    if (off + 18 > length
+        || b[off] != 31
+        || b[off + 1] != (byte) 139
+        || b[off + 2] != 8
+        || b[off + 3] != 4) {
+      return -1;
+    }
+    int extraLength = unsignedShort(b, off + 10);
+    int extraEnd = off + 12 + extraLength;
+    if (extraEnd > length) {
+      return -1;
+    }
+    for (int i = off + 12; i + 4 <= extraEnd; i += 4 + unsignedShort(b, i + 2)) {
+      if (b[i] == 'B' && b[i + 1] == 'C' && unsignedShort(b, i + 2) == 2 && i + 6 <= extraEnd) {
+        int blockSize = unsignedShort(b, i + 4) + 1;
+        return blockSize >= 12 + extraLength + 8 ? blockSize : -1;
+      }
+    }
+    return -1;
+  }
+
+  private static byte[] inflateBgzf(byte[] group, int length) throws IOException {
+    int outputLength = 0;
+    for (int off = 0; off < length; off += bgzfBlockSize(group, off, length)) {
+      int blockEnd = off + bgzfBlockSize(group, off, length);
+      long inputSize = unsignedInt(group, blockEnd - 4);
+      if (outputLength + inputSize > Integer.MAX_VALUE - 8) {
+        throw new ZipException("Invalid BGZF block size");
+      }
+      outputLength += (int) inputSize;
+    }
+    byte[] output = new byte[outputLength];
+    byte[] overflow = new byte[1];
+    Inflater inflater = new Inflater(true);
+    CRC32 crc = new CRC32();
+    try {
+      int outputPosition = 0;
+      for (int off = 0; off < length; ) {
+        int blockEnd = off + bgzfBlockSize(group, off, length);
+        int dataStart = off + 12 + unsignedShort(group, off + 10);
+        int inputSize = (int) unsignedInt(group, blockEnd - 4);
+        inflater.reset();
+        inflater.setInput(group, dataStart, blockEnd - 8 - dataStart);
+        int inflated = 0;
+        while (!inflater.finished()) {
+          int count =
+              inflated < inputSize
+                  ? inflater.inflate(output, outputPosition + inflated, inputSize - inflated)
+                  : inflater.inflate(overflow);
+          if (count == 0
+              && !inflater.finished()
+              && (inflater.needsInput() || inflater.needsDictionary())) {
+            throw new ZipException("Corrupt BGZF block");
+          }
+          inflated += count;
+          if (inflated > inputSize) {
+            throw new ZipException("Corrupt BGZF block: invalid size");
+          }
+        }
+        if (inflated != inputSize) {
+          throw new ZipException("Corrupt BGZF block: invalid size");
+        }
+        crc.reset();
+        crc.update(output, outputPosition, inputSize);
+        if (crc.getValue() != unsignedInt(group, blockEnd - 8)) {
+          throw new ZipException("Corrupt BGZF block: invalid CRC");
+        }
+        outputPosition += inputSize;
+        off = blockEnd;
+      }
+      return output;
+    } catch (DataFormatException e) {
+      throw new ZipException("Corrupt BGZF block: " + e.getMessage());
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private static int unsignedShort(byte[] b, int off) {
+    return (b[off] & 0xff) | (b[off + 1] & 0xff) << 8;
+  }
+
+  private static long unsignedInt(byte[] b, int off) {
+    return unsignedShort(b, off) | (long) unsignedShort(b, off + 2) << 16;
+  }
+
+  /** Reads from the position until the array is full or the end of the file. */
+  private static int read(FileChannel channel, byte[] b, long position) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(b);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        break;
+      }
+    }
+    return buffer.position();
+  }
+
+  private static InputStream newInputStream(FileChannel channel, long position)
+      throws IOException {
+    return new BufferedInputStream(Channels.newInputStream(channel.position(position)), CHUNK_SIZE);
+  }
+}
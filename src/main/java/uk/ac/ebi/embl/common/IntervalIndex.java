@@ -0,0 +1,150 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.common;
+
+import java.util.Arrays;
+
+/**
+ * Finds the closed intervals that overlap a range of positions in O(log n + k) time.
+ *
+ * <p>The intervals are sorted by begin position and stored as an implicit binary search tree: the
+ * node at index i is at level k if i has k trailing one bits, and each node keeps the highest end
+ * position of its subtree.
+ */
+public class IntervalIndex {
+
+  /** The subtrees this small are scanned instead of searched. */
+  private static final int SCAN_LEVEL = 3;
+
+  /** The number of each interval, in order of begin position. */
+  private final int[] intervals;
+
+  private final long[] begins;
+  private final long[] ends;
+
+  /** The highest end position of the subtree rooted at each interval. */
+  private final long[] maxEnds;
+
+  private final int rootLevel;
+
+  /**
+   * Indexes the intervals from begins[i] to ends[i]. The intervals are numbered by their index in
+   * the arrays.
+   */
+  public IntervalIndex(long[] begins, long[] ends) {
+    int n = begins.length;
+    // The sort is stable so intervals with the same begin position stay in order.
+    Integer[] sorted = new Integer[n];
+    for (int i = 0; i < n; i++) {
+      sorted[i] = i;
+    }
+    Arrays.sort(sorted, (i, j) -> Long.compare(begins[i], begins[j]));
+    this.intervals = new int[n];
+    this.begins = new long[n];
+    this.ends = new long[n];
+    this.maxEnds = new long[n];
+    for (int i = 0; i < n; i++) {
+      intervals[i] = sorted[i];
+      this.begins[i] = begins[intervals[i]];
+      this.ends[i] = ends[intervals[i]];
+    }
+    rootLevel = buildMaxEnds();
+  }
+
+  /** Returns the number of the intervals that overlap the closed range, in increasing order. */
+  public int[] getOverlapping(long beginPosition, long endPosition) {
+    int[] result = new int[16];
+    int count = 0;
+    if (begins.length > 0 && beginPosition <= endPosition) {
+      // The subtrees to visit: the root, the level and whether the left child has been visited.
+      long[] stackRoots = new long[64];
+      int[] stackLevels = new int[64];
+      boolean[] stackLeftDone = new boolean[64];
+      int top = 0;
+      stackRoots[top] = (1L << rootLevel) - 1;
+      stackLevels[top] = rootLevel;
+      stackLeftDone[top++] = false;
+      while (top > 0) {
+        long root = stackRoots[--top];
+        int level = stackLevels[top];
+        if (level <= SCAN_LEVEL) {
+          long first = root >> level << level;
+          long last = Math.min(first + (1L << (level + 1)) - 1, begins.length);
+          for (int i = (int) first; i < last && begins[i] <= endPosition; i++) {
+            if (ends[i] >= beginPosition) {
+              if (count == result.length) {
+                result = Arrays.copyOf(result, count * 2);
+              }
+              result[count++] = intervals[i];
+            }
+          }
+        } else if (!stackLeftDone[top]) {
+          long left = root - (1L << (level - 1));
+          stackLeftDone[top++] = true;
+          // A left child past the last interval has none of its own but may have some below it.
+          if (left >= begins.length || maxEnds[(int) left] >= beginPosition) {
+            stackRoots[top] = left;
+            stackLevels[top] = level - 1;
+            stackLeftDone[top++] = false;
+          }
+        } else if (root < begins.length && begins[(int) root] <= endPosition) {
+          if (ends[(int) root] >= beginPosition) {
+            if (count == result.length) {
+              result = Arrays.copyOf(result, count * 2);
+            }
+            result[count++] = intervals[(int) root];
+          }
+          stackRoots[top] = root + (1L << (level - 1));
+          stackLevels[top] = level - 1;
+          stackLeftDone[top++] = false;
+        }
+      }
+    }
+    result = Arrays.copyOf(result, count);
+    Arrays.sort(result);
+    return result;
+  }
+
+  /** Returns the number of intervals. */
+  public int size() {
+    return begins.length;
+  }
+
+  /** Sets the highest end position of each subtree and returns the level of the root. */
+  private int buildMaxEnds() {
+    int n = begins.length;
+    if (n == 0) {
+      return 0;
+    }
+    int lastIndex = 0;
+    long lastMaxEnd = 0;
+    for (int i = 0; i < n; i += 2) {
+      lastIndex = i;
+      lastMaxEnd = maxEnds[i] = ends[i];
+    }
+    int level = 1;
+    for (; (1L << level) <= n; level++) {
+      int childOffset = 1 << (level - 1);
+      for (long i = (childOffset << 1) - 1; i < n; i += (long) childOffset << 2) {
+        long leftMaxEnd = maxEnds[(int) (i - childOffset)];
+        // A node whose right child is past the last interval takes the end of the last subtree.
+        long rightMaxEnd = i + childOffset < n ? maxEnds[(int) (i + childOffset)] : lastMaxEnd;
+        maxEnds[(int) i] = Math.max(ends[(int) i], Math.max(leftMaxEnd, rightMaxEnd));
+      }
+      lastIndex =
+          ((lastIndex >> level) & 1) != 0 ? lastIndex - childOffset : lastIndex + childOffset;
+      if (lastIndex < n && maxEnds[lastIndex] > lastMaxEnd) {
+        lastMaxEnd = maxEnds[lastIndex];
+      }
+    }
+    return level - 1;
+  }
+}
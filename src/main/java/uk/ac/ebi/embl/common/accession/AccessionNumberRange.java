@@ -0,0 +1,183 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.common.accession;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import uk.ac.ebi.embl.api.AccessionMatcher;
+
+/**
+ * The accessions of an {@link AccessionRange}, stored as the accession prefix and the first and
+ * last accession numbers. The accessions are formatted when they are needed, by padding the
+ * number with zeros to the length of the first accession number.
+ */
+public class AccessionNumberRange extends AbstractList<String> implements RandomAccess {
+
+  /** The first and last number of a range of a single accession without a number. */
+  private static final long NO_NUMBER = -1;
+
+  private final String prefix;
+  private final int width;
+  private final long first;
+  private final long last;
+
+  private AccessionNumberRange(String prefix, int width, long first, long last) {
+    this.prefix = prefix;
+    this.width = width;
+    this.first = first;
+    this.last = last;
+  }
+
+  /**
+   * Returns the accessions of the range, or null if the first or last accession of a range of
+   * more than one accession is not a sequence accession.
+   */
+  public static AccessionNumberRange of(AccessionRange range) {
+    if (range.getFrom().equals(range.getTo())) {
+      return new AccessionNumberRange(range.getFrom(), 0, NO_NUMBER, NO_NUMBER);
+    }
+    AccessionMatcher.Accession from = AccessionMatcher.getSplittedAccession(range.getFrom());
+    AccessionMatcher.Accession to = AccessionMatcher.getSplittedAccession(range.getTo());
+    if (from == null || to == null) {
+      return null;
+    }
+    return new AccessionNumberRange(
+        from.prefix + (from.version == null ? "" : from.version),
+        from.number.length(),
+        Long.parseLong(from.number),
+        Long.parseLong(to.number));
+  }
+
+  /**
+   * Returns the number of accessions. Accession numbers have at most nine digits, so the number
+   * fits in an int; a range that did not would throw an {@link ArithmeticException}.
+   */
+  @Override
+  public int size() {
+    return Math.toIntExact(Math.max(0, last - first + 1));
+  }
+
+  @Override
+  public String get(int index) {
+    if (index < 0 || index >= size()) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+    }
+    if (first == NO_NUMBER) {
+      return prefix;
+    }
+    return format(first + index, newBuffer());
+  }
+
+  /** Returns the first accession of the range. */
+  public String getFirst() {
+    return get(0);
+  }
+
+  /** Returns the last accession of the range. */
+  public String getLast() {
+    return get(size() - 1);
+  }
+
+  /**
+   * Returns true if all accessions have the same length, in which case they are in the same order
+   * as their numbers.
+   */
+  boolean hasFixedWidth() {
+    return first == NO_NUMBER || digits(last) <= width;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return indexOf(o) != -1;
+  }
+
+  @Override
+  public int indexOf(Object o) {
+    if (!(o instanceof String)) {
+      return -1;
+    }
+    String accession = (String) o;
+    if (first == NO_NUMBER) {
+      return prefix.equals(accession) ? 0 : -1;
+    }
+    int length = accession.length() - prefix.length();
+    if (length <= 0 || length > 18 || !accession.startsWith(prefix)) {
+      return -1;
+    }
+    long number = 0;
+    for (int i = prefix.length(); i < accession.length(); i++) {
+      char c = accession.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      number = number * 10 + (c - '0');
+    }
+    // The number must be padded to the width and no further.
+    if (number < first || number > last || length != Math.max(width, digits(number))) {
+      return -1;
+    }
+    return (int) (number - first);
+  }
+
+  @Override
+  public int lastIndexOf(Object o) {
+    return indexOf(o);
+  }
+
+  /** Iterates over the accessions, formatting them into a buffer that is reused. */
+  @Override
+  public Iterator<String> iterator() {
+    return new Iterator<String>() {
+      private final char[] buffer = newBuffer();
+      private int index = 0;
+
+      @Override
+      public boolean hasNext() {
+        return index < size();
+      }
+
+      @Override
+      public String next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        int current = index++;
+        return first == NO_NUMBER ? prefix : format(first + current, buffer);
+      }
+    };
+  }
+
+  private char[] newBuffer() {
+    char[] buffer = new char[prefix.length() + Math.max(width, 19)];
+    prefix.getChars(0, prefix.length(), buffer, 0);
+    return buffer;
+  }
+
+  private String format(long number, char[] buffer) {
+    int length = prefix.length() + Math.max(width, digits(number));
+    for (int i = length - 1; i >= prefix.length(); i--) {
+      buffer[i] = (char) ('0' + number % 10);
+      number /= 10;
+    }
+    return new String(buffer, 0, length);
+  }
+
+  private static int digits(long number) {
+    int digits = 1;
+    while (number >= 10) {
+      number /= 10;
+      digits++;
+    }
+    return digits;
+  }
+}
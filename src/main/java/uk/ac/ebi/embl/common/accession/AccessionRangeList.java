@@ -0,0 +1,139 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.common.accession;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.TreeSet;
+
+/**
+ * The sorted, distinct accessions of a number of accession ranges. If the ranges do not overlap
+ * then the accessions are formatted when they are needed instead of being stored; otherwise they
+ * are stored as before.
+ */
+public class AccessionRangeList extends AbstractList<String> implements RandomAccess {
+
+  private final List<AccessionNumberRange> ranges;
+
+  /** The index of the first accession of each range. */
+  private final int[] offsets;
+
+  private final int size;
+
+  private AccessionRangeList(List<AccessionNumberRange> ranges) {
+    this.ranges = ranges;
+    this.offsets = new int[ranges.size()];
+    int size = 0;
+    for (int i = 0; i < ranges.size(); i++) {
+      offsets[i] = size;
+      size += ranges.get(i).size();
+    }
+    this.size = size;
+  }
+
+  /** Returns the sorted, distinct accessions of the ranges as an unmodifiable list. */
+  public static List<String> of(List<AccessionNumberRange> accessionRanges) {
+    List<AccessionNumberRange> ranges = new ArrayList<>();
+    for (AccessionNumberRange range : accessionRanges) {
+      if (!range.isEmpty()) {
+        ranges.add(range);
+      }
+    }
+    ranges.sort(Comparator.comparing(AccessionNumberRange::getFirst));
+    boolean disjoint = true;
+    for (int i = 0; i < ranges.size() && disjoint; i++) {
+      disjoint =
+          ranges.get(i).hasFixedWidth()
+              && (i == 0 || ranges.get(i - 1).getLast().compareTo(ranges.get(i).getFirst()) < 0);
+    }
+    if (disjoint) {
+      return new AccessionRangeList(ranges);
+    }
+    TreeSet<String> accessions = new TreeSet<>();
+    for (AccessionNumberRange range : ranges) {
+      accessions.addAll(range);
+    }
+    return Collections.unmodifiableList(new ArrayList<>(accessions));
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public String get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+    int range = Arrays.binarySearch(offsets, index);
+    if (range < 0) {
+      range = -range - 2;
+    }
+    // Skip to the last range starting at the index.
+    while (range + 1 < offsets.length && offsets[range + 1] == index) {
+      range++;
+    }
+    return ranges.get(range).get(index - offsets[range]);
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return indexOf(o) != -1;
+  }
+
+  @Override
+  public int indexOf(Object o) {
+    for (int i = 0; i < ranges.size(); i++) {
+      int index = ranges.get(i).indexOf(o);
+      if (index != -1) {
+        return offsets[i] + index;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public int lastIndexOf(Object o) {
+    return indexOf(o);
+  }
+
+  @Override
+  public Iterator<String> iterator() {
+    return new Iterator<String>() {
+      private final Iterator<AccessionNumberRange> rangeIterator = ranges.iterator();
+      private Iterator<String> accessionIterator = Collections.emptyIterator();
+
+      @Override
+      public boolean hasNext() {
+        while (!accessionIterator.hasNext() && rangeIterator.hasNext()) {
+          accessionIterator = rangeIterator.next().iterator();
+        }
+        return accessionIterator.hasNext();
+      }
+
+      @Override
+      public String next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return accessionIterator.next();
+      }
+    };
+  }
+}
@@ -13,8 +13,6 @@ package uk.ac.ebi.embl.common.accession;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Set;
-import java.util.TreeSet;
 import org.apache.commons.lang3.StringUtils;
 import uk.ac.ebi.embl.api.AccessionMatcher;
 import uk.ac.ebi.embl.common.exceptions.AccessionValidationException;
@@ -98,6 +96,32 @@ public class SequenceAccessionRangeSplitter {
    */
   public static List<String> getAccessions(
       String rangesStr, String rangesSeparator, String accessionsSeparator) {
+    return new ArrayList<>(getAccessionList(rangesStr, rangesSeparator, accessionsSeparator));
+  }
+
+  /**
+   * Uses {@value #DEFAULT_RANGES_SEPARATOR} and {@value #DEFAULT_ACCESSIONS_SEPARATOR} as default
+   * ranges and accessions separators.
+   *
+   * @param rangesStr
+   * @return Unmodifiable list of all accessions found in the given string.
+   */
+  public static List<String> getAccessionList(String rangesStr) {
+    return getAccessionList(rangesStr, DEFAULT_RANGES_SEPARATOR, DEFAULT_ACCESSIONS_SEPARATOR);
+  }
+
+  /**
+   * Get the same accessions as {@link #getAccessions(String, String, String)} as an unmodifiable
+   * list. The accessions of ranges that do not overlap are not stored but formatted when they are
+   * needed, and the size of the list, {@code contains} and {@code get} do not iterate over them.
+   *
+   * @param rangesStr
+   * @param rangesSeparator
+   * @param accessionsSeparator
+   * @return
+   */
+  public static List<String> getAccessionList(
+      String rangesStr, String rangesSeparator, String accessionsSeparator) {
     if (rangesStr == null) {
       return Collections.emptyList();
     }
@@ -109,28 +133,16 @@ public class SequenceAccessionRangeSplitter {
       throw new AccessionValidationException("Unable to get extract ranges.", rangesStr);
     }
 
-    Set<String> accessions = new TreeSet<>();
+    List<AccessionNumberRange> numberRanges = new ArrayList<>(ranges.size());
     for (AccessionRange range : ranges) {
-      if (range.getFrom().equals(range.getTo())) {
-        accessions.add(range.getFrom());
-      } else {
-        AccessionMatcher.Accession from = AccessionMatcher.getSplittedAccession(range.getFrom());
-        AccessionMatcher.Accession to = AccessionMatcher.getSplittedAccession(range.getTo());
-        if (from == null || to == null) {
-          throw new AccessionValidationException(
-              "Unable to extract accessions from range : " + range, rangesStr);
-        }
-        for (int i = Integer.parseInt(from.number); i <= Integer.parseInt(to.number); i++) {
-          String prefix = from.prefix + (from.version == null ? "" : from.version);
-          for (int j = 0; j < from.number.length() - String.valueOf(i).length(); j++) {
-            prefix += "0";
-          }
-          accessions.add(prefix + i);
-        }
+      AccessionNumberRange numberRange = AccessionNumberRange.of(range);
+      if (numberRange == null) {
+        throw new AccessionValidationException(
+            "Unable to extract accessions from range : " + range, rangesStr);
       }
+      numberRanges.add(numberRange);
     }
-
-    return new ArrayList<>(accessions);
+    return AccessionRangeList.of(numberRanges);
   }
 
   /**
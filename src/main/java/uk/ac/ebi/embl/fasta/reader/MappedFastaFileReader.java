@@ -0,0 +1,375 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.fasta.reader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import uk.ac.ebi.embl.api.entry.Entry;
+import uk.ac.ebi.embl.api.entry.EntryFactory;
+import uk.ac.ebi.embl.api.entry.Text;
+import uk.ac.ebi.embl.api.entry.sequence.Sequence.Topology;
+import uk.ac.ebi.embl.api.entry.sequence.SequenceFactory;
+import uk.ac.ebi.embl.api.validation.FlatFileOrigin;
+import uk.ac.ebi.embl.api.validation.Severity;
+import uk.ac.ebi.embl.api.validation.ValidationMessageManager;
+import uk.ac.ebi.embl.api.validation.ValidationResult;
+import uk.ac.ebi.embl.api.validation.fixer.entry.SubmitterAccessionFix;
+import uk.ac.ebi.embl.flatfile.FlatFileUtils;
+import uk.ac.ebi.embl.flatfile.reader.FlatFileReader;
+import uk.ac.ebi.embl.flatfile.reader.SequenceReader;
+import uk.ac.ebi.embl.flatfile.validation.FlatFileValidations;
+
+/**
+ * FASTA reader that scans an uncompressed file through memory mapped regions instead of a {@link
+ * java.io.BufferedReader}. Residues are translated straight from the mapped bytes into a sequence
+ * array that is sized exactly by a first counting pass over the entry, so no per line strings or
+ * intermediate buffers are created. Headers, line numbers and validation messages are identical to
+ * {@link FastaFileReader} with a {@link FastaLineReader}.
+ */
+public class MappedFastaFileReader implements FlatFileReader<Entry> {
+
+  private static final int SEGMENT_SHIFT = 30;
+  private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+  private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+  private static final String OBJECT_NAME_REGEX = "^>\\s*([^\\s*\\|]*)(.*)$";
+  private static final Pattern objectNamePattern = Pattern.compile(OBJECT_NAME_REGEX);
+
+  private final MappedByteBuffer[] segments;
+  private final long size;
+  private final Charset charset = Charset.defaultCharset();
+
+  private final LineCursor cursor = new LineCursor();
+
+  private ValidationResult validationResult;
+  private Entry entry;
+  private boolean isEntry;
+
+  /**
+   * Maps the file in segments of at most 1 GB. The mappings stay valid after the channel is closed
+   * and are released when the reader is garbage collected.
+   */
+  public MappedFastaFileReader(File file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      this.size = channel.size();
+      int segmentCount = (int) ((size + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT);
+      this.segments = new MappedByteBuffer[segmentCount];
+      for (int i = 0; i < segmentCount; i++) {
+        long offset = (long) i << SEGMENT_SHIFT;
+        long length = Math.min(SEGMENT_SIZE, size - offset);
+        segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+      }
+    }
+  }
+
+  @Override
+  public ValidationResult read() throws IOException {
+    ValidationMessageManager.addBundle(FlatFileValidations.FLAT_FILE_BUNDLE);
+    ValidationMessageManager.addBundle(ValidationMessageManager.STANDARD_VALIDATION_BUNDLE);
+    validationResult = new ValidationResult();
+    readLines();
+    if (entry != null) {
+      SubmitterAccessionFix.fix(entry);
+    }
+    return validationResult;
+  }
+
+  @Override
+  public ValidationResult skip() {
+    return new ValidationResult();
+  }
+
+  private void readLines() throws IOException {
+    isEntry = false;
+    cursor.readLine();
+    if (!cursor.hasCurrent) {
+      return;
+    }
+    entry = (new EntryFactory()).createEntry();
+    entry.setSequence((new SequenceFactory()).createSequence());
+    entry.getSequence().setTopology(Topology.LINEAR);
+
+    String header = decode(cursor.currentStart, cursor.currentEnd);
+    Matcher matcher = objectNamePattern.matcher(header);
+    if (matcher.matches()) {
+      entry.setSubmitterAccession(SubmitterAccessionFix.fix(matcher.group(1)));
+      entry.setComment(new Text(FlatFileUtils.trimRight(header, 1)));
+      isEntry = true;
+    }
+    if (!cursor.isNextTag()) {
+      cursor.readLine();
+      try {
+        readSequence();
+      } catch (Exception e) {
+        String entryname =
+            entry.getPrimaryAccession() == null
+                ? entry.getSubmitterAccession()
+                : entry.getPrimaryAccession();
+        if (entryname == null)
+          throw new IOException(
+              "Invalid Sequence:Failed to read the Sequence at line :" + getCurrentLine(), e);
+        else
+          throw new IOException(
+              "Invalid Sequence:Failed to read the Sequence of : " + entryname, e);
+      }
+    }
+  }
+
+  /**
+   * Reads the sequence lines of the current entry. The first pass counts the residues to size the
+   * sequence array, the second pass translates the mapped bytes into it.
+   */
+  private void readSequence() throws IOException {
+    if (!cursor.hasCurrent) {
+      throw new IOException("Missing sequence");
+    }
+    int firstLineNumber = cursor.currentLineNumber;
+
+    LineCursor counter = cursor.copy();
+    long length = 0;
+    while (true) {
+      length += countBases(counter.currentStart, counter.currentEnd);
+      if (length > SequenceReader.MAX_SEQUENCE_LENGTH) {
+        throw new IOException(
+            "Maximum supported sequence size " + SequenceReader.MAX_SEQUENCE_LENGTH + " exceeded");
+      }
+      if (counter.isNextTag() || !counter.hasNext) {
+        break;
+      }
+      counter.readLine();
+    }
+
+    byte[] sequence = new byte[(int) length];
+    int position = 0;
+    int lastLineNumber;
+    while (true) {
+      lastLineNumber = cursor.currentLineNumber;
+      position = translateBases(cursor.currentStart, cursor.currentEnd, sequence, position);
+      if (cursor.isNextTag() || !cursor.hasNext) {
+        break;
+      }
+      cursor.readLine();
+    }
+
+    entry.getSequence().setSequence(ByteBuffer.wrap(sequence));
+    entry.getSequence().setOrigin(new FlatFileOrigin(null, firstLineNumber, lastLineNumber));
+  }
+
+  private long countBases(long start, long end) throws IOException {
+    end = trimEnd(start, end);
+    start = trimStart(start, end);
+    long count = 0;
+    for (long i = start; i < end; i++) {
+      byte base = byteAt(i);
+      if (base < 0) {
+        throw new IOException("Invalid character in sequence at byte offset " + i);
+      }
+      byte c = SequenceReader.translateDNABase(base == '\t' ? (byte) ' ' : base);
+      if (c != 0 && c != SequenceReader.SUBSTITUTION) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private int translateBases(long start, long end, byte[] sequence, int position) {
+    end = trimEnd(start, end);
+    start = trimStart(start, end);
+    for (long i = start; i < end; i++) {
+      byte base = byteAt(i);
+      if (base == '\t') {
+        continue;
+      }
+      byte c = SequenceReader.translateDNABase(base);
+      if (0 == c) {
+        validationResult.append(
+            FlatFileValidations.message(
+                cursor.currentLineNumber, Severity.ERROR, "SQ.1", (char) base));
+      } else if (SequenceReader.SUBSTITUTION != c) {
+        sequence[position++] = c;
+      }
+    }
+    return position;
+  }
+
+  private String getCurrentLine() {
+    if (!cursor.hasCurrent) {
+      return null;
+    }
+    String line = decode(cursor.currentStart, cursor.currentEnd);
+    return cursor.isTag(cursor.currentStart, cursor.currentEnd)
+        ? FlatFileUtils.trimRight(line, 1)
+        : line.trim();
+  }
+
+  private String decode(long start, long end) {
+    byte[] bytes = new byte[(int) (end - start)];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = byteAt(start + i);
+    }
+    return new String(bytes, charset).replace('\t', ' ');
+  }
+
+  private byte byteAt(long position) {
+    return segments[(int) (position >>> SEGMENT_SHIFT)].get((int) (position & SEGMENT_MASK));
+  }
+
+  /** Returns true if the byte would be removed by {@link String#trim()}. */
+  private static boolean isBlank(byte b) {
+    return (b & 0xFF) <= ' ';
+  }
+
+  private long trimStart(long start, long end) {
+    while (start < end && isBlank(byteAt(start))) {
+      start++;
+    }
+    return start;
+  }
+
+  private long trimEnd(long start, long end) {
+    while (end > start && isBlank(byteAt(end - 1))) {
+      end--;
+    }
+    return end;
+  }
+
+  @Override
+  public Entry getEntry() {
+    return entry;
+  }
+
+  @Override
+  public boolean isEntry() {
+    return isEntry;
+  }
+
+  /**
+   * Keeps the current and the next non blank line as offsets into the mapped file. Line numbering
+   * and blank line skipping follow {@link uk.ac.ebi.embl.flatfile.reader.LineReader} so that
+   * message line numbers match the buffered reader.
+   */
+  private final class LineCursor {
+    private long position;
+
+    private boolean hasCurrent;
+    private long currentStart;
+    private long currentEnd;
+    private int currentLineNumber;
+
+    private boolean hasNext;
+    private long nextStart;
+    private long nextEnd;
+    private int nextLineNumber;
+
+    private long lineStart;
+    private long lineEnd;
+
+    LineCursor copy() {
+      LineCursor copy = new LineCursor();
+      copy.position = position;
+      copy.hasCurrent = hasCurrent;
+      copy.currentStart = currentStart;
+      copy.currentEnd = currentEnd;
+      copy.currentLineNumber = currentLineNumber;
+      copy.hasNext = hasNext;
+      copy.nextStart = nextStart;
+      copy.nextEnd = nextEnd;
+      copy.nextLineNumber = nextLineNumber;
+      return copy;
+    }
+
+    boolean readLine() {
+      if (currentLineNumber == 0) {
+        while (true) {
+          boolean found = readPhysicalLine();
+          ++currentLineNumber;
+          ++nextLineNumber;
+          if (found && isSkipLine(lineStart, lineEnd)) {
+            continue;
+          }
+          hasCurrent = found;
+          currentStart = lineStart;
+          currentEnd = lineEnd;
+          break;
+        }
+      } else {
+        hasCurrent = hasNext;
+        currentStart = nextStart;
+        currentEnd = nextEnd;
+        currentLineNumber = nextLineNumber;
+      }
+      if (!hasCurrent) {
+        return false;
+      }
+      while (true) {
+        boolean found = readPhysicalLine();
+        ++nextLineNumber;
+        if (found && isSkipLine(lineStart, lineEnd)) {
+          continue;
+        }
+        hasNext = found;
+        nextStart = lineStart;
+        nextEnd = lineEnd;
+        break;
+      }
+      return true;
+    }
+
+    boolean isNextTag() {
+      return hasNext && isTag(nextStart, nextEnd);
+    }
+
+    boolean isTag(long start, long end) {
+      return end > start && byteAt(start) == '>';
+    }
+
+    private boolean isSkipLine(long start, long end) {
+      for (long i = start; i < end; i++) {
+        if (!isBlank(byteAt(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /** Finds the next line terminated by \n, \r or \r\n as {@link java.io.BufferedReader} does. */
+    private boolean readPhysicalLine() {
+      if (position >= size) {
+        return false;
+      }
+      lineStart = position;
+      while (position < size) {
+        byte b = byteAt(position);
+        if (b == '\n') {
+          lineEnd = position++;
+          return true;
+        }
+        if (b == '\r') {
+          lineEnd = position++;
+          if (position < size && byteAt(position) == '\n') {
+            position++;
+          }
+          return true;
+        }
+        position++;
+      }
+      lineEnd = position;
+      return true;
+    }
+  }
+}
@@ -12,9 +12,15 @@ package uk.ac.ebi.embl.fasta.writer;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import uk.ac.ebi.embl.api.entry.Entry;
+import uk.ac.ebi.embl.api.entry.sequence.Sequence;
 
 public class FastaSequenceWriter {
+  private static final int LINE_LENGTH = 60;
+  // A whole number of lines of bases copied from the sequence at a time.
+  private static final int CHUNK_SIZE = LINE_LENGTH * 1024;
+
   Writer writer;
   Entry entry;
 
@@ -24,21 +30,19 @@ public class FastaSequenceWriter {
   }
 
   public void write() throws IOException {
-    byte[] sequence = entry.getSequence().getSequenceByte();
-    StringBuffer line = new StringBuffer();
-    int i = 0;
-    for (byte sequenceByte : sequence) {
-      line.append((char) sequenceByte);
-      if ((line.length()) % 60 == 0 && line.length() != 0) {
-        if (i > 0) writer.write("\n");
-        writer.write(line.toString().toUpperCase().trim());
-        line = new StringBuffer();
-        i++;
+    Sequence sequence = entry.getSequence();
+    byte[] chunk = new byte[CHUNK_SIZE];
+    long position = 1;
+    int chunkLength;
+    while ((chunkLength = sequence.copySequenceByte(position, chunk)) > 0) {
+      for (int offset = 0; offset < chunkLength; offset += LINE_LENGTH) {
+        if (position + offset > 1) writer.write("\n");
+        int lineLength = Math.min(LINE_LENGTH, chunkLength - offset);
+        String line =
+            new String(chunk, offset, lineLength, StandardCharsets.ISO_8859_1).toUpperCase();
+        writer.write(lineLength == LINE_LENGTH ? line.trim() : line);
       }
-    }
-    if (line.length() > 0) {
-      if (i > 0) writer.write("\n");
-      writer.write(line.toString().toUpperCase());
+      position += chunkLength;
     }
   }
 }
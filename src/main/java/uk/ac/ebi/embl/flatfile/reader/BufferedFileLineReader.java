@@ -14,6 +14,8 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 /**
  * @author simonk
@@ -26,11 +28,15 @@ public class BufferedFileLineReader implements ILineReader {
   // For efficiency reasons, we define a byte buffer instead of char buffer.
   // The variables buf_end, buf_pos, and real_pos are used to record the
   // effective positions on the buffer:
-  private final byte[] buffer;
+  private byte[] buffer;
   private int buf_end = 0;
   private int buf_pos = 0;
   private long real_pos = 0;
 
+  // The current line is a view of the buffer.
+  private int line_pos = 0;
+  private int line_len = 0;
+
   private final RandomAccessFile raf;
 
   private final String name;
@@ -70,10 +76,14 @@ public class BufferedFileLineReader implements ILineReader {
    * @throws IOException
    */
   public BufferedFileLineReader(final RandomAccessFile raf) throws IOException {
+    this(raf, BUF_SIZE);
+  }
+
+  BufferedFileLineReader(final RandomAccessFile raf, int bufferSize) throws IOException {
 
     this.raf = raf;
     this.name = raf.getFD().toString();
-    this.buffer = new byte[BUF_SIZE];
+    this.buffer = new byte[bufferSize];
   }
 
   /**
@@ -132,98 +142,120 @@ public class BufferedFileLineReader implements ILineReader {
   }
 
   /**
-   * This method first decides if the buffer still contains unread contents. If it doesn't, the
-   * buffer needs to be filled up. If the new line delimiter can be found in the buffer, then a new
-   * line is read from the buffer and converted into String. Otherwise, it will simply call the read
-   * method to read byte by byte. Although the code of the latter portion is similar to the original
-   * readLine, performance is better here because the read method is buffered in the new class.
+   * Reads the next line and converts it into a String. The line is decoded as ISO-8859-1 and the
+   * line terminator is removed.
    *
-   * @see uk.ac.ebi.embl.flatfile.reader.ILineReader#readline()
+   * @see uk.ac.ebi.embl.flatfile.reader.ILineReader#readLine()
    */
   @Override
   public final String readLine() throws IOException {
-
-    String str = null;
-
-    if (buf_end - buf_pos <= 0) {
-      if (fillBuffer() < 0) {
-        // return null if we are at the end and there is nothing to read
-        return null;
-      }
-    }
-
-    int lineend = -1;
-
-    for (int i = buf_pos; i < buf_end; i++) {
-      if (buffer[i] == '\n') {
-        lineend = i;
-        break;
-      }
+    if (!nextLine()) {
+      return null;
     }
+    return new String(buffer, line_pos, line_len, StandardCharsets.ISO_8859_1);
+  }
 
-    if (lineend < 0) {
-      StringBuffer input = new StringBuffer(256);
-      int c;
-      while (((c = read()) != -1) && (c != '\n')) {
-        input.append((char) c);
-      }
-      if ((c == -1) && (input.length() == 0)) {
-        return null;
+  /**
+   * Advances to the next line without creating a String. The line is available from {@link
+   * #getLineBuffer()}, {@link #getLineOffset()} and {@link #getLineLength()} until the next line is
+   * read. A line that does not fit in the rest of the buffer is moved to the beginning of the
+   * buffer, and the buffer grows if the line is longer than the buffer.
+   *
+   * @return false if there are no more lines
+   * @throws IOException
+   */
+  public final boolean nextLine() throws IOException {
+    int lineend = indexOfNewLine(buf_pos);
+    while (lineend < 0) {
+      int scanned = buf_end - buf_pos;
+      if (!fillBuffer()) {
+        if (buf_pos >= buf_end) {
+          // return false if we are at the end and there is nothing to read
+          return false;
+        }
+        // last line without a line terminator
+        setLine(buf_end);
+        buf_pos = buf_end;
+        return true;
       }
-      return input.toString();
+      lineend = indexOfNewLine(buf_pos + scanned);
     }
+    setLine(lineend);
+    buf_pos = lineend + 1;
+    return true;
+  }
 
-    if (lineend > 0 && buffer[lineend - 1] == '\r') {
-      str = new String(buffer, 0, buf_pos, lineend - buf_pos - 1);
-    } else {
-      str = new String(buffer, 0, buf_pos, lineend - buf_pos);
-    }
+  /** Returns the buffer containing the current line. */
+  public final byte[] getLineBuffer() {
+    return buffer;
+  }
 
-    buf_pos = lineend + 1;
+  /** Returns the offset of the current line in the line buffer. */
+  public final int getLineOffset() {
+    return line_pos;
+  }
 
-    return str;
+  /** Returns the length of the current line without the line terminator. */
+  public final int getLineLength() {
+    return line_len;
   }
 
-  /**
-   * If the buffer position is past the end, calls fillBuffer(). In all cases increments the buffer
-   * position and returns the contents at that position. This presents the most significant
-   * performance gain because the read method is heavily used in the readLine method.
-   *
-   * @throws IOException
-   */
-  private final int read() throws IOException {
+  /** Returns true if the current line starts with the given ASCII prefix. */
+  public final boolean lineStartsWith(String prefix) {
+    if (prefix.length() > line_len) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length(); i++) {
+      if (buffer[line_pos + i] != prefix.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
 
-    if (buf_pos >= buf_end) {
-      if (fillBuffer() < 0) {
-        return -1;
+  private int indexOfNewLine(int from) {
+    for (int i = from; i < buf_end; i++) {
+      if (buffer[i] == '\n') {
+        return i;
       }
     }
+    return -1;
+  }
 
-    if (buf_end == 0) {
-      return -1;
-    } else {
-      return buffer[buf_pos++];
+  private void setLine(int lineend) {
+    line_pos = buf_pos;
+    line_len = lineend - buf_pos;
+    if (lineend < buf_end && line_len > 0 && buffer[lineend - 1] == '\r') {
+      line_len--;
     }
   }
 
   /**
-   * Used to fill the buffer by calling the RAF read() method using the standard buffer size. If the
-   * read was successful, the real position is incremented by the number of bytes read and the
-   * buffer end is set to the number of bytes read.
+   * Reads more of the file into the buffer after the unread contents, which are first moved to the
+   * beginning of the buffer. The buffer grows if it is full of unread contents. The real position
+   * is incremented by the number of bytes read.
    *
-   * @return the number of bytes read
+   * @return false if the end of the file has been reached
    * @throws IOException
    */
-  private int fillBuffer() throws IOException {
-
-    int bytesRead = raf.read(buffer, 0, BUF_SIZE);
-
-    if (bytesRead >= 0) {
-      real_pos += bytesRead;
-      buf_end = bytesRead;
+  private boolean fillBuffer() throws IOException {
+    int unread = buf_end - buf_pos;
+    if (buf_pos > 0) {
+      System.arraycopy(buffer, buf_pos, buffer, 0, unread);
       buf_pos = 0;
+      buf_end = unread;
+    }
+    if (buf_end == buffer.length) {
+      buffer = Arrays.copyOf(buffer, buffer.length * 2);
     }
 
-    return bytesRead;
+    int bytesRead = raf.read(buffer, buf_end, buffer.length - buf_end);
+
+    if (bytesRead < 0) {
+      return false;
+    }
+    real_pos += bytesRead;
+    buf_end += bytesRead;
+    return true;
   }
 }
@@ -25,10 +25,10 @@ public class FeatureLocationParser {
   private static final Pattern BASE_PATTERN = Pattern.compile("(\\d+)");
   private static final Pattern RANGE_PATTERN = Pattern.compile("(\\d+)(..)(\\d+)");
 
-  Pattern COMPOUND_LOCATION_PATTERN =
+  private static final Pattern COMPOUND_LOCATION_PATTERN =
       Pattern.compile("(?:(\\s*complement\\s*\\()?\\s*((?:join)|(?:order))?)?\\s*\\(?(.*)");
 
-  Pattern INDIVIDUAL_LOCATION_PATTERN =
+  private static final Pattern INDIVIDUAL_LOCATION_PATTERN =
       Pattern.compile(
           "(\\s*complement\\s*\\()?\\s*(?:(\\w+)\\s*(?:\\.(\\d+))?\\s*\\:\\s*)?\\s*(<)?(?:(\\d+)?\\s*(?:((?:\\.\\.)?|(?:\\^))\\s*(>)?\\s*(\\d+))?)\\)?\\s*\\)?");
 
@@ -48,6 +48,24 @@ public class FeatureLocationParser {
    * @return
    */
   public CompoundLocation<Location> getCompoundLocation(String locationString) {
+    return getCompoundLocation((CharSequence) locationString);
+  }
+
+  /**
+   * Create a CompoundLocation for a given location. Locations without whitespace, written with
+   * complement, join and order, local or remote bases, ranges and betweens, are parsed in one pass
+   * without creating substrings. Other locations, and the locations that are reported as invalid,
+   * are matched with regular expressions.
+   */
+  public CompoundLocation<Location> getCompoundLocation(CharSequence locationString) {
+    CompoundLocation<Location> compoundLocation = parseCompoundLocation(locationString);
+    if (compoundLocation != null) {
+      return compoundLocation;
+    }
+    return matchCompoundLocation(locationString.toString());
+  }
+
+  CompoundLocation<Location> matchCompoundLocation(String locationString) {
 
     Matcher compoundLocationMatcher = COMPOUND_LOCATION_PATTERN.matcher(locationString);
 
@@ -111,6 +129,14 @@ public class FeatureLocationParser {
    * @return
    */
   public Location getLocation(String locationRange) {
+    Location location = parseLocation(locationRange, 0, locationRange.length());
+    if (location != null) {
+      return location;
+    }
+    return matchLocation(locationRange);
+  }
+
+  Location matchLocation(String locationRange) {
 
     Matcher individualLocationMatcher = INDIVIDUAL_LOCATION_PATTERN.matcher(locationRange);
     LocationFactory locationFactory = new LocationFactory();
@@ -171,6 +197,249 @@ public class FeatureLocationParser {
     return location;
   }
 
+  /**
+   * Parses the compound location, or returns null if it is not in the syntax handled by {@link
+   * #parseLocation} or if its locations are reported as invalid. The result is the same as the one
+   * of {@link #matchCompoundLocation}.
+   */
+  private CompoundLocation<Location> parseCompoundLocation(CharSequence string) {
+    int length = string.length();
+    int pos = 0;
+    boolean isComplement = startsWith(string, pos, length, "complement(");
+    if (isComplement) {
+      pos += "complement(".length();
+    }
+    CompoundLocation<Location> compoundLocation;
+    boolean isJoin = false;
+    if (startsWith(string, pos, length, "join(")) {
+      compoundLocation = new Join<>();
+      isJoin = true;
+      pos += "join(".length();
+    } else if (startsWith(string, pos, length, "order(")) {
+      compoundLocation = new Order<>();
+      pos += "order(".length();
+    } else if (startsWith(string, pos, length, "join")
+        || startsWith(string, pos, length, "order")) {
+      return null;
+    } else {
+      compoundLocation = new Join<>();
+      if (pos < length && string.charAt(pos) == '(') {
+        pos++;
+      }
+    }
+
+    int regionCount = 0;
+    int firstRegionStart = -1;
+    int firstRegionEnd = -1;
+    while (pos <= length) {
+      int regionEnd = pos;
+      while (regionEnd < length && string.charAt(regionEnd) != ',') {
+        regionEnd++;
+      }
+      if (regionEnd > pos) {
+        Location location = parseLocation(string, pos, regionEnd);
+        if (location == null) {
+          return null;
+        }
+        compoundLocation.addLocation(location);
+        if (regionCount++ == 0) {
+          firstRegionStart = pos;
+          firstRegionEnd = regionEnd;
+        }
+      }
+      pos = regionEnd + 1;
+    }
+    if (regionCount == 0) {
+      return null;
+    }
+    if (isJoin && !isIgnoreLocationParseError) {
+      // Only the first and last locations of a join may be partial.
+      for (int i = 1; i < regionCount - 1; i++) {
+        Location location = compoundLocation.getLocations().get(i);
+        if (location.isThreePrimePartial() || location.isFivePrimePartial()) {
+          return null;
+        }
+      }
+    }
+    if (regionCount == 1 && isSimpleRegion(string, firstRegionStart, firstRegionEnd)) {
+      compoundLocation.setSimpleLocation(true);
+    }
+    if (isComplement) {
+      compoundLocation.setComplement(true);
+    }
+    return compoundLocation;
+  }
+
+  /**
+   * Parses a location without whitespace, or returns null if it is not in the syntax handled or if
+   * it is reported as invalid. The syntax is an optional complement, an optional accession with an
+   * optional version, and a base, a range or a between with partiality, followed by at most two
+   * closing brackets. The result is the same as the one of {@link #matchLocation}.
+   */
+  private Location parseLocation(CharSequence string, int start, int end) {
+    int pos = start;
+    boolean isComplement = startsWith(string, pos, end, "complement(");
+    if (isComplement) {
+      pos += "complement(".length();
+    }
+
+    String accession = null;
+    Integer version = null;
+    int accessionEnd = pos;
+    while (accessionEnd < end && isWordChar(string.charAt(accessionEnd))) {
+      accessionEnd++;
+    }
+    if (accessionEnd > pos && accessionEnd < end) {
+      int versionEnd = accessionEnd;
+      if (string.charAt(accessionEnd) == '.') {
+        versionEnd = digitsEnd(string, accessionEnd + 1, end);
+        if (versionEnd == accessionEnd + 1) {
+          versionEnd = -1;
+        }
+      }
+      if (versionEnd >= 0 && versionEnd < end && string.charAt(versionEnd) == ':') {
+        accession = string.subSequence(pos, accessionEnd).toString();
+        if (versionEnd > accessionEnd) {
+          if (versionEnd - accessionEnd - 1 > MAX_INTEGER_DIGITS) {
+            return null;
+          }
+          version = (int) parseDigits(string, accessionEnd + 1, versionEnd);
+        }
+        pos = versionEnd + 1;
+      }
+    }
+
+    boolean isLessThan = pos < end && string.charAt(pos) == '<';
+    if (isLessThan) {
+      pos++;
+    }
+    int beginEnd = digitsEnd(string, pos, end);
+    Long beginPosition = null;
+    String operator = null;
+    boolean isMoreThan = false;
+    Long endPosition = null;
+    if (beginEnd == pos) {
+      // A base written as >position.
+      if (isLessThan || pos >= end || string.charAt(pos) != '>') {
+        return null;
+      }
+      isMoreThan = true;
+      pos++;
+      int positionEnd = digitsEnd(string, pos, end);
+      if (positionEnd == pos || positionEnd - pos > MAX_LONG_DIGITS) {
+        return null;
+      }
+      endPosition = parseDigits(string, pos, positionEnd);
+      pos = positionEnd;
+    } else {
+      if (beginEnd - pos > MAX_LONG_DIGITS) {
+        return null;
+      }
+      beginPosition = parseDigits(string, pos, beginEnd);
+      pos = beginEnd;
+      if (startsWith(string, pos, end, "..")) {
+        operator = "..";
+        pos += 2;
+      } else if (pos < end && string.charAt(pos) == '^') {
+        operator = "^";
+        pos++;
+      }
+      if (operator != null) {
+        isMoreThan = pos < end && string.charAt(pos) == '>';
+        if (isMoreThan) {
+          pos++;
+        }
+        int positionEnd = digitsEnd(string, pos, end);
+        if (positionEnd == pos || positionEnd - pos > MAX_LONG_DIGITS) {
+          return null;
+        }
+        endPosition = parseDigits(string, pos, positionEnd);
+        pos = positionEnd;
+      }
+    }
+    for (int i = 0; i < 2 && pos < end && string.charAt(pos) == ')'; i++) {
+      pos++;
+    }
+    if (pos != end) {
+      return null;
+    }
+
+    LocationFactory locationFactory = new LocationFactory();
+    Location location;
+    if (operator == null) {
+      Long position = isMoreThan ? endPosition : beginPosition;
+      location =
+          accession != null
+              ? locationFactory.createRemoteBase(accession, version, position)
+              : locationFactory.createLocalBase(position);
+    } else if (operator.equals("..")) {
+      location =
+          accession != null
+              ? locationFactory.createRemoteRange(accession, version, beginPosition, endPosition)
+              : locationFactory.createLocalRange(beginPosition, endPosition);
+    } else {
+      location =
+          accession != null
+              ? locationFactory.createRemoteBetween(accession, version, beginPosition, endPosition)
+              : locationFactory.createLocalBetween(beginPosition, endPosition);
+    }
+    location.setComplement(isComplement);
+    setLocationPartiality(location, isLessThan, isMoreThan);
+    return location;
+  }
+
+  private static final int MAX_INTEGER_DIGITS = 9;
+  private static final int MAX_LONG_DIGITS = 18;
+
+  /** Returns true if the region matches {@link #BASE_PATTERN} or {@link #RANGE_PATTERN}. */
+  private static boolean isSimpleRegion(CharSequence string, int start, int end) {
+    int digitsEnd = digitsEnd(string, start, end);
+    if (digitsEnd == end) {
+      return digitsEnd > start;
+    }
+    // Any two characters may separate the numbers of a range.
+    for (int i = start + 1; i <= digitsEnd && i + 2 < end; i++) {
+      if (digitsEnd(string, i + 2, end) == end) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean startsWith(CharSequence string, int pos, int end, String prefix) {
+    if (end - pos < prefix.length()) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length(); i++) {
+      if (string.charAt(pos + i) != prefix.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int digitsEnd(CharSequence string, int pos, int end) {
+    while (pos < end && string.charAt(pos) >= '0' && string.charAt(pos) <= '9') {
+      pos++;
+    }
+    return pos;
+  }
+
+  private static long parseDigits(CharSequence string, int start, int end) {
+    long value = 0;
+    for (int i = start; i < end; i++) {
+      value = value * 10 + (string.charAt(i) - '0');
+    }
+    return value;
+  }
+
+  private static boolean isWordChar(char c) {
+    return (c >= 'a' && c <= 'z')
+        || (c >= 'A' && c <= 'Z')
+        || (c >= '0' && c <= '9')
+        || c == '_';
+  }
+
   /** Sets partiality of individual location range using its 5', 3' and complement. */
   private void setLocationPartiality(Location location, boolean isLessThan, boolean isMoreThan) {
     if (location.isComplement()) {
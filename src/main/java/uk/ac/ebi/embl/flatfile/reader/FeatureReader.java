@@ -224,7 +224,7 @@ public class FeatureReader extends FlatFileLineReader {
     }
     FeatureLocationParser locationParser =
         new FeatureLocationParser(this, lineReader.getReaderOptions().isIgnoreParserErrors());
-    return locationParser.getCompoundLocation(locationBuilder.toString());
+    return locationParser.getCompoundLocation(locationBuilder);
   }
 
   private Qualifier readQualifier() throws IOException {
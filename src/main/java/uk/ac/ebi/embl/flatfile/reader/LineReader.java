@@ -31,6 +31,11 @@ public abstract class LineReader {
 
   private int nextLineNumber = 0;
 
+  // The tags of the current and next lines, computed once per line.
+  private TaggedLine currentTagged = new TaggedLine();
+
+  private TaggedLine nextTagged = new TaggedLine();
+
   private String activeTag;
 
   private String firstLine;
@@ -107,7 +112,7 @@ public abstract class LineReader {
     if (currentLine == null) {
       return false;
     }
-    return isTag(currentLine);
+    return currentTagged.isTag();
   }
 
   /** Return true if the next line has a tag. */
@@ -115,7 +120,7 @@ public abstract class LineReader {
     if (nextLine == null) {
       return false;
     }
-    return isTag(nextLine);
+    return nextTagged.isTag();
   }
 
   protected String getTag(String line) {
@@ -134,12 +139,12 @@ public abstract class LineReader {
 
   /** Return the current line tag. */
   public String getCurrentTag() {
-    return getTag(currentLine);
+    return currentTagged.getTag();
   }
 
   /** Return the next line tag. */
   public String getNextTag() {
-    return getTag(nextLine);
+    return nextTagged.getTag();
   }
 
   private boolean isLine(String line) {
@@ -182,7 +187,8 @@ public abstract class LineReader {
     if (!isCurrentLine()) {
       return null;
     }
-    if (isTag(currentLine)) return FlatFileUtils.trimRight(currentLine, getTagWidth(currentLine));
+    if (currentTagged.isTag())
+      return FlatFileUtils.trimRight(currentLine, currentTagged.getTagWidth());
     else return currentLine.trim();
   }
 
@@ -191,7 +197,7 @@ public abstract class LineReader {
     if (!isNextLine()) {
       return null;
     }
-    if (isTag(nextLine)) return FlatFileUtils.trimRight(nextLine, getTagWidth(nextLine));
+    if (nextTagged.isTag()) return FlatFileUtils.trimRight(nextLine, nextTagged.getTagWidth());
     else return nextLine.trim();
   }
 
@@ -201,7 +207,7 @@ public abstract class LineReader {
       return null;
     }
     StringBuilder str = new StringBuilder();
-    int tagWidth = getTagWidth(currentLine);
+    int tagWidth = currentTagged.getTagWidth();
     for (int i = 0; i < tagWidth; ++i) {
       str.append(" ");
     }
@@ -217,7 +223,7 @@ public abstract class LineReader {
       return null;
     }
     StringBuilder str = new StringBuilder();
-    int tagWidth = getTagWidth(nextLine);
+    int tagWidth = nextTagged.getTagWidth();
     for (int i = 0; i < tagWidth; ++i) {
       str.append(" ");
     }
@@ -232,7 +238,7 @@ public abstract class LineReader {
     if (!isCurrentLine()) {
       return null;
     }
-    return FlatFileUtils.trim(currentLine, getTagWidth(currentLine));
+    return FlatFileUtils.trim(currentLine, currentTagged.getTagWidth());
   }
 
   /** Shrink and return the current line without tag. */
@@ -240,7 +246,7 @@ public abstract class LineReader {
     if (!isCurrentLine()) {
       return null;
     }
-    String string = FlatFileUtils.trim(currentLine, getTagWidth(currentLine));
+    String string = FlatFileUtils.trim(currentLine, currentTagged.getTagWidth());
     if (string.equals("")) {
       return null;
     }
@@ -277,22 +283,27 @@ public abstract class LineReader {
   public boolean readLine() throws IOException {
 
     if (currentLineNumber == 0) {
+      currentLine = null;
       while (true) {
-        currentLine = reader.readLine();
         ++currentLineNumber;
         ++nextLineNumber;
-        if (currentLine != null) {
-          if (currentLine.length() == 0) continue;
-          if (isSkipLine(currentLine)) continue;
+        if (reader.nextLine()) {
+          if (reader.isEmptyLine()) continue;
+          String line = reader.getLine();
+          if (isSkipLine(line)) continue;
 
-          currentLine = replaceWithSpace(currentLine);
+          currentLine = replaceWithSpace(line);
           setFirstLine(currentLine);
         }
         break;
       }
+      currentTagged.setLine(currentLine);
     } else {
       currentLine = nextLine;
       currentLineNumber = nextLineNumber;
+      TaggedLine taggedLine = currentTagged;
+      currentTagged = nextTagged;
+      nextTagged = taggedLine;
     }
     if (currentLine == null) {
       return false;
@@ -302,32 +313,46 @@ public abstract class LineReader {
       // and end tags)
       // TODO: keep start offset, when you find end offset, store both in entry and reset
 
-      nextLine = reader.readLine();
+      nextLine = null;
       ++nextLineNumber;
-      if (nextLine != null) {
-        if (nextLine.length() == 0) continue;
-        if (isSkipLine(nextLine)) continue;
+      if (reader.nextLine()) {
+        if (reader.isEmptyLine()) continue;
+        String line = reader.getLine();
+        if (isSkipLine(line)) continue;
 
-        nextLine = replaceWithSpace(nextLine);
+        nextLine = replaceWithSpace(line);
       }
       break;
     }
+    nextTagged.setLine(nextLine);
 
     // Save the last valid tag. This is required
     // to assign tags to rows without tags which
     // in turn makes it simpler to implement block
     // readers.
-    if (isTag(currentLine)) {
-      activeTag = getTag(currentLine);
+    if (currentTagged.isTag()) {
+      activeTag = currentTagged.getTag();
       cache.countTag(activeTag);
     }
 
     return true;
   }
 
-  String replaceWithSpace(CharSequence line) {
+  String replaceWithSpace(String line) {
+    int index = 0;
+    while (index < line.length()) {
+      char c = line.charAt(index);
+      if (c == '\t' || c == '\n' || c == '\r') {
+        break;
+      }
+      ++index;
+    }
+    if (index == line.length()) {
+      // Most lines have nothing to replace.
+      return line;
+    }
     StringBuilder result = new StringBuilder(line);
-    for (int index = 0; index < result.length(); ++index)
+    for (; index < result.length(); ++index)
       switch (result.charAt(index)) {
         default:
           continue;
@@ -344,22 +369,67 @@ public abstract class LineReader {
     getCache().resetOrganismCache();
 
     while (true) {
-      nextLine = reader.readLine();
       currentLineNumber++;
       nextLineNumber++;
 
-      if (nextLine != null) {
-        if (nextLine.startsWith(EmblTag.TERMINATOR_TAG)) {
+      // The lines before the terminator are not decoded.
+      if (reader.nextLine()) {
+        if (reader.lineStartsWith(EmblTag.TERMINATOR_TAG)) {
 
-          currentLine = nextLine;
+          currentLine = reader.getLine();
           nextLine = reader.readLine();
+          currentTagged.setLine(currentLine);
+          nextTagged.setLine(nextLine);
           return true;
         }
-      } else return false;
+      } else {
+        nextLine = null;
+        nextTagged.setLine(null);
+        return false;
+      }
     }
   }
 
   public LineReaderCache getCache() {
     return cache;
   }
+
+  /** A line with its tag and tag width, computed when they are first needed. */
+  private final class TaggedLine {
+    private String line;
+    private Boolean isTag;
+    private boolean hasTag;
+    private String tag;
+    private int tagWidth = -1;
+
+    private void setLine(String line) {
+      this.line = line;
+      this.isTag = null;
+      this.hasTag = false;
+      this.tag = null;
+      this.tagWidth = -1;
+    }
+
+    private boolean isTag() {
+      if (isTag == null) {
+        isTag = LineReader.this.isTag(line);
+      }
+      return isTag;
+    }
+
+    private String getTag() {
+      if (!hasTag) {
+        tag = LineReader.this.getTag(line);
+        hasTag = true;
+      }
+      return tag;
+    }
+
+    private int getTagWidth() {
+      if (tagWidth < 0) {
+        tagWidth = LineReader.this.getTagWidth(line);
+      }
+      return tagWidth;
+    }
+  }
 }
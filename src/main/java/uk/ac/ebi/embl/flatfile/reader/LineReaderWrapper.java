@@ -13,6 +13,7 @@ package uk.ac.ebi.embl.flatfile.reader;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Wraps a BufferedReader, RandomAccessFile or ILineReader so that readLine() may be called without
@@ -29,6 +30,11 @@ public class LineReaderWrapper implements ILineReader {
 
   private ILineReader otherLineReader;
 
+  private BufferedFileLineReader fileLineReader;
+
+  // The line read by nextLine(), or null if it has not been decoded yet.
+  private String line;
+
   /**
    * @param reader
    */
@@ -50,6 +56,14 @@ public class LineReaderWrapper implements ILineReader {
     this.otherLineReader = reader;
   }
 
+  /**
+   * @param reader
+   */
+  public LineReaderWrapper(BufferedFileLineReader reader) {
+    this.otherLineReader = reader;
+    this.fileLineReader = reader;
+  }
+
   /*
    * (non-Javadoc)
    *
@@ -68,6 +82,51 @@ public class LineReaderWrapper implements ILineReader {
     }
   }
 
+  /**
+   * Advances to the next line. The line of a BufferedFileLineReader stays in its buffer until
+   * {@link #getLine()} is called, so that lines which are skipped are never decoded.
+   *
+   * @return false if there are no more lines
+   * @throws IOException
+   */
+  public boolean nextLine() throws IOException {
+    if (fileLineReader != null) {
+      line = null;
+      return fileLineReader.nextLine();
+    }
+    line = readLine();
+    return line != null;
+  }
+
+  /** Returns true if the line read by {@link #nextLine()} is empty. */
+  public boolean isEmptyLine() {
+    if (fileLineReader != null) {
+      return fileLineReader.getLineLength() == 0;
+    }
+    return line.isEmpty();
+  }
+
+  /** Returns true if the line read by {@link #nextLine()} starts with the given ASCII prefix. */
+  public boolean lineStartsWith(String prefix) {
+    if (fileLineReader != null) {
+      return fileLineReader.lineStartsWith(prefix);
+    }
+    return line.startsWith(prefix);
+  }
+
+  /** Returns the line read by {@link #nextLine()}. */
+  public String getLine() {
+    if (line == null && fileLineReader != null) {
+      line =
+          new String(
+              fileLineReader.getLineBuffer(),
+              fileLineReader.getLineOffset(),
+              fileLineReader.getLineLength(),
+              StandardCharsets.ISO_8859_1);
+    }
+    return line;
+  }
+
   /**
    * Allows access to the file pointer in the RAF.
    *
@@ -21,8 +21,11 @@ import uk.ac.ebi.embl.api.validation.FlatFileOrigin;
 /** Reader for the flat file sequence. */
 public class SequenceReader extends FlatFileLineReader {
 
-  private static final int MAX_SEQUENCE_LENGTH = Integer.MAX_VALUE - 100;
-  private static final byte SUBSTITUTION = 26;
+  public static final int MAX_SEQUENCE_LENGTH = Integer.MAX_VALUE - 100;
+
+  /** Translation result for characters that are silently dropped from the sequence. */
+  public static final byte SUBSTITUTION = 26;
+
   private ByteBuffer sequence = ByteBuffer.allocate(4096);
 
   public SequenceReader(LineReader lineReader) {
@@ -133,6 +136,14 @@ public class SequenceReader extends FlatFileLineReader {
                                     prn_tr['7'] = prn_tr['8'] = prn_tr['9'] = SUBSTITUTION;
   }
 
+  /**
+   * Returns the compacted lower case DNA base for the given character, {@link #SUBSTITUTION} if the
+   * character is dropped from the sequence or 0 if the character is not a valid base.
+   */
+  public static byte translateDNABase(byte base) {
+    return dna_tr[base & 0xFF];
+  }
+
   private void compactDNASequence(byte[] seq) {
     if (seq == null) {
       return;
@@ -87,6 +87,11 @@ public class EmblEntryReader extends EntryReader {
     addBlockReaders(format);
   }
 
+  public EmblEntryReader(BufferedFileLineReader reader, Format format, String fileId) {
+    super(new EmblLineReader(reader, fileId));
+    addBlockReaders(format);
+  }
+
   @Override
   protected void afterReadLines(ValidationResult validationResult) {
     if (this.format == Format.ASSEMBLY_FILE_FORMAT
@@ -16,6 +16,7 @@ import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import uk.ac.ebi.embl.flatfile.EmblTag;
+import uk.ac.ebi.embl.flatfile.reader.BufferedFileLineReader;
 import uk.ac.ebi.embl.flatfile.reader.EntryReader;
 import uk.ac.ebi.embl.flatfile.reader.LineReader;
 
@@ -32,6 +33,10 @@ public class EmblLineReader extends LineReader {
     super(raf, fileId);
   }
 
+  public EmblLineReader(BufferedFileLineReader reader, String fileId) {
+    super(reader, fileId);
+  }
+
   private static final int DEFAULT_TAG_WIDTH = 5;
 
   @Override
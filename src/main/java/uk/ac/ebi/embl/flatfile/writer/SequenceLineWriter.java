@@ -0,0 +1,165 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.flatfile.writer;
+
+import java.io.IOException;
+import java.io.Writer;
+import uk.ac.ebi.embl.api.entry.sequence.Sequence;
+import uk.ac.ebi.embl.flatfile.EmblPadding;
+
+/**
+ * Writes the sequence lines of the EMBL and GenBank flat files. The bases are copied from the
+ * sequence in chunks of whole lines, which also works for packed sequences, and the lines are
+ * formatted into a character buffer that is written to the writer a chunk at a time.
+ */
+public class SequenceLineWriter {
+
+  private static final int BASES_PER_LINE = 60;
+  private static final int BASES_PER_BLOCK = 10;
+
+  /** The number of lines formatted before they are written to the writer. */
+  private static final int LINES_PER_CHUNK = 1024;
+
+  /** Long enough for the padding, 60 bases, the block spaces and a 19 digit base count. */
+  private static final int MAXIMUM_LINE_LENGTH = 128;
+
+  /** The position of the last digit of the base count after the EMBL sequence padding. */
+  private static final int EMBL_BASE_COUNT_END = 75;
+
+  /** The position of the last digit of the base count on the GenBank sequence lines. */
+  private static final int GENBANK_BASE_COUNT_END = 8;
+
+  private static final char[] CHARS = new char[256];
+  private static final char[] UPPER_CASE_CHARS = new char[256];
+
+  static {
+    for (int i = 0; i < 256; i++) {
+      // Bytes are converted to characters as the writers have always done.
+      CHARS[i] = (char) (byte) i;
+      UPPER_CASE_CHARS[i] = Character.toUpperCase(CHARS[i]);
+    }
+  }
+
+  private final Sequence sequence;
+
+  private final boolean embl;
+
+  private final char[] chars;
+
+  private final char[] lines = new char[LINES_PER_CHUNK * MAXIMUM_LINE_LENGTH];
+
+  private int linesLength;
+
+  private SequenceLineWriter(Sequence sequence, boolean embl, boolean upperCase) {
+    this.sequence = sequence;
+    this.embl = embl;
+    this.chars = upperCase ? UPPER_CASE_CHARS : CHARS;
+  }
+
+  /**
+   * Writes the EMBL sequence lines: 60 bases per line in blocks of 10, followed by the number of
+   * the last base on the line.
+   */
+  public static void writeEmbl(Writer writer, Sequence sequence, boolean upperCase)
+      throws IOException {
+    new SequenceLineWriter(sequence, true, upperCase).write(writer);
+  }
+
+  /**
+   * Writes the GenBank sequence lines: the number of the first base on the line followed by 60
+   * bases per line in blocks of 10.
+   */
+  public static void writeGenbank(Writer writer, Sequence sequence) throws IOException {
+    new SequenceLineWriter(sequence, false, false).write(writer);
+  }
+
+  private void write(Writer writer) throws IOException {
+    long length = sequence.getLength();
+    byte[] chunk = new byte[(int) Math.min(LINES_PER_CHUNK * BASES_PER_LINE, length)];
+    long position = 1;
+    int chunkLength;
+    while ((chunkLength = sequence.copySequenceByte(position, chunk)) > 0) {
+      linesLength = 0;
+      for (int offset = 0; offset < chunkLength; offset += BASES_PER_LINE) {
+        int count = Math.min(BASES_PER_LINE, chunkLength - offset);
+        long firstBase = position + offset;
+        if (embl) {
+          appendEmblLine(chunk, offset, count, firstBase + count - 1, firstBase + count > length);
+        } else {
+          appendGenbankLine(chunk, offset, count, firstBase);
+        }
+      }
+      writer.write(lines, 0, linesLength);
+      position += chunkLength;
+    }
+  }
+
+  private void appendEmblLine(byte[] bases, int offset, int count, long lastBase, boolean last) {
+    for (int i = 0; i < EmblPadding.SEQUENCE_PADDING.length(); i++) {
+      lines[linesLength++] = ' ';
+    }
+    int lineStart = linesLength;
+    appendBases(bases, offset, count);
+    if (!last) {
+      // Full lines that are not the last one keep the space after the last block.
+      lines[linesLength++] = ' ';
+    }
+    int digits = digits(lastBase);
+    int padding = EMBL_BASE_COUNT_END - (linesLength - lineStart) - digits;
+    appendSpaces(padding);
+    appendNumber(lastBase, digits);
+    lines[linesLength++] = '\n';
+  }
+
+  private void appendGenbankLine(byte[] bases, int offset, int count, long firstBase) {
+    int digits = digits(firstBase);
+    appendSpaces(GENBANK_BASE_COUNT_END - digits);
+    appendNumber(firstBase, digits);
+    lines[linesLength++] = ' ';
+    appendBases(bases, offset, count);
+    lines[linesLength++] = '\n';
+  }
+
+  private void appendBases(byte[] bases, int offset, int count) {
+    for (int block = 0; block < count; block += BASES_PER_BLOCK) {
+      if (block > 0) {
+        lines[linesLength++] = ' ';
+      }
+      int blockEnd = offset + Math.min(count, block + BASES_PER_BLOCK);
+      for (int i = offset + block; i < blockEnd; i++) {
+        lines[linesLength++] = chars[bases[i] & 0xFF];
+      }
+    }
+  }
+
+  private void appendSpaces(int count) {
+    for (int i = 0; i < count; i++) {
+      lines[linesLength++] = ' ';
+    }
+  }
+
+  private void appendNumber(long number, int digits) {
+    for (int i = linesLength + digits - 1; i >= linesLength; i--) {
+      lines[i] = (char) ('0' + number % 10);
+      number /= 10;
+    }
+    linesLength += digits;
+  }
+
+  private static int digits(long number) {
+    int digits = 1;
+    while (number >= 10) {
+      number /= 10;
+      digits++;
+    }
+    return digits;
+  }
+}
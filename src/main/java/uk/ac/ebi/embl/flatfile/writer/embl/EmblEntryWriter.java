@@ -98,12 +98,12 @@ public class EmblEntryWriter extends EntryWriter {
     }
     // Not expanded entry
     if (null == entry.getSequence()
-        || null == entry.getSequence().getSequenceByte()
+        || !entry.getSequence().hasSequenceByte()
         || entry.isNonExpandedCON()) writeFeatures(writer);
 
     if (new COWriter(entry, wrapType).write(writer)) {
       if (entry.getSequence() != null
-          && entry.getSequence().getSequenceByte() != null
+          && entry.getSequence().hasSequenceByte()
           && !entry.isNonExpandedCON()) {
         writer.write(SEPARATOR_LINE);
       }
@@ -111,7 +111,7 @@ public class EmblEntryWriter extends EntryWriter {
 
     // Expanded entry
     if (null != entry.getSequence()
-        && null != entry.getSequence().getSequenceByte()
+        && entry.getSequence().hasSequenceByte()
         && !entry.isNonExpandedCON()) writeFeatures(writer);
 
     if (new MasterWGSWriter(entry, wrapType).write(writer)) {
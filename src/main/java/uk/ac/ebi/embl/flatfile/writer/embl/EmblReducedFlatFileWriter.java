@@ -52,7 +52,7 @@ public class EmblReducedFlatFileWriter extends EntryWriter {
                 Qualifier.SUBMITTER_SEQID_QUALIFIER_NAME, entry.getSubmitterAccession()));
     entry.addFeature(source);
 
-    if (entry.getSequence() == null || entry.getSequence().getSequenceByte() == null) {
+    if (entry.getSequence() == null || !entry.getSequence().hasSequenceByte()) {
       throw new IOException(
           REDUCED_FF_WRITE_FAILED_MISSING_SEQUENCE + ": " + entry.getPrimaryAccession());
     }
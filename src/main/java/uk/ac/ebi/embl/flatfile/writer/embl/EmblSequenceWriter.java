@@ -13,10 +13,11 @@ package uk.ac.ebi.embl.flatfile.writer.embl;
 import java.io.IOException;
 import java.io.Writer;
 import uk.ac.ebi.embl.api.entry.Entry;
+import uk.ac.ebi.embl.api.entry.sequence.BaseCount;
 import uk.ac.ebi.embl.api.entry.sequence.Sequence;
-import uk.ac.ebi.embl.flatfile.EmblPadding;
 import uk.ac.ebi.embl.flatfile.EmblTag;
 import uk.ac.ebi.embl.flatfile.writer.FlatFileWriter;
+import uk.ac.ebi.embl.flatfile.writer.SequenceLineWriter;
 
 /** Flat file writer for the sequence lines. */
 public class EmblSequenceWriter extends FlatFileWriter {
@@ -36,38 +37,11 @@ public class EmblSequenceWriter extends FlatFileWriter {
   }
 
   public boolean write(Writer writer) throws IOException {
-    if (sequence == null || sequence.getLength() == 0 || sequence.getSequenceByte() == null) {
+    if (sequence == null || sequence.getLength() == 0 || !sequence.hasSequenceByte()) {
       return false;
     }
 
-    int GCount = 0;
-    int CCount = 0;
-    int ACount = 0;
-    int TCount = 0;
-    int OtherCount = 0;
-    byte[] sequenceByte = sequence.getSequenceByte();
-
-    for (int i = 0; i < sequenceByte.length; i++) {
-      char base = (char) (sequenceByte[i]); // & 0xFF);
-
-      switch (base) {
-        case 'g':
-          GCount++;
-          break;
-        case 'c':
-          CCount++;
-          break;
-        case 'a':
-          ACount++;
-          break;
-        case 't':
-          TCount++;
-          break;
-        default:
-          OtherCount++;
-          break;
-      }
-    }
+    BaseCount baseCount = BaseCount.count(sequence);
 
     writer.write(EmblTag.SQ_TAG);
     writer.write("   ");
@@ -78,15 +52,15 @@ public class EmblSequenceWriter extends FlatFileWriter {
       writer.write(" AA;\n");
     } else {
       writer.write(" BP; ");
-      writer.write(Integer.toString(ACount));
+      writer.write(Long.toString(baseCount.getA()));
       writer.write(" A; ");
-      writer.write(Integer.toString(CCount));
+      writer.write(Long.toString(baseCount.getC()));
       writer.write(" C; ");
-      writer.write(Integer.toString(GCount));
+      writer.write(Long.toString(baseCount.getG()));
       writer.write(" G; ");
-      writer.write(Integer.toString(TCount));
+      writer.write(Long.toString(baseCount.getT()));
       writer.write(" T; ");
-      writer.write(Integer.toString(OtherCount));
+      writer.write(Long.toString(baseCount.getOther()));
       writer.write(" other;");
 
       if (crc != 0) {
@@ -95,53 +69,8 @@ public class EmblSequenceWriter extends FlatFileWriter {
       writer.write("\n");
     }
 
-    int blockNumber = 0;
-    int charNumber = 0;
-    int lineNumber = 1;
-
-    StringBuffer line = new StringBuffer();
-    for (byte base : sequenceByte) {
-      if (charNumber == 10) {
-        line.append(" ");
-        blockNumber++;
-        charNumber = 0;
-      }
-      if (blockNumber == 6) {
-        writer.write(EmblPadding.SEQUENCE_PADDING);
-        if (dataclass != null && dataclass.equals(Entry.PRT_DATACLASS)) {
-          writer.write(line.toString().toUpperCase());
-        } else {
-          writer.write(line.toString());
-        }
-        String baseCount = Integer.toString(60 * lineNumber);
-        int baseCountPadding = 10 - baseCount.length();
-        for (int j = 1; j < baseCountPadding; j++) {
-          writer.write(" ");
-        }
-        writer.write(baseCount);
-        writer.write("\n");
-        line.delete(0, line.length());
-        lineNumber++;
-        blockNumber = 0;
-      }
-
-      line.append((char) base);
-      charNumber++;
-    }
-
-    writer.write(EmblPadding.SEQUENCE_PADDING);
-    if (dataclass != null && dataclass.equals(Entry.PRT_DATACLASS)) {
-      writer.write(line.toString().toUpperCase());
-    } else {
-      writer.write(line.toString());
-    }
-
-    String baseCount = Integer.toString((60 * (lineNumber - 1) + (10 * blockNumber) + charNumber));
-    int baseCountPadding = 76 - line.length() - baseCount.length();
-    for (int j = 1; j < baseCountPadding; j++) {
-      writer.write(" ");
-    }
-    writer.write(baseCount + "\n");
+    SequenceLineWriter.writeEmbl(
+        writer, sequence, dataclass != null && dataclass.equals(Entry.PRT_DATACLASS));
     return true;
   }
 }
@@ -16,6 +16,7 @@ import uk.ac.ebi.embl.api.entry.Entry;
 import uk.ac.ebi.embl.api.entry.sequence.Sequence;
 import uk.ac.ebi.embl.flatfile.GenbankPadding;
 import uk.ac.ebi.embl.flatfile.writer.FlatFileWriter;
+import uk.ac.ebi.embl.flatfile.writer.SequenceLineWriter;
 
 /** Flat file writer for the sequence lines. */
 public class GenbankSequenceWriter extends FlatFileWriter {
@@ -28,49 +29,14 @@ public class GenbankSequenceWriter extends FlatFileWriter {
   }
 
   public boolean write(Writer writer) throws IOException {
-    if (sequence == null || sequence.getSequenceByte() == null) {
+    if (sequence == null || !sequence.hasSequenceByte()) {
       return false;
     }
 
     writer.write(GenbankPadding.ORIGIN_PADDING);
     writer.write("\n");
 
-    byte[] bases = sequence.getSequenceByte();
-    int charNumber = 0;
-    int lineNumber = 1;
-
-    for (int i = 0; i < bases.length; i++) {
-      if (charNumber == 0) {
-        String baseCount = Integer.toString(60 * (lineNumber - 1) + 1);
-        int baseCountPadding = 9 - baseCount.length();
-        for (int j = 1; j < baseCountPadding; j++) {
-          writer.write(" ");
-        }
-        writer.write(baseCount);
-        writer.write(" ");
-      }
-
-      charNumber++;
-      if (charNumber == 11
-          || charNumber == 21
-          || charNumber == 31
-          || charNumber == 41
-          || charNumber == 51) {
-        writer.write(" ");
-      }
-
-      writer.write((char) bases[i]);
-
-      if (charNumber == 60) {
-        lineNumber++;
-        charNumber = 0;
-        writer.write("\n");
-      }
-    }
-
-    if (charNumber != 0) {
-      writer.write("\n");
-    }
+    SequenceLineWriter.writeGenbank(writer, sequence);
     return true;
   }
 }
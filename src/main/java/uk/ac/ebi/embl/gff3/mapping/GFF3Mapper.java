@@ -13,7 +13,6 @@ package uk.ac.ebi.embl.gff3.mapping;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
@@ -39,61 +38,15 @@ public class GFF3Mapper {
   private final LocationFactory locationFactory = new LocationFactory();
   private final List<Entry> entryList = new ArrayList<Entry>();
   String resourceBundle = "uk.ac.ebi.embl.gff3.mapping.gffMapper";
+  private ResourceBundle featureQualifiers;
 
   public List<Entry> mapGFF3ToEntry(GFF3RecordSet records) throws IOException {
-
-    ResourceBundle featureQualifiers = ResourceBundle.getBundle(resourceBundle);
     String tempSeqid = null;
     for (GFF3Record record : records.getRecords()) {
-      Collection<Qualifier> qualifierList = new ArrayList<Qualifier>();
-      boolean isFeature = false;
       String sequenceId = record.getSequenceID();
-      String source = record.getSource();
-      String featureType = record.getType();
-      int start = record.getStart();
-      int end = record.getEnd();
-      double score = record.getScore();
-      int strand = record.getStrand();
-      int phase = record.getPhase();
-      Map attributes = record.getAttributes();
-
-      // GFF3 Qualifier Mapping
-
-      Iterator attributeIterator = attributes.entrySet().iterator();
-      while (attributeIterator.hasNext()) {
-        Map.Entry attributePairs = (Map.Entry) attributeIterator.next();
-        String attributeKey = attributePairs.getKey().toString();
-        String attributeValue = attributePairs.getValue().toString();
-        if (featureQualifiers.containsKey(attributeKey)) {
-          qualifier =
-              qualifierFactory.createQualifier(
-                  featureQualifiers.getString(attributeKey), attributeValue);
-          qualifierList.add(qualifier);
-
-        } else {
-          // System.out.println("invalid qualifier found:"
-          // + attributeKey);
-        }
-      }
-
-      if (qualifierList.size() == 0) {
-        // System.out.println("no qualifiers matched");
-      }
-
-      // GFF3 start and end columns
-      Location location = locationFactory.createLocalRange((long) start, (long) end);
-      Order<Location> compoundJoin = new Order<Location>();
-      compoundJoin.addLocation(location);
-
-      // GFF3 Feature Mapping
-      if (featureQualifiers.containsKey(featureType)) {
-        feature = featureFactory.createFeature(featureQualifiers.getString(featureType));
-        feature.setLocations(compoundJoin);
-        feature.addQualifiers(qualifierList);
-        isFeature = true;
-      }
+      feature = mapGFF3ToFeature(record);
 
-      if (isFeature) {
+      if (feature != null) {
 
         if (tempSeqid == null || !tempSeqid.equals(sequenceId)) {
           tempSeqid = sequenceId;
@@ -110,4 +63,45 @@ public class GFF3Mapper {
 
     return entryList;
   }
+
+  /**
+   * Maps one record to a feature, or returns null if the record type is not mapped to a feature.
+   */
+  public Feature mapGFF3ToFeature(GFF3Record record) {
+    if (featureQualifiers == null) {
+      featureQualifiers = ResourceBundle.getBundle(resourceBundle);
+    }
+    String featureType = record.getType();
+    if (featureType == null || !featureQualifiers.containsKey(featureType)) {
+      return null;
+    }
+
+    // GFF3 Qualifier Mapping
+
+    Collection<Qualifier> qualifierList = new ArrayList<Qualifier>();
+    Map<String, String> attributes = record.getAttributes();
+    if (attributes != null) {
+      for (Map.Entry<String, String> attributePairs : attributes.entrySet()) {
+        String attributeKey = attributePairs.getKey();
+        if (featureQualifiers.containsKey(attributeKey)) {
+          qualifier =
+              qualifierFactory.createQualifier(
+                  featureQualifiers.getString(attributeKey), attributePairs.getValue());
+          qualifierList.add(qualifier);
+        }
+      }
+    }
+
+    // GFF3 start and end columns
+    Location location =
+        locationFactory.createLocalRange((long) record.getStart(), (long) record.getEnd());
+    Order<Location> compoundJoin = new Order<Location>();
+    compoundJoin.addLocation(location);
+
+    // GFF3 Feature Mapping
+    Feature feature = featureFactory.createFeature(featureQualifiers.getString(featureType));
+    feature.setLocations(compoundJoin);
+    feature.addQualifiers(qualifierList);
+    return feature;
+  }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.gff3.reader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import uk.ac.ebi.embl.api.entry.Entry;
+import uk.ac.ebi.embl.api.entry.EntryFactory;
+import uk.ac.ebi.embl.api.entry.feature.Feature;
+import uk.ac.ebi.embl.api.gff3.GFF3Record;
+import uk.ac.ebi.embl.api.gff3.GFF3RecordSet;
+import uk.ac.ebi.embl.api.validation.ValidationMessageManager;
+import uk.ac.ebi.embl.api.validation.ValidationResult;
+import uk.ac.ebi.embl.flatfile.reader.FlatFileReader;
+import uk.ac.ebi.embl.flatfile.validation.FlatFileValidations;
+import uk.ac.ebi.embl.gff3.mapping.GFF3Mapper;
+
+/**
+ * Reads a GFF3 file one entry at a time. Each entry has the features of consecutive records with
+ * the same sequence id, as mapped by {@link GFF3Mapper#mapGFF3ToEntry}, but only the records of
+ * the current entry are kept in memory. Records of a sequence id that appear again after records
+ * of another sequence id are returned in a new entry.
+ */
+public class GFF3EntryReader implements FlatFileReader<Entry> {
+
+  private final LineReader lineReader;
+  private final GFF3LineReader gffLineReader;
+  private final GFF3Mapper mapper = new GFF3Mapper();
+  private final EntryFactory entryFactory = new EntryFactory();
+
+  /** The record of the current line. It is cleared after each line. */
+  private final GFF3RecordSet recordSet = new GFF3RecordSet();
+
+  private ValidationResult validationResult;
+  private Entry entry;
+  private String sequenceId;
+
+  /** The first feature of the next entry, read at the end of the current entry. */
+  private Feature nextFeature;
+
+  private String nextSequenceId;
+
+  public GFF3EntryReader(BufferedReader bufferedReader) {
+    this(bufferedReader, null);
+  }
+
+  public GFF3EntryReader(BufferedReader bufferedReader, String fileId) {
+    ValidationMessageManager.addBundle(FlatFileValidations.GFF3_FLAT_FILE_BUNDLE);
+    this.lineReader = new LineReader(bufferedReader, fileId);
+    this.gffLineReader = new GFF3LineReader(lineReader);
+  }
+
+  /** Reads the next entry. The validation result has the messages of the lines read. */
+  @Override
+  public ValidationResult read() throws IOException {
+    ValidationMessageManager.addBundle(FlatFileValidations.FLAT_FILE_BUNDLE);
+    validationResult = new ValidationResult();
+    entry = null;
+    sequenceId = null;
+    if (nextFeature != null) {
+      startEntry(nextSequenceId, nextFeature);
+      nextFeature = null;
+    }
+    while (nextFeature == null && lineReader.readLine()) {
+      validationResult.append(gffLineReader.read(recordSet));
+      for (GFF3Record record : recordSet.getRecords()) {
+        Feature feature = mapper.mapGFF3ToFeature(record);
+        if (feature == null) {
+          continue;
+        }
+        if (entry == null) {
+          startEntry(record.getSequenceID(), feature);
+        } else if (sequenceId != null && sequenceId.equals(record.getSequenceID())) {
+          entry.addFeature(feature);
+        } else {
+          nextSequenceId = record.getSequenceID();
+          nextFeature = feature;
+        }
+      }
+      recordSet.getRecords().clear();
+    }
+    return validationResult;
+  }
+
+  private void startEntry(String sequenceId, Feature feature) {
+    this.sequenceId = sequenceId;
+    entry = entryFactory.createEntry();
+    entry.addFeature(feature);
+  }
+
+  @Override
+  public ValidationResult skip() throws IOException {
+    return read();
+  }
+
+  /** Returns the entry read last, or null if there are no more entries. */
+  @Override
+  public Entry getEntry() {
+    return entry;
+  }
+
+  @Override
+  public boolean isEntry() {
+    return entry != null;
+  }
+
+  /** Returns the sequence id of the records of the entry read last. */
+  public String getSequenceId() {
+    return sequenceId;
+  }
+}
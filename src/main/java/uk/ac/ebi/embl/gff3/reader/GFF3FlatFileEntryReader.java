@@ -12,8 +12,6 @@ package uk.ac.ebi.embl.gff3.reader;
 
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.util.List;
-import uk.ac.ebi.embl.api.entry.Entry;
 import uk.ac.ebi.embl.api.gff3.GFF3RecordSet;
 import uk.ac.ebi.embl.api.validation.Severity;
 import uk.ac.ebi.embl.api.validation.ValidationMessageManager;
@@ -21,7 +19,6 @@ import uk.ac.ebi.embl.api.validation.ValidationResult;
 import uk.ac.ebi.embl.flatfile.reader.FlatFileReader;
 import uk.ac.ebi.embl.flatfile.reader.LineReaderCache;
 import uk.ac.ebi.embl.flatfile.validation.FlatFileValidations;
-import uk.ac.ebi.embl.gff3.mapping.GFF3Mapper;
 
 /** Reader for flat file gff3 entries. */
 public class GFF3FlatFileEntryReader implements FlatFileReader<GFF3RecordSet> {
@@ -78,8 +75,6 @@ public class GFF3FlatFileEntryReader implements FlatFileReader<GFF3RecordSet> {
         lineReader.readLine();
       }
     }
-    GFF3Mapper gm = new GFF3Mapper();
-    List<Entry> emblEntryList = gm.mapGFF3ToEntry(recordSet);
   }
 
   protected void append(ValidationResult result) {
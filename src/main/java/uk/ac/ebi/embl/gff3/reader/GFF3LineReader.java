@@ -23,6 +23,10 @@ import uk.ac.ebi.embl.api.gff3.GFF3RecordSet;
  */
 public class GFF3LineReader extends GFF3AbstractLineReader {
 
+  private static final int COLUMNS = 9;
+
+  private final String[] tokens = new String[COLUMNS];
+
   // used by unit tests
   protected GFF3LineReader() {}
 
@@ -32,10 +36,9 @@ public class GFF3LineReader extends GFF3AbstractLineReader {
 
   @Override
   protected void readLine(String line) {
-    String[] tokens = line.split("\t");
-    //        System.out.println("tokens = " + tokens.length);
-    if (tokens.length != 9) {
-      error("GFF.1", tokens.length);
+    int columns = split(line);
+    if (columns != COLUMNS) {
+      error("GFF.1", columns);
       return;
     }
 
@@ -125,6 +128,35 @@ public class GFF3LineReader extends GFF3AbstractLineReader {
     this.recordSet.addRecord(record);
   }
 
+  /**
+   * Splits the line at tabs into the first {@value #COLUMNS} tokens and returns the number of
+   * columns, not counting trailing empty columns, as String.split does.
+   */
+  private int split(String line) {
+    if (line.isEmpty()) {
+      tokens[0] = line;
+      return 1;
+    }
+    int columns = 0;
+    int count = 0;
+    int start = 0;
+    while (true) {
+      int end = line.indexOf('\t', start);
+      int tokenEnd = end == -1 ? line.length() : end;
+      if (count < COLUMNS) {
+        tokens[count] = line.substring(start, tokenEnd);
+      }
+      count++;
+      if (tokenEnd > start) {
+        columns = count;
+      }
+      if (end == -1) {
+        return columns;
+      }
+      start = end + 1;
+    }
+  }
+
   private Map<String, String> parseAttirbutes(String attributeString) {
 
     Map<String, String> results = new HashMap<String, String>();
@@ -14,13 +14,15 @@ import static uk.ac.ebi.embl.gff3.writer.GFF3Show.*;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.util.Arrays;
 import java.util.EnumSet;
-import java.util.HashMap;
 import java.util.List;
+import java.util.stream.IntStream;
 import uk.ac.ebi.embl.api.entry.Assembly;
 import uk.ac.ebi.embl.api.entry.Entry;
 import uk.ac.ebi.embl.api.entry.feature.CdsFeature;
 import uk.ac.ebi.embl.api.entry.feature.Feature;
+import uk.ac.ebi.embl.api.entry.feature.FeatureIntervalIndex;
 import uk.ac.ebi.embl.api.entry.feature.SourceFeature;
 import uk.ac.ebi.embl.api.entry.location.Gap;
 import uk.ac.ebi.embl.api.entry.location.Location;
@@ -35,8 +37,6 @@ public class GFF3EntryWriter {
   private final Long windowBeginPosition;
   private final Long windowEndPosition;
   private EnumSet<GFF3Show> show;
-  private HashMap<String, GFF3Gene> locusTagGeneMap;
-  private HashMap<String, GFF3Gene> geneNameGeneMap;
 
   public GFF3EntryWriter(Entry entry, Long beginPosition, Long endPosition) {
     this(entry, beginPosition, endPosition, null);
@@ -63,39 +63,50 @@ public class GFF3EntryWriter {
     GFF3Writer.writeVersionPragma(writer);
     GFF3Writer.writeRegionPragma(
         writer, entry.getPrimaryAccession(), windowBeginPosition, windowEndPosition);
+    FeatureIntervalIndex<Feature> featureIndex = entry.getFeatureIntervalIndex();
+    GFF3FeatureLayout layout =
+        featureIndex.getDerived(GFF3FeatureLayout.class, GFF3FeatureLayout::new);
     int ID = 0;
-    if (show.contains(SHOW_GENE)) {
-      locusTagGeneMap = new HashMap<String, GFF3Gene>();
-      geneNameGeneMap = new HashMap<String, GFF3Gene>();
-    }
-    for (Feature feature : entry.getFeatures()) {
-      Long minPosition = feature.getLocations().getMinPosition();
-      Long maxPosition = feature.getLocations().getMaxPosition();
-      // Remove global complement.
-      feature.getLocations().removeGlobalComplement();
-      String geneName = feature.getSingleQualifierValue(Qualifier.GENE_QUALIFIER_NAME);
-      String locusTag = feature.getSingleQualifierValue(Qualifier.LOCUS_TAG_QUALIFIER_NAME);
-      if (show.contains(SHOW_GENE)) {
-        addGeneSegment(geneName, locusTag, minPosition, maxPosition);
-      }
-      if (show.contains(SHOW_FEATURE)) {
-        ++ID;
-        writeFeature(writer, feature, geneName, locusTag, ID, minPosition, maxPosition);
+    if (show.contains(SHOW_FEATURE)) {
+      List<Feature> features = featureIndex.getFeatures();
+      int[] windowFeatures = getWindowFeatureIndexes(featureIndex);
+      for (int index : getFeatureIndexes(windowFeatures, layout)) {
+        Feature feature = features.get(index);
+        Long minPosition = feature.getLocations().getMinPosition();
+        Long maxPosition = feature.getLocations().getMaxPosition();
+        // Remove global complement.
+        feature.getLocations().removeGlobalComplement();
+        String geneName = feature.getSingleQualifierValue(Qualifier.GENE_QUALIFIER_NAME);
+        String locusTag = feature.getSingleQualifierValue(Qualifier.LOCUS_TAG_QUALIFIER_NAME);
+        // Only the remote segments of a feature outside the window may still be written.
+        boolean isWindowFeature =
+            windowFeatures == null || Arrays.binarySearch(windowFeatures, index) >= 0;
+        ID = layout.getFeatureID(index);
+        if (isWindowFeature) {
+          writeFeature(writer, feature, geneName, locusTag, ID, minPosition, maxPosition);
+        }
         for (Location location : feature.getLocations().getLocations()) {
           int parentID = ID;
           ++ID;
-          writeFeatureSegment(writer, feature, geneName, locusTag, location, parentID, ID);
+          if (isWindowFeature || location instanceof RemoteLocation) {
+            writeFeatureSegment(writer, feature, geneName, locusTag, location, parentID, ID);
+          }
         }
       }
+      ID = layout.getFeatureIDCount();
     }
     if (show.contains(SHOW_GENE)) {
-      for (GFF3Gene gene : locusTagGeneMap.values()) {
-        ++ID;
-        writeGene(writer, gene, ID);
-      }
-      for (GFF3Gene gene : geneNameGeneMap.values()) {
-        ++ID;
-        writeGene(writer, gene, ID);
+      List<GFF3Gene> genes = layout.getGenes();
+      if (windowBeginPosition == null || windowEndPosition == null) {
+        for (GFF3Gene gene : genes) {
+          ++ID;
+          writeGene(writer, gene, ID);
+        }
+      } else {
+        for (int geneIndex : layout.getGeneIndexes(windowBeginPosition, windowEndPosition)) {
+          writeGene(writer, genes.get(geneIndex), ID + geneIndex + 1);
+        }
+        ID += genes.size();
       }
     }
     if (show.contains(SHOW_CONTIG)) {
@@ -113,6 +124,32 @@ public class GFF3EntryWriter {
     }
   }
 
+  /**
+   * Returns the index of each feature that may have a local location in the window, or null if
+   * there is no window.
+   */
+  private int[] getWindowFeatureIndexes(FeatureIntervalIndex<Feature> featureIndex) {
+    if (windowBeginPosition == null || windowEndPosition == null) {
+      return null;
+    }
+    return featureIndex.getCandidateFeatureIndexes(windowBeginPosition, windowEndPosition);
+  }
+
+  /**
+   * Returns the index of each feature to write: the features that may have a local location in
+   * the window and the features with a remote location, in increasing order.
+   */
+  private static int[] getFeatureIndexes(int[] windowFeatures, GFF3FeatureLayout layout) {
+    if (windowFeatures == null) {
+      return IntStream.range(0, layout.getFeatureCount()).toArray();
+    }
+    return IntStream.concat(
+            Arrays.stream(windowFeatures), Arrays.stream(layout.getRemoteFeatureIndexes()))
+        .sorted()
+        .distinct()
+        .toArray();
+  }
+
   private boolean filterSegment(Long beginPosition, Long endPosition) {
     return (beginPosition == null
         || endPosition == null
@@ -120,30 +157,6 @@ public class GFF3EntryWriter {
         || endPosition < windowBeginPosition);
   }
 
-  private void addGeneSegment(
-      String geneName, String locusTag, Long minPosition, Long maxPosition) {
-    GFF3Gene gene = null;
-    if (locusTag != null) {
-      gene = locusTagGeneMap.get(locusTag);
-      if (gene == null) {
-        gene = new GFF3Gene(minPosition, maxPosition, geneName, locusTag);
-        locusTagGeneMap.put(locusTag, gene);
-      } else {
-        gene.adjustBeginPosition(minPosition);
-        gene.adjustEndPosition(maxPosition);
-      }
-    } else if (geneName != null) {
-      gene = geneNameGeneMap.get(geneName);
-      if (gene == null) {
-        gene = new GFF3Gene(minPosition, maxPosition, geneName, locusTag);
-        geneNameGeneMap.put(geneName, gene);
-      } else {
-        gene.adjustBeginPosition(minPosition);
-        gene.adjustEndPosition(maxPosition);
-      }
-    }
-  }
-
   private Long adjustPosition(Long pos) {
     // Positions must be contained in the windows for AnnotationSketch.
     if (pos <= windowBeginPosition) {
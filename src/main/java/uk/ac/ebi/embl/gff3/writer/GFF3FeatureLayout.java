@@ -0,0 +1,148 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.gff3.writer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import uk.ac.ebi.embl.api.entry.feature.Feature;
+import uk.ac.ebi.embl.api.entry.feature.FeatureIntervalIndex;
+import uk.ac.ebi.embl.api.entry.qualifier.Qualifier;
+import uk.ac.ebi.embl.common.IntervalIndex;
+
+/**
+ * The IDs and genes of the features of an entry, which depend on every feature. They are kept with
+ * the feature index of the entry so that a window of the entry is written from the features and
+ * genes in the window only.
+ */
+class GFF3FeatureLayout {
+
+  /** The number of feature and segment IDs before each feature. */
+  private final int[] firstIDs;
+
+  private final int featureIDCount;
+
+  /** The index of each feature with a remote location, in increasing order. */
+  private final int[] remoteFeatureIndexes;
+
+  /** The genes by locus tag and then the genes by gene name. */
+  private final List<GFF3Gene> genes = new ArrayList<>();
+
+  /** The genes with positions. */
+  private final IntervalIndex geneIndex;
+
+  private final int[] indexedGenes;
+
+  GFF3FeatureLayout(FeatureIntervalIndex<Feature> featureIndex) {
+    List<Feature> features = featureIndex.getFeatures();
+    HashMap<String, GFF3Gene> locusTagGeneMap = new HashMap<>();
+    HashMap<String, GFF3Gene> geneNameGeneMap = new HashMap<>();
+    firstIDs = new int[features.size()];
+    List<Integer> remoteFeatures = new ArrayList<>();
+    int ID = 0;
+    for (int i = 0; i < features.size(); i++) {
+      Feature feature = features.get(i);
+      firstIDs[i] = ID;
+      ID += 1 + feature.getLocations().getLocations().size();
+      if (feature.getLocations().hasRemoteLocation()) {
+        remoteFeatures.add(i);
+      }
+      addGeneSegment(
+          locusTagGeneMap,
+          geneNameGeneMap,
+          feature.getSingleQualifierValue(Qualifier.GENE_QUALIFIER_NAME),
+          feature.getSingleQualifierValue(Qualifier.LOCUS_TAG_QUALIFIER_NAME),
+          feature.getLocations().getMinPosition(),
+          feature.getLocations().getMaxPosition());
+    }
+    featureIDCount = ID;
+    remoteFeatureIndexes = remoteFeatures.stream().mapToInt(Integer::intValue).toArray();
+    genes.addAll(locusTagGeneMap.values());
+    genes.addAll(geneNameGeneMap.values());
+
+    int[] indexed = new int[genes.size()];
+    long[] begins = new long[genes.size()];
+    long[] ends = new long[genes.size()];
+    int count = 0;
+    for (int i = 0; i < genes.size(); i++) {
+      GFF3Gene gene = genes.get(i);
+      if (gene.getBeginPosition() != null && gene.getEndPosition() != null) {
+        begins[count] = gene.getBeginPosition();
+        ends[count] = gene.getEndPosition();
+        indexed[count++] = i;
+      }
+    }
+    indexedGenes = Arrays.copyOf(indexed, count);
+    geneIndex = new IntervalIndex(Arrays.copyOf(begins, count), Arrays.copyOf(ends, count));
+  }
+
+  /** Returns the ID of the feature; its segments have the IDs that follow. */
+  int getFeatureID(int featureIndex) {
+    return firstIDs[featureIndex] + 1;
+  }
+
+  int getFeatureCount() {
+    return firstIDs.length;
+  }
+
+  /** Returns the number of feature and segment IDs. */
+  int getFeatureIDCount() {
+    return featureIDCount;
+  }
+
+  int[] getRemoteFeatureIndexes() {
+    return remoteFeatureIndexes;
+  }
+
+  /** Returns the genes; the ID of a gene follows from its index. */
+  List<GFF3Gene> getGenes() {
+    return genes;
+  }
+
+  /** Returns the index of each gene that overlaps the closed range, in increasing order. */
+  int[] getGeneIndexes(long beginPosition, long endPosition) {
+    int[] overlapping = geneIndex.getOverlapping(beginPosition, endPosition);
+    for (int i = 0; i < overlapping.length; i++) {
+      overlapping[i] = indexedGenes[overlapping[i]];
+    }
+    return overlapping;
+  }
+
+  private static void addGeneSegment(
+      HashMap<String, GFF3Gene> locusTagGeneMap,
+      HashMap<String, GFF3Gene> geneNameGeneMap,
+      String geneName,
+      String locusTag,
+      Long minPosition,
+      Long maxPosition) {
+    GFF3Gene gene = null;
+    if (locusTag != null) {
+      gene = locusTagGeneMap.get(locusTag);
+      if (gene == null) {
+        gene = new GFF3Gene(minPosition, maxPosition, geneName, locusTag);
+        locusTagGeneMap.put(locusTag, gene);
+      } else {
+        gene.adjustBeginPosition(minPosition);
+        gene.adjustEndPosition(maxPosition);
+      }
+    } else if (geneName != null) {
+      gene = geneNameGeneMap.get(geneName);
+      if (gene == null) {
+        gene = new GFF3Gene(minPosition, maxPosition, geneName, locusTag);
+        geneNameGeneMap.put(geneName, gene);
+      } else {
+        gene.adjustBeginPosition(minPosition);
+        gene.adjustEndPosition(maxPosition);
+      }
+    }
+  }
+}
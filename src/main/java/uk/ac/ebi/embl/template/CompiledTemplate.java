@@ -0,0 +1,300 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.template;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Template string split once into literal text, {TOKEN}s and {{SECTION}} markers, so that the
+ * entry text of a spreadsheet row is written in one pass over the template instead of rewriting
+ * the whole text once per token and searching it once per section.
+ *
+ * <p>The entry text is the same as replacing the tokens one after another and then removing the
+ * sections with the {@link SectionExtractor}. Templates that can not be split unambiguously, and
+ * rows with token values containing braces, are still processed that way.
+ */
+public class CompiledTemplate {
+
+  private static final int LITERAL = 0;
+  private static final int TOKEN = 1;
+  private static final int SECTION_START = 2;
+  private static final int SECTION_END = 3;
+
+  private final String templateString;
+  private final List<TemplateSectionInfo> sectionInfos;
+
+  /** The segments, or null if the template is processed one token at a time. */
+  private final int[] types;
+
+  private final String[] texts;
+
+  /** For a section start, the index of the section end segment. */
+  private final int[] sectionEnds;
+
+  /** The first section info of each section in the template, by section name. */
+  private final Map<String, TemplateSectionInfo> sections;
+
+  private CompiledTemplate(
+      String templateString,
+      List<TemplateSectionInfo> sectionInfos,
+      int[] types,
+      String[] texts,
+      int[] sectionEnds,
+      Map<String, TemplateSectionInfo> sections) {
+    this.templateString = templateString;
+    this.sectionInfos = sectionInfos;
+    this.types = types;
+    this.texts = texts;
+    this.sectionEnds = sectionEnds;
+    this.sections = sections;
+  }
+
+  public static CompiledTemplate compile(
+      String templateString, List<TemplateSectionInfo> sectionInfos) {
+    Map<String, TemplateSectionInfo> sectionInfoMap = new HashMap<>();
+    for (TemplateSectionInfo sectionInfo : sectionInfos) {
+      sectionInfoMap.putIfAbsent(sectionInfo.getName(), sectionInfo);
+    }
+    List<Integer> types = new ArrayList<>();
+    List<String> texts = new ArrayList<>();
+    List<Integer> sectionEnds = new ArrayList<>();
+    Map<String, TemplateSectionInfo> sections = new LinkedHashMap<>();
+    List<Integer> openSections = new ArrayList<>();
+    StringBuilder literal = new StringBuilder();
+    int length = templateString.length();
+    int index = 0;
+    while (index < length) {
+      char c = templateString.charAt(index);
+      if (c == '}') {
+        return notCompiled(templateString, sectionInfos);
+      }
+      if (c != '{') {
+        literal.append(c);
+        index++;
+        continue;
+      }
+      if (literal.length() > 0) {
+        types.add(LITERAL);
+        texts.add(literal.toString());
+        sectionEnds.add(-1);
+        literal.setLength(0);
+      }
+      if (templateString.startsWith(TemplateProcessorConstants.SECTION_DELIMITER, index)) {
+        int close =
+            templateString.indexOf(TemplateProcessorConstants.SECTION_CLOSE_DELIMITER, index + 2);
+        if (close == -1) {
+          return notCompiled(templateString, sectionInfos);
+        }
+        String name = templateString.substring(index + 2, close);
+        boolean sectionEnd = name.startsWith("/");
+        if (sectionEnd) {
+          name = name.substring(1);
+        }
+        if (!sectionInfoMap.containsKey(name)) {
+          return notCompiled(templateString, sectionInfos);
+        }
+        if (sectionEnd) {
+          // Sections must be closed in the order they are opened.
+          if (openSections.isEmpty()) {
+            return notCompiled(templateString, sectionInfos);
+          }
+          int start = openSections.remove(openSections.size() - 1);
+          if (!texts.get(start).equals(name)) {
+            return notCompiled(templateString, sectionInfos);
+          }
+          sectionEnds.set(start, types.size());
+          types.add(SECTION_END);
+        } else {
+          for (int start : openSections) {
+            if (texts.get(start).equals(name)) {
+              return notCompiled(templateString, sectionInfos);
+            }
+          }
+          openSections.add(types.size());
+          types.add(SECTION_START);
+          sections.put(name, sectionInfoMap.get(name));
+        }
+        texts.add(name);
+        sectionEnds.add(-1);
+        index = close + TemplateProcessorConstants.SECTION_CLOSE_DELIMITER.length();
+      } else {
+        int close =
+            templateString.indexOf(TemplateProcessorConstants.TOKEN_CLOSE_DELIMITER, index);
+        if (close == -1 || templateString.substring(index + 1, close).contains("{")) {
+          return notCompiled(templateString, sectionInfos);
+        }
+        types.add(TOKEN);
+        texts.add(templateString.substring(index, close + 1));
+        sectionEnds.add(-1);
+        index = close + 1;
+      }
+    }
+    if (!openSections.isEmpty()) {
+      return notCompiled(templateString, sectionInfos);
+    }
+    if (literal.length() > 0) {
+      types.add(LITERAL);
+      texts.add(literal.toString());
+      sectionEnds.add(-1);
+    }
+    return new CompiledTemplate(
+        templateString,
+        sectionInfos,
+        types.stream().mapToInt(Integer::intValue).toArray(),
+        texts.toArray(new String[0]),
+        sectionEnds.stream().mapToInt(Integer::intValue).toArray(),
+        sections);
+  }
+
+  private static CompiledTemplate notCompiled(
+      String templateString, List<TemplateSectionInfo> sectionInfos) {
+    return new CompiledTemplate(templateString, sectionInfos, null, null, null, null);
+  }
+
+  /** Returns true if the entry text is written in one pass over the template. */
+  public boolean isCompiled() {
+    return types != null;
+  }
+
+  public Rendering newRendering() {
+    return new Rendering();
+  }
+
+  /** The token replacements of one spreadsheet row. */
+  public class Rendering {
+    private final List<String> tokens = new ArrayList<>();
+    private final List<String> values = new ArrayList<>();
+
+    private Rendering() {}
+
+    /** Replaces the delimited token, for example {ORGANISM}, with the value. */
+    public void replace(String token, String value) {
+      tokens.add(token);
+      values.add(value);
+    }
+
+    /** Returns true if the template or a replaced value contains the text. */
+    public boolean contains(String text) {
+      if (templateString.contains(text)) {
+        return true;
+      }
+      for (String value : values) {
+        if (value.contains(text)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Returns the entry text with the tokens replaced and the sections whose dependent tokens
+     * have no values removed.
+     */
+    public StringBuilder render(TemplateVariables variables) {
+      if (!isCompiled() || !isReplacedInOnePass()) {
+        return renderOneTokenAtATime(variables);
+      }
+      return renderInOnePass(variables, (token, value) -> value);
+    }
+
+    /**
+     * Returns the entry text like {@link #render(TemplateVariables)}, but with each replaced token
+     * written as what the function returns for the token and its value. Returns null if the text
+     * is not written in one pass over the template.
+     */
+    public StringBuilder render(
+        TemplateVariables variables, BiFunction<String, String, String> tokenText) {
+      if (!isCompiled() || !isReplacedInOnePass()) {
+        return null;
+      }
+      return renderInOnePass(variables, tokenText);
+    }
+
+    private StringBuilder renderInOnePass(
+        TemplateVariables variables, BiFunction<String, String, String> tokenText) {
+      Map<String, String> replacements = new HashMap<>();
+      for (int i = 0; i < tokens.size(); i++) {
+        // The first replacement of a token replaces all its occurrences.
+        replacements.putIfAbsent(tokens.get(i), values.get(i));
+      }
+      Set<String> strippedSections = new HashSet<>();
+      for (TemplateSectionInfo sectionInfo : sections.values()) {
+        if (SectionExtractor.isSectionStripped(sectionInfo, variables)) {
+          strippedSections.add(sectionInfo.getName());
+        }
+      }
+      StringBuilder entryText = new StringBuilder(templateString.length() + 256);
+      for (int i = 0; i < types.length; i++) {
+        switch (types[i]) {
+          case LITERAL:
+            entryText.append(texts[i]);
+            break;
+          case TOKEN:
+            String value = replacements.get(texts[i]);
+            entryText.append(value != null ? tokenText.apply(texts[i], value) : texts[i]);
+            break;
+          case SECTION_START:
+            if (strippedSections.contains(texts[i])) {
+              i = sectionEnds[i];
+            }
+            break;
+          default:
+            break;
+        }
+      }
+      return entryText;
+    }
+
+    /**
+     * Tokens can only be replaced in one pass if a replacement can not create or change another
+     * token or section marker.
+     */
+    private boolean isReplacedInOnePass() {
+      for (String token : tokens) {
+        if (token.length() < 2
+            || !token.startsWith(TemplateProcessorConstants.TOKEN_DELIMITER)
+            || !token.endsWith(TemplateProcessorConstants.TOKEN_CLOSE_DELIMITER)) {
+          return false;
+        }
+        String name = token.substring(1, token.length() - 1);
+        if (name.contains("{")
+            || name.contains("}")
+            || sections.containsKey(name)
+            || (name.startsWith("/") && sections.containsKey(name.substring(1)))) {
+          return false;
+        }
+      }
+      for (String value : values) {
+        if (value.contains("{") || value.contains("}")) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private StringBuilder renderOneTokenAtATime(TemplateVariables variables) {
+      String entryText = templateString;
+      for (int i = 0; i < tokens.size(); i++) {
+        entryText = entryText.replace(tokens.get(i), values.get(i));
+      }
+      StringBuilder entryTextBuilder = new StringBuilder(entryText);
+      new SectionExtractor().removeSections(entryTextBuilder, sectionInfos, variables);
+      return entryTextBuilder;
+    }
+  }
+}
@@ -23,24 +23,7 @@ public class SectionExtractor {
     this.currentBuilder = currentEntryBuilder;
 
     for (TemplateSectionInfo currentSectionInfo : sectionInfos) {
-      List<TemplateTokenInfo> dependsList = currentSectionInfo.getDepends();
-
-      /**
-       * look to see if all of the dependent tokens of the current section are present - if so, do
-       * not strip this section.
-       */
-      boolean stripCurrentSection = false;
-      for (TemplateTokenInfo dependentToken : dependsList) {
-
-        boolean variablesDoesNotContain = variablesDoesNotContainToken(variables, dependentToken);
-
-        if (variablesDoesNotContain) {
-          stripCurrentSection = true;
-          break;
-        }
-      }
-
-      if (stripCurrentSection) {
+      if (isSectionStripped(currentSectionInfo, variables)) {
         deleteSectionFromBuilder(currentSectionInfo);
       } else { // just remove the currentSectionInfo tokens
         deleteSectionTokensFromBuilder(currentSectionInfo, currentBuilder);
@@ -48,7 +31,20 @@ public class SectionExtractor {
     }
   }
 
-  private boolean variablesDoesNotContainToken(
+  /**
+   * look to see if all of the dependent tokens of the section are present - if so, do not strip
+   * this section.
+   */
+  static boolean isSectionStripped(TemplateSectionInfo sectionInfo, TemplateVariables variables) {
+    for (TemplateTokenInfo dependentToken : sectionInfo.getDepends()) {
+      if (variablesDoesNotContainToken(variables, dependentToken)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean variablesDoesNotContainToken(
       TemplateVariables variables, TemplateTokenInfo tokenInfo) {
 
     String tokenName = tokenInfo.getName();
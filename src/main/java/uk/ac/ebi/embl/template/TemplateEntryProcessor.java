@@ -47,11 +47,13 @@ import uk.ac.ebi.ena.webin.cli.validator.reference.Sample;
 
 public class TemplateEntryProcessor {
 
-  private StringBuilder template;
+  private CompiledTemplate.Rendering template;
   private TemplateInfo templateInfo;
   private final ValidationPlan validationPlan;
+  private final TaxonomyClient taxonomyClient;
   private String molType;
   private final HashMap<String, Sample> sampleCache = new HashMap<String, Sample>();
+  private final TemplateEntrySkeletons entrySkeletons = new TemplateEntrySkeletons();
 
   public TemplateEntryProcessor(SubmissionOptions options) {
     this(ValidationScope.EMBL_TEMPLATE, options);
@@ -62,6 +64,7 @@ public class TemplateEntryProcessor {
         new EmblEntryValidationPlanProperty(options);
     emblEntryValidationProperty.validationScope.set(validationScope);
     validationPlan = new EmblEntryValidationPlan(emblEntryValidationProperty);
+    taxonomyClient = emblEntryValidationProperty.taxonClient.get();
     validationPlan.addMessageBundle(ValidationMessageManager.TEMPLATE_PROCESSOR_BUNDLE);
     validationPlan.addMessageBundle(ValidationMessageManager.STANDARD_VALIDATION_BUNDLE);
     validationPlan.addMessageBundle(ValidationMessageManager.STANDARD_FIXER_BUNDLE);
@@ -81,31 +84,35 @@ public class TemplateEntryProcessor {
       return templateProcessorResultSet;
     if (!checkSelectedHeadersHaveValuesAndAreSupported(
         templateVariables, templateProcessorResultSet)) return templateProcessorResultSet;
-    template = new StringBuilder(this.templateInfo.getTemplateString());
+    template = this.templateInfo.getCompiledTemplate().newRendering();
     replacePPOrganelleToken(templateVariables);
     replacePPNotes(templateVariables);
     replacePPGene(templateVariables);
     addSequenceLengthToken(templateVariables);
     replaceOrganismToken(templateVariables, templateProcessorResultSet);
     replaceTokens(templateVariables);
-    new SectionExtractor()
-        .removeSections(template, this.templateInfo.getSections(), templateVariables);
-    StringBuilderUtils.removeUnmatchedTokenLines(template);
     validateSediment(templateProcessorResultSet, templateVariables);
     validateMarker(templateProcessorResultSet, templateVariables);
     if (!templateProcessorResultSet.getValidationResult().isValid()) {
       return templateProcessorResultSet;
     }
 
-    BufferedReader stringReader =
-        new BufferedReader(new StringReader(template.toString().trim().concat("\n//")));
-    EntryReader entryReader = new EmblEntryReader(stringReader);
-    ValidationResult validationResult = entryReader.read();
-    if (!validationResult.isValid()) {
-      templateProcessorResultSet.getValidationResult().append(validationResult);
-      return templateProcessorResultSet;
+    Entry entry =
+        entrySkeletons.getEntry(
+            this.templateInfo.getCompiledTemplate(), template, templateVariables);
+    if (entry == null) {
+      StringBuilder entryText = template.render(templateVariables);
+      StringBuilderUtils.removeUnmatchedTokenLines(entryText);
+      BufferedReader stringReader =
+          new BufferedReader(new StringReader(entryText.toString().trim().concat("\n//")));
+      EntryReader entryReader = new EmblEntryReader(stringReader);
+      ValidationResult validationResult = entryReader.read();
+      if (!validationResult.isValid()) {
+        templateProcessorResultSet.getValidationResult().append(validationResult);
+        return templateProcessorResultSet;
+      }
+      entry = entryReader.getEntry();
     }
-    Entry entry = entryReader.getEntry();
     if (StringUtils.isNotEmpty(projectId)) {
       entry.addProjectAccession(new Text(projectId));
     }
@@ -235,22 +242,16 @@ public class TemplateEntryProcessor {
   }
 
   private void replacePPOrganelleToken(TemplateVariables templateVariables) throws Exception {
-    if (!template.toString().contains(TemplateProcessorConstants.PP_ORGANELLE_TOKEN)) return;
+    if (!template.contains(TemplateProcessorConstants.PP_ORGANELLE_TOKEN)) return;
     for (String tokenName : templateVariables.getTokenNames()) {
       String tokenValue = templateVariables.getTokenValue(tokenName);
       if (tokenValue == null || tokenValue.isEmpty()) continue;
       if (tokenName.equalsIgnoreCase(TemplateProcessorConstants.ORGANELLE_TOKEN)) {
-        template =
-            new StringBuilder(
-                template
-                    .toString()
-                    .replace(TemplateProcessorConstants.PP_ORGANELLE_TOKEN, tokenValue));
+        template.replace(TemplateProcessorConstants.PP_ORGANELLE_TOKEN, tokenValue);
         return;
       }
     }
-    template =
-        new StringBuilder(
-            template.toString().replace(TemplateProcessorConstants.PP_ORGANELLE_TOKEN, ""));
+    template.replace(TemplateProcessorConstants.PP_ORGANELLE_TOKEN, "");
   }
 
   /** This method replaces {ORGANISM_NAME} with valid scientificName. */
@@ -258,7 +259,6 @@ public class TemplateEntryProcessor {
       TemplateVariables templateVariables, TemplateProcessorResultSet templateProcessorResultSet)
       throws Exception {
     if (!templateContainsOrganismToken()) return;
-    TaxonomyClient taxonomyClient = new TaxonomyClient();
     String scientificName = "";
 
     for (String fieldName : templateVariables.getTokenNames()) {
@@ -307,7 +307,7 @@ public class TemplateEntryProcessor {
   }
 
   private void replacePPNotes(TemplateVariables templateVariables) throws Exception {
-    if (!template.toString().contains(TemplateProcessorConstants.PP_NOTES_TOKEN)) return;
+    if (!template.contains(TemplateProcessorConstants.PP_NOTES_TOKEN)) return;
     ValidationResult validationResult = new ValidationResult();
     String token18s = templateVariables.getTokenValue("18S");
     String tokenITS1 = templateVariables.getTokenValue("ITS1");
@@ -355,26 +355,18 @@ public class TemplateEntryProcessor {
   }
 
   public void replacePPGene(TemplateVariables templateVariables) {
-    if (!template.toString().contains(TemplateProcessorConstants.PP_GENE_TOKEN)) return;
+    if (!template.contains(TemplateProcessorConstants.PP_GENE_TOKEN)) return;
     String marker = templateVariables.getTokenValue(TemplateProcessorConstants.MARKER_TOKEN);
     if (marker == null || marker.isEmpty()) return;
     for (TemplateProcessorConstants.MarkerE markerE : TemplateProcessorConstants.MarkerE.values()) {
       if (markerE.getMarker().equals(marker)) {
-        template =
-            new StringBuilder(
-                template
-                    .toString()
-                    .replace(TemplateProcessorConstants.PP_GENE_TOKEN, markerE.name()));
+        template.replace(TemplateProcessorConstants.PP_GENE_TOKEN, markerE.name());
         return;
       }
     }
     for (TemplateProcessorConstants.MarkerE markerE : TemplateProcessorConstants.MarkerE.values()) {
       if (markerE.name().equals(marker)) {
-        template =
-            new StringBuilder(
-                template
-                    .toString()
-                    .replace(TemplateProcessorConstants.PP_GENE_TOKEN, markerE.name()));
+        template.replace(TemplateProcessorConstants.PP_GENE_TOKEN, markerE.name());
         templateVariables.setTokenValue(
             TemplateProcessorConstants.MARKER_TOKEN, markerE.getMarker());
         return;
@@ -455,7 +447,7 @@ public class TemplateEntryProcessor {
   }
 
   private void doReplace(String stringToFind, String stringToReplace) {
-    template = new StringBuilder(template.toString().replace(stringToFind, stringToReplace));
+    template.replace(stringToFind, stringToReplace);
   }
 
   private void validateSediment(
@@ -568,16 +560,16 @@ public class TemplateEntryProcessor {
   private SourceFeature updateSourceFeature(SourceFeature sourceFeature, Sample sampleEntity)
       throws Exception {
     return new SourceFeatureUtils()
-        .updateSourceFeature(sourceFeature, sampleEntity, new TaxonomyClient());
+        .updateSourceFeature(sourceFeature, sampleEntity, taxonomyClient);
   }
 
   public SourceFeature createSourceFeature(Sample sample) throws Exception {
-    return new SourceFeatureUtils().constructSourceFeature(sample, new TaxonomyClient());
+    return new SourceFeatureUtils().constructSourceFeature(sample, taxonomyClient);
   }
 
   private boolean templateContainsOrganismToken() {
-    return template.toString().contains(TemplateProcessorConstants.ORGANISM_TOKEN)
-        || template.toString().contains(TemplateProcessorConstants.ORGANISM_NAME_TOKEN);
+    return template.contains(TemplateProcessorConstants.ORGANISM_TOKEN)
+        || template.contains(TemplateProcessorConstants.ORGANISM_NAME_TOKEN);
   }
 
   private boolean isOrganismField(String fieldName) {
@@ -587,6 +579,6 @@ public class TemplateEntryProcessor {
 
   private void replaceOrganismTokenWithScientificname(String organismToken, String scientificName) {
     String delimitedKey = StringBuilderUtils.encloseToken(organismToken);
-    template = new StringBuilder(template.toString().replace(delimitedKey, scientificName));
+    template.replace(delimitedKey, scientificName);
   }
 }
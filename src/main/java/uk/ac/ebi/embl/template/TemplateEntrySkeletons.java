@@ -0,0 +1,446 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.template;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import uk.ac.ebi.embl.api.entry.Entry;
+import uk.ac.ebi.embl.api.entry.Text;
+import uk.ac.ebi.embl.api.entry.feature.Feature;
+import uk.ac.ebi.embl.api.entry.location.Base;
+import uk.ac.ebi.embl.api.entry.location.Location;
+import uk.ac.ebi.embl.api.entry.location.RemoteLocation;
+import uk.ac.ebi.embl.api.entry.qualifier.Qualifier;
+import uk.ac.ebi.embl.api.validation.FlatFileOrigin;
+import uk.ac.ebi.embl.api.validation.Origin;
+import uk.ac.ebi.embl.api.validation.Severity;
+import uk.ac.ebi.embl.api.validation.ValidationMessage;
+import uk.ac.ebi.embl.api.validation.ValidationResult;
+import uk.ac.ebi.embl.flatfile.reader.EntryReader;
+import uk.ac.ebi.embl.flatfile.reader.embl.EmblEntryReader;
+
+/**
+ * Entries read once from the entry text of a template with placeholders instead of the token
+ * values, and copied for each spreadsheet row whose entry text differs only in those values. The
+ * copy is given the values of the row and is the same entry as reading the entry text of the row.
+ *
+ * <p>Only plain text and number values are replaced by placeholders, as the reader keeps them as
+ * they are. A text placeholder must be read into a qualifier value or the description and a number
+ * placeholder also into a location position or the sequence length of the ID line. The tokens
+ * whose values the reader uses for more than that, such as the organism, are kept in the text. An
+ * entry text is reused only if reading it with other placeholders gives the same entry once the
+ * placeholders are swapped; otherwise its rows are read from their own entry text.
+ */
+class TemplateEntrySkeletons {
+
+  private static final int MAXIMUM_SIZE = 100;
+
+  /** Text values start with a letter or digit and have no leading, trailing or double spaces. */
+  private static final Pattern TEXT_VALUE =
+      Pattern.compile("[A-Za-z0-9](?: ?[A-Za-z0-9.,:()/+_'#-])*");
+
+  private static final Pattern NUMBER_VALUE = Pattern.compile("[1-9][0-9]{0,7}");
+
+  private static final Pattern PLACEHOLDER =
+      Pattern.compile("TplValue[AB][0-9]{3}x|[89][0-9]{8}");
+
+  /** The qualifiers whose values the reader also uses elsewhere in the entry or to skip them. */
+  private static final Set<String> READER_QUALIFIERS =
+      Set.of(
+          Qualifier.ORGANISM_QUALIFIER_NAME,
+          Qualifier.MOL_TYPE_QUALIFIER_NAME,
+          Qualifier.DB_XREF_QUALIFIER_NAME,
+          Qualifier.SUBMITTER_SEQID_QUALIFIER_NAME,
+          Qualifier.GEO_LOCATION_QUALIFIER_NAME,
+          Qualifier.COLLECTION_DATE_QUALIFIER_NAME,
+          Qualifier.LAT_LON_QUALIFIER_NAME);
+
+  /** Marks an entry text whose rows are read from their own entry text. */
+  private static final byte[] NOT_REUSED = new byte[0];
+
+  /** The serialized entry read from each entry text with placeholders. */
+  private final Map<String, byte[]> skeletons =
+      new LinkedHashMap<String, byte[]>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+          return size() > MAXIMUM_SIZE;
+        }
+      };
+
+  /** The tokens of each template that are kept in the entry text. */
+  private final Map<CompiledTemplate, Set<String>> textTokens = new IdentityHashMap<>();
+
+  /**
+   * Returns the entry of the spreadsheet row, copied from the entry read for an earlier row, or
+   * null if the entry must be read from the entry text of the row.
+   */
+  Entry getEntry(
+      CompiledTemplate template,
+      CompiledTemplate.Rendering rendering,
+      TemplateVariables variables) {
+    Set<String> keptTokens = textTokens.computeIfAbsent(template, t -> new HashSet<>());
+    while (true) {
+      Placeholders placeholders = new Placeholders('A', keptTokens);
+      String entryText = render(rendering, variables, placeholders);
+      if (entryText == null) {
+        return null;
+      }
+      byte[] skeleton = skeletons.get(entryText);
+      if (skeleton == null) {
+        Placeholders otherPlaceholders = new Placeholders('B', keptTokens);
+        String otherEntryText = render(rendering, variables, otherPlaceholders);
+        Set<String> tokens = new HashSet<>();
+        skeleton = readSkeleton(entryText, placeholders, otherEntryText, otherPlaceholders, tokens);
+        if (!tokens.isEmpty()) {
+          // Keep the tokens the reader uses in the text and try again.
+          keptTokens.addAll(tokens);
+          continue;
+        }
+        skeletons.put(entryText, skeleton);
+      }
+      if (skeleton == NOT_REUSED) {
+        return null;
+      }
+      Entry entry = deserialize(skeleton);
+      if (entry == null) {
+        return null;
+      }
+      new Substitution(placeholders.getValues()).apply(entry);
+      return entry;
+    }
+  }
+
+  private static String render(
+      CompiledTemplate.Rendering rendering,
+      TemplateVariables variables,
+      Placeholders placeholders) {
+    StringBuilder entryText = rendering.render(variables, placeholders::getText);
+    if (entryText == null) {
+      return null;
+    }
+    // Text that looks like a placeholder would be replaced as well.
+    Matcher matcher = PLACEHOLDER.matcher(entryText);
+    int count = 0;
+    while (matcher.find()) {
+      count++;
+    }
+    if (count != placeholders.getCount()) {
+      return null;
+    }
+    StringBuilderUtils.removeUnmatchedTokenLines(entryText);
+    return entryText.toString();
+  }
+
+  /**
+   * Reads the entry text with placeholders and returns the serialized entry, or NOT_REUSED. Adds
+   * to the tokens the ones whose placeholders are not only read into values that can be replaced
+   * or are on lines that can not be read.
+   */
+  private static byte[] readSkeleton(
+      String entryText,
+      Placeholders placeholders,
+      String otherEntryText,
+      Placeholders otherPlaceholders,
+      Set<String> tokens) {
+    Entry entry = read(entryText, placeholders, tokens);
+    if (entry == null) {
+      return NOT_REUSED;
+    }
+    Map<String, String> unchanged = new HashMap<>();
+    for (String placeholder : placeholders.getValues().keySet()) {
+      unchanged.put(placeholder, placeholder);
+    }
+    Substitution check = new Substitution(unchanged);
+    check.apply(entry);
+    for (String placeholder : unchanged.keySet()) {
+      if (check.misplaced.contains(placeholder) || !check.replaced.contains(placeholder)) {
+        tokens.add(placeholders.getToken(placeholder));
+      }
+    }
+    if (!tokens.isEmpty()) {
+      return NOT_REUSED;
+    }
+    // The placeholders must not be read into anything else.
+    Entry otherEntry = read(otherEntryText, otherPlaceholders, new HashSet<>());
+    if (otherEntry == null) {
+      return NOT_REUSED;
+    }
+    Map<String, String> swapped = new HashMap<>();
+    for (Map.Entry<String, String> token : otherPlaceholders.getPlaceholders().entrySet()) {
+      swapped.put(token.getValue(), placeholders.getPlaceholders().get(token.getKey()));
+    }
+    Substitution swap = new Substitution(swapped);
+    swap.apply(otherEntry);
+    if (!swap.misplaced.isEmpty() || !swap.replaced.equals(swapped.keySet())) {
+      return NOT_REUSED;
+    }
+    byte[] skeleton = serialize(entry);
+    byte[] otherSkeleton = serialize(otherEntry);
+    if (skeleton == null || otherSkeleton == null) {
+      return NOT_REUSED;
+    }
+    if (!Arrays.equals(skeleton, otherSkeleton)) {
+      // The placeholders left are read into text that is not replaced, such as a feature name.
+      String otherText = new String(otherSkeleton, StandardCharsets.ISO_8859_1);
+      for (Map.Entry<String, String> token : otherPlaceholders.getPlaceholders().entrySet()) {
+        if (otherText.contains(token.getValue())) {
+          tokens.add(token.getKey());
+        }
+      }
+      return NOT_REUSED;
+    }
+    return skeleton;
+  }
+
+  /**
+   * Returns the entry read from the entry text, or null if it is not valid. Adds to the tokens the
+   * ones whose placeholders are on the lines of the errors.
+   */
+  private static Entry read(String entryText, Placeholders placeholders, Set<String> tokens) {
+    String[] lines = entryText.trim().concat("\n//").split("\n", -1);
+    ValidationResult validationResult;
+    EntryReader entryReader;
+    try {
+      BufferedReader stringReader = new BufferedReader(new StringReader(String.join("\n", lines)));
+      entryReader = new EmblEntryReader(stringReader);
+      validationResult = entryReader.read();
+    } catch (IOException e) {
+      return null;
+    }
+    if (validationResult.isValid()) {
+      return entryReader.getEntry();
+    }
+    for (ValidationMessage<Origin> message : validationResult.getMessages(Severity.ERROR)) {
+      for (Origin origin : message.getOrigins()) {
+        if (!(origin instanceof FlatFileOrigin)) {
+          continue;
+        }
+        FlatFileOrigin lineOrigin = (FlatFileOrigin) origin;
+        int lastLine = Math.min(lineOrigin.getLastLineNumber(), lines.length);
+        for (int line = Math.max(lineOrigin.getFirstLineNumber(), 1); line <= lastLine; line++) {
+          Matcher matcher = PLACEHOLDER.matcher(lines[line - 1]);
+          while (matcher.find()) {
+            String token = placeholders.getToken(matcher.group());
+            if (token != null) {
+              tokens.add(token);
+            }
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  private static byte[] serialize(Entry entry) {
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+        out.writeObject(entry);
+      }
+      return bytes.toByteArray();
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private static Entry deserialize(byte[] skeleton) {
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(skeleton))) {
+      return (Entry) in.readObject();
+    } catch (IOException | ClassNotFoundException e) {
+      return null;
+    }
+  }
+
+  /** The placeholders of the token values of one spreadsheet row. */
+  private static class Placeholders {
+    private final char set;
+    private final Set<String> keptTokens;
+    private final Map<String, String> placeholders = new HashMap<>();
+    private final Map<String, String> values = new HashMap<>();
+    private final Map<String, String> tokens = new HashMap<>();
+    private int count;
+
+    Placeholders(char set, Set<String> keptTokens) {
+      this.set = set;
+      this.keptTokens = keptTokens;
+    }
+
+    /** Returns the text written for the token: its placeholder or its value. */
+    String getText(String token, String value) {
+      String placeholder = placeholders.get(token);
+      if (placeholder != null) {
+        count++;
+        return placeholder;
+      }
+      if (keptTokens.contains(token)) {
+        return value;
+      }
+      int index = placeholders.size();
+      if (NUMBER_VALUE.matcher(value).matches()) {
+        placeholder = Integer.toString((set == 'A' ? 900000000 : 800000000) + index);
+      } else if (TEXT_VALUE.matcher(value).matches()) {
+        // Mixed case so that a change of case is noticed.
+        placeholder = String.format("TplValue%c%03dx", set, index);
+      } else {
+        return value;
+      }
+      placeholders.put(token, placeholder);
+      values.put(placeholder, value);
+      tokens.put(placeholder, token);
+      count++;
+      return placeholder;
+    }
+
+    /** Returns the number of placeholders written. */
+    int getCount() {
+      return count;
+    }
+
+    /** Returns the placeholders by token. */
+    Map<String, String> getPlaceholders() {
+      return placeholders;
+    }
+
+    /** Returns the values by placeholder. */
+    Map<String, String> getValues() {
+      return values;
+    }
+
+    String getToken(String placeholder) {
+      return tokens.get(placeholder);
+    }
+  }
+
+  /** Replaces placeholders in the places of an entry that the reader copies values to. */
+  private static class Substitution {
+    private final Map<String, String> replacements;
+    private final Set<String> replaced = new HashSet<>();
+    private final Set<String> misplaced = new HashSet<>();
+
+    /** Matches any placeholder. */
+    private final Pattern pattern;
+
+    Substitution(Map<String, String> replacements) {
+      this.replacements = replacements;
+      this.pattern =
+          replacements.isEmpty()
+              ? null
+              : Pattern.compile(
+                  replacements.keySet().stream()
+                      .map(Pattern::quote)
+                      .collect(Collectors.joining("|")));
+    }
+
+    void apply(Entry entry) {
+      Long sequenceLength = replace(entry.getIdLineSequenceLength());
+      if (sequenceLength != null) {
+        entry.setIdLineSequenceLength(sequenceLength);
+      }
+      Text description = entry.getDescription();
+      if (description != null && description.getText() != null) {
+        description.setText(replace(description.getText()));
+      }
+      for (Feature feature : entry.getFeatures()) {
+        if (feature.getLocations() != null) {
+          for (Location location : feature.getLocations().getLocations()) {
+            apply(location);
+          }
+        }
+        for (Qualifier qualifier : feature.getQualifiers()) {
+          String value = qualifier.getValue();
+          if (value == null) {
+            continue;
+          }
+          if (READER_QUALIFIERS.contains(qualifier.getName())) {
+            for (String placeholder : replacements.keySet()) {
+              if (value.contains(placeholder)) {
+                misplaced.add(placeholder);
+              }
+            }
+            continue;
+          }
+          String newValue = replace(value);
+          if (!newValue.equals(value)) {
+            qualifier.setValue(newValue);
+          }
+        }
+      }
+    }
+
+    private void apply(Location location) {
+      if (location instanceof RemoteLocation) {
+        return;
+      }
+      Long beginPosition = replace(location.getBeginPosition());
+      Long endPosition = replace(location.getEndPosition());
+      if (location instanceof Base) {
+        if (beginPosition != null) {
+          ((Base) location).setPosition(beginPosition);
+        }
+        return;
+      }
+      if (beginPosition != null) {
+        location.setBeginPosition(beginPosition);
+      }
+      if (endPosition != null) {
+        location.setEndPosition(endPosition);
+      }
+    }
+
+    /** Returns the replacement of a number placeholder, or null if it is not one. */
+    private Long replace(Long number) {
+      if (number == null) {
+        return null;
+      }
+      String replacement = replacements.get(number.toString());
+      if (replacement == null) {
+        return null;
+      }
+      replaced.add(number.toString());
+      return Long.valueOf(replacement);
+    }
+
+    /** Replaces the placeholders in one pass so that a value is never replaced in turn. */
+    private String replace(String text) {
+      if (pattern == null) {
+        return text;
+      }
+      Matcher matcher = pattern.matcher(text);
+      if (!matcher.find()) {
+        return text;
+      }
+      StringBuilder result = new StringBuilder(text.length());
+      do {
+        replaced.add(matcher.group());
+        matcher.appendReplacement(
+            result, Matcher.quoteReplacement(replacements.get(matcher.group())));
+      } while (matcher.find());
+      matcher.appendTail(result);
+      return result.toString();
+    }
+  }
+}
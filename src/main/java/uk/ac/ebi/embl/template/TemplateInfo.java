@@ -28,6 +28,7 @@ public class TemplateInfo {
   private List<TemplateTokenInfo> tokenInfos = new ArrayList<TemplateTokenInfo>();
   private List<TemplateSectionInfo> sectionInfos = new ArrayList<TemplateSectionInfo>();
   private List<TemplateTokenGroupInfo> groupInfo = new ArrayList<TemplateTokenGroupInfo>();
+  private CompiledTemplate compiledTemplate;
 
   public TemplateInfo() {
     // Null argument constructor for GWT
@@ -117,8 +118,17 @@ public class TemplateInfo {
     return templateString;
   }
 
-  public void setTemplateString(String templateString) {
+  public synchronized void setTemplateString(String templateString) {
     this.templateString = templateString;
+    this.compiledTemplate = null;
+  }
+
+  /** Returns the template string compiled for writing entries, compiled once on first use. */
+  public synchronized CompiledTemplate getCompiledTemplate() {
+    if (compiledTemplate == null) {
+      compiledTemplate = CompiledTemplate.compile(templateString, sectionInfos);
+    }
+    return compiledTemplate;
   }
 
   public Integer getVersion() {
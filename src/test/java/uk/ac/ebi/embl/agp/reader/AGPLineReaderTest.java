@@ -11,6 +11,7 @@
 package uk.ac.ebi.embl.agp.reader;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 public class AGPLineReaderTest extends AGPReaderTest {
 
@@ -97,4 +98,26 @@ public class AGPLineReaderTest extends AGPReaderTest {
     assertEquals("IWGSC_CSS_6DL_scaff_3330717", lineReader.getCurrentTag());
     assertFalse(lineReader.isNextTag());
   }
+
+  public void testSplitFields() {
+    String[] lines = {
+      "",
+      " ",
+      "\t\t",
+      "a",
+      "a b",
+      "a\tb\t",
+      "a\t\tb \t ",
+      " a b",
+      "\ta\u000Bb\fc\rd\ne",
+      "a\u00A0b",
+      "IWGSC_CSS_6DL_scaff_3330716\t331\t354\t2\tN\t24\tscaffold\tyes\tpaired-ends",
+    };
+    for (String line : lines) {
+      assertEquals(
+          line,
+          Arrays.asList(line.split("\\s+")),
+          Arrays.asList(AGPLineReader.splitFields(line)));
+    }
+  }
 }
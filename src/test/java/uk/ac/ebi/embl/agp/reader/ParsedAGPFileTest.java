@@ -0,0 +1,147 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.agp.reader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import uk.ac.ebi.embl.api.entry.AgpRow;
+import uk.ac.ebi.embl.api.entry.Entry;
+import uk.ac.ebi.embl.api.validation.ValidationResult;
+import uk.ac.ebi.embl.flatfile.writer.embl.EmblEntryWriter;
+
+public class ParsedAGPFileTest extends AGPReaderTest {
+
+  private static final String[] FILES = {
+    "src/test/resources/uk/ac/ebi/embl/api/validation/file/valid_agp.txt",
+    "src/test/resources/uk/ac/ebi/embl/api/validation/file/invalid_agp.txt",
+    "src/test/resources/genome/agp_unlocalised/agp_scaffold_levels.txt",
+    "src/test/resources/genome/multilevel_scaffold/agp_scafoold_levels.txt",
+  };
+
+  public void testFiles() throws IOException {
+    for (String file : FILES) {
+      assertSameEntries(new String(Files.readAllBytes(Paths.get(file))));
+    }
+  }
+
+  public void testInvalidRows() throws IOException {
+    assertSameEntries(
+        "##agp-version	2.0\n"
+            + "scaff_1	1	330	1	W	contig_1;	1	330	+\n"
+            + "scaff_1	331	354	2	N	24	scaffold	yes	paired-ends;map\n"
+            + "scaff_1	355	x	3	W	contig_2	1	300	+\n"
+            + "scaff_2	1	330	1	W	contig_3	1	330\n"
+            + "scaff_2	331	354	2	U	100	contig	no\n"
+            + "scaff_3	1	330	1	W	contig_4	1	330	-	extra\n");
+  }
+
+  public void testObjectIndex() throws IOException {
+    ParsedAGPFile agpFile = read("scaff_1	1	330	1	W	contig_1	1	330	+\n");
+    assertEquals(1, agpFile.getObjectCount());
+    assertEquals("scaff_1", agpFile.getObjectName(0));
+    try {
+      agpFile.getEntry(1);
+      fail();
+    } catch (IndexOutOfBoundsException e) {
+      // expected
+    }
+  }
+
+  public void testRows() throws IOException {
+    ParsedAGPFile agpFile =
+        read(
+            "scaff_1	331	354	2	N	24	scaffold	yes	paired-ends\n"
+                + "scaff_1	1	330	1	W	contig_1	1	330	+\n"
+                + "scaff_1	355	654	3	W	contig_2	1	300	minus\n");
+    int[] rows = agpFile.getSortedRows(0);
+    assertEquals(3, rows.length);
+    assertEquals(1, rows[0]);
+    assertEquals(0, rows[1]);
+    assertEquals(2, rows[2]);
+    assertTrue(agpFile.isGap(rows[1]));
+    assertFalse(agpFile.isGap(rows[2]));
+    assertEquals("scaff_1", agpFile.getObject(rows[2]));
+    assertEquals(Integer.valueOf(3), agpFile.getPartNumber(rows[2]));
+    assertEquals("contig_2", agpFile.getComponentId(rows[2]));
+    assertEquals(Long.valueOf(1), agpFile.getComponentBeg(rows[2]));
+    assertEquals(Long.valueOf(300), agpFile.getComponentEnd(rows[2]));
+    assertEquals("-", agpFile.getOrientation(rows[2]));
+    assertNull(agpFile.getComponentId(rows[1]));
+    try {
+      agpFile.getObject(3);
+      fail();
+    } catch (IndexOutOfBoundsException e) {
+      // expected
+    }
+  }
+
+  private void assertSameEntries(String agp) throws IOException {
+    List<Entry> entries = new ArrayList<>();
+    List<ValidationResult> results = new ArrayList<>();
+    AGPFileReader reader = reader(agp);
+    ValidationResult result = reader.read();
+    while (reader.isEntry()) {
+      entries.add(reader.getEntry());
+      results.add(result);
+      result = reader.read();
+    }
+    ParsedAGPFile agpFile = read(agp);
+    assertEquals(entries.size(), agpFile.getObjectCount());
+    assertEquals(result.getMessages().size(), agpFile.getEndResult().getMessages().size());
+    for (int object = 0; object < entries.size(); object++) {
+      Entry expected = entries.get(object);
+      Entry entry = agpFile.getEntry(object);
+      assertEquals(expected.getSubmitterAccession(), agpFile.getObjectName(object));
+      assertEquals(expected.getSubmitterAccession(), entry.getSubmitterAccession());
+      assertEquals(results.get(object).isValid(), agpFile.getParseResult(object).isValid());
+      assertEquals(
+          results.get(object).getMessages().size(),
+          agpFile.getParseResult(object).getMessages().size());
+      assertEquals(describe(expected), describe(entry));
+      assertEquals(write(expected), write(entry));
+    }
+  }
+
+  private static String describe(Entry entry) {
+    StringBuilder description = new StringBuilder();
+    description.append(entry.getSequence().getTopology()).append('\n');
+    for (AgpRow agpRow : entry.getSequence().getAgpRows()) {
+      description
+          .append(agpRow)
+          .append(' ')
+          .append(agpRow.getLinkageevidence())
+          .append(' ')
+          .append(agpRow.getOrigin() == null ? null : agpRow.getOrigin().getOriginText())
+          .append('\n');
+    }
+    return description.toString();
+  }
+
+  private static String write(Entry entry) throws IOException {
+    StringWriter writer = new StringWriter();
+    new EmblEntryWriter(entry).write(writer);
+    return writer.toString();
+  }
+
+  private static ParsedAGPFile read(String agp) throws IOException {
+    return ParsedAGPFile.read(new AGPLineReader(new BufferedReader(new StringReader(agp))));
+  }
+
+  private static AGPFileReader reader(String agp) {
+    return new AGPFileReader(new AGPLineReader(new BufferedReader(new StringReader(agp))));
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.checksum;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+import uk.ac.ebi.embl.api.entry.sequence.PackedSequence;
+import uk.ac.ebi.embl.api.entry.sequence.Sequence;
+import uk.ac.ebi.embl.api.entry.sequence.SequenceFactory;
+
+public class CRC32Test {
+
+  @Test
+  public void testMatchesByteAtATimeChecksum() {
+    Random random = new Random(1);
+    for (int length = 0; length < 300; length++) {
+      byte[] bytes = new byte[length];
+      random.nextBytes(bytes);
+      assertEquals(byteAtATime(0xFFFFFFFFL, bytes), CRC32.calculateCRC32(bytes));
+      assertEquals(byteAtATime(0xFFFFFFFFL, bytes), new CRC32().update(bytes).getValue());
+
+      // The checksum is continued by later updates.
+      int split = random.nextInt(length + 1);
+      CRC32 crc = new CRC32().update(bytes, 0, split).update(bytes, split, length - split);
+      assertEquals(byteAtATime(0xFFFFFFFFL, bytes), crc.getValue());
+    }
+  }
+
+  @Test
+  public void testBasesAreUpperCased() {
+    assertEquals(
+        CRC32.checksum(sequence("ACGTNRYKM".getBytes())),
+        CRC32.checksum(sequence("acgtnrykm".getBytes())));
+    // The inverted standard CRC-32 of "ACGT".
+    assertEquals(1559322637L, CRC32.calculateCRC32("acgt".getBytes()));
+  }
+
+  @Test
+  public void testSequenceAndBuffer() {
+    byte[] bases = new byte[200000];
+    Random random = new Random(2);
+    for (int i = 0; i < bases.length; i++) {
+      bases[i] = (byte) "acgtn".charAt(random.nextInt(5));
+    }
+    long expected = byteAtATime(0xFFFFFFFFL, bases);
+    assertEquals(expected, CRC32.checksum(sequence(bases)));
+
+    Sequence packedSequence = new SequenceFactory().createSequence();
+    packedSequence.setPackedSequence(PackedSequence.pack(bases));
+    assertEquals(expected, CRC32.checksum(packedSequence));
+
+    ByteBuffer directBuffer = ByteBuffer.allocateDirect(bases.length + 10);
+    directBuffer.put(new byte[10]).put(bases).flip().position(10);
+    assertEquals(expected, new CRC32().update(directBuffer).getValue());
+    assertFalse(directBuffer.hasRemaining());
+  }
+
+  @Test
+  public void testThreadsDoNotShareChecksums() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Boolean>> results = new ArrayList<>();
+      for (int thread = 0; thread < 8; thread++) {
+        int seed = thread;
+        results.add(
+            executor.submit(
+                () -> {
+                  Random random = new Random(seed);
+                  for (int i = 0; i < 1000; i++) {
+                    byte[] bytes = new byte[random.nextInt(100)];
+                    random.nextBytes(bytes);
+                    int half = bytes.length / 2;
+                    CRC32.reset();
+                    CRC32.calculateCRC32(bytes, 0, half);
+                    Thread.yield();
+                    long crc = CRC32.calculateCRC32(bytes, half, bytes.length - half);
+                    if (crc != byteAtATime(0xFFFFFFFFL, bytes)) {
+                      return false;
+                    }
+                  }
+                  return true;
+                }));
+      }
+      for (Future<Boolean> result : results) {
+        assertTrue(result.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testMD5Checksum() throws Exception {
+    byte[] bases = "acgtacgtnnnn".getBytes();
+    String expected = "";
+    for (byte b : MessageDigest.getInstance("MD5").digest(bases)) {
+      expected += Integer.toString((b & 0xff) + 0x100, 16).substring(1);
+    }
+    MD5Checksum md5Checksum = new MD5Checksum();
+    assertEquals(expected, md5Checksum.getChecksum(new ByteArrayInputStream(bases)));
+    assertEquals(expected, md5Checksum.getChecksum(ByteBuffer.wrap(bases)));
+    assertEquals(expected, md5Checksum.getChecksum(sequence(bases)));
+  }
+
+  private static Sequence sequence(byte[] bases) {
+    return new SequenceFactory().createSequenceByte(bases);
+  }
+
+  /** The checksum calculated one byte at a time, as it was before the lookup tables. */
+  private static long byteAtATime(long crc, byte[] buffer) {
+    long[] values = new long[256];
+    for (int i = 0; i < 256; ++i) {
+      long value = i;
+      for (int j = 8; j > 0; j--) {
+        if ((value & 1) == 1) value = (value >>> 1) ^ 0xEDB88320L;
+        else value >>>= 1;
+      }
+      values[i] = value;
+    }
+    for (byte b : buffer) {
+      int index = (int) ((crc ^ Character.toUpperCase((char) b)) & 0xff);
+      crc = ((crc >>> 8) & 0x00FFFFFFL) ^ values[index];
+    }
+    return crc;
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.entry;
+
+import static org.junit.Assert.*;
+
+import java.io.FileOutputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+public class AssemblySequenceInfoFileTest {
+
+  @Test
+  public void testSequenceInfo() throws Exception {
+    Path dir = Files.createTempDirectory("test");
+    LinkedHashMap<String, AssemblySequenceInfo> sequenceInfo = createSequenceInfo(1000);
+    AssemblySequenceInfo.writeMapObject(sequenceInfo, dir.toString(), "sequence.info");
+    Path file = dir.resolve("sequence.info");
+    assertTrue(AssemblySequenceInfoFile.isCompact(file));
+
+    Map<String, AssemblySequenceInfo> read =
+        AssemblySequenceInfo.getMapObject(dir.toString(), "sequence.info");
+    assertEquals(new ArrayList<>(sequenceInfo.keySet()), new ArrayList<>(read.keySet()));
+    for (String name : sequenceInfo.keySet()) {
+      assertEquals(sequenceInfo.get(name).toString(), read.get(name).toString());
+    }
+
+    try (AssemblySequenceInfoFile.Lookup lookup = new AssemblySequenceInfoFile.Lookup(file)) {
+      assertEquals(sequenceInfo.size(), lookup.size());
+      for (String name : sequenceInfo.keySet()) {
+        assertEquals(sequenceInfo.get(name).toString(), lookup.get(name).toString());
+      }
+      assertNull(lookup.get("UNKNOWN"));
+    }
+  }
+
+  @Test
+  public void testEmptySequenceInfo() throws Exception {
+    Path file = Files.createTempFile("test", ".info");
+    AssemblySequenceInfoFile.writeSequenceInfo(file, new LinkedHashMap<>());
+    assertTrue(AssemblySequenceInfoFile.readSequenceInfo(file).isEmpty());
+    try (AssemblySequenceInfoFile.Lookup lookup = new AssemblySequenceInfoFile.Lookup(file)) {
+      assertNull(lookup.get("CONTIG1"));
+    }
+  }
+
+  @Test
+  public void testNames() throws Exception {
+    Path dir = Files.createTempDirectory("test");
+    HashSet<String> set = new HashSet<>(List.of("A", "B", "é"));
+    AssemblySequenceInfo.writeSetObject(set, dir.toString(), "unplaced.txt");
+    assertEquals(set, AssemblySequenceInfo.getObject(dir.toString(), "unplaced.txt"));
+
+    List<String> list = List.of("C", "A", "C");
+    AssemblySequenceInfo.writeListObject(list, dir.toString(), "names");
+    assertEquals(list, AssemblySequenceInfo.getListObject(dir.toString(), "names"));
+    assertEquals(list, AssemblySequenceInfo.getObject(dir.toString(), "names"));
+  }
+
+  @Test
+  public void testJavaSerializedFiles() throws Exception {
+    Path dir = Files.createTempDirectory("test");
+    LinkedHashMap<String, AssemblySequenceInfo> sequenceInfo = createSequenceInfo(10);
+    HashSet<String> names = new HashSet<>(List.of("A", "B"));
+    try (ObjectOutputStream oos =
+        new ObjectOutputStream(new FileOutputStream(dir.resolve("sequence.info").toFile()))) {
+      oos.writeObject(sequenceInfo);
+    }
+    try (ObjectOutputStream oos =
+        new ObjectOutputStream(new FileOutputStream(dir.resolve("unplaced.txt").toFile()))) {
+      oos.writeObject(names);
+    }
+    assertFalse(AssemblySequenceInfoFile.isCompact(dir.resolve("sequence.info")));
+
+    Map<String, AssemblySequenceInfo> read =
+        AssemblySequenceInfo.getMapObject(dir.toString(), "sequence.info");
+    assertEquals(new ArrayList<>(sequenceInfo.keySet()), new ArrayList<>(read.keySet()));
+    assertEquals(names, AssemblySequenceInfo.getObject(dir.toString(), "unplaced.txt"));
+  }
+
+  private static LinkedHashMap<String, AssemblySequenceInfo> createSequenceInfo(int count) {
+    Random random = new Random(1);
+    LinkedHashMap<String, AssemblySequenceInfo> sequenceInfo = new LinkedHashMap<>();
+    for (int i = 0; i < count; i++) {
+      sequenceInfo.put(
+          "CONTIG" + random.nextInt(1000000),
+          new AssemblySequenceInfo(
+              random.nextInt(3) == 0 ? random.nextLong() : random.nextInt(100000),
+              random.nextInt(3) - 1,
+              random.nextBoolean() ? null : "ABC" + i));
+    }
+    return sequenceInfo;
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.entry.feature;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import uk.ac.ebi.embl.api.entry.Entry;
+import uk.ac.ebi.embl.api.entry.location.LocationFactory;
+
+public class FeatureIntervalIndexTest {
+
+  private final LocationFactory locationFactory = new LocationFactory();
+
+  @Test
+  public void testSameFeaturesAsScan() {
+    Random random = new Random(1);
+    for (int n : new int[] {0, 1, 2, 3, 7, 8, 9, 15, 16, 17, 100, 1000}) {
+      List<Feature> features = new ArrayList<>();
+      for (int i = 0; i < n; i++) {
+        Feature feature = new Feature("feat" + i, false);
+        int segments = 1 + random.nextInt(3);
+        for (int j = 0; j < segments; j++) {
+          long begin = 1 + random.nextInt(10000);
+          long end = begin + random.nextInt(random.nextInt(10) == 0 ? 5000 : 100);
+          feature.getLocations().addLocation(locationFactory.createLocalRange(begin, end));
+        }
+        features.add(feature);
+      }
+      FeatureIntervalIndex<Feature> index = new FeatureIntervalIndex<>(features);
+      for (int query = 0; query < 200; query++) {
+        long begin = random.nextInt(11000);
+        long end = begin + random.nextInt(query % 2 == 0 ? 10 : 2000);
+        assertEquals(scan(features, begin, end), index.getOverlappingFeatures(begin, end));
+      }
+    }
+  }
+
+  @Test
+  public void testUnindexedFeatures() {
+    Feature local = feature(10L, 20L);
+    Feature remote = new Feature("remote", false);
+    remote.getLocations().addLocation(locationFactory.createRemoteRange("A00001", 1, 10L, 20L));
+    Feature remoteAndLocal = feature(100L, 200L);
+    remoteAndLocal
+        .getLocations()
+        .addLocation(locationFactory.createRemoteRange("A00001", 1, 15L, 15L));
+    Feature empty = new Feature("empty", false);
+    List<Feature> features = List.of(empty, local, remote, remoteAndLocal);
+
+    FeatureIntervalIndex<Feature> index = new FeatureIntervalIndex<>(features);
+    assertEquals(List.of(local), index.getOverlappingFeatures(15, 15));
+    assertEquals(List.of(empty, remote), index.getUnindexedFeatures());
+    assertEquals(List.of(empty, local, remote), index.getCandidateFeatures(15, 15));
+    assertEquals(List.of(empty, remote, remoteAndLocal), index.getCandidateFeatures(150, 300));
+    assertTrue(index.getOverlappingFeatures(21, 99).isEmpty());
+  }
+
+  @Test
+  public void testEntryIndex() {
+    Entry entry = new Entry();
+    Feature first = feature(10L, 20L);
+    entry.addFeature(first);
+    FeatureIntervalIndex<Feature> index = entry.getFeatureIntervalIndex();
+    assertSame(index, entry.getFeatureIntervalIndex());
+    assertEquals(List.of(first), index.getOverlappingFeatures(20, 30));
+
+    Feature second = feature(25L, 30L);
+    entry.addFeature(second);
+    assertEquals(
+        List.of(first, second), entry.getFeatureIntervalIndex().getOverlappingFeatures(20, 30));
+    entry.removeFeature(first);
+    assertEquals(List.of(second), entry.getFeatureIntervalIndex().getOverlappingFeatures(20, 30));
+    entry.clearFeatures();
+    assertTrue(entry.getFeatureIntervalIndex().getOverlappingFeatures(20, 30).isEmpty());
+  }
+
+  @Test
+  public void testEntryIndexAfterChanges() {
+    Entry entry = new Entry();
+    Feature first = feature(10L, 20L);
+    entry.addFeature(first);
+    FeatureIntervalIndex<Feature> index = entry.getFeatureIntervalIndex();
+
+    Feature second = feature(40L, 50L);
+    entry.getFeatures().set(0, second);
+    assertEquals(List.of(second), entry.getFeatureIntervalIndex().getOverlappingFeatures(40, 40));
+
+    second.getLocations().getLocations().get(0).setBeginPosition(5L);
+    assertEquals(List.of(second), entry.getFeatureIntervalIndex().getOverlappingFeatures(5, 5));
+
+    second.getLocations().addLocation(locationFactory.createLocalRange(100L, 110L));
+    assertEquals(List.of(second), entry.getFeatureIntervalIndex().getOverlappingFeatures(105, 105));
+
+    index = entry.getFeatureIntervalIndex();
+    second.getLocations().removeGlobalComplement();
+    assertSame(index, entry.getFeatureIntervalIndex());
+  }
+
+  private Feature feature(Long begin, Long end) {
+    Feature feature = new Feature("feat", false);
+    feature.getLocations().addLocation(locationFactory.createLocalRange(begin, end));
+    return feature;
+  }
+
+  private static List<Feature> scan(List<Feature> features, long begin, long end) {
+    List<Feature> overlapping = new ArrayList<>();
+    for (Feature feature : features) {
+      if (feature.getLocations().getMinPosition() <= end
+          && feature.getLocations().getMaxPosition() >= begin) {
+        overlapping.add(feature);
+      }
+    }
+    return overlapping;
+  }
+}
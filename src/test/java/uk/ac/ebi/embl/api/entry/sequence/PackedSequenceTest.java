@@ -0,0 +1,86 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.entry.sequence;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PackedSequenceTest {
+
+  SequenceFactory sequenceFactory;
+
+  @Before
+  public void setUp() throws Exception {
+    sequenceFactory = new SequenceFactory();
+  }
+
+  @Test
+  public void testPackAndUnpack() {
+    String sequence = "acgtnnnnACGTNNrykmswbdhvacgt-acgtnAcGt";
+    PackedSequence packed = PackedSequence.pack(sequence.getBytes());
+    assertEquals(sequence.length(), packed.getLength());
+    assertEquals(sequence, new String(packed.toByteArray()));
+    assertEquals('N', packed.getByte(12));
+    assertEquals("nnACGTNNr", new String(packed.getBytes(6, 9)));
+    assertEquals(18, packed.getOtherBaseCount());
+  }
+
+  @Test
+  public void testRandomSlices() {
+    Random random = new Random(7);
+    byte[] alphabet = "acgtacgtacgtnNACGTry".getBytes();
+    byte[] bytes = new byte[10003];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = alphabet[random.nextInt(alphabet.length)];
+    }
+    PackedSequence packed = PackedSequence.pack(bytes);
+    for (int i = 0; i < 200; i++) {
+      int offset = random.nextInt(bytes.length);
+      int length = random.nextInt(bytes.length - offset + 1);
+      assertEquals(
+          new String(bytes, offset, length), new String(packed.getBytes(offset, length)));
+      assertEquals(
+          new String(bytes, offset, length),
+          new String(packed.subSequence(offset, length).toByteArray()));
+    }
+  }
+
+  @Test
+  public void testBuilderAppend() {
+    PackedSequence.Builder builder = new PackedSequence.Builder(1);
+    builder.append("nnacgt".getBytes(), 2, 4).append("NNac".getBytes(), 0, 4);
+    assertEquals(PackedSequence.pack("acgtNNac".getBytes()), builder.build());
+  }
+
+  @Test
+  public void testPackedSequence() {
+    Sequence seq = sequenceFactory.createSequenceByte("nnacgtNNacgtnn".getBytes());
+    seq.pack();
+    assertNotNull(seq.getPackedSequence());
+    assertTrue(seq.hasSequenceByte());
+    assertEquals(14, seq.getLength());
+    assertEquals("nnacgtNNacgtnn", new String(seq.getSequenceByte()));
+    assertEquals("cgtNN", new String(seq.getSequenceByte(4L, 8L)));
+    assertEquals("cgtNN", seq.getSequence(4L, 8L));
+
+    byte[] buffer = new byte[4];
+    assertEquals(4, seq.copySequenceByte(11, buffer));
+    assertEquals("gtnn", new String(buffer));
+    assertEquals(0, seq.copySequenceByte(15, buffer));
+
+    Sequence other = sequenceFactory.createSequenceByte("nnacgtNNacgtnn".getBytes());
+    other.pack();
+    assertEquals(seq, other);
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.entry.sequence;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import org.junit.Test;
+
+public class SequenceCompositionTest {
+
+  @Test
+  public void testComposition() {
+    Sequence sequence = new SequenceFactory().createSequenceByte("nnacgtNNACgtnrnn".getBytes());
+    SequenceComposition composition = sequence.getComposition();
+    assertEquals(16, composition.getLength());
+    assertEquals(5, composition.getNCount());
+    assertEquals(2, composition.getCount((byte) 'N'));
+    assertEquals(1, composition.getCount((byte) 'r'));
+
+    BaseCount baseCount = composition.getBaseCount();
+    assertEquals(1, baseCount.getA());
+    assertEquals(1, baseCount.getC());
+    assertEquals(2, baseCount.getG());
+    assertEquals(2, baseCount.getT());
+    assertEquals(10, baseCount.getOther());
+
+    assertEquals("1-2 13-13 15-16", nRuns(composition));
+    assertEquals(1, composition.getUpperCaseRunCount());
+    assertEquals(7, composition.getUpperCaseRunStart(0));
+    assertEquals(10, composition.getUpperCaseRunEnd(0));
+
+    assertTrue(composition.isAllN(1, 2));
+    assertTrue(composition.isAllN(15, 16));
+    assertTrue(composition.isAllN(16, 16));
+    assertFalse(composition.isAllN(1, 3));
+    assertFalse(composition.isAllN(0, 1));
+    assertFalse(composition.isAllN(13, 15));
+    assertFalse(composition.isAllN(7, 8));
+  }
+
+  @Test
+  public void testCachedUntilSequenceReplaced() {
+    Sequence sequence = new SequenceFactory().createSequenceByte("nnacgt".getBytes());
+    SequenceComposition composition = sequence.getComposition();
+    assertSame(composition, sequence.getComposition());
+
+    sequence.pack();
+    assertSame(composition, sequence.getComposition());
+
+    sequence.setPackedSequence(sequence.getPackedSequence().subSequence(2, 4));
+    assertEquals(0, sequence.getComposition().getNRunCount());
+    assertEquals(4, sequence.getComposition().getLength());
+
+    sequence.setSequence(ByteBuffer.wrap("acgn".getBytes()));
+    assertEquals("4-4", nRuns(sequence.getComposition()));
+
+    sequence.setSequence(null);
+    assertNull(sequence.getComposition());
+    assertEquals(0, BaseCount.count(sequence).getOther());
+  }
+
+  @Test
+  public void testPackedSequenceLongerThanChunk() {
+    Random random = new Random(5);
+    byte[] bases = new byte[200_003];
+    for (int i = 0; i < bases.length; ) {
+      byte base = (byte) "acgtnA".charAt(random.nextInt(6));
+      for (int run = 1 + random.nextInt(5000); run > 0 && i < bases.length; run--) {
+        bases[i++] = base;
+      }
+    }
+    Sequence sequence = new SequenceFactory().createSequenceByte(bases);
+    sequence.pack();
+    SequenceComposition composition = sequence.getComposition();
+
+    StringBuilder expected = new StringBuilder();
+    long nCount = 0;
+    for (int i = 0; i < bases.length; i++) {
+      if (bases[i] == 'n') {
+        nCount++;
+        if (i == 0 || bases[i - 1] != 'n') {
+          expected.append(expected.length() == 0 ? "" : " ").append(i + 1).append('-');
+        }
+        if (i == bases.length - 1 || bases[i + 1] != 'n') {
+          expected.append(i + 1);
+        }
+      }
+    }
+    assertEquals(expected.toString(), nRuns(composition));
+    assertEquals(nCount, composition.getNCount());
+    assertEquals(BaseCount.count(bases).getOther(), composition.getBaseCount().getOther());
+  }
+
+  private static String nRuns(SequenceComposition composition) {
+    StringBuilder runs = new StringBuilder();
+    for (int run = 0; run < composition.getNRunCount(); run++) {
+      runs.append(run == 0 ? "" : " ")
+          .append(composition.getNRunStart(run))
+          .append('-')
+          .append(composition.getNRunEnd(run));
+    }
+    return runs.toString();
+  }
+}
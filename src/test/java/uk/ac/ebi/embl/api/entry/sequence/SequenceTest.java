@@ -249,4 +249,24 @@ public class SequenceTest {
     sequence.addAgpRow(validComponentrow1);
     assertEquals(684, sequence.getLength());
   }
+
+  @Test
+  public void testEqualsPackedSequence() {
+    byte[] bases = new byte[70000];
+    for (int i = 0; i < bases.length; i++) {
+      bases[i] = (byte) "acgt".charAt(i * 7 % 4);
+    }
+    Sequence sequence = sequenceFactory.createSequenceByte(bases.clone());
+    Sequence packed = sequenceFactory.createSequenceByte(bases.clone());
+    packed.pack();
+    assertEquals(sequence, packed);
+    assertEquals(packed, sequence);
+    assertEquals(sequence.hashCode(), packed.hashCode());
+
+    bases[bases.length - 1] = 'n';
+    Sequence changed = sequenceFactory.createSequenceByte(bases);
+    assertNotEquals(changed, packed);
+    assertNotEquals(sequence, sequenceFactory.createSequenceByte("acgt".getBytes()));
+    assertNotEquals(sequence, sequenceFactory.createSequence());
+  }
 }
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.service;
+
+import static org.junit.Assert.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import uk.ac.ebi.ena.taxonomy.client.TaxonomyClient;
+import uk.ac.ebi.ena.taxonomy.taxon.Taxon;
+
+public class CachingTaxonomyClientTest {
+
+  private CountingTaxonomyClient remoteClient;
+  private long now;
+
+  @Before
+  public void setUp() {
+    remoteClient = new CountingTaxonomyClient();
+    now = 0;
+  }
+
+  @Test
+  public void testLookupIsCached() {
+    CachingTaxonomyClient client = newClient(100, Duration.ofMinutes(1));
+    assertEquals(Long.valueOf(9606), client.getTaxonByScientificName("Homo sapiens").getTaxId());
+    assertEquals(Long.valueOf(9606), client.getTaxonByScientificName("Homo sapiens").getTaxId());
+    assertTrue(client.isChildOfAny("Homo sapiens", "Eukaryota", "Viruses"));
+    assertTrue(client.isChildOfAny("Homo sapiens", "Eukaryota", "Viruses"));
+    assertFalse(client.isChildOfAny("Homo sapiens", "Viruses"));
+
+    assertEquals(3, remoteClient.lookups);
+    assertEquals(2, client.getHitCount());
+    assertEquals(3, client.getMissCount());
+  }
+
+  @Test
+  public void testLookupWithoutResultIsCached() {
+    CachingTaxonomyClient client = newClient(100, Duration.ofMinutes(1));
+    assertNull(client.getTaxonByScientificName("unknown"));
+    assertNull(client.getTaxonByScientificName("unknown"));
+    assertTrue(client.getTaxonsByScientificName("unknown").isEmpty());
+    assertTrue(client.getTaxonsByScientificName("unknown").isEmpty());
+    assertEquals(2, remoteClient.lookups);
+  }
+
+  @Test
+  public void testCachedListIsCopied() {
+    CachingTaxonomyClient client = newClient(100, Duration.ofMinutes(1));
+    client.getTaxonsByScientificName("Homo sapiens").clear();
+    assertEquals(1, client.getTaxonsByScientificName("Homo sapiens").size());
+  }
+
+  @Test
+  public void testLookupExpires() {
+    CachingTaxonomyClient client = newClient(100, Duration.ofMinutes(1));
+    client.isOrganismValid("Homo sapiens");
+    now += Duration.ofSeconds(59).toNanos();
+    client.isOrganismValid("Homo sapiens");
+    assertEquals(1, remoteClient.lookups);
+    now += Duration.ofSeconds(1).toNanos();
+    client.isOrganismValid("Homo sapiens");
+    assertEquals(2, remoteClient.lookups);
+  }
+
+  @Test
+  public void testLeastRecentlyUsedLookupIsEvicted() {
+    CachingTaxonomyClient client = newClient(2, Duration.ofMinutes(1));
+    client.getTaxonByTaxid(1L);
+    client.getTaxonByTaxid(2L);
+    client.getTaxonByTaxid(1L);
+    client.getTaxonByTaxid(3L);
+    assertEquals(2, client.size());
+    assertEquals(3, remoteClient.lookups);
+    client.getTaxonByTaxid(1L);
+    assertEquals(3, remoteClient.lookups);
+    client.getTaxonByTaxid(2L);
+    assertEquals(4, remoteClient.lookups);
+  }
+
+  @Test
+  public void testSnapshot() throws Exception {
+    CachingTaxonomyClient client = newClient(100, Duration.ofMinutes(1));
+    client.isOrganismValid("Homo sapiens");
+    client.isChildOf("Homo sapiens", "Viruses");
+    client.getTaxonByScientificName("unknown");
+
+    Path snapshotFile = Files.createTempFile("taxonomy", ".snapshot");
+    try {
+      client.saveSnapshot(snapshotFile);
+      CountingTaxonomyClient offlineClient = new CountingTaxonomyClient();
+      CachingTaxonomyClient snapshotClient =
+          new CachingTaxonomyClient(offlineClient, 100, Duration.ofMinutes(1), () -> now);
+      snapshotClient.loadSnapshot(snapshotFile);
+      now += Duration.ofDays(1).toNanos();
+
+      assertTrue(snapshotClient.isOrganismValid("Homo sapiens"));
+      assertFalse(snapshotClient.isChildOf("Homo sapiens", "Viruses"));
+      assertNull(snapshotClient.getTaxonByScientificName("unknown"));
+      assertEquals(0, offlineClient.lookups);
+      assertEquals(3, snapshotClient.getHitCount());
+    } finally {
+      Files.delete(snapshotFile);
+    }
+  }
+
+  private CachingTaxonomyClient newClient(int maximumSize, Duration timeToLive) {
+    return new CachingTaxonomyClient(remoteClient, maximumSize, timeToLive, () -> now);
+  }
+
+  private static class CountingTaxonomyClient extends TaxonomyClient {
+    private int lookups = 0;
+
+    @Override
+    public Taxon getTaxonByTaxid(Long taxId) {
+      lookups++;
+      return taxon(taxId);
+    }
+
+    @Override
+    public Taxon getTaxonByScientificName(String scientificName) {
+      lookups++;
+      return "Homo sapiens".equals(scientificName) ? taxon(9606L) : null;
+    }
+
+    @Override
+    public List<Taxon> getTaxonsByScientificName(String scientificName) {
+      lookups++;
+      List<Taxon> taxons = new ArrayList<>();
+      if ("Homo sapiens".equals(scientificName)) {
+        taxons.add(taxon(9606L));
+      }
+      return taxons;
+    }
+
+    @Override
+    public boolean isChildOf(String name, String parentName) {
+      lookups++;
+      return "Eukaryota".equals(parentName);
+    }
+
+    @Override
+    public boolean isChildOfAny(String name, String... parentNames) {
+      lookups++;
+      for (String parentName : parentNames) {
+        if ("Eukaryota".equals(parentName)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public boolean isOrganismValid(String name) {
+      lookups++;
+      return true;
+    }
+
+    private static Taxon taxon(Long taxId) {
+      Taxon taxon = new Taxon();
+      taxon.setTaxId(taxId);
+      return taxon;
+    }
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.storage;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import uk.ac.ebi.embl.api.validation.GlobalDataSetFile;
+import uk.ac.ebi.embl.api.validation.GlobalDataSets;
+
+public class DataSetTest {
+
+  @Test
+  public void testFindRows() {
+    DataSet dataSet = new DataSet();
+    DataRow gene = new DataRow("gene", "Y");
+    DataRow cds = new DataRow("CDS", "N");
+    DataRow cdsAgain = new DataRow("CDS", "Y");
+    dataSet.addRow(gene);
+    dataSet.addRow(cds);
+    dataSet.addRow(cdsAgain);
+    dataSet.addRow(new DataRow("short"));
+
+    assertSame(cds, dataSet.findRow(0, "CDS"));
+    assertNull(dataSet.findRow(0, "cds"));
+    assertSame(cds, dataSet.findRowIgnoreCase(0, "cds"));
+    assertEquals(List.of(cds, cdsAgain), dataSet.findRows(0, "CDS"));
+    assertEquals(List.of(gene, cdsAgain), dataSet.findRows(1, "Y"));
+    assertTrue(dataSet.contains(1, "N"));
+    assertFalse(dataSet.contains(1, "short"));
+    assertTrue(dataSet.findRows(0, "mRNA").isEmpty());
+
+    // The indexes are rebuilt after a row is added.
+    DataRow mRna = new DataRow("mRNA", "N");
+    dataSet.addRow(mRna);
+    assertSame(mRna, dataSet.findRow(0, "mRNA"));
+    assertSame(mRna, dataSet.findRowIgnoreCase(0, "MRNA"));
+  }
+
+  @Test
+  public void testFindRowsMatchesScanOfGlobalDataSets() {
+    for (GlobalDataSetFile file : GlobalDataSetFile.values()) {
+      DataSet dataSet = GlobalDataSets.getDataSet(file);
+      for (DataRow dataRow : dataSet.getRows()) {
+        for (int column = 0; column < dataRow.getLength(); column++) {
+          String value = dataRow.getString(column);
+          if (value == null) {
+            continue;
+          }
+          assertEquals(
+              file + ":" + value,
+              scan(dataSet, column, value, false),
+              dataSet.findRows(column, value));
+          String upperCase = value.toUpperCase();
+          assertEquals(
+              file + ":" + value,
+              scan(dataSet, column, upperCase, true),
+              dataSet.findRowsIgnoreCase(column, upperCase));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testFeatureKeyQualifiersHaveFeatureKeys() {
+    for (DataRow dataRow : GlobalDataSets.getRows(GlobalDataSetFile.FEATURE_KEY_QUALIFIERS)) {
+      assertNotNull(
+          dataRow.getString(0),
+          GlobalDataSets.findRow(GlobalDataSetFile.FEATURE_KEYS, 0, dataRow.getString(0)));
+    }
+  }
+
+  private static List<DataRow> scan(
+      DataSet dataSet, int column, Object value, boolean ignoreCase) {
+    List<DataRow> rows = new ArrayList<>();
+    for (DataRow dataRow : dataSet.getRows()) {
+      if (!dataRow.hasColumn(column)) {
+        continue;
+      }
+      Object columnValue = dataRow.getColumn(column);
+      if (ignoreCase
+          ? ((String) value).equalsIgnoreCase((String) columnValue)
+          : value.equals(columnValue)) {
+        rows.add(dataRow);
+      }
+    }
+    return rows;
+  }
+}
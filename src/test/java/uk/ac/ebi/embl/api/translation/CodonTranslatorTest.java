@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.translation;
+
+import static org.junit.Assert.*;
+
+import java.util.Vector;
+import org.junit.Test;
+import uk.ac.ebi.embl.api.validation.ValidationException;
+
+public class CodonTranslatorTest {
+
+  private static final String BASES = "acgtrymkswhbvdn";
+
+  @Test
+  public void testCodonTableMatchesCodonTranslation() throws ValidationException {
+    for (Integer table : TranslationTableDescriptor.TABLES.keySet()) {
+      CodonTranslator codonTranslator = new CodonTranslator();
+      codonTranslator.setTranslationTable(table);
+      assertAllCodons(codonTranslator);
+    }
+  }
+
+  @Test
+  public void testCodonTableWithCodonException() throws ValidationException {
+    CodonTranslator codonTranslator = new CodonTranslator();
+    codonTranslator.setTranslationTable(11);
+    assertEquals('*', codonTranslator.translateOtherCodon("tga".getBytes(), 0));
+    codonTranslator.addCodonException("tga", 'W');
+    assertEquals('W', codonTranslator.translateOtherCodon("tga".getBytes(), 0));
+    assertAllCodons(codonTranslator);
+
+    CodonTranslator other = new CodonTranslator();
+    other.setTranslationTable(11);
+    assertEquals('*', other.translateOtherCodon("tga".getBytes(), 0));
+  }
+
+  @Test
+  public void testNonIupacBases() throws ValidationException {
+    CodonTranslator codonTranslator = new CodonTranslator();
+    codonTranslator.setTranslationTable(11);
+    assertEquals(0, codonTranslator.translateOtherCodon("aXg".getBytes(), 0));
+    assertEquals(0, codonTranslator.translateStartCodon("ATG".getBytes(), 0));
+  }
+
+  @Test
+  public void testCodonsCreatedFromTranslation() throws ValidationException {
+    Translator translator = new Translator();
+    translator.setTranslationTable(11);
+    translator.setThreePrimePartial(true);
+    translator.addTranslationException(7, 9, 'U');
+    TranslationResult result =
+        translator.translate("atgytntgaaaracgt".getBytes()).getExtension();
+    assertEquals("MXUKT", result.getTranslation());
+    assertEquals("t", result.getTrailingBases());
+
+    Vector<Codon> codons = result.getCodons();
+    assertEquals(result.getCodonCount(), codons.size());
+    for (int i = 0; i < codons.size(); i++) {
+      Codon codon = codons.get(i);
+      assertEquals(Integer.valueOf(i * 3 + 1), codon.getPos());
+      assertEquals(Character.valueOf(result.getAminoAcid(i)), codon.getAminoAcid());
+      assertEquals(i == 2, codon.isTranslationException());
+    }
+    assertEquals("atg", codons.get(0).getCodon());
+    assertEquals(8, codons.get(1).getUnAmbiguousCodons().length);
+    assertEquals("atgytntgaaaracgt", result.getSequence());
+  }
+
+  private static void assertAllCodons(CodonTranslator codonTranslator)
+      throws ValidationException {
+    for (char base1 : BASES.toCharArray()) {
+      for (char base2 : BASES.toCharArray()) {
+        for (char base3 : BASES.toCharArray()) {
+          String bases = new String(new char[] {base1, base2, base3});
+          Codon startCodon = new Codon();
+          startCodon.setCodon(bases);
+          codonTranslator.translateStartCodon(startCodon);
+          assertEquals(
+              bases,
+              startCodon.getAminoAcid().charValue(),
+              codonTranslator.translateStartCodon(bases.getBytes(), 0));
+          Codon otherCodon = new Codon();
+          otherCodon.setCodon(bases);
+          codonTranslator.translateOtherCodon(otherCodon);
+          assertEquals(
+              bases,
+              otherCodon.getAminoAcid().charValue(),
+              codonTranslator.translateOtherCodon(bases.getBytes(), 0));
+        }
+      }
+    }
+  }
+}
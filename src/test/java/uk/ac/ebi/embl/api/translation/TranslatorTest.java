@@ -10,9 +10,14 @@
  */
 package uk.ac.ebi.embl.api.translation;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import org.junit.Before;
@@ -113,6 +118,32 @@ public class TranslatorTest {
   @Before
   public void setUp() throws Exception {}
 
+  @Test
+  public void testSerializedTranslationResult() throws Exception {
+    TranslatorTester test = new TranslatorTester();
+    test.setTranslationTable(11);
+    test.setCodonStart(1);
+    TranslationResult translationResult =
+        test.translate("atggctgaagccgaaacccatcctcctatcggttaa".getBytes()).getExtension();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(translationResult);
+    }
+    TranslationResult copy;
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      copy = (TranslationResult) in.readObject();
+    }
+    assertEquals("MAEAETHPPIG*", copy.getTranslation());
+    assertEquals(translationResult.getCodons().size(), copy.getCodons().size());
+    for (int i = 0; i < copy.getCodons().size(); i++) {
+      Codon codon = translationResult.getCodons().get(i);
+      assertEquals(codon.getCodon(), copy.getCodons().get(i).getCodon());
+      assertEquals(codon.getPos(), copy.getCodons().get(i).getPos());
+      assertEquals(codon.getAminoAcid(), copy.getCodons().get(i).getAminoAcid());
+    }
+  }
+
   @Test
   public void testValidTranslationNonRightPartialOneTrailingBase1() throws ValidationException {
     TranslatorTester test = new TranslatorTester();
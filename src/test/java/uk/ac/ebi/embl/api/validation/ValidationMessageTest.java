@@ -14,6 +14,10 @@ import static org.junit.Assert.assertEquals;
 
 import java.io.IOException;
 import java.io.StringWriter;
+import java.text.MessageFormat;
+import java.util.HashSet;
+import java.util.ResourceBundle;
+import java.util.Set;
 import org.junit.Test;
 import uk.ac.ebi.embl.api.validation.ValidationMessage.MessageFormatter;
 
@@ -122,4 +126,59 @@ public class ValidationMessageTest {
       ValidationMessage.setDefaultMessageFormatter(mf);
     }
   }
+
+  @Test
+  public void testMessageFormattedWithParamsAtCreation() {
+    ValidationMessageManager.addBundle(ValidationMessageManager.STANDARD_VALIDATION_BUNDLE);
+    StringBuilder param = new StringBuilder("A");
+    ValidationMessage validationMessage =
+        new ValidationMessage(Severity.ERROR, "EC_numberFormatCheck", param);
+    param.append("B");
+    assertEquals(
+        MessageFormat.format(
+            ResourceBundle.getBundle(ValidationMessageManager.STANDARD_VALIDATION_BUNDLE)
+                .getString("EC_numberFormatCheck"),
+            "A"),
+        validationMessage.getMessage());
+    assertEquals(param, validationMessage.getParams()[0]);
+  }
+
+  @Test
+  public void testCatalogueSameAsBundle() {
+    ValidationMessageManager.addBundle(ValidationMessageManager.STANDARD_VALIDATION_BUNDLE);
+    ResourceBundle bundle =
+        ResourceBundle.getBundle(ValidationMessageManager.STANDARD_VALIDATION_BUNDLE);
+    Set<String> otherKeys = new HashSet<>();
+    for (String bundleName :
+        new String[] {
+          ValidationMessageManager.STANDARD_FIXER_BUNDLE,
+          ValidationMessageManager.GFF3_VALIDATION_BUNDLE,
+          ValidationMessageManager.GENOMEASSEMBLY_VALIDATION_BUNDLE,
+          ValidationMessageManager.TEMPLATE_PROCESSOR_BUNDLE
+        }) {
+      otherKeys.addAll(ResourceBundle.getBundle(bundleName).keySet());
+    }
+    Object[] params = {"P0", 1234567, 2.5, null};
+    for (String key : bundle.keySet()) {
+      if (otherKeys.contains(key)) {
+        // The message of the bundle added first is used.
+        continue;
+      }
+      String expected;
+      try {
+        expected = MessageFormat.format(bundle.getString(key), params);
+      } catch (IllegalArgumentException e) {
+        expected = e.getClass().getName();
+      }
+      String message;
+      try {
+        message = ValidationMessageManager.getString(key, params);
+      } catch (IllegalArgumentException e) {
+        message = e.getClass().getName();
+      }
+      assertEquals(expected, message);
+      assertEquals(bundle.getString(key), ValidationMessageManager.getString(key));
+    }
+    assertEquals("Missing message: NO_SUCH_KEY", ValidationMessageManager.getString("NO_SUCH_KEY"));
+  }
 }
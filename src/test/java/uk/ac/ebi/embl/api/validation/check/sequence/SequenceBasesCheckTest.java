@@ -16,6 +16,7 @@ import static org.junit.Assert.assertTrue;
 import java.nio.ByteBuffer;
 import org.junit.Before;
 import org.junit.Test;
+import uk.ac.ebi.embl.api.entry.sequence.PackedSequence;
 import uk.ac.ebi.embl.api.entry.sequence.Sequence;
 import uk.ac.ebi.embl.api.entry.sequence.SequenceFactory;
 import uk.ac.ebi.embl.api.validation.Severity;
@@ -84,6 +85,14 @@ public class SequenceBasesCheckTest {
     assertEquals(1, validationResult.count("SequenceBasesCheck-2", Severity.ERROR));
   }
 
+  @Test
+  public void testCheck_PackedTerminalN() {
+    sequence.setTopology(Sequence.Topology.LINEAR);
+    sequence.setPackedSequence(PackedSequence.pack("aaaaan".getBytes()));
+    ValidationResult validationResult = check.check(sequence);
+    assertEquals(1, validationResult.count("SequenceBasesCheck-2", Severity.ERROR));
+  }
+
   @Test
   public void testCheck_Fine() {
     sequence.setTopology(Sequence.Topology.LINEAR);
@@ -193,6 +193,26 @@ public class SequenceToGapFeatureBasesCheckTest {
     assertEquals(0, result.count());
   }
 
+  @Test
+  public void testCheck_UnorderedLocationMatch() {
+    long[][] ranges = {{16L, 20L}, {30L, 32L}, {4L, 11L}, {16L, 18L}};
+    for (long[] range : ranges) {
+      Feature feature = featureFactory.createFeature(Feature.GAP_FEATURE_NAME);
+      Order<Location> location = new Order<Location>();
+      location.addLocation(locationFactory.createLocalRange(range[0], range[1]));
+      feature.setLocations(location);
+      entry.addFeature(feature);
+    }
+
+    entry.setSequence(
+        sequenceFactory.createSequenceByte("aaannnnnnnnaaaannnnnaaannnnaaaa".getBytes()));
+
+    ValidationResult result = check.check(entry);
+    assertTrue(result.isValid());
+    // Only the n stretch from 24 to 27 has no gap feature.
+    assertEquals(1, result.count(SequenceToGapFeatureBasesCheck.MESSAGE_ID, Severity.WARNING));
+  }
+
   @Test
   public void testCheck_wgscon_WarningNSequence() {
     entry.setDataClass(Entry.WGS_DATACLASS);
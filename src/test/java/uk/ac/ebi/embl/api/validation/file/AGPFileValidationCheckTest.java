@@ -10,18 +10,24 @@
  */
 package uk.ac.ebi.embl.api.validation.file;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Optional;
 import org.junit.Before;
 import org.junit.Test;
-import org.mapdb.DBMaker;
+import uk.ac.ebi.embl.api.entry.Entry;
+import uk.ac.ebi.embl.api.entry.EntryFactory;
+import uk.ac.ebi.embl.api.entry.Text;
+import uk.ac.ebi.embl.api.entry.sequence.Sequence;
+import uk.ac.ebi.embl.api.entry.sequence.SequenceFactory;
 import uk.ac.ebi.embl.api.validation.ValidationEngineException;
 import uk.ac.ebi.embl.api.validation.check.file.AGPFileValidationCheck;
+import uk.ac.ebi.embl.api.validation.check.file.AgpComponentStore;
 import uk.ac.ebi.embl.api.validation.check.file.FastaFileValidationCheck;
 import uk.ac.ebi.embl.api.validation.check.file.FileValidationCheck;
 import uk.ac.ebi.embl.api.validation.check.file.FlatfileFileValidationCheck;
@@ -62,23 +68,19 @@ public class AGPFileValidationCheckTest extends SubmissionValidationTest {
     AGPFileValidationCheck check = new AGPFileValidationCheck(options, sharedInfo);
     try {
       sharedInfo.hasAgp = true;
-      sharedInfo.contigDB =
-          DBMaker.fileDB(options.reportDir.get() + File.separator + ".contig")
-              .closeOnJvmShutdown()
-              .fileDeleteAfterOpen()
-              .transactionEnable()
-              .make();
+      sharedInfo.agpComponentStore =
+          new AgpComponentStore(Paths.get(options.reportDir.get(), ".contig"));
       check.createContigDB();
       validateContig("valid_flatfileforAgp.txt", FileType.FLATFILE);
       assertTrue(check.check(submissionFiles.getFiles().get(0)).isValid());
     } finally {
-      sharedInfo.contigDB.close();
+      sharedInfo.agpComponentStore.close();
     }
   }
 
   @Test
   public void testGenomeSubmissionwithFastafileAGP()
-      throws FlatFileComparatorException, ValidationEngineException {
+      throws FlatFileComparatorException, ValidationEngineException, IOException {
     sharedInfo = new FileValidationCheck.SharedInfo();
 
     String agpFileName = "valid_fastaagp.txt";
@@ -94,17 +96,64 @@ public class AGPFileValidationCheckTest extends SubmissionValidationTest {
     options.init();
     AGPFileValidationCheck check = new AGPFileValidationCheck(options, sharedInfo);
     sharedInfo.hasAgp = true;
-    sharedInfo.contigDB =
-        DBMaker.fileDB(options.reportDir.get() + File.separator + ".contig")
-            .deleteFilesAfterClose()
-            .closeOnJvmShutdown()
-            .transactionEnable()
-            .make();
+    sharedInfo.agpComponentStore =
+        new AgpComponentStore(Paths.get(options.reportDir.get(), ".contig"));
     check.createContigDB();
     validateContig("valid_fastaforAgp.txt", FileType.FASTA);
     assertTrue(check.check(submissionFiles.getFiles().get(0)).isValid());
     // assertTrue(compareOutputSequenceFiles(initSubmissionFixedSequenceTestFile("valid_fastaagp.txt.fixed", FileType.FLATFILE).getFile()));
-    sharedInfo.contigDB.close();
+    sharedInfo.agpComponentStore.close();
+  }
+
+  @Test
+  public void testObjectsListedBeforeComponentObjects()
+      throws ValidationEngineException, IOException {
+    validateAgpLevels(1);
+    validateAgpLevels(4);
+  }
+
+  private void validateAgpLevels(int validationThreads)
+      throws ValidationEngineException, IOException {
+    sharedInfo = new FileValidationCheck.SharedInfo();
+    sharedInfo.masterEntry = getMasterEntry();
+
+    String agpFileName = "valid_fastaagp_levels.txt";
+    options.context = Optional.of(Context.genome);
+    options.validationThreads = validationThreads;
+    SubmissionFiles submissionFiles = new SubmissionFiles();
+    submissionFiles.addFile(initSubmissionFixedTestFile(agpFileName, FileType.AGP));
+    options.submissionFiles = Optional.of(submissionFiles);
+    options.reportDir =
+        Optional.of(initSubmissionTestFile(agpFileName, FileType.AGP).getFile().getParent());
+    options.processDir =
+        Optional.of(initSubmissionTestFile(agpFileName, FileType.AGP).getFile().getParent());
+    options.init();
+    AGPFileValidationCheck check = new AGPFileValidationCheck(options, sharedInfo);
+    sharedInfo.hasAgp = true;
+    sharedInfo.agpComponentStore =
+        new AgpComponentStore(Paths.get(options.reportDir.get(), ".contig"));
+    try {
+      check.createContigDB();
+      validateContig("valid_fastaforAgpLevels.txt", FileType.FASTA);
+      check.check(submissionFiles.getFiles().get(0));
+      // The chromosome is listed first but built from the scaffolds built before it.
+      assertEquals(880, sharedInfo.agpInfo.get("AGP_LEVELS_CHROMOSOME_1").getSequenceLength());
+      assertEquals(540, sharedInfo.agpInfo.get("AGP_LEVELS_SCAFFOLD_1").getSequenceLength());
+      assertEquals(240, sharedInfo.agpInfo.get("AGP_LEVELS_SCAFFOLD_2").getSequenceLength());
+    } finally {
+      sharedInfo.agpComponentStore.close();
+    }
+  }
+
+  private Entry getMasterEntry() {
+    Entry masterEntry = new EntryFactory().createEntry();
+    masterEntry.setDescription(new Text("Homo sapiens genome assembly"));
+    Sequence sequence = new SequenceFactory().createSequence();
+    sequence.setMoleculeType("genomic DNA");
+    sequence.setTopology(Sequence.Topology.LINEAR);
+    masterEntry.setSequence(sequence);
+    masterEntry.addFeature(getSource());
+    return masterEntry;
   }
 
   private void validateContig(String contigFileName, FileType fileType)
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.validation.file;
+
+import static org.junit.Assert.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+import uk.ac.ebi.embl.api.entry.AgpRow;
+import uk.ac.ebi.embl.api.entry.Entry;
+import uk.ac.ebi.embl.api.entry.EntryFactory;
+import uk.ac.ebi.embl.api.entry.sequence.PackedSequence;
+import uk.ac.ebi.embl.api.entry.sequence.SequenceFactory;
+import uk.ac.ebi.embl.api.validation.ValidationEngineException;
+import uk.ac.ebi.embl.api.validation.check.file.AgpBuildScheduler;
+import uk.ac.ebi.embl.api.validation.check.file.AgpComponentStore;
+
+public class AgpBuildSchedulerTest {
+
+  @Test
+  public void testObjectsBuiltAfterTheirComponents() throws Exception {
+    List<Entry> objects =
+        Arrays.asList(
+            object("chromosome1", "scaffold2", "Scaffold1"),
+            object("scaffold1", "contig1", "contig2"),
+            object("chromosome2", "contig3"),
+            object("scaffold2", "contig4"));
+    try (AgpBuildScheduler scheduler = new AgpBuildScheduler(objects, agpRow -> true, 1)) {
+      assertArrayEquals(new int[] {1, 2, 3, 0}, scheduler.getBuildOrder());
+    }
+  }
+
+  @Test
+  public void testFileOrderKept() throws Exception {
+    List<Entry> objects =
+        Arrays.asList(
+            object("scaffold1", "contig1"),
+            object("scaffold2", "contig2"),
+            object("chromosome1", "scaffold1", "scaffold2"));
+    try (AgpBuildScheduler scheduler = new AgpBuildScheduler(objects, agpRow -> true, 4)) {
+      assertArrayEquals(new int[] {0, 1, 2}, scheduler.getBuildOrder());
+    }
+  }
+
+  @Test
+  public void testObjectsPlacedInEachOther() {
+    List<Entry> objects =
+        Arrays.asList(
+            object("chromosome1", "scaffold1"),
+            object("scaffold1", "contig1", "scaffold2"),
+            object("scaffold2", "scaffold1"),
+            object("scaffold3", "scaffold3"),
+            object("scaffold4", "contig2"));
+    try {
+      new AgpBuildScheduler(objects, agpRow -> true, 1);
+      fail();
+    } catch (ValidationEngineException e) {
+      assertTrue(e.getMessage(), e.getMessage().endsWith(": scaffold1, scaffold2, scaffold3"));
+    }
+  }
+
+  @Test
+  public void testComponentNotAvailable() {
+    List<Entry> objects =
+        Arrays.asList(object("scaffold1", "contig1", "contig2"), object("scaffold2", "contig3"));
+    try {
+      new AgpBuildScheduler(objects, agpRow -> !agpRow.getComponent_id().equals("contig2"), 1);
+      fail();
+    } catch (ValidationEngineException e) {
+      assertTrue(e.getMessage(), e.getMessage().endsWith(": contig2"));
+    }
+  }
+
+  @Test
+  public void testFailedComponentFailsObject() throws Exception {
+    List<Entry> objects =
+        Arrays.asList(
+            object("scaffold1", "contig1"),
+            object("scaffold2", "contig2"),
+            object("chromosome1", "scaffold1", "scaffold2"));
+    try (AgpBuildScheduler scheduler = new AgpBuildScheduler(objects, agpRow -> true, 2)) {
+      scheduler.start(
+          object -> {
+            if (object.getSubmitterAccession().equals("scaffold2")) {
+              throw new ValidationEngineException("failed " + object.getSubmitterAccession());
+            }
+          });
+      scheduler.awaitBuilt(0);
+      try {
+        scheduler.awaitBuilt(2);
+        fail();
+      } catch (ValidationEngineException e) {
+        assertEquals("failed scaffold2", e.getMessage());
+      }
+    }
+  }
+
+  @Test
+  public void testObjectsReleasedByCaller() throws Exception {
+    for (int threads : new int[] {1, 4}) {
+      List<Entry> objects =
+          new ArrayList<>(
+              Arrays.asList(
+                  object("chromosome1", "scaffold1", "scaffold2"),
+                  object("scaffold1", "contig1"),
+                  object("scaffold2", "contig2")));
+      List<String> builtObjects = Collections.synchronizedList(new ArrayList<>());
+      try (AgpBuildScheduler scheduler = new AgpBuildScheduler(objects, agpRow -> true, threads)) {
+        scheduler.start(object -> builtObjects.add(object.getSubmitterAccession()));
+        for (int object : scheduler.getBuildOrder()) {
+          objects.set(object, null);
+          scheduler.awaitBuilt(object);
+        }
+      }
+      assertEquals(3, builtObjects.size());
+      assertEquals("chromosome1", builtObjects.get(2));
+    }
+  }
+
+  @Test
+  public void testCloseWaitsForBuildsInProgress() throws Exception {
+    List<Entry> objects =
+        Arrays.asList(object("scaffold1", "contig1"), object("scaffold2", "contig2"));
+    CountDownLatch started = new CountDownLatch(1);
+    List<String> builtObjects = Collections.synchronizedList(new ArrayList<>());
+    AgpBuildScheduler scheduler = new AgpBuildScheduler(objects, agpRow -> true, 2);
+    scheduler.start(
+        object -> {
+          started.countDown();
+          try {
+            Thread.sleep(100);
+          } catch (InterruptedException e) {
+            throw new ValidationEngineException(e);
+          }
+          builtObjects.add(object.getSubmitterAccession());
+        });
+    started.await();
+    scheduler.close();
+    assertFalse(builtObjects.isEmpty());
+  }
+
+  @Test
+  public void testParallelBuild() throws Exception {
+    for (int threads : new int[] {1, 4}) {
+      assertEquals(build(1), build(threads));
+    }
+  }
+
+  /**
+   * Builds chromosomes from scaffolds from contigs, listing the objects in reverse, and returns
+   * the object sequences in build order.
+   */
+  private static List<String> build(int threads) throws Exception {
+    Random random = new Random(3);
+    List<Entry> objects = new ArrayList<>();
+    List<String> contigs = new ArrayList<>();
+    for (int chromosome = 0; chromosome < 10; chromosome++) {
+      List<String> scaffolds = new ArrayList<>();
+      for (int scaffold = 0; scaffold < 10; scaffold++) {
+        String scaffoldName = "scaffold" + chromosome + "_" + scaffold;
+        String contigName = "contig" + contigs.size();
+        contigs.add(contigName);
+        objects.add(object(scaffoldName, contigName, "contig" + random.nextInt(contigs.size())));
+        scaffolds.add(scaffoldName);
+      }
+      objects.add(object("chromosome" + chromosome, scaffolds.toArray(new String[0])));
+    }
+    Collections.reverse(objects);
+
+    Path segmentFile = Files.createTempFile("agp", ".contig");
+    try (AgpComponentStore store = new AgpComponentStore(segmentFile);
+        AgpBuildScheduler scheduler =
+            new AgpBuildScheduler(objects, agpRow -> true, threads)) {
+      for (Entry object : objects) {
+        for (AgpRow agpRow : object.getSequence().getAgpRows()) {
+          store.addPlacement(agpRow);
+        }
+      }
+      for (String contig : contigs) {
+        byte[] bases = new byte[100 + random.nextInt(100_000)];
+        for (int i = 0; i < bases.length; i++) {
+          bases[i] = (byte) "acgt".charAt(random.nextInt(4));
+        }
+        store.putComponentSequence(contig, new SequenceFactory().createSequenceByte(bases));
+      }
+      scheduler.start(
+          object -> {
+            try {
+              PackedSequence.Builder builder = new PackedSequence.Builder();
+              for (AgpRow agpRow : object.getSequence().getAgpRows()) {
+                assertTrue(store.appendComponentSequence(agpRow, builder));
+              }
+              object.getSequence().setPackedSequence(builder.build());
+              store.putComponentSequence(object.getSubmitterAccession(), object.getSequence());
+            } catch (Exception e) {
+              throw new ValidationEngineException(e);
+            }
+          });
+      List<String> sequences = new ArrayList<>();
+      for (int object : scheduler.getBuildOrder()) {
+        scheduler.awaitBuilt(object);
+        sequences.add(new String(objects.get(object).getSequence().getSequenceByte()));
+      }
+      return sequences;
+    }
+  }
+
+  /** Returns an object placing the whole of each component, assuming 100 bases per component. */
+  private static Entry object(String name, String... components) {
+    Entry entry = new EntryFactory().createEntry();
+    entry.setSubmitterAccession(name);
+    entry.setSequence(new SequenceFactory().createSequence());
+    for (int i = 0; i < components.length; i++) {
+      AgpRow agpRow = new AgpRow();
+      agpRow.setObject(name);
+      agpRow.setObject_beg(i * 100L + 1);
+      agpRow.setObject_end(i * 100L + 100);
+      agpRow.setPart_number(i + 1);
+      agpRow.setComponent_type_id("W");
+      agpRow.setComponent_id(components[i]);
+      agpRow.setComponent_beg(1L);
+      agpRow.setComponent_end(100L);
+      agpRow.setOrientation(i % 2 == 0 ? "+" : "-");
+      entry.getSequence().addAgpRow(agpRow);
+    }
+    return entry;
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.validation.file;
+
+import static org.junit.Assert.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.ac.ebi.embl.api.entry.AgpRow;
+import uk.ac.ebi.embl.api.entry.sequence.PackedSequence;
+import uk.ac.ebi.embl.api.entry.sequence.ReverseComplementer;
+import uk.ac.ebi.embl.api.entry.sequence.Sequence;
+import uk.ac.ebi.embl.api.entry.sequence.SequenceFactory;
+import uk.ac.ebi.embl.api.validation.check.file.AgpComponentStore;
+
+public class AgpComponentStoreTest {
+
+  private Path segmentFile;
+  private AgpComponentStore store;
+
+  @Before
+  public void setUp() throws Exception {
+    segmentFile = Files.createTempFile("agp", ".contig");
+    store = new AgpComponentStore(segmentFile);
+  }
+
+  @After
+  public void tearDown() {
+    store.close();
+    assertFalse(Files.exists(segmentFile));
+  }
+
+  @Test
+  public void testComponentPlacedInMultipleObjects() throws Exception {
+    AgpRow scaffold1 = row("scaffold1", "contig1", 1, 4, "+");
+    AgpRow scaffold2 = row("SCAFFOLD2", "Contig1", 3, 8, "-");
+    store.addPlacement(scaffold1);
+    store.addPlacement(scaffold2);
+    store.addPlacement(row("scaffold2", "contig2", 1, 2, "+"));
+    assertTrue(store.hasComponent("CONTIG1"));
+    assertFalse(store.hasComponent("contig3"));
+    assertFalse(store.hasComponentSequence(scaffold1));
+
+    store.putComponentSequence(
+        "contig1", new SequenceFactory().createSequenceByte("aaccggtt".getBytes()));
+
+    assertTrue(store.hasComponentSequence(scaffold1));
+    assertFalse(store.hasComponentSequence(row("scaffold2", "contig2", 1, 2, "+")));
+    PackedSequence.Builder builder = new PackedSequence.Builder();
+    assertTrue(store.appendComponentSequence(scaffold1, builder));
+    assertTrue(store.appendComponentSequence(row("scaffold2", "contig1", 3, 8, "-"), builder));
+    assertEquals("aaccaaccgg", new String(builder.build().toByteArray()));
+
+    // Not stored yet.
+    assertFalse(store.appendComponentSequence(row("scaffold2", "contig2", 1, 2, "+"), builder));
+    // Not placed in this object.
+    assertFalse(store.appendComponentSequence(row("scaffold3", "contig1", 1, 4, "+"), builder));
+  }
+
+  @Test
+  public void testComponentPlacedTwiceInOneObject() throws Exception {
+    AgpRow forward = row("scaffold1", "contig1", 1, 4, "+");
+    forward.setPart_number(1);
+    AgpRow reverse = row("scaffold1", "contig1", 1, 4, "-");
+    reverse.setPart_number(3);
+    store.addPlacement(forward);
+    store.addPlacement(reverse);
+    store.putComponentSequence(
+        "contig1", new SequenceFactory().createSequenceByte("aacg".getBytes()));
+
+    PackedSequence.Builder builder = new PackedSequence.Builder();
+    assertTrue(store.appendComponentSequence(reverse, builder));
+    assertTrue(store.appendComponentSequence(forward, builder));
+    assertEquals("cgttaacg", new String(builder.build().toByteArray()));
+
+    AgpRow otherPart = row("scaffold1", "contig1", 1, 4, "+");
+    otherPart.setPart_number(2);
+    assertFalse(store.hasComponentSequence(otherPart));
+  }
+
+  @Test
+  public void testComponentRangeOutsideSequence() throws Exception {
+    AgpRow agpRow = row("scaffold1", "contig1", 1, 10, "+");
+    store.addPlacement(agpRow);
+    store.addPlacement(row("scaffold1", "gap", 1, 10, "N"));
+    assertFalse(store.hasComponent("gap"));
+    store.putComponentSequence(
+        "contig1", new SequenceFactory().createSequenceByte("acgt".getBytes()));
+    assertFalse(store.hasComponentSequence(agpRow));
+    assertFalse(store.appendComponentSequence(agpRow, new PackedSequence.Builder()));
+  }
+
+  @Test
+  public void testComponentLongerThanChunk() throws Exception {
+    byte[] bases = new byte[200001];
+    for (int i = 0; i < bases.length; i++) {
+      bases[i] = (byte) "acgtn".charAt(i % 5);
+    }
+    Sequence sequence = new SequenceFactory().createSequenceByte(bases);
+    AgpRow forward = row("scaffold1", "contig1", 2, 200000, "+");
+    AgpRow reverse = row("scaffold2", "contig1", 2, 200000, "-");
+    store.addPlacement(forward);
+    store.addPlacement(reverse);
+    store.putComponentSequence("contig1", sequence);
+
+    PackedSequence.Builder builder = new PackedSequence.Builder();
+    assertTrue(store.appendComponentSequence(forward, builder));
+    assertArrayEquals(sequence.getSequenceByte(2L, 200000L), builder.build().toByteArray());
+
+    builder = new PackedSequence.Builder();
+    assertTrue(store.appendComponentSequence(reverse, builder));
+    assertArrayEquals(
+        new ReverseComplementer().reverseComplementByte(sequence.getSequenceByte(2L, 200000L)),
+        builder.build().toByteArray());
+  }
+
+  private static AgpRow row(
+      String object, String component, long begin, long end, String orientation) {
+    AgpRow agpRow = new AgpRow();
+    agpRow.setObject(object);
+    agpRow.setComponent_id(component);
+    agpRow.setComponent_beg(begin);
+    agpRow.setComponent_end(end);
+    if ("N".equals(orientation)) {
+      agpRow.setComponent_type_id("N");
+    } else {
+      agpRow.setComponent_type_id("W");
+      agpRow.setOrientation(orientation);
+    }
+    return agpRow;
+  }
+}
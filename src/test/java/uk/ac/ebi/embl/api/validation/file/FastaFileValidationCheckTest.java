@@ -13,12 +13,15 @@ package uk.ac.ebi.embl.api.validation.file;
 import static org.junit.Assert.*;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.Optional;
 import org.junit.Before;
 import org.junit.Test;
 import uk.ac.ebi.embl.api.validation.ValidationEngineException;
+import uk.ac.ebi.embl.api.validation.ValidationResult;
 import uk.ac.ebi.embl.api.validation.annotation.Description;
 import uk.ac.ebi.embl.api.validation.check.file.FastaFileValidationCheck;
 import uk.ac.ebi.embl.api.validation.check.file.FileValidationCheck;
@@ -56,6 +59,36 @@ public class FastaFileValidationCheckTest extends SubmissionValidationTest {
     assertNotNull(check.getMessageStats().get("SQ.1"));
   }
 
+  @Test
+  public void testInvalidFastaFileInParallel() throws Exception {
+    String serialReport = validateInvalidFastaFile(1);
+    String parallelReport = validateInvalidFastaFile(4);
+    assertFalse(serialReport.isEmpty());
+    assertEquals(serialReport, parallelReport);
+  }
+
+  private String validateInvalidFastaFile(int validationThreads) throws Exception {
+    init();
+    sharedInfo = new FileValidationCheck.SharedInfo();
+
+    validateMaster(Context.genome);
+    SubmissionFile file =
+        initSubmissionTestFile("invalid_fasta_sequence.txt", SubmissionFile.FileType.FASTA);
+    SubmissionFiles submissionFiles = new SubmissionFiles();
+    submissionFiles.addFile(file);
+    options.submissionFiles = Optional.of(submissionFiles);
+    options.reportDir = Optional.of(file.getFile().getParent());
+    options.context = Optional.of(Context.genome);
+    options.validationThreads = validationThreads;
+    FastaFileValidationCheck check = new FastaFileValidationCheck(options, sharedInfo);
+    ValidationResult result = check.check(file);
+    assertFalse(result.isValid());
+    assertEquals(sharedInfo.entryNames.size(), sharedInfo.fastaInfo.size());
+    return new String(Files.readAllBytes(check.getReportFile(file)), StandardCharsets.UTF_8)
+        + result.getMessages().size()
+        + check.getMessageStats().get("SQ.1");
+  }
+
   @Test
   public void testTranscriptomFixedvalidFastaFile()
       throws ValidationEngineException, FlatFileComparatorException {
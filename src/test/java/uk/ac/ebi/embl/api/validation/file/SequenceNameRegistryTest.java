@@ -0,0 +1,120 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.validation.file;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+import uk.ac.ebi.embl.api.entry.AssemblySequenceInfo;
+import uk.ac.ebi.embl.api.validation.check.file.SequenceInfoMap;
+import uk.ac.ebi.embl.api.validation.check.file.SequenceNameRegistry;
+import uk.ac.ebi.embl.api.validation.check.file.SequenceNameSet;
+
+public class SequenceNameRegistryTest {
+
+  @Test
+  public void testRegistry() {
+    for (long spillThreshold : new long[] {SequenceNameRegistry.DEFAULT_SPILL_THRESHOLD, 1000}) {
+      SequenceNameRegistry registry = new SequenceNameRegistry(spillThreshold);
+      List<String> names = new ArrayList<>();
+      for (int i = 0; i < 10000; i++) {
+        String name = "CONTIG" + i + (i % 7 == 0 ? "é" : "");
+        assertEquals(i, registry.add(name));
+        names.add(name);
+      }
+      assertEquals(spillThreshold == 1000, registry.isSpilled());
+      for (int i = 0; i < names.size(); i++) {
+        assertEquals(i, registry.add(names.get(i)));
+        assertEquals(i, registry.getId(names.get(i)));
+        assertEquals(names.get(i), registry.getName(i));
+      }
+      assertEquals(SequenceNameRegistry.NO_ID, registry.getId("CONTIG"));
+      assertEquals(names.size(), registry.size());
+    }
+  }
+
+  @Test
+  public void testNameSetSameAsHashSet() {
+    SequenceNameRegistry registry = new SequenceNameRegistry(100);
+    Set<String> set = new SequenceNameSet(registry);
+    Set<String> expected = new HashSet<>();
+    Random random = new Random(1);
+    for (int i = 0; i < 5000; i++) {
+      String name = "N" + random.nextInt(1000);
+      switch (random.nextInt(3)) {
+        case 0:
+        case 1:
+          assertEquals(expected.add(name), set.add(name));
+          break;
+        default:
+          assertEquals(expected.remove(name), set.remove(name));
+      }
+      assertEquals(expected.contains(name), set.contains(name));
+    }
+    assertEquals(expected, set);
+    assertEquals(expected.size(), set.size());
+    assertFalse(set.contains(null));
+
+    for (Iterator<String> iterator = set.iterator(); iterator.hasNext(); ) {
+      if (iterator.next().endsWith("1")) {
+        iterator.remove();
+      }
+    }
+    expected.removeIf(name -> name.endsWith("1"));
+    assertEquals(expected, set);
+  }
+
+  @Test
+  public void testSequenceInfoMapSameAsLinkedHashMap() {
+    SequenceNameRegistry registry = new SequenceNameRegistry(100);
+    Map<String, AssemblySequenceInfo> map = new SequenceInfoMap(registry);
+    Map<String, AssemblySequenceInfo> expected = new LinkedHashMap<>();
+    Random random = new Random(1);
+    for (int i = 0; i < 5000; i++) {
+      String name = "N" + random.nextInt(1000);
+      if (random.nextInt(4) == 0) {
+        assertEquals(toString(expected.remove(name)), toString(map.remove(name)));
+      } else {
+        AssemblySequenceInfo info =
+            new AssemblySequenceInfo(
+                random.nextInt(100000),
+                random.nextInt(3),
+                random.nextBoolean() ? null : "ACC" + random.nextInt(100));
+        assertEquals(toString(expected.put(name, info)), toString(map.put(name, info)));
+      }
+      assertEquals(toString(expected.get(name)), toString(map.get(name)));
+    }
+    assertEquals(expected.size(), map.size());
+    assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(map.keySet()));
+    for (Map.Entry<String, AssemblySequenceInfo> entry : map.entrySet()) {
+      assertEquals(toString(expected.get(entry.getKey())), toString(entry.getValue()));
+    }
+
+    // Maps of the same registry share the names.
+    Map<String, AssemblySequenceInfo> other = new SequenceInfoMap(registry);
+    int registered = registry.size();
+    other.putAll(expected);
+    assertEquals(registered, registry.size());
+    assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(other.keySet()));
+  }
+
+  private static String toString(AssemblySequenceInfo info) {
+    return info == null ? null : info.toString();
+  }
+}
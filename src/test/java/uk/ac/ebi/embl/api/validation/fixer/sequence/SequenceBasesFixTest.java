@@ -110,6 +110,21 @@ public class SequenceBasesFixTest {
         messages.iterator().next().getMessage());
   }
 
+  @Test
+  public void testCheck_packedSequenceWithNsAtBeginAndEnd() {
+    Entry entry = entryFactory.createEntry();
+    Sequence newsequence = sequenceFactory.createSequenceByte("nnnacgtNNacgtnnnnn".getBytes());
+    newsequence.setTopology(Sequence.Topology.LINEAR);
+    newsequence.pack();
+    entry.setSequence(newsequence);
+    ValidationResult validationResult = check.check(entry);
+    assertTrue(validationResult.isValid());
+    assertNotNull(entry.getSequence().getPackedSequence());
+    assertEquals("acgtNNacgt", new String(entry.getSequence().getSequenceByte()));
+    assertEquals(10, entry.getIdLineSequenceLength());
+    assertEquals(1, validationResult.getMessages("SequenceBasesFix_2", Severity.FIX).size());
+  }
+
   @Test
   public void testCheck_sequenceWithAllNs() {
     Entry entry = entryFactory.createEntry();
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.validation.plan;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import uk.ac.ebi.embl.api.entry.Entry;
+import uk.ac.ebi.embl.api.entry.feature.Feature;
+import uk.ac.ebi.embl.api.validation.*;
+import uk.ac.ebi.embl.api.validation.check.entry.EntryValidationCheck;
+import uk.ac.ebi.embl.api.validation.check.entry.KWCheck;
+import uk.ac.ebi.embl.api.validation.check.feature.CdsFeatureTranslationCheck;
+import uk.ac.ebi.embl.api.validation.check.feature.FeatureLocationCheck;
+import uk.ac.ebi.embl.api.validation.check.feature.FeatureValidationCheck;
+import uk.ac.ebi.embl.api.validation.check.sequence.SequenceValidationCheck;
+import uk.ac.ebi.embl.api.validation.check.sourcefeature.ChromosomeSourceQualifierCheck;
+import uk.ac.ebi.embl.api.validation.helper.TestHelper;
+import uk.ac.ebi.embl.flatfile.reader.embl.EmblEntryReader;
+
+public class ValidationCheckChainTest {
+
+  private static final String RESOURCE =
+      "uk/ac/ebi/embl/api/validation/file/valid_AnnotationOnlyandSequenceFlatfile.txt";
+
+  private EmblEntryValidationPlanProperty property;
+
+  @Before
+  public void setUp() {
+    property = TestHelper.testEmblEntryValidationPlanProperty();
+    property.getOptions().isWebinCLI = true;
+    property.isRemote.set(true);
+  }
+
+  @Test
+  public void testChainIsShared() {
+    property.validationScope.set(ValidationScope.EMBL);
+    ValidationCheckChain chain =
+        ValidationCheckChain.get(new EmblEntryValidationPlan(property), true, false);
+    assertSame(chain, ValidationCheckChain.get(new EmblEntryValidationPlan(property), true, false));
+    assertNotSame(
+        chain, ValidationCheckChain.get(new EmblEntryValidationPlan(property), false, false));
+  }
+
+  @Test
+  public void testChainExcludesOutOfScopeChecks() {
+    property.validationScope.set(ValidationScope.EMBL);
+    assertTrue(
+        hasStep(ValidationCheckChain.get(new EmblEntryValidationPlan(property), true, false)));
+    property.validationScope.set(ValidationScope.ASSEMBLY_MASTER);
+    assertFalse(
+        hasStep(ValidationCheckChain.get(new EmblEntryValidationPlan(property), true, false)));
+  }
+
+  @Test
+  public void testSameResultAsUncachedExecution() throws Exception {
+    for (ValidationScope scope :
+        new ValidationScope[] {
+          ValidationScope.EMBL, ValidationScope.ASSEMBLY_CONTIG, ValidationScope.ASSEMBLY_MASTER
+        }) {
+      property.validationScope.set(scope);
+      // The fixes modify the entries they validate, so each plan gets its own copy.
+      List<Entry> expectedEntries = readEntries();
+      List<Entry> actualEntries = readEntries();
+      for (int i = 0; i < expectedEntries.size(); i++) {
+        ValidationResult expected =
+            new UncachedValidationPlan(property).execute(expectedEntries.get(i));
+        ValidationResult actual =
+            new EmblEntryValidationPlan(property).execute(actualEntries.get(i));
+        assertEquals(messages(expected), messages(actual));
+      }
+    }
+  }
+
+  private static boolean hasStep(ValidationCheckChain chain) {
+    for (ValidationCheckChain.Step step : chain.getSteps()) {
+      if (step.constructor.getDeclaringClass() == KWCheck.class) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static List<String> messages(ValidationResult result) {
+    List<String> messages = new ArrayList<>();
+    for (ValidationMessage<Origin> message : result.getMessages()) {
+      messages.add(message.getSeverity() + ":" + message.getMessageKey());
+    }
+    return messages;
+  }
+
+  private List<Entry> readEntries() throws Exception {
+    List<Entry> entries = new ArrayList<>();
+    try (BufferedReader reader =
+        new BufferedReader(
+            new InputStreamReader(
+                getClass().getClassLoader().getResourceAsStream(RESOURCE),
+                StandardCharsets.UTF_8))) {
+      EmblEntryReader entryReader =
+          new EmblEntryReader(reader, EmblEntryReader.Format.EMBL_FORMAT, null);
+      entryReader.read();
+      while (entryReader.isEntry()) {
+        entries.add(entryReader.getEntry());
+        entryReader.read();
+      }
+    }
+    assertFalse(entries.isEmpty());
+    return entries;
+  }
+
+  /** Instantiates every check and resolves its annotations for each entry. */
+  private static class UncachedValidationPlan extends ValidationPlan {
+
+    UncachedValidationPlan(EmblEntryValidationPlanProperty property) {
+      super(property);
+    }
+
+    @Override
+    public ValidationResult execute(Object target) throws ValidationEngineException {
+      validationResult = new ValidationResult();
+      Entry entry = (Entry) target;
+      List<Class<? extends EmblEntryValidationCheck<?>>> checks = new ArrayList<>();
+      checks.addAll(ValidationUnit.SEQUENCE_ENTRY_FIXES.getValidationUnit());
+      checks.addAll(ValidationUnit.SEQUENCE_ENTRY_CHECKS.getValidationUnit());
+      try {
+        for (Class<? extends EmblEntryValidationCheck<?>> checkClass : checks) {
+          EmblEntryValidationCheck<?> check = checkClass.getConstructor().newInstance();
+          if (check instanceof SequenceValidationCheck) {
+            execute(check, entry.getSequence());
+          }
+          if (check instanceof EntryValidationCheck) {
+            execute(check, entry);
+          }
+          if (check instanceof FeatureValidationCheck) {
+            for (Feature feature : entry.getFeatures()) {
+              if (check instanceof CdsFeatureTranslationCheck) {
+                ((CdsFeatureTranslationCheck) check).setEntry(entry);
+              }
+              if (check instanceof FeatureLocationCheck) {
+                ((FeatureLocationCheck) check).setEntry(entry);
+              }
+              if (check instanceof ChromosomeSourceQualifierCheck) {
+                ((ChromosomeSourceQualifierCheck) check).setEntry(entry);
+              }
+              execute(check, feature);
+            }
+          }
+        }
+      } catch (ReflectiveOperationException e) {
+        throw new ValidationEngineException(e);
+      }
+      return validationResult;
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.api.validation.report;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import org.junit.Test;
+import uk.ac.ebi.embl.api.validation.DefaultOrigin;
+import uk.ac.ebi.embl.api.validation.Severity;
+import uk.ac.ebi.embl.api.validation.ValidationResult;
+
+public class ReportFileWriterTest {
+
+  private static final HashSet<Severity> SEVERITY =
+      new HashSet<>(Arrays.asList(Severity.INFO, Severity.ERROR));
+
+  @Test
+  public void testBufferedReportSameAsImmediateReport() throws IOException {
+    Path expected = Files.createTempFile("test", ".tmp");
+    writeReport(new DefaultSubmissionReporter(SEVERITY), expected);
+
+    for (ReportFileWriter.FlushPolicy flushPolicy :
+        new ReportFileWriter.FlushPolicy[] {
+          ReportFileWriter.FlushPolicy.DEFAULT,
+          new ReportFileWriter.FlushPolicy(7, 0, false),
+          new ReportFileWriter.FlushPolicy(7, 1, true),
+          new ReportFileWriter.FlushPolicy(64 * 1024, 0, true)
+        }) {
+      Path reportFile = Files.createTempFile("test", ".tmp");
+      try (DefaultSubmissionReporter reporter =
+          new DefaultSubmissionReporter(SEVERITY, flushPolicy)) {
+        writeReport(reporter, reportFile);
+      }
+      assertArrayEquals(Files.readAllBytes(expected), Files.readAllBytes(reportFile));
+    }
+  }
+
+  @Test
+  public void testFlushAndReopen() throws IOException {
+    Path reportFile = Files.createTempFile("test", ".tmp");
+    DefaultSubmissionReporter reporter =
+        new DefaultSubmissionReporter(SEVERITY, ReportFileWriter.FlushPolicy.DEFAULT);
+    reporter.writeToFile(reportFile, Severity.ERROR, "MESSAGE1");
+    assertEquals(0, Files.size(reportFile));
+    reporter.flush();
+    assertEquals(1, Files.readAllLines(reportFile).size());
+
+    reporter.close();
+    reporter.writeToFile(reportFile, Severity.INFO, "MESSAGE2");
+    reporter.close();
+    assertEquals(2, Files.readAllLines(reportFile).size());
+    assertTrue(Files.readAllLines(reportFile).get(1).endsWith("INFO: MESSAGE2"));
+  }
+
+  @Test(expected = IOException.class)
+  public void testWriteAfterClose() throws IOException {
+    ReportFileWriter writer =
+        new ReportFileWriter(
+            Files.createTempFile("test", ".tmp"), ReportFileWriter.FlushPolicy.DEFAULT);
+    writer.close();
+    writer.write(new byte[] {'a'});
+  }
+
+  private static void writeReport(DefaultSubmissionReporter reporter, Path reportFile) {
+    for (int i = 0; i < 200; i++) {
+      reporter.writeToFile(reportFile, Severity.ERROR, "MESSAGE" + i);
+      reporter.writeToFile(reportFile, Severity.WARNING, "WARNING" + i);
+      reporter.writeToFile(reportFile, Severity.INFO, "MESSAGE" + i, new DefaultOrigin("O" + i));
+      ValidationResult result = new ValidationResult();
+      result.append(DefaultSubmissionReporter.createValidationMessage(Severity.ERROR, "R" + i));
+      result.append(DefaultSubmissionReporter.createValidationMessage(Severity.INFO, "S" + i));
+      reporter.writeToFile(reportFile, result, "TARGET" + i);
+    }
+  }
+}
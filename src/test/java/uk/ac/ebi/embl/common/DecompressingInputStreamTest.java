@@ -0,0 +1,267 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.common;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DecompressingInputStreamTest {
+
+  private static byte[] data;
+
+  private File file;
+
+  @Before
+  public void setUp() throws IOException {
+    if (data == null) {
+      data = sequences(6 << 20);
+    }
+    file = File.createTempFile("decompress", ".gz");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file.toPath());
+  }
+
+  @Test
+  public void testBgzf() throws IOException {
+    Files.write(file.toPath(), bgzf(data, 0, data.length));
+    assertTrue(file.length() > DecompressingInputStream.MIN_BACKGROUND_FILE_SIZE);
+    try (InputStream in = DecompressingInputStream.gzip(file)) {
+      assertArrayEquals(data, in.readAllBytes());
+    }
+  }
+
+  @Test
+  public void testBgzfFollowedByGzipMember() throws IOException {
+    int split = data.length / 2;
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    bytes.write(bgzf(data, 0, split));
+    bytes.write(gzip(Arrays.copyOfRange(data, split, data.length)));
+    Files.write(file.toPath(), bytes.toByteArray());
+    try (InputStream in = DecompressingInputStream.gzip(file)) {
+      assertArrayEquals(data, in.readAllBytes());
+    }
+  }
+
+  @Test
+  public void testCorruptBgzf() throws IOException {
+    byte[] bytes = bgzf(data, 0, data.length);
+    // The CRC of the third block.
+    int off = 0;
+    for (int i = 0; i < 2; i++) {
+      off += (bytes[off + 16] & 0xff | (bytes[off + 17] & 0xff) << 8) + 1;
+    }
+    off += (bytes[off + 16] & 0xff | (bytes[off + 17] & 0xff) << 8) + 1 - 8;
+    bytes[off] ^= 1;
+    Files.write(file.toPath(), bytes);
+    try (InputStream in = DecompressingInputStream.gzip(file)) {
+      in.readAllBytes();
+      fail();
+    } catch (IOException e) {
+      assertTrue(e.getMessage().contains("CRC"));
+    }
+  }
+
+  @Test
+  public void testGzip() throws IOException {
+    Files.write(file.toPath(), gzip(data));
+    assertTrue(file.length() > DecompressingInputStream.MIN_BACKGROUND_FILE_SIZE);
+    try (InputStream in = DecompressingInputStream.gzip(file)) {
+      assertArrayEquals(data, in.readAllBytes());
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testNotGzip() throws IOException {
+    Files.write(file.toPath(), data);
+    DecompressingInputStream.gzip(file).close();
+  }
+
+  @Test
+  public void testBzip2Streams() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    for (int off = 0; off < data.length; off += 500_000) {
+      bytes.write(bzip2(Arrays.copyOfRange(data, off, Math.min(data.length, off + 500_000))));
+    }
+    Files.write(file.toPath(), bytes.toByteArray());
+    assertTrue(file.length() > DecompressingInputStream.MIN_BACKGROUND_FILE_SIZE);
+    try (InputStream in = DecompressingInputStream.bzip2(file)) {
+      assertArrayEquals(data, in.readAllBytes());
+    }
+  }
+
+  @Test
+  public void testBzip2StreamsHighRatio() throws IOException {
+    // The repeated bases decode to more than is decoded ahead of the reader.
+    byte[] repeated = new byte[8 << 20];
+    Arrays.fill(repeated, (byte) 'N');
+    byte[] repeatedStream = bzip2(repeated);
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    for (int off = 0; off < data.length; off += 1_000_000) {
+      byte[] part = Arrays.copyOfRange(data, off, Math.min(data.length, off + 1_000_000));
+      expected.write(part);
+      bytes.write(bzip2(part));
+      expected.write(repeated);
+      bytes.write(repeatedStream);
+    }
+    Files.write(file.toPath(), bytes.toByteArray());
+    assertTrue(file.length() > DecompressingInputStream.MIN_BACKGROUND_FILE_SIZE);
+    try (InputStream in = DecompressingInputStream.bzip2(file)) {
+      assertArrayEquals(expected.toByteArray(), in.readAllBytes());
+    }
+  }
+
+  @Test
+  public void testBgzfHighRatio() throws IOException {
+    int repeated = 8 << 20;
+    byte[] bytes = new byte[data.length + repeated];
+    System.arraycopy(data, 0, bytes, 0, data.length / 2);
+    Arrays.fill(bytes, data.length / 2, data.length / 2 + repeated, (byte) 'N');
+    System.arraycopy(
+        data, data.length / 2, bytes, data.length / 2 + repeated, data.length - data.length / 2);
+    Files.write(file.toPath(), bgzf(bytes, 0, bytes.length));
+    try (InputStream in = DecompressingInputStream.gzip(file)) {
+      assertArrayEquals(bytes, in.readAllBytes());
+    }
+  }
+
+  @Test
+  public void testBzip2() throws IOException {
+    Files.write(file.toPath(), bzip2(data));
+    try (InputStream in = DecompressingInputStream.bzip2(file)) {
+      assertArrayEquals(data, in.readAllBytes());
+    }
+  }
+
+  @Test
+  public void testCloseBeforeEnd() throws IOException {
+    Files.write(file.toPath(), bgzf(data, 0, data.length));
+    InputStream in = DecompressingInputStream.gzip(file);
+    assertEquals(data[0], (byte) in.read());
+    in.close();
+    try {
+      in.read();
+      fail();
+    } catch (IOException e) {
+      assertEquals("Stream closed", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testReaderAndChannel() throws IOException {
+    byte[] small = Arrays.copyOf(data, 100_000);
+    Files.write(file.toPath(), gzip(small));
+    try (BufferedReader reader = CommonUtil.bufferedReaderFromFile(file)) {
+      assertEquals(new String(small, 0, 6), reader.readLine().substring(0, 6));
+    }
+    try (ReadableByteChannel channel = CommonUtil.channelFromFile(file)) {
+      ByteBuffer buffer = ByteBuffer.allocate(small.length + 1);
+      while (channel.read(buffer) >= 0) {}
+      assertEquals(small.length, buffer.position());
+      assertArrayEquals(small, Arrays.copyOf(buffer.array(), small.length));
+    }
+  }
+
+  private static byte[] sequences(int length) {
+    Random random = new Random(1);
+    byte[] bytes = new byte[length];
+    int sequence = 0;
+    for (int i = 0; i < length; ) {
+      byte[] header = (">sequence" + sequence++ + "\n").getBytes();
+      for (int j = 0; j < header.length && i < length; j++) {
+        bytes[i++] = header[j];
+      }
+      int sequenceLength = random.nextInt(20_000);
+      for (int j = 0; j < sequenceLength && i < length; j++) {
+        bytes[i++] = j % 61 == 60 ? (byte) '\n' : (byte) "ACGT".charAt(random.nextInt(4));
+      }
+      if (i < length) {
+        bytes[i++] = '\n';
+      }
+    }
+    return bytes;
+  }
+
+  private static byte[] gzip(byte[] bytes) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (OutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(bytes);
+    }
+    return out.toByteArray();
+  }
+
+  private static byte[] bzip2(byte[] bytes) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (OutputStream bzip2 = new BZip2CompressorOutputStream(out)) {
+      bzip2.write(bytes);
+    }
+    return out.toByteArray();
+  }
+
+  /** Writes the bytes as BGZF blocks of 60000 bytes followed by the empty end of file block. */
+  private static byte[] bgzf(byte[] bytes, int from, int to) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int off = from; off < to; off += 60_000) {
+      writeBgzfBlock(out, bytes, off, Math.min(60_000, to - off));
+    }
+    writeBgzfBlock(out, bytes, 0, 0);
+    return out.toByteArray();
+  }
+
+  private static void writeBgzfBlock(ByteArrayOutputStream out, byte[] bytes, int off, int length)
+      throws IOException {
+    Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    deflater.setInput(bytes, off, length);
+    deflater.finish();
+    byte[] compressed = new byte[length + 1024];
+    int compressedLength = 0;
+    while (!deflater.finished()) {
+      compressedLength +=
+          deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+    }
+    deflater.end();
+    CRC32 crc = new CRC32();
+    crc.update(bytes, off, length);
+    int blockSize = 18 + compressedLength + 8;
+    out.write(new byte[] {31, (byte) 139, 8, 4, 0, 0, 0, 0, 0, (byte) 255, 6, 0, 'B', 'C', 2, 0});
+    writeInt(out, blockSize - 1, 2);
+    out.write(compressed, 0, compressedLength);
+    writeInt(out, crc.getValue(), 4);
+    writeInt(out, length, 4);
+  }
+
+  private static void writeInt(ByteArrayOutputStream out, long value, int length) {
+    for (int i = 0; i < length; i++) {
+      out.write((int) (value >>> (8 * i)) & 0xff);
+    }
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.common.accession;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import org.junit.Test;
+import uk.ac.ebi.embl.api.AccessionMatcher;
+
+public class AccessionNumberRangeTest {
+
+  @Test
+  public void testRange() {
+    AccessionNumberRange range = AccessionNumberRange.of(new AccessionRange("A00098", "A00102"));
+    assertEquals(5, range.size());
+    assertEquals("A00098", range.getFirst());
+    assertEquals("A00100", range.get(2));
+    assertEquals("A00102", range.getLast());
+    assertEquals(List.of("A00098", "A00099", "A00100", "A00101", "A00102"), range);
+    assertTrue(range.contains("A00101"));
+    assertEquals(3, range.indexOf("A00101"));
+    assertFalse(range.contains("A00103"));
+    assertFalse(range.contains("A0100"));
+    assertFalse(range.contains("A000100"));
+    assertFalse(range.contains("B00100"));
+  }
+
+  @Test
+  public void testVersionedRange() {
+    AccessionNumberRange range =
+        AccessionNumberRange.of(new AccessionRange("CAAA01000001", "CAAA01000003"));
+    assertEquals(List.of("CAAA01000001", "CAAA01000002", "CAAA01000003"), range);
+    assertTrue(range.contains("CAAA01000002"));
+  }
+
+  @Test
+  public void testSingleAccession() {
+    AccessionNumberRange range = AccessionNumberRange.of(new AccessionRange("A00001", "A00001"));
+    assertEquals(List.of("A00001"), range);
+    assertTrue(range.contains("A00001"));
+    assertNull(AccessionNumberRange.of(new AccessionRange("A00001", "X")));
+  }
+
+  @Test
+  public void testReversedRangeIsEmpty() {
+    assertTrue(AccessionNumberRange.of(new AccessionRange("A00005", "A00001")).isEmpty());
+    assertEquals(
+        expand("A00005-A00001,A00007"),
+        SequenceAccessionRangeSplitter.getAccessionList("A00005-A00001,A00007"));
+  }
+
+  @Test
+  public void testNumberWiderThanFirstAccession() {
+    // The accessions that do not fit are not padded, as before.
+    List<String> accessions = SequenceAccessionRangeSplitter.getAccessionList("A99998-A100001");
+    assertEquals(expand("A99998-A100001"), accessions);
+    assertEquals(List.of("A100000", "A100001", "A99998", "A99999"), accessions);
+    assertTrue(accessions.contains("A100000"));
+  }
+
+  @Test
+  public void testSameAccessionsAsExpandedRanges() {
+    String[] rangesStrs = {
+      "A00001-A00010,A00020-A00030",
+      "A00020-A00030,A00001-A00010",
+      "A00001-A00010,A00005-A00015",
+      "A00001-A00010,A00005",
+      "A00001-A00010,A000050",
+      "A00001,A00001,A00002-A00003",
+      "AB000001-AB000003,A00001-A00003,CAAA01000001-CAAA01000010",
+      "A99998-A100001,A99999-A100002"
+    };
+    for (String rangesStr : rangesStrs) {
+      List<String> accessions = SequenceAccessionRangeSplitter.getAccessionList(rangesStr);
+      List<String> expected = expand(rangesStr);
+      assertEquals(rangesStr, expected, accessions);
+      assertEquals(rangesStr, expected, SequenceAccessionRangeSplitter.getAccessions(rangesStr));
+      assertEquals(rangesStr, expected.size(), accessions.size());
+      for (int i = 0; i < expected.size(); i++) {
+        assertEquals(rangesStr, expected.get(i), accessions.get(i));
+        assertEquals(rangesStr, i, accessions.indexOf(expected.get(i)));
+      }
+      assertFalse(accessions.contains("Z00001"));
+    }
+  }
+
+  @Test
+  public void testLargeRangeIsNotStored() {
+    List<String> accessions =
+        SequenceAccessionRangeSplitter.getAccessionList("CAAA0100000001-CAAA0109999999");
+    assertTrue(accessions instanceof AccessionRangeList);
+    assertEquals(9999999, accessions.size());
+    assertEquals("CAAA0105000000", accessions.get(4999999));
+    assertTrue(accessions.contains("CAAA0109999999"));
+    assertEquals(3, accessions.stream().limit(3).count());
+  }
+
+  /** The accessions of the ranges as they were expanded before the ranges were kept. */
+  private static List<String> expand(String rangesStr) {
+    TreeSet<String> accessions = new TreeSet<>();
+    for (AccessionRange range : SequenceAccessionRangeSplitter.getAccessionRanges(rangesStr)) {
+      if (range.getFrom().equals(range.getTo())) {
+        accessions.add(range.getFrom());
+      } else {
+        AccessionMatcher.Accession from = AccessionMatcher.getSplittedAccession(range.getFrom());
+        AccessionMatcher.Accession to = AccessionMatcher.getSplittedAccession(range.getTo());
+        for (int i = Integer.parseInt(from.number); i <= Integer.parseInt(to.number); i++) {
+          String prefix = from.prefix + (from.version == null ? "" : from.version);
+          for (int j = 0; j < from.number.length() - String.valueOf(i).length(); j++) {
+            prefix += "0";
+          }
+          accessions.add(prefix + i);
+        }
+      }
+    }
+    return new ArrayList<>(accessions);
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.fasta.reader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import uk.ac.ebi.embl.api.entry.Entry;
+import uk.ac.ebi.embl.api.validation.FlatFileOrigin;
+import uk.ac.ebi.embl.api.validation.Origin;
+import uk.ac.ebi.embl.api.validation.ValidationMessage;
+import uk.ac.ebi.embl.api.validation.ValidationResult;
+import uk.ac.ebi.embl.flatfile.reader.FlatFileReader;
+import uk.ac.ebi.embl.flatfile.writer.embl.EmblEntryWriter;
+
+public class MappedFastaFileReaderTest extends FastaReaderTest {
+
+  public void testRead_MultipleEntries() throws IOException {
+    assertSameAsFastaFileReader(
+        ">ENA|A00001|A00001.1 Cauliflower mosaic virus satellite cDNA\n"
+            + "GTTTTGTTTGATGGAGAATTGCGCAGAGGGGTTATATCTGCGTGAGGATCTGTCACTCGG\n"
+            + "CGGTGTGGGATACCTCCCTGCTAAGGCGGGTTGAGTGATGTTCCCTCGGACTGGGGACCG\n"
+            + "TCTCCGTGAATGTCTATCATTCCTACACAGGACCC\n"
+            + ">ENA|A00002|A00002.1 B.taurus DNA sequence 1 from patent application EP0238993\n"
+            + "AATTCATGCGTCCGGACTTCTGCCTCGAGCCGCCGTACACTGGGCCCTGCAAAGCTCGTA\n"
+            + "CTTAGTAAAGC TTG2\n");
+  }
+
+  public void testRead_BlankLinesAndLineTerminators() throws IOException {
+    assertSameAsFastaFileReader(
+        "\n  \r\n>seq1\tdescription \r\nACGT\tacgu\r\n\n  NNNN  \r>seq2\n\nRYKM\nSWBD");
+  }
+
+  public void testRead_WrongSequenceBase() throws IOException {
+    assertSameAsFastaFileReader(">seq1\nACGT-ACGT\nAC*GT\n>seq2\nACGT\n");
+  }
+
+  public void testRead_NoSequence() throws IOException {
+    assertSameAsFastaFileReader(">seq1\n>seq2\nACGT\n");
+  }
+
+  private void assertSameAsFastaFileReader(String fasta) throws IOException {
+    File file = File.createTempFile("mapped", ".fasta");
+    file.deleteOnExit();
+    Files.write(file.toPath(), fasta.getBytes(StandardCharsets.UTF_8));
+
+    setBufferedReader(fasta);
+    List<String> expected = readAll(new FastaFileReader(new FastaLineReader(bufferedReader)));
+    List<String> actual = readAll(new MappedFastaFileReader(file));
+    assertEquals(expected, actual);
+  }
+
+  private List<String> readAll(FlatFileReader<Entry> reader) throws IOException {
+    List<String> results = new ArrayList<>();
+    while (true) {
+      ValidationResult result = reader.read();
+      for (ValidationMessage<Origin> message : result.getMessages()) {
+        results.add(
+            message.getMessageKey()
+                + ":"
+                + message.getMessage()
+                + ":"
+                + ((FlatFileOrigin) message.getOrigins().get(0)).getFirstLineNumber());
+      }
+      if (!reader.isEntry()) {
+        break;
+      }
+      Entry entry = reader.getEntry();
+      results.add(entry.getSubmitterAccession());
+      if (entry.getSequence().getSequenceByte() == null) {
+        continue;
+      }
+      FlatFileOrigin origin = (FlatFileOrigin) entry.getSequence().getOrigin();
+      results.add(origin.getFirstLineNumber() + "-" + origin.getLastLineNumber());
+      StringWriter writer = new StringWriter();
+      assertTrue(new EmblEntryWriter(entry).write(writer));
+      results.add(writer.toString());
+    }
+    return results;
+  }
+}
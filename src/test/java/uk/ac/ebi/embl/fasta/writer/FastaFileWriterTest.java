@@ -15,10 +15,12 @@ import static org.junit.Assert.assertEquals;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.nio.ByteBuffer;
+import java.util.Random;
 import org.junit.Test;
 import uk.ac.ebi.embl.api.entry.Entry;
 import uk.ac.ebi.embl.api.entry.EntryFactory;
 import uk.ac.ebi.embl.api.entry.Text;
+import uk.ac.ebi.embl.api.entry.sequence.PackedSequence;
 import uk.ac.ebi.embl.api.entry.sequence.Sequence;
 import uk.ac.ebi.embl.api.entry.sequence.SequenceFactory;
 
@@ -69,6 +71,33 @@ public class FastaFileWriterTest {
     assertEquals(output, writer.toString());
   }
 
+  @Test
+  public void testwrite_packedEntry() throws IOException {
+    byte[] bases = new byte[150_001];
+    Random random = new Random(1);
+    for (int i = 0; i < bases.length; i++) {
+      bases[i] = (byte) "acgtnACGT".charAt(random.nextInt(9));
+    }
+    StringBuilder output = new StringBuilder(">EM_XXX:ad0897987 ad0897987.1 STD:packed\n");
+    for (int i = 0; i < bases.length; i += 60) {
+      output.append(new String(bases, i, Math.min(60, bases.length - i)).toUpperCase());
+      output.append("\n");
+    }
+    StringWriter writer = new StringWriter();
+    Entry entry = new EntryFactory().createEntry();
+    entry.setPrimaryAccession("ad0897987");
+    entry.setDivision("XXX");
+    entry.setDescription(new Text("packed"));
+    entry.setDataClass(Entry.STD_DATACLASS);
+    Sequence sequence = new SequenceFactory().createSequence();
+    sequence.setPackedSequence(PackedSequence.pack(bases));
+    sequence.setAccession("ad0897987");
+    sequence.setVersion(1);
+    entry.setSequence(sequence);
+    new FastaFileWriter(entry, writer).write();
+    assertEquals(output.toString(), writer.toString());
+  }
+
   @Test
   public void testwriteJsonHeader_withSequenceVersion() throws IOException {
     // arrange sequence
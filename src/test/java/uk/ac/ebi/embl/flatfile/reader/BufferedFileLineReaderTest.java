@@ -0,0 +1,159 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.flatfile.reader;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.RandomAccessFile;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.ac.ebi.embl.api.entry.Entry;
+import uk.ac.ebi.embl.flatfile.reader.embl.EmblEntryReader;
+import uk.ac.ebi.embl.flatfile.reader.embl.EmblEntryReader.Format;
+import uk.ac.ebi.embl.flatfile.writer.embl.EmblEntryWriter;
+
+public class BufferedFileLineReaderTest {
+
+  private Path file;
+
+  @Before
+  public void setUp() throws Exception {
+    file = Files.createTempFile("lines", ".txt");
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    Files.deleteIfExists(file);
+  }
+
+  @Test
+  public void testLinesAcrossBufferBoundaries() throws Exception {
+    StringBuilder longLine = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      longLine.append("acgt");
+    }
+    String content =
+        "ID   X; SV 1\r\n\nFT   source\t1..10\n" + longLine + "\r\nXX\n//\nlast é line";
+    Files.write(file, content.getBytes(StandardCharsets.ISO_8859_1));
+
+    for (int bufferSize : new int[] {1, 2, 3, 7, 16, 1024}) {
+      try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r")) {
+        BufferedFileLineReader reader = new BufferedFileLineReader(raf, bufferSize);
+        List<String> lines = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+          lines.add(line);
+        }
+        assertEquals(
+            List.of(
+                "ID   X; SV 1",
+                "",
+                "FT   source\t1..10",
+                longLine.toString(),
+                "XX",
+                "//",
+                "last é line"),
+            lines);
+        assertNull(reader.readLine());
+      }
+    }
+  }
+
+  @Test
+  public void testLineSlices() throws Exception {
+    Files.write(file, "FT   gene\r\n//\n".getBytes(StandardCharsets.US_ASCII));
+    try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r")) {
+      BufferedFileLineReader reader = new BufferedFileLineReader(raf, 4);
+      assertTrue(reader.nextLine());
+      assertEquals(
+          "FT   gene",
+          new String(
+              reader.getLineBuffer(),
+              reader.getLineOffset(),
+              reader.getLineLength(),
+              StandardCharsets.US_ASCII));
+      assertTrue(reader.lineStartsWith("FT"));
+      assertFalse(reader.lineStartsWith("//"));
+      assertTrue(reader.nextLine());
+      assertTrue(reader.lineStartsWith("//"));
+      assertFalse(reader.lineStartsWith("///"));
+      assertFalse(reader.nextLine());
+    }
+  }
+
+  @Test
+  public void testSeek() throws Exception {
+    Files.write(file, "first\nsecond\nthird\n".getBytes(StandardCharsets.US_ASCII));
+    try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r")) {
+      BufferedFileLineReader reader = new BufferedFileLineReader(raf, 8);
+      assertEquals("first", reader.readLine());
+      long position = reader.getFilePointer();
+      assertEquals(6, position);
+      assertEquals("second", reader.readLine());
+      assertEquals("third", reader.readLine());
+      reader.seek(position);
+      assertEquals("second", reader.readLine());
+      reader.seek(0);
+      assertEquals("first", reader.readLine());
+    }
+  }
+
+  @Test
+  public void testEntryReader() throws Exception {
+    Path flatFile =
+        Path.of(
+            getClass()
+                .getResource(
+                    "/uk/ac/ebi/embl/api/validation/file/"
+                        + "valid_AnnotationOnlyandSequenceFlatfile.txt")
+                .toURI());
+    Files.write(file, ("\n" + Files.readString(flatFile)).getBytes(StandardCharsets.ISO_8859_1));
+    List<String> expected;
+    try (BufferedReader bufferedReader = Files.newBufferedReader(file)) {
+      expected = readEntries(new EmblEntryReader(bufferedReader, Format.EMBL_FORMAT, null));
+    }
+    try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r")) {
+      BufferedFileLineReader reader = new BufferedFileLineReader(raf, 64);
+      assertEquals(expected, readEntries(new EmblEntryReader(reader, Format.EMBL_FORMAT, null)));
+    }
+    assertEquals(7, expected.size());
+  }
+
+  /** Reads the first entry, skips the second and reads the rest. */
+  private static List<String> readEntries(EmblEntryReader entryReader) throws Exception {
+    List<String> entries = new ArrayList<>();
+    entryReader.read();
+    entries.add(write(entryReader.getEntry()));
+    entries.add(Integer.toString(entryReader.getLineReader().getCurrentLineNumber()));
+    entryReader.skip();
+    entries.add(Integer.toString(entryReader.getLineReader().getCurrentLineNumber()));
+    while (entryReader.isEntry()) {
+      entryReader.read();
+      entries.add(write(entryReader.getEntry()));
+      entries.add(Integer.toString(entryReader.getLineReader().getCurrentLineNumber()));
+    }
+    return entries;
+  }
+
+  private static String write(Entry entry) throws Exception {
+    StringWriter writer = new StringWriter();
+    new EmblEntryWriter(entry).write(writer);
+    return writer.toString();
+  }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.flatfile.reader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import junit.framework.TestCase;
+import uk.ac.ebi.embl.api.entry.location.CompoundLocation;
+import uk.ac.ebi.embl.api.entry.location.Join;
+import uk.ac.ebi.embl.api.entry.location.LocalBase;
+import uk.ac.ebi.embl.api.entry.location.LocalRange;
+import uk.ac.ebi.embl.api.entry.location.Location;
+import uk.ac.ebi.embl.api.entry.location.Order;
+import uk.ac.ebi.embl.api.entry.location.RemoteLocation;
+
+/** Checks that the locations parsed in one pass are the ones matched by the patterns. */
+public class FeatureLocationParserTest extends TestCase {
+
+  private static final String[] LOCATIONS = {
+    "467",
+    "340..565",
+    "<345..500",
+    "<1..888",
+    "1..>888",
+    "<1..>888",
+    "102.110",
+    "123^124",
+    "145^177",
+    ">12",
+    "J00194.1:100..202",
+    "J00194:100..202",
+    "J00194.1:467",
+    "A_1.12:1^2",
+    "complement(34..126)",
+    "complement(<34..>126)",
+    "complement(J00194.1:1..10)",
+    "join(12..78,134..202)",
+    "join(<12..78,134..>202)",
+    "join(12..78,<134..202,300..400)",
+    "join(12..78,134..>202,300..400)",
+    "order(12..78,<134..>202,300..400)",
+    "complement(join(2691..4571,4918..5163))",
+    "join(complement(4918..5163),complement(2691..4571))",
+    "join(complement(4918..5163),complement(2691..4571)))",
+    "complement(join(complement(1..2)))",
+    "join(1..100,J00194.1:100..202)",
+    "join(1..2,,3..4)",
+    "join(1..2,3..4,)",
+    "(1..2)",
+    "((1..2))",
+    "join1..2",
+    "order1..2",
+    "join",
+    "join()",
+    "complement(",
+    "complement()",
+    "",
+    ",",
+    "1..2 ",
+    " 1..2",
+    "join(1..2, 3..4)",
+    "complement (1..2)",
+    "1 .. 2",
+    "12>13",
+    "<>5",
+    "1..",
+    "..5",
+    "1^^2",
+    "abc",
+    "a:b",
+    "x:1",
+    "99999999999999999999",
+    "1..99999999999999999999",
+    "A.9999999999:1",
+    "999999999999999999",
+    "A.123456789:1",
+    "1..2\n",
+    "1..2\t,3..4",
+    "1¹..2",
+  };
+
+  private static final String[] TOKENS = {
+    "complement(", "join(", "order(", "join", "(", ")", ")", ",", ",", "..", "..", "^", "<", ">",
+    "1", "23", "4567", "12345", "A00001", "A00001.1:", ".", ":", " ", "_", "x",
+  };
+
+  public void testKnownLocations() {
+    for (String location : LOCATIONS) {
+      assertSameCompoundLocation(location, false);
+      assertSameCompoundLocation(location, true);
+      assertSameLocation(location);
+    }
+  }
+
+  public void testGeneratedLocations() {
+    Random random = new Random(17);
+    for (int i = 0; i < 20000; i++) {
+      StringBuilder location = new StringBuilder();
+      int tokenCount = 1 + random.nextInt(12);
+      for (int j = 0; j < tokenCount; j++) {
+        location.append(TOKENS[random.nextInt(TOKENS.length)]);
+      }
+      assertSameCompoundLocation(location.toString(), random.nextBoolean());
+      assertSameLocation(location.toString());
+    }
+  }
+
+  public void testFlatFileLocations() throws IOException {
+    Set<String> locations = readFlatFileLocations(Paths.get("src/test/resources"));
+    assertFalse(locations.isEmpty());
+    for (String location : locations) {
+      assertSameCompoundLocation(location, false);
+    }
+  }
+
+  public void testCharSequence() {
+    CompoundLocation<Location> location =
+        new FeatureLocationParser().getCompoundLocation(new StringBuilder("join(1..2,J1.2:4..8)"));
+    assertTrue(location instanceof Join);
+    assertEquals(2, location.getLocations().size());
+    assertTrue(location.getLocations().get(0) instanceof LocalRange);
+    assertEquals("J1", ((RemoteLocation) location.getLocations().get(1)).getAccession());
+    assertEquals(2, (int) ((RemoteLocation) location.getLocations().get(1)).getVersion());
+    assertEquals(8, (long) location.getLocations().get(1).getEndPosition());
+  }
+
+  public void testSimpleLocation() {
+    FeatureLocationParser parser = new FeatureLocationParser();
+    assertTrue(parser.getCompoundLocation("12").isSimpleLocation());
+    assertTrue(parser.getCompoundLocation("12..14").isSimpleLocation());
+    assertFalse(parser.getCompoundLocation("<12..14").isSimpleLocation());
+    assertFalse(parser.getCompoundLocation("12..14,16").isSimpleLocation());
+    CompoundLocation<Location> order = parser.getCompoundLocation("order(>5)");
+    assertTrue(order instanceof Order);
+    assertTrue(order.getLocations().get(0) instanceof LocalBase);
+    assertTrue(order.getLocations().get(0).isThreePrimePartial());
+  }
+
+  private static void assertSameCompoundLocation(String location, boolean ignoreParseError) {
+    RecordingParser parser = new RecordingParser(ignoreParseError);
+    String parsed = describe(parser.getCompoundLocation(location)) + parser.errors;
+    RecordingParser patternParser = new RecordingParser(ignoreParseError);
+    String matched =
+        describe(patternParser.matchCompoundLocation(location)) + patternParser.errors;
+    assertEquals("Location: " + location, matched, parsed);
+  }
+
+  private static void assertSameLocation(String location) {
+    RecordingParser parser = new RecordingParser(false);
+    String parsed = describe(parser.getLocation(location)) + parser.errors;
+    RecordingParser patternParser = new RecordingParser(false);
+    String matched = describe(patternParser.matchLocation(location)) + patternParser.errors;
+    assertEquals("Location: " + location, matched, parsed);
+  }
+
+  private static String describe(CompoundLocation<Location> compoundLocation) {
+    if (compoundLocation == null) {
+      return "null";
+    }
+    StringBuilder description = new StringBuilder();
+    description
+        .append(compoundLocation.getClass().getSimpleName())
+        .append(compoundLocation.isComplement() ? " complement" : "")
+        .append(compoundLocation.isSimpleLocation() ? " simple" : "")
+        .append(" [");
+    for (Location location : compoundLocation.getLocations()) {
+      description.append(describe(location)).append(' ');
+    }
+    return description.append(']').toString();
+  }
+
+  private static String describe(Location location) {
+    if (location == null) {
+      return "null";
+    }
+    StringBuilder description = new StringBuilder();
+    description
+        .append(location.getClass().getSimpleName())
+        .append(location.isComplement() ? " complement" : "")
+        .append(location.isFivePrimePartial() ? " 5'" : "")
+        .append(location.isThreePrimePartial() ? " 3'" : "")
+        .append(' ')
+        .append(location.getBeginPosition())
+        .append('-')
+        .append(location.getEndPosition());
+    if (location instanceof RemoteLocation) {
+      description
+          .append(' ')
+          .append(((RemoteLocation) location).getAccession())
+          .append('.')
+          .append(((RemoteLocation) location).getVersion());
+    }
+    return description.toString();
+  }
+
+  /** Reads the feature locations of the EMBL flat files, joining their continuation lines. */
+  private static Set<String> readFlatFileLocations(Path directory) throws IOException {
+    List<Path> files;
+    try (Stream<Path> paths = Files.walk(directory)) {
+      files = paths.filter(Files::isRegularFile).collect(Collectors.toList());
+    }
+    Set<String> locations = new LinkedHashSet<>();
+    for (Path file : files) {
+      List<String> lines = new ArrayList<>();
+      try {
+        lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+      } catch (IOException e) {
+        // Not a text file.
+      }
+      StringBuilder location = null;
+      for (String line : lines) {
+        boolean isFeatureLine = line.startsWith("FT   ") && line.length() > 21;
+        if (location != null
+            && isFeatureLine
+            && line.charAt(5) == ' '
+            && line.charAt(21) != '/'
+            && line.substring(5, 21).trim().isEmpty()) {
+          location.append(line.substring(21).trim());
+          continue;
+        }
+        if (location != null) {
+          locations.add(location.toString());
+          location = null;
+        }
+        if (isFeatureLine && line.charAt(5) != ' ') {
+          location = new StringBuilder(line.substring(21).trim());
+        }
+      }
+      if (location != null) {
+        locations.add(location.toString());
+      }
+    }
+    return locations;
+  }
+
+  private static class RecordingParser extends FeatureLocationParser {
+
+    private final StringBuilder errors = new StringBuilder();
+
+    RecordingParser(boolean ignoreParseError) {
+      super(null, ignoreParseError);
+    }
+
+    @Override
+    protected void error(String messageKey, Object... params) {
+      errors.append(' ').append(messageKey);
+      for (Object param : params) {
+        errors.append(' ').append(param);
+      }
+    }
+  }
+}
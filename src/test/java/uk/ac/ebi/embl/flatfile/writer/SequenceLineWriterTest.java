@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.flatfile.writer;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Random;
+import org.junit.Test;
+import uk.ac.ebi.embl.api.entry.sequence.BaseCount;
+import uk.ac.ebi.embl.api.entry.sequence.PackedSequence;
+import uk.ac.ebi.embl.api.entry.sequence.Sequence;
+import uk.ac.ebi.embl.api.entry.sequence.SequenceFactory;
+
+public class SequenceLineWriterTest {
+
+  private static final int[] LENGTHS = {
+    1, 9, 10, 11, 59, 60, 61, 119, 120, 121, 601, 61439, 61440, 61441, 130000
+  };
+
+  @Test
+  public void testLinesMatchCharacterByCharacterFormatting() throws IOException {
+    Random random = new Random(1);
+    for (int length : LENGTHS) {
+      byte[] bases = randomBases(random, length, "acgtnACGTNrykm-*");
+      for (Sequence sequence : sequences(bases)) {
+        assertEquals(length + "", emblLines(bases, false), writeEmbl(sequence, false));
+        assertEquals(length + "", emblLines(bases, true), writeEmbl(sequence, true));
+        assertEquals(length + "", genbankLines(bases), writeGenbank(sequence));
+      }
+    }
+  }
+
+  @Test
+  public void testBaseCount() {
+    byte[] bases = "acgtnACGTacgta".getBytes();
+    for (Sequence sequence : sequences(bases)) {
+      BaseCount baseCount = BaseCount.count(sequence);
+      assertEquals(3, baseCount.getA());
+      assertEquals(2, baseCount.getC());
+      assertEquals(2, baseCount.getG());
+      assertEquals(2, baseCount.getT());
+      assertEquals(5, baseCount.getOther());
+    }
+  }
+
+  private static Sequence[] sequences(byte[] bases) {
+    Sequence sequence = new SequenceFactory().createSequenceByte(bases);
+    Sequence packedSequence = new SequenceFactory().createSequence();
+    packedSequence.setPackedSequence(PackedSequence.pack(bases));
+    return new Sequence[] {sequence, packedSequence};
+  }
+
+  private static byte[] randomBases(Random random, int length, String alphabet) {
+    byte[] bases = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bases[i] = (byte) alphabet.charAt(random.nextInt(alphabet.length()));
+    }
+    return bases;
+  }
+
+  private static String writeEmbl(Sequence sequence, boolean upperCase) throws IOException {
+    StringWriter writer = new StringWriter();
+    SequenceLineWriter.writeEmbl(writer, sequence, upperCase);
+    return writer.toString();
+  }
+
+  private static String writeGenbank(Sequence sequence) throws IOException {
+    StringWriter writer = new StringWriter();
+    SequenceLineWriter.writeGenbank(writer, sequence);
+    return writer.toString();
+  }
+
+  /** The EMBL sequence lines written one character at a time. */
+  private static String emblLines(byte[] bases, boolean upperCase) {
+    StringBuilder lines = new StringBuilder();
+    StringBuilder line = new StringBuilder();
+    for (int i = 0; i < bases.length; i++) {
+      if (i % 60 != 0 && i % 10 == 0) {
+        line.append(' ');
+      }
+      line.append((char) bases[i]);
+      if ((i + 1) % 60 == 0 || i + 1 == bases.length) {
+        String content = upperCase ? line.toString().toUpperCase() : line.toString();
+        if (i + 1 != bases.length) {
+          content += " ";
+        }
+        String baseCount = Integer.toString(i + 1);
+        lines.append("     ").append(content);
+        for (int j = content.length() + baseCount.length(); j < 75; j++) {
+          lines.append(' ');
+        }
+        lines.append(baseCount).append('\n');
+        line.setLength(0);
+      }
+    }
+    return lines.toString();
+  }
+
+  /** The GenBank sequence lines written one character at a time. */
+  private static String genbankLines(byte[] bases) {
+    StringBuilder lines = new StringBuilder();
+    for (int i = 0; i < bases.length; i++) {
+      if (i % 60 == 0) {
+        lines.append(String.format("%8d ", i + 1));
+      } else if (i % 10 == 0) {
+        lines.append(' ');
+      }
+      lines.append((char) bases[i]);
+      if ((i + 1) % 60 == 0 || i + 1 == bases.length) {
+        lines.append('\n');
+      }
+    }
+    return lines.toString();
+  }
+}
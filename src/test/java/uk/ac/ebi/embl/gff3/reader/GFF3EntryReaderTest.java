@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.gff3.reader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import uk.ac.ebi.embl.api.entry.Entry;
+import uk.ac.ebi.embl.api.entry.feature.Feature;
+import uk.ac.ebi.embl.api.gff3.GFF3RecordSet;
+import uk.ac.ebi.embl.api.validation.Severity;
+import uk.ac.ebi.embl.api.validation.ValidationResult;
+import uk.ac.ebi.embl.gff3.mapping.GFF3Mapper;
+
+public class GFF3EntryReaderTest extends GFF3ReaderTest {
+
+  private static final String GFF3 =
+      "##gff-version 3\n"
+          + "seq1\tsrc\tgene\t1\t100\t.\t+\t.\tID=gene1;gene=abc\n"
+          + "seq1\tsrc\tmRNA\t1\t100\t.\t+\t.\tID=mRNA1\n"
+          + "seq1\tsrc\tunmapped\t5\t10\t.\t+\t.\tID=x\n"
+          + "seq2\tsrc\tgene\t20\t40\t.\t-\t.\tID=gene2\n"
+          + "seq2\tsrc\tCDS\t20\t40\t.\t-\t0\tID=cds2\n"
+          + "\n"
+          + "seq3\tsrc\texon\t7\t9\t.\t+\t.\tID=exon3\n"
+          + "seq1\tsrc\texon\t1\t50\t.\t+\t.\tID=exon1\n";
+
+  public void testRead() throws IOException {
+    GFF3EntryReader reader = new GFF3EntryReader(new BufferedReader(new StringReader(GFF3)));
+    List<String> sequenceIds = new ArrayList<>();
+    List<Entry> entries = new ArrayList<>();
+    while (true) {
+      ValidationResult validationResult = reader.read();
+      assertTrue(validationResult.isValid());
+      if (!reader.isEntry()) {
+        break;
+      }
+      sequenceIds.add(reader.getSequenceId());
+      entries.add(reader.getEntry());
+    }
+    assertNull(reader.getEntry());
+    assertEquals(List.of("seq1", "seq2", "seq3", "seq1"), sequenceIds);
+
+    // The entries are the same as when the whole file is mapped at once.
+    List<Entry> expected = mapAll(GFF3);
+    assertEquals(expected.size(), entries.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(featureNames(expected.get(i)), featureNames(entries.get(i)));
+      assertEquals(expected.get(i).getFeatures(), entries.get(i).getFeatures());
+    }
+    assertEquals(2, entries.get(0).getFeatures().size());
+    assertEquals(1, entries.get(3).getFeatures().size());
+  }
+
+  public void testReadInvalidLine() throws IOException {
+    GFF3EntryReader reader =
+        new GFF3EntryReader(
+            new BufferedReader(
+                new StringReader(
+                    "seq1\tsrc\tgene\t1\t100\t.\t+\n"
+                        + "seq1\tsrc\tgene\t1\t100\t.\t+\t.\tID=gene1\n")));
+    ValidationResult validationResult = reader.read();
+    assertEquals(1, validationResult.count("GFF.1", Severity.ERROR));
+    assertTrue(reader.isEntry());
+    assertEquals(1, reader.getEntry().getFeatures().size());
+    reader.read();
+    assertFalse(reader.isEntry());
+  }
+
+  public void testReadEmpty() throws IOException {
+    GFF3EntryReader reader = new GFF3EntryReader(new BufferedReader(new StringReader("")));
+    assertTrue(reader.read().isValid());
+    assertFalse(reader.isEntry());
+  }
+
+  private static List<Entry> mapAll(String gff3) throws IOException {
+    LineReader lineReader = new LineReader(new BufferedReader(new StringReader(gff3)));
+    GFF3LineReader gffLineReader = new GFF3LineReader(lineReader);
+    GFF3RecordSet recordSet = new GFF3RecordSet();
+    while (lineReader.readLine()) {
+      gffLineReader.read(recordSet);
+    }
+    return new GFF3Mapper().mapGFF3ToEntry(recordSet);
+  }
+
+  private static List<String> featureNames(Entry entry) {
+    List<String> names = new ArrayList<>();
+    for (Feature feature : entry.getFeatures()) {
+      names.add(feature.getName());
+    }
+    return names;
+  }
+}
@@ -10,9 +10,74 @@
  */
 package uk.ac.ebi.embl.gff3.writer;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import junit.framework.TestCase;
+import uk.ac.ebi.embl.api.entry.Entry;
+import uk.ac.ebi.embl.api.entry.EntryFactory;
+import uk.ac.ebi.embl.api.entry.feature.Feature;
+import uk.ac.ebi.embl.api.entry.feature.FeatureFactory;
+import uk.ac.ebi.embl.api.entry.location.Join;
+import uk.ac.ebi.embl.api.entry.location.Location;
+import uk.ac.ebi.embl.api.entry.location.LocationFactory;
+import uk.ac.ebi.embl.api.entry.qualifier.Qualifier;
 
 public class GFF3EntryWriterTest extends TestCase {
 
   public void testWrite_Entry() {}
+
+  public void testWrite_GeneAroundWindow() throws IOException {
+    Entry entry = new EntryFactory().createEntry();
+    entry.setPrimaryAccession("A00001");
+    entry.addFeature(feature("misc_feature", "TAG_1", 1L, 50L));
+    entry.addFeature(feature("misc_feature", "TAG_2", 150L, 160L));
+    entry.addFeature(feature("misc_feature", "TAG_1", 250L, 300L));
+    StringWriter writer = new StringWriter();
+    new GFF3EntryWriter(entry, 100L, 200L).write(writer);
+    String[] lines = writer.toString().split("\n");
+    // The features outside the window are not written but are numbered.
+    assertEquals(6, lines.length);
+    assertTrue(lines[2], lines[2].startsWith("A00001\tENA\tENA_misc_feature\t150\t160\t"));
+    assertTrue(lines[2], lines[2].contains("\tID=3;"));
+    assertTrue(lines[3], lines[3].endsWith("\tID=4;Parent=3"));
+    // The gene spans the window though none of its features is in it.
+    String genes = lines[4] + "\n" + lines[5];
+    assertTrue(genes, genes.contains("\tENA_gene\t100\t200\t"));
+    assertTrue(genes, genes.contains(";Name=TAG_1;"));
+    assertTrue(genes, genes.contains("\tENA_gene\t150\t160\t"));
+    assertTrue(genes, genes.contains(";Name=TAG_2;"));
+    assertTrue(genes, genes.contains("\tID=7;") && genes.contains("\tID=8;"));
+  }
+
+  public void testWrite_AfterQualifierChange() throws IOException {
+    Entry entry = new EntryFactory().createEntry();
+    entry.setPrimaryAccession("A00001");
+    entry.addFeature(feature("misc_feature", "TAG_1", 1L, 50L));
+    Feature feature = feature("misc_feature", "TAG_2", 150L, 160L);
+    entry.addFeature(feature);
+    String before = write(entry);
+    assertEquals(before, write(entry));
+    assertTrue(before, before.contains(";Name=TAG_2;"));
+    feature.getSingleQualifier(Qualifier.LOCUS_TAG_QUALIFIER_NAME).setValue("TAG_3");
+    String after = write(entry);
+    assertFalse(after, after.contains(";Name=TAG_2;"));
+    assertTrue(after, after.contains("\tENA_gene\t150\t160\t"));
+    assertTrue(after, after.contains(";Name=TAG_3;"));
+  }
+
+  private static String write(Entry entry) throws IOException {
+    StringWriter writer = new StringWriter();
+    new GFF3EntryWriter(entry, 100L, 200L).write(writer);
+    return writer.toString();
+  }
+
+  private static Feature feature(
+      String name, String locusTag, Long beginPosition, Long endPosition) {
+    Feature feature = new FeatureFactory().createFeature(name);
+    feature.addQualifier(Qualifier.LOCUS_TAG_QUALIFIER_NAME, locusTag);
+    Join<Location> join = new Join<>();
+    join.addLocation(new LocationFactory().createLocalRange(beginPosition, endPosition));
+    feature.setLocations(join);
+    return feature;
+  }
 }
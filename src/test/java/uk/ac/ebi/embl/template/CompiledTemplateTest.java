@@ -0,0 +1,157 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.template;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class CompiledTemplateTest {
+
+  private static final File TEMPLATES_DIR =
+      new File(System.getProperty("user.dir") + "/src/main/resources/templates");
+
+  @Test
+  public void testBundledTemplatesAreCompiled() throws Exception {
+    File[] templateFiles = TEMPLATES_DIR.listFiles((dir, name) -> name.endsWith(".xml"));
+    assertNotNull(templateFiles);
+    assertTrue(templateFiles.length > 0);
+    Random random = new Random(1);
+    for (File templateFile : templateFiles) {
+      TemplateInfo templateInfo = new TemplateLoader().loadTemplateFromFile(templateFile);
+      assertTrue(templateFile.getName(), templateInfo.getCompiledTemplate().isCompiled());
+      for (int i = 0; i < 50; i++) {
+        assertSameEntryText(
+            templateFile.getName(), templateInfo, randomVariables(templateInfo, random));
+      }
+    }
+  }
+
+  @Test
+  public void testSections() {
+    TemplateTokenInfo gene =
+        new TemplateTokenInfo("GENE", TemplateTokenType.TEXT_FIELD, false, "", "", "");
+    TemplateTokenInfo note =
+        new TemplateTokenInfo("NOTE", TemplateTokenType.TEXT_FIELD, false, "", "", "");
+    List<TemplateSectionInfo> sections =
+        Arrays.asList(
+            new TemplateSectionInfo("GENE_SCT", List.of(gene)),
+            new TemplateSectionInfo("NOTE_SCT", List.of(gene, note)));
+    CompiledTemplate compiledTemplate =
+        CompiledTemplate.compile(
+            "FT   CDS\n{{GENE_SCT}}FT   /gene=\"{GENE}\"\n{{NOTE_SCT}}FT   /note=\"{NOTE}\"\n"
+                + "{{/NOTE_SCT}}{{/GENE_SCT}}FT   /product=\"{PRODUCT}\"\n",
+            sections);
+    assertTrue(compiledTemplate.isCompiled());
+
+    TemplateVariables variables = new TemplateVariables();
+    variables.addToken("GENE", "matK");
+    CompiledTemplate.Rendering rendering = compiledTemplate.newRendering();
+    rendering.replace("{GENE}", "matK");
+    assertEquals(
+        "FT   CDS\nFT   /gene=\"matK\"\nFT   /product=\"{PRODUCT}\"\n",
+        rendering.render(variables).toString());
+
+    variables.addToken("NOTE", "note");
+    rendering = compiledTemplate.newRendering();
+    rendering.replace("{GENE}", "matK");
+    rendering.replace("{NOTE}", "note");
+    rendering.replace("{GENE}", "ignored");
+    assertEquals(
+        "FT   CDS\nFT   /gene=\"matK\"\nFT   /note=\"note\"\nFT   /product=\"{PRODUCT}\"\n",
+        rendering.render(variables).toString());
+
+    assertEquals(
+        "FT   CDS\nFT   /product=\"{PRODUCT}\"\n",
+        compiledTemplate.newRendering().render(new TemplateVariables()).toString());
+  }
+
+  @Test
+  public void testValuesWithBraces() {
+    TemplateInfo templateInfo = new TemplateInfo();
+    templateInfo.setTemplateString("DE   {DESC} {NAME}\nFT   {NOTE}\n");
+    TemplateVariables variables = new TemplateVariables();
+    variables.addToken("DESC", "{NAME} of");
+    variables.addToken("NAME", "x");
+    variables.addToken("NOTE", "{a}");
+    assertTrue(templateInfo.getCompiledTemplate().isCompiled());
+    assertSameEntryText("braces", templateInfo, variables);
+  }
+
+  @Test
+  public void testMalformedTemplatesAreNotCompiled() {
+    List<TemplateSectionInfo> sections =
+        List.of(
+            new TemplateSectionInfo("A", new ArrayList<>()),
+            new TemplateSectionInfo("B", new ArrayList<>()));
+    for (String templateString :
+        new String[] {
+          "{{A}}{{B}}{{/A}}{{/B}}",
+          "{{/A}}{{A}}",
+          "{{A}}{{A}}{{/A}}{{/A}}",
+          "{{A}}",
+          "{{C}}{{/C}}",
+          "{TOKEN",
+          "TOKEN}",
+          "{TO{KEN}"
+        }) {
+      assertFalse(templateString, CompiledTemplate.compile(templateString, sections).isCompiled());
+      TemplateInfo templateInfo = new TemplateInfo();
+      templateInfo.setTemplateString(templateString);
+      assertSameEntryText(templateString, templateInfo, new TemplateVariables());
+    }
+  }
+
+  private static TemplateVariables randomVariables(TemplateInfo templateInfo, Random random) {
+    TemplateVariables variables = new TemplateVariables();
+    for (TemplateTokenInfo tokenInfo : templateInfo.getTokens()) {
+      int choice = random.nextInt(4);
+      if (choice == 0) {
+        continue;
+      }
+      String value;
+      if (tokenInfo.getType() == TemplateTokenType.BOOLEAN_FIELD) {
+        value = choice == 1 ? TemplateTokenInfo.NO_VALUE : TemplateTokenInfo.YES_VALUE;
+      } else {
+        value = choice == 1 ? "" : tokenInfo.getName().toLowerCase() + " " + random.nextInt(100);
+      }
+      variables.addToken(tokenInfo.getName(), value);
+    }
+    return variables;
+  }
+
+  /**
+   * Compares the compiled entry text with the tokens replaced one after another and the sections
+   * removed by the section extractor.
+   */
+  private static void assertSameEntryText(
+      String message, TemplateInfo templateInfo, TemplateVariables variables) {
+    CompiledTemplate.Rendering rendering = templateInfo.getCompiledTemplate().newRendering();
+    String expected = templateInfo.getTemplateString();
+    for (String tokenName : variables.getTokenNames()) {
+      String value = variables.getTokenValue(tokenName);
+      if (value == null || value.isEmpty()) {
+        continue;
+      }
+      String token = StringBuilderUtils.encloseToken(tokenName);
+      rendering.replace(token, value);
+      expected = expected.replace(token, value);
+    }
+    StringBuilder expectedBuilder = new StringBuilder(expected);
+    new SectionExtractor().removeSections(expectedBuilder, templateInfo.getSections(), variables);
+    assertEquals(message, expectedBuilder.toString(), rendering.render(variables).toString());
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2019-2024 EMBL - European Bioinformatics Institute
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this
+ * file except in compliance with the License. You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package uk.ac.ebi.embl.template;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.Random;
+import org.junit.Test;
+import uk.ac.ebi.embl.api.entry.Entry;
+import uk.ac.ebi.embl.api.validation.ValidationResult;
+import uk.ac.ebi.embl.flatfile.reader.EntryReader;
+import uk.ac.ebi.embl.flatfile.reader.embl.EmblEntryReader;
+import uk.ac.ebi.embl.flatfile.writer.embl.EmblEntryWriter;
+
+public class TemplateEntrySkeletonsTest {
+
+  private static final File TEMPLATES_DIR =
+      new File(System.getProperty("user.dir") + "/src/main/resources/templates");
+
+  private static final String[] TOKEN_NAMES = {
+    "ORGANISM", "NAME", "LENGTH", "START", "END", "NOTE"
+  };
+
+  @Test
+  public void testBundledTemplates() throws Exception {
+    File[] templateFiles = TEMPLATES_DIR.listFiles((dir, name) -> name.endsWith(".xml"));
+    assertNotNull(templateFiles);
+    Random random = new Random(1);
+    int copied = 0;
+    for (File templateFile : templateFiles) {
+      TemplateInfo templateInfo = new TemplateLoader().loadTemplateFromFile(templateFile);
+      TemplateEntrySkeletons skeletons = new TemplateEntrySkeletons();
+      for (int i = 0; i < 20; i++) {
+        TemplateVariables variables = randomVariables(templateInfo, random);
+        CompiledTemplate.Rendering rendering = templateInfo.getCompiledTemplate().newRendering();
+        for (String tokenName : variables.getTokenNames()) {
+          // The sequence and comments are not written to the entry text.
+          if (!tokenName.equals(TemplateProcessorConstants.SEQUENCE_TOKEN)
+              && !tokenName.equals(TemplateProcessorConstants.COMMENTS_TOKEN)) {
+            rendering.replace(
+                StringBuilderUtils.encloseToken(tokenName), variables.getTokenValue(tokenName));
+          }
+        }
+        Entry entry = skeletons.getEntry(templateInfo.getCompiledTemplate(), rendering, variables);
+        if (entry == null) {
+          continue;
+        }
+        copied++;
+        StringBuilder entryText = rendering.render(variables);
+        StringBuilderUtils.removeUnmatchedTokenLines(entryText);
+        assertEquals(
+            templateFile.getName(), write(read(entryText.toString())), write(entry));
+      }
+    }
+    assertTrue(copied > 0);
+  }
+
+  @Test
+  public void testValues() throws Exception {
+    CompiledTemplate compiledTemplate =
+        CompiledTemplate.compile(
+            "ID   XXX; XXX; linear; genomic DNA; XXX; XXX; {LENGTH} BP.\n"
+                + "XX\n"
+                + "AC   ;\n"
+                + "XX\n"
+                + "DE   {ORGANISM} {NAME} gene\n"
+                + "XX\n"
+                + "FT   source          1..{LENGTH}\n"
+                + "FT                   /organism=\"{ORGANISM}\"\n"
+                + "FT                   /mol_type=\"genomic DNA\"\n"
+                + "FT   gene            {START}..{END}\n"
+                + "FT                   /gene=\"{NAME}\"\n"
+                + "FT                   /note=\"{NOTE}\"\n",
+            Collections.emptyList());
+    TemplateEntrySkeletons skeletons = new TemplateEntrySkeletons();
+    assertSameEntry(skeletons, compiledTemplate, "Homo sapiens", "matK", "100", "1", "99", "a");
+    assertSameEntry(skeletons, compiledTemplate, "Homo sapiens", "rbcL", "250", "12", "200", "b");
+    assertSameEntry(skeletons, compiledTemplate, "Mus musculus", "abc", "7", "2", "3", "c 1");
+    // Not a plain value, so kept in the entry text.
+    assertSameEntry(skeletons, compiledTemplate, "Homo sapiens", "a&amp;b", "100", "1", "99", "a");
+    // Kept in the entry text but looks like a placeholder.
+    assertNull(
+        getEntry(
+            skeletons,
+            compiledTemplate,
+            "Homo sapiens",
+            "matK",
+            "100",
+            "1",
+            "99",
+            "a&amp;b 900000001"));
+  }
+
+  private static void assertSameEntry(
+      TemplateEntrySkeletons skeletons, CompiledTemplate compiledTemplate, String... values)
+      throws Exception {
+    Entry entry = getEntry(skeletons, compiledTemplate, values);
+    assertNotNull(entry);
+    StringBuilder entryText = newRendering(compiledTemplate, values).render(variables(values));
+    StringBuilderUtils.removeUnmatchedTokenLines(entryText);
+    assertEquals(write(read(entryText.toString())), write(entry));
+  }
+
+  private static Entry getEntry(
+      TemplateEntrySkeletons skeletons, CompiledTemplate compiledTemplate, String... values) {
+    return skeletons.getEntry(
+        compiledTemplate, newRendering(compiledTemplate, values), variables(values));
+  }
+
+  private static CompiledTemplate.Rendering newRendering(
+      CompiledTemplate compiledTemplate, String... values) {
+    CompiledTemplate.Rendering rendering = compiledTemplate.newRendering();
+    for (int i = 0; i < TOKEN_NAMES.length; i++) {
+      rendering.replace(StringBuilderUtils.encloseToken(TOKEN_NAMES[i]), values[i]);
+    }
+    return rendering;
+  }
+
+  private static TemplateVariables variables(String... values) {
+    TemplateVariables variables = new TemplateVariables();
+    for (int i = 0; i < TOKEN_NAMES.length; i++) {
+      variables.addToken(TOKEN_NAMES[i], values[i]);
+    }
+    return variables;
+  }
+
+  private static TemplateVariables randomVariables(TemplateInfo templateInfo, Random random) {
+    TemplateVariables variables = new TemplateVariables();
+    for (TemplateTokenInfo tokenInfo : templateInfo.getTokens()) {
+      if (tokenInfo.getType() == TemplateTokenType.BOOLEAN_FIELD) {
+        variables.addToken(tokenInfo.getName(), TemplateTokenInfo.NO_VALUE);
+      } else if (tokenInfo.getType() == TemplateTokenType.INTEGER_FIELD) {
+        variables.addToken(tokenInfo.getName(), Integer.toString(1 + random.nextInt(1000)));
+      } else {
+        variables.addToken(
+            tokenInfo.getName(), tokenInfo.getName().toLowerCase() + " " + random.nextInt(100));
+      }
+    }
+    String sequenceLength = Integer.toString(1 + random.nextInt(1000));
+    variables.addToken(TemplateProcessorConstants.SEQUENCE_LENGTH_TOKEN, sequenceLength);
+    return variables;
+  }
+
+  private static Entry read(String entryText) throws Exception {
+    EntryReader entryReader =
+        new EmblEntryReader(new BufferedReader(new StringReader(entryText.trim() + "\n//")));
+    ValidationResult validationResult = entryReader.read();
+    assertTrue(validationResult.isValid());
+    return entryReader.getEntry();
+  }
+
+  private static String write(Entry entry) throws Exception {
+    StringWriter writer = new StringWriter();
+    new EmblEntryWriter(entry).write(writer);
+    return writer.toString();
+  }
+}